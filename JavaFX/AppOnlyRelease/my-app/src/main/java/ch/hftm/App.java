@@ -4,24 +4,31 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.imageio.ImageIO;
 
+import ch.hftm.persistence.ChangeNotifier;
 import ch.hftm.persistence.DatabaseConnection;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
+import javafx.geometry.Pos;
+import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.SnapshotParameters;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 
 /**
  * JavaFX App - KUD Karadjordje Termin- und Formularverwaltung
@@ -32,6 +39,38 @@ public class App extends Application {
     private static String currentView = "main";
     private static final Logger LOGGER = Logger.getLogger(App.class.getName());
     private static Stage primaryStage;
+    private static final ViewRegistry VIEWS = new ViewRegistry();
+
+    // Werden nach dem Start im Leerlauf vorgeladen, damit der erste Wechsel sofort geht
+    private static final List<String> PRELOAD_VIEWS = List.of("termin", "mitglied", "formular", "teilnahme");
+
+    // Werden beim Start im Hintergrund geladen, während der FX-Thread die Hauptansicht aufbaut
+    private static final List<String> WARMUP_CLASSES = List.of(
+            "ch.hftm.persistence.DatabaseConnection",
+            "ch.hftm.persistence.ConnectionPool",
+            "ch.hftm.persistence.DbExecutor",
+            "ch.hftm.persistence.CachingTerminRepository",
+            "ch.hftm.persistence.CachingMitgliedRepository",
+            "ch.hftm.persistence.FormularRepository",
+            "ch.hftm.persistence.TeilnahmeRepository",
+            "ch.hftm.util.AsyncLoader",
+            "ch.hftm.util.PagingDataSource",
+            "ch.hftm.util.SearchIndex",
+            "ch.hftm.util.FilterPipeline",
+            "ch.hftm.util.ListSynchronizer",
+            "org.postgresql.Driver");
+    // Controller werden nur geladen, nicht initialisiert; das übernimmt FXMLLoader
+    private static final List<String> WARMUP_CONTROLLERS = List.of(
+            "ch.hftm.controller.TerminController",
+            "ch.hftm.controller.MitgliedController",
+            "ch.hftm.controller.FormularController",
+            "ch.hftm.controller.TeilnahmeController");
+
+    /**
+     * Beendet die App, sobald alle Views vorgeladen sind. Wird vom Release-Build
+     * für den Trainingslauf des CDS-Archivs verwendet.
+     */
+    static final String EXIT_AFTER_STARTUP = "kud.startup.exit";
 
     public static Scene getScene() {
         return scene;
@@ -49,11 +88,47 @@ public class App extends Application {
     }
 
     @Override
-    public void start(Stage stage) throws IOException {
+    public void start(Stage stage) {
+        StartupTimer timer = new StartupTimer();
         primaryStage = stage;
-        scene = new Scene(loadFXML("main"), 900, 650);
+
+        Stage splash = showSplash();
+        timer.phase("Splash");
+
+        Thread warmup = new Thread(App::warmUp, "startup-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+
+        // Erst nach dem ersten gezeichneten Bild des Splash weiterbauen
+        afterFirstFrame(() -> {
+            try {
+                showMainStage(stage);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Hauptansicht konnte nicht geladen werden", e);
+                splash.close();
+                Platform.exit();
+                return;
+            }
+            timer.phase("Hauptansicht");
+            splash.close();
+
+            // Änderungen anderer Arbeitsplätze live übernehmen
+            ChangeNotifier.start();
+            VIEWS.preload(PRELOAD_VIEWS, () -> {
+                timer.phase("Vorladen");
+                timer.finish();
+                if (Boolean.getBoolean(EXIT_AFTER_STARTUP)) {
+                    Platform.exit();
+                }
+            });
+        });
+    }
+
+    private void showMainStage(Stage stage) throws IOException {
+        scene = new Scene(new Group(), 900, 650);
+        VIEWS.show(scene, "main");
         currentView = "main";
-        applyTheme(); // Initial theme
+        applyTheme(); // Stylesheet gilt für alle Views, auch nach Wechseln
 
         // Globale Shortcuts (z.B. F11/F12) als EventFilter, damit sie in allen Views funktionieren
         scene.addEventFilter(KeyEvent.KEY_PRESSED, this::handleKeyPressed);
@@ -73,9 +148,72 @@ public class App extends Application {
         Platform.runLater(() -> stage.setFullScreen(true));
     }
 
+    /**
+     * Zeigt ein schlichtes Startfenster ohne FXML und CSS, damit sofort etwas
+     * sichtbar ist
+     */
+    private static Stage showSplash() {
+        Label title = new Label("KUD Karadjordje Bern");
+        title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+        VBox box = new VBox(16, title, new Label("Wird gestartet ..."), new ProgressIndicator());
+        box.setAlignment(Pos.CENTER);
+        box.setStyle("-fx-padding: 32px; -fx-background-color: white;");
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        splash.setScene(new Scene(box, 360, 220));
+        splash.show();
+        return splash;
+    }
+
+    /**
+     * Führt die Aktion aus, nachdem mindestens ein Bild gezeichnet wurde.
+     * Animationen laufen vor dem Zeichnen eines Pulses, daher wird auf den
+     * zweiten Puls gewartet.
+     */
+    private static void afterFirstFrame(Runnable action) {
+        new AnimationTimer() {
+            private int frames;
+
+            @Override
+            public void handle(long now) {
+                if (++frames >= 2) {
+                    stop();
+                    action.run();
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Lädt Persistenz-, Hilfs- und Controllerklassen sowie den JDBC-Treiber
+     * vor, ohne eine Verbindung aufzubauen (der Pool bleibt lazy). Fehler
+     * sind unkritisch, die Klassen werden sonst beim ersten Gebrauch geladen.
+     */
+    private static void warmUp() {
+        long start = System.nanoTime();
+        ClassLoader loader = App.class.getClassLoader();
+        for (String name : WARMUP_CLASSES) {
+            warmUp(name, true, loader);
+        }
+        for (String name : WARMUP_CONTROLLERS) {
+            warmUp(name, false, loader);
+        }
+        LOGGER.log(Level.INFO, "Startphase Klassen vorladen (Hintergrund): {0} ms",
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void warmUp(String name, boolean initialize, ClassLoader loader) {
+        try {
+            Class.forName(name, initialize, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.log(Level.FINE, "Vorladen von " + name + " fehlgeschlagen", e);
+        }
+    }
+
     @Override
     public void stop() {
         // Ressourcen sauber freigeben
+        ChangeNotifier.stop();
         try {
             DatabaseConnection.closeConnection();
         } catch (Exception e) {
@@ -110,28 +248,12 @@ public class App extends Application {
         primaryStage.setFullScreen(!primaryStage.isFullScreen());
     }
 
+    /**
+     * Wechselt zur View; jede View wird nur beim ersten Mal geladen
+     */
     public static void setSceneRoot(String fxml) throws IOException {
-        scene.setRoot(loadFXML(fxml));
+        VIEWS.show(scene, fxml);
         currentView = fxml;
-        applyTheme(); // Theme nach Navigation neu anwenden
-    }
-
-    private static Parent loadFXML(String fxml) throws IOException {
-        var resource = App.class.getResource("/" + fxml + ".fxml");
-        if (resource == null) {
-            IOException ex = new IOException("FXML nicht gefunden: /" + fxml + ".fxml");
-            LOGGER.log(Level.SEVERE, "FXML nicht gefunden: {0}", "/" + fxml + ".fxml");
-            throw ex;
-        }
-        FXMLLoader fxmlLoader = new FXMLLoader(resource);
-        try {
-            return fxmlLoader.load();
-        } catch (IOException e) {
-            Throwable cause = e.getCause();
-            IOException wrapped = new IOException("Fehler beim Laden von '" + fxml + ".fxml': " + (cause != null ? cause.toString() : e.toString()), cause != null ? cause : e);
-            LOGGER.log(Level.SEVERE, "Fehler beim Laden von {0}: {1}", new Object[]{fxml + ".fxml", wrapped.getMessage()});
-            throw wrapped;
-        }
     }
 
     /**
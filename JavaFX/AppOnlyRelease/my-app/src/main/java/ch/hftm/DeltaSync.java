@@ -0,0 +1,160 @@
+package ch.hftm;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.hftm.persistence.DatabaseConnection;
+import ch.hftm.persistence.DeltaExporter;
+import ch.hftm.persistence.ExportTable;
+import ch.hftm.util.ExportFormat;
+
+/**
+ * Nächtlicher Abgleich mit der Tabelle des Verbands, ohne Oberfläche.
+ *
+ * <p>Schreibt für jede Tabelle die Änderungen seit dem letzten Lauf
+ * ({@link DeltaExporter}) in eine eigene Datei
+ * {@code <tabelle>_delta_<datum>.<endung>} im Zielverzeichnis, z. B. aus
+ * einer geplanten Aufgabe:</p>
+ *
+ * <pre>bin/java -m my.app/ch.hftm.DeltaSync [--ziel verband] [--format csv] [--reset] &lt;verzeichnis&gt;</pre>
+ *
+ * <p>{@code --reset} setzt den Wasserstand vorher zurück, der Lauf
+ * exportiert dann wieder alle Zeilen. Die Datenbank wird wie in der App
+ * konfiguriert. Eine Datei erscheint erst, wenn sie vollständig geschrieben
+ * ist. Exit-Code {@value #OK} bei Erfolg, {@value #EXPORT_FAILED} wenn eine
+ * Tabelle nicht exportiert werden konnte, {@value #USAGE} bei ungültigen
+ * Argumenten.</p>
+ */
+public final class DeltaSync {
+
+    private static final Logger LOGGER = Logger.getLogger(DeltaSync.class.getName());
+
+    static final String DEFAULT_ZIEL = "verband";
+
+    static final int OK = 0;
+    static final int EXPORT_FAILED = 1;
+    static final int USAGE = 2;
+
+    private static final String USAGE_TEXT =
+            "Aufruf: DeltaSync [--ziel <name>] [--format csv|csv.gz|jsonl|kudc] [--reset] <verzeichnis>";
+
+    /**
+     * Argumente eines Laufs
+     *
+     * @param ziel Empfänger mit eigenem Wasserstand
+     */
+    record Options(String ziel, ExportFormat format, boolean reset, Path directory) {
+    }
+
+    private DeltaSync() {
+    }
+
+    public static void main(String[] args) {
+        Options options = parse(args);
+        if (options == null) {
+            System.err.println(USAGE_TEXT);
+            System.exit(USAGE);
+        }
+        int code = run(options, LocalDate.now());
+        DatabaseConnection.closeConnection();
+        System.exit(code);
+    }
+
+    /**
+     * @return Argumente oder {@code null}, wenn sie ungültig sind
+     */
+    static Options parse(String[] args) {
+        String ziel = DEFAULT_ZIEL;
+        ExportFormat format = ExportFormat.CSV;
+        boolean reset = false;
+        Path directory = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ziel" -> {
+                    if (++i == args.length || args[i].isBlank()) {
+                        return null;
+                    }
+                    ziel = args[i].trim();
+                }
+                case "--format" -> {
+                    if (++i == args.length) {
+                        return null;
+                    }
+                    format = ExportFormat.forFile(Path.of("x." + args[i]));
+                    if (format == null) {
+                        return null;
+                    }
+                }
+                case "--reset" -> reset = true;
+                default -> {
+                    if (directory != null || args[i].startsWith("--")) {
+                        return null;
+                    }
+                    directory = Path.of(args[i]);
+                }
+            }
+        }
+        return directory != null ? new Options(ziel, format, reset, directory) : null;
+    }
+
+    static Path file(Path directory, ExportTable table, ExportFormat format, LocalDate date) {
+        return directory.resolve(table.getTableName() + "_delta_" + date + "." + format.getExtension());
+    }
+
+    /**
+     * Exportiert alle Tabellen; eine fehlgeschlagene Tabelle hält die
+     * übrigen nicht auf.
+     *
+     * @return Exit-Code
+     */
+    static int run(Options options, LocalDate date) {
+        try {
+            Files.createDirectories(options.directory());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Zielverzeichnis " + options.directory() + " nicht verfügbar", e);
+            return EXPORT_FAILED;
+        }
+
+        DeltaExporter exporter = new DeltaExporter();
+        int code = OK;
+        for (ExportTable table : ExportTable.values()) {
+            if (options.reset() && !exporter.resetWatermark(table, options.ziel())) {
+                code = EXPORT_FAILED;
+                continue;
+            }
+            Path target = file(options.directory(), table, options.format(), date);
+            if (!export(exporter, table, options, target)) {
+                code = EXPORT_FAILED;
+            }
+        }
+        return code;
+    }
+
+    private static boolean export(DeltaExporter exporter, ExportTable table, Options options, Path target) {
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        long rows = exporter.export(table, options.ziel(), options.format(), temp, null);
+        try {
+            if (rows < 0) {
+                Files.deleteIfExists(temp);
+                return false;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.log(Level.INFO, "{0}: {1} Änderungen nach {2}", new Object[] {table.getTableName(), rows, target});
+            return true;
+        } catch (IOException e) {
+            // Wasserstand ist bereits weitergesetzt: nächster Lauf mit --reset
+            LOGGER.log(Level.SEVERE, "Delta-Datei " + target + " konnte nicht abgelegt werden", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ch.hftm;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Misst die Phasen des Programmstarts und protokolliert jede einzeln.
+ *
+ * <p>Die Zeit vom Prozessstart bis {@code Application.start()} (JVM, Module,
+ * JavaFX-Toolkit) wird beim Erzeugen protokolliert, danach jede Phase mit
+ * {@link #phase(String)} und am Ende die Gesamtzeit.</p>
+ */
+final class StartupTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupTimer.class.getName());
+
+    private final Instant processStart;
+    private final long start = System.nanoTime();
+    private long last = start;
+
+    StartupTimer() {
+        processStart = ProcessHandle.current().info().startInstant().orElse(null);
+        if (processStart != null) {
+            LOGGER.log(Level.INFO, "Startphase JVM bis start(): {0} ms",
+                    Duration.between(processStart, Instant.now()).toMillis());
+        }
+    }
+
+    /**
+     * Protokolliert die Dauer seit der vorherigen Phase
+     */
+    synchronized void phase(String name) {
+        long now = System.nanoTime();
+        LOGGER.log(Level.INFO, "Startphase {0}: {1} ms", new Object[] {name, (now - last) / 1_000_000});
+        last = now;
+    }
+
+    /**
+     * Protokolliert die Gesamtdauer seit {@code start()} und seit Prozessstart
+     */
+    synchronized void finish() {
+        long sinceStart = (System.nanoTime() - start) / 1_000_000;
+        if (processStart != null) {
+            LOGGER.log(Level.INFO, "Start abgeschlossen: {0} ms seit start(), {1} ms seit Prozessstart",
+                    new Object[] {sinceStart, Duration.between(processStart, Instant.now()).toMillis()});
+        } else {
+            LOGGER.log(Level.INFO, "Start abgeschlossen: {0} ms seit start()", sinceStart);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ch.hftm;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.hftm.controller.ViewLifecycle;
+import javafx.animation.PauseTransition;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+/**
+ * Lädt jede View (FXML + Controller) nur einmal und hält sie danach für
+ * weitere Wechsel bereit.
+ *
+ * <p>Beim Wechsel wird nur die Root der Scene ausgetauscht; die Controller
+ * erhalten {@link ViewLifecycle#onHide()} bzw. {@link ViewLifecycle#onShow()}
+ * statt einer erneuten Initialisierung. Alle Methoden müssen auf dem
+ * FX-Thread aufgerufen werden.</p>
+ */
+final class ViewRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(ViewRegistry.class.getName());
+
+    // Pause zwischen zwei vorgeladenen Views, damit dazwischen gezeichnet wird
+    private static final Duration PRELOAD_GAP = Duration.millis(50);
+
+    record View(String name, Parent root, Object controller) {
+    }
+
+    private final Map<String, View> views = new HashMap<>();
+    private View current;
+
+    /**
+     * Liefert die View, beim ersten Aufruf wird sie geladen
+     */
+    View get(String name) throws IOException {
+        View view = views.get(name);
+        if (view == null) {
+            long start = System.nanoTime();
+            FXMLLoader loader = new FXMLLoader(resource(name));
+            Parent root = load(loader, name);
+            view = new View(name, root, loader.getController());
+            views.put(name, view);
+            LOGGER.log(Level.FINE, "View {0} geladen in {1} ms",
+                    new Object[] {name, (System.nanoTime() - start) / 1_000_000});
+        }
+        return view;
+    }
+
+    /**
+     * Zeigt die View in der Scene an
+     */
+    void show(Scene scene, String name) throws IOException {
+        View next = get(name);
+        if (next == current) {
+            return;
+        }
+        if (current != null && current.controller() instanceof ViewLifecycle lifecycle) {
+            lifecycle.onHide();
+        }
+        scene.setRoot(next.root());
+        current = next;
+        if (next.controller() instanceof ViewLifecycle lifecycle) {
+            lifecycle.onShow();
+        }
+    }
+
+    /**
+     * Lädt die Views nacheinander mit kurzen Pausen vor, damit die Oberfläche
+     * dazwischen bedienbar bleibt. Die Controller laden ihre Daten dabei wie
+     * gewohnt asynchron. Fehler werden nur protokolliert; die View wird dann
+     * beim ersten Anzeigen erneut geladen.
+     *
+     * <p>Bewusst auf dem FX-Thread: {@code initialize()} der Controller
+     * verändert Listen, in die auch Ladevorgänge auf dem FX-Thread
+     * schreiben.</p>
+     *
+     * @param done läuft auf dem FX-Thread, wenn alle Views vorgeladen sind
+     */
+    void preload(List<String> names, Runnable done) {
+        Deque<String> pending = new ArrayDeque<>(names);
+        PauseTransition step = new PauseTransition(PRELOAD_GAP);
+        step.setOnFinished(e -> {
+            String name = pending.poll();
+            if (name == null) {
+                done.run();
+                return;
+            }
+            try {
+                get(name);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Vorladen von " + name + " fehlgeschlagen", ex);
+            }
+            step.playFromStart();
+        });
+        step.play();
+    }
+
+    private static URL resource(String name) throws IOException {
+        var resource = App.class.getResource("/" + name + ".fxml");
+        if (resource == null) {
+            LOGGER.log(Level.SEVERE, "FXML nicht gefunden: {0}", "/" + name + ".fxml");
+            throw new IOException("FXML nicht gefunden: /" + name + ".fxml");
+        }
+        return resource;
+    }
+
+    private static Parent load(FXMLLoader loader, String name) throws IOException {
+        try {
+            return loader.load();
+        } catch (IOException e) {
+            Throwable cause = e.getCause();
+            IOException wrapped = new IOException("Fehler beim Laden von '" + name + ".fxml': " + (cause != null ? cause.toString() : e.toString()), cause != null ? cause : e);
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden von {0}: {1}", new Object[]{name + ".fxml", wrapped.getMessage()});
+            throw wrapped;
+        }
+    }
+}
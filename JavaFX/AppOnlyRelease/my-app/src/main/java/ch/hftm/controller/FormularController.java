@@ -7,14 +7,32 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import ch.hftm.App;
 import ch.hftm.model.Formular;
 import ch.hftm.model.FormularStatus;
+import ch.hftm.persistence.ChangeEvent;
+import ch.hftm.persistence.ChangeNotifier;
 import ch.hftm.persistence.FormularRepository;
+import ch.hftm.util.AsyncLoader;
 import ch.hftm.util.DialogUtil;
+import ch.hftm.util.ExportJob;
+import ch.hftm.util.FilterPipeline;
+import ch.hftm.util.ListSynchronizer;
+import ch.hftm.util.SearchIndex;
 import ch.hftm.util.ValidationUtil;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -36,7 +54,14 @@ import javafx.stage.Window;
  * Controller für die Formularverwaltung
  */
 @SuppressWarnings("unused") // FXML bindet Felder und Handler methoden zur Laufzeit
-public class FormularController {
+public class FormularController implements ViewLifecycle {
+
+    // Wie FormularRepository.findAll: neueste zuerst
+    private static final Comparator<Formular> ORDER = Comparator
+            .comparing(Formular::getAusgabedatum, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparingInt(Formular::getFormularId)
+            .reversed();
+    private static final DateTimeFormatter SEARCH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     @FXML
     private TableView<Formular> formularTable;
@@ -78,6 +103,8 @@ public class FormularController {
     @FXML
     private Button pdfAttachButton;
     @FXML
+    private Button exportButton;
+    @FXML
     private Label pdfStatusLabel;
 
     @FXML
@@ -87,9 +114,28 @@ public class FormularController {
 
     private final FormularRepository repo = new FormularRepository();
     private ObservableList<Formular> formularList;
+    private ListSynchronizer<Formular, Integer> formularSync;
     private FilteredList<Formular> filteredFormulare;
+    private FilterPipeline<Formular> filter;
+    private final SearchIndex<Formular> searchIndex = new SearchIndex<>(FormularController::searchFields);
     private SortedList<Formular> sortedFormulare;
     private Formular selected;
+    // Aktive Suche nach Typ (handleSearch), sonst null
+    private String typSuche;
+    private final AsyncLoader loader = new AsyncLoader();
+    private ExportJob exportJob;
+    // Änderungen aus der Datenbank (auch von anderen Arbeitsplätzen) übernehmen
+    private final ChangeNotifier.Listener changeListener = new ChangeNotifier.Listener() {
+        @Override
+        public void changed(List<ChangeEvent> events) {
+            Platform.runLater(() -> applyChanges(events));
+        }
+
+        @Override
+        public void resync() {
+            Platform.runLater(() -> reload());
+        }
+    };
 
     /**
      * Lokaler Ablage-Ordner für Formular-PDFs (pro Benutzerprofil).
@@ -100,6 +146,7 @@ public class FormularController {
     @FXML
     public void initialize() {
         formularList = FXCollections.observableArrayList();
+        formularSync = new ListSynchronizer<>(formularList, Formular::getFormularId, ORDER);
         statusCombo.setItems(FXCollections.observableArrayList(FormularStatus.values()));
 
         formularIdColumn.setCellValueFactory(new PropertyValueFactory<>("formularId"));
@@ -110,10 +157,14 @@ public class FormularController {
         mitgliedIdColumn.setCellValueFactory(new PropertyValueFactory<>("mitgliedId"));
 
         // Filter + Sort
+        searchIndex.bind(formularList);
         filteredFormulare = new FilteredList<>(formularList, f -> true);
+        filter = new FilterPipeline<>(filteredFormulare);
         sortedFormulare = new SortedList<>(filteredFormulare);
         sortedFormulare.comparatorProperty().bind(formularTable.comparatorProperty());
         formularTable.setItems(sortedFormulare);
+        loader.showLoadingIn(formularTable);
+        ChangeNotifier.addListener(changeListener);
         formularTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
             if (n != null) {
                 select(n);
@@ -122,7 +173,7 @@ public class FormularController {
 
         // Live-Suche
         if (searchField != null) {
-            searchField.textProperty().addListener((obs, o, n) -> applyFilter());
+            searchField.textProperty().addListener((obs, o, n) -> filter.submit(searchQuery()));
         }
         if (nurOffeneCheckBox != null) {
             nurOffeneCheckBox.selectedProperty().addListener((obs, o, n) -> loadAll());
@@ -136,34 +187,122 @@ public class FormularController {
         setPdfUiState(false, false, null);
     }
 
+    /**
+     * Ohne Änderungsbenachrichtigungen können beim Verlassen Änderungen
+     * verpasst worden sein; dann neu laden
+     */
+    @Override
+    public void onShow() {
+        if (!ChangeNotifier.isListening() && !loader.isLoading()) {
+            reload();
+        }
+    }
+
+    /**
+     * Auswahl und Eingabefelder zurücksetzen, wie bei einer neu geladenen View
+     */
+    @Override
+    public void onHide() {
+        handleClear();
+    }
+
+    /**
+     * Lädt die Liste neu; eine aktive Suche nach Typ wird wiederholt
+     */
+    private void reload() {
+        if (typSuche != null) {
+            searchByTyp(typSuche);
+        } else {
+            loadAll();
+        }
+    }
+
     private void loadAll() {
-        formularList.clear();
-        if (nurOffeneCheckBox != null && nurOffeneCheckBox.isSelected()) {
-            formularList.addAll(repo.findAll().stream().filter(f -> f.getStatus() == FormularStatus.AUSSTEHEND).toList());
+        typSuche = null;
+        boolean nurOffene = nurOffeneCheckBox != null && nurOffeneCheckBox.isSelected();
+        // "Nur offene" filtert in der Datenbank – es werden nur ausstehende Formulare übertragen
+        loader.load(nurOffene ? repo.findByStatusAsync(EnumSet.of(FormularStatus.AUSSTEHEND)) : repo.findAllAsync(), formulare -> {
+            formularSync.sync(formulare, FormularController::unchanged);
+            applyFilter();
+        });
+    }
+
+    /**
+     * Lädt nur die geänderten Formulare nach und ersetzt, ergänzt oder
+     * entfernt sie in der Liste
+     */
+    private void applyChanges(List<ChangeEvent> events) {
+        Set<Integer> ids = ChangeEvent.ids(events, ChangeEvent.Entity.FORMULAR);
+        if (ids.isEmpty()) {
+            return;
+        }
+        repo.findByIdsAsync(ids).thenAccept(formulare -> Platform.runLater(() -> {
+            List<Formular> visible = new ArrayList<>();
+            Set<Integer> removed = new HashSet<>(ids);
+            for (Formular f : formulare) {
+                if (isVisible(f)) {
+                    visible.add(f);
+                    removed.remove(f.getFormularId());
+                }
+            }
+            formularSync.patch(visible, removed);
+        }));
+    }
+
+    /**
+     * Übernimmt ein gespeichertes Formular in die Tabelle oder entfernt es,
+     * wenn es nicht mehr zur Suche bzw. zum Filter "Nur offene" passt
+     */
+    private void showSaved(Formular f) {
+        if (isVisible(f)) {
+            formularSync.put(f);
         } else {
-            formularList.addAll(repo.findAll());
+            formularSync.remove(f.getFormularId());
         }
-        applyFilter();
+    }
+
+    /**
+     * Ob das Formular zur geladenen Liste gehört: bei aktiver Suche wie
+     * {@link FormularRepository#searchByTyp(String)}, sonst nach "Nur offene"
+     */
+    private boolean isVisible(Formular f) {
+        if (typSuche != null) {
+            return f.getTyp() != null
+                    && f.getTyp().toLowerCase(Locale.ROOT).contains(typSuche.toLowerCase(Locale.ROOT));
+        }
+        boolean nurOffene = nurOffeneCheckBox != null && nurOffeneCheckBox.isSelected();
+        return !nurOffene || f.getStatus() == FormularStatus.AUSSTEHEND;
+    }
+
+    private static boolean unchanged(Formular a, Formular b) {
+        return Objects.equals(a.getTyp(), b.getTyp())
+                && Objects.equals(a.getAusgabedatum(), b.getAusgabedatum())
+                && Objects.equals(a.getRueckgabedatum(), b.getRueckgabedatum())
+                && a.getStatus() == b.getStatus()
+                && a.getMitgliedId() == b.getMitgliedId();
     }
 
     /**
      * Volltext-Filter über Typ/Status/Datum/Mitglied-ID
      */
     private void applyFilter() {
-        final String q = (searchField != null && searchField.getText() != null) ? searchField.getText().trim().toLowerCase() : "";
-        filteredFormulare.setPredicate(f -> {
-            if (q.isEmpty()) {
-                return true;
-            }
-            java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy");
-            boolean byTyp = f.getTyp() != null && f.getTyp().toLowerCase().contains(q);
-            boolean byStatus = f.getStatus() != null && f.getStatus().name().toLowerCase().contains(q);
-            boolean byAusgabe = f.getAusgabedatum() != null && f.getAusgabedatum().format(formatter).contains(q);
-            boolean byRueckgabe = f.getRueckgabedatum() != null && f.getRueckgabedatum().format(formatter).contains(q);
-            boolean byMitglied = String.valueOf(f.getMitgliedId()).contains(q);
-            boolean byId = String.valueOf(f.getFormularId()).contains(q);
-            return byTyp || byStatus || byAusgabe || byRueckgabe || byMitglied || byId;
-        });
+        filter.submitNow(searchQuery());
+    }
+
+    private Supplier<Predicate<Formular>> searchQuery() {
+        String q = searchField != null ? searchField.getText() : null;
+        return () -> searchIndex.matcher(q);
+    }
+
+    private static String[] searchFields(Formular f) {
+        return new String[] {
+            f.getTyp(),
+            f.getStatus() != null ? f.getStatus().name() : null,
+            f.getAusgabedatum() != null ? f.getAusgabedatum().format(SEARCH_DATE_FORMAT) : null,
+            f.getRueckgabedatum() != null ? f.getRueckgabedatum().format(SEARCH_DATE_FORMAT) : null,
+            String.valueOf(f.getMitgliedId()),
+            String.valueOf(f.getFormularId())
+        };
     }
 
     private void select(Formular f) {
@@ -194,7 +333,7 @@ public class FormularController {
             f.setMitgliedId(Integer.parseInt(mitgliedIdField.getText().trim()));
             if (repo.save(f)) {
                 DialogUtil.showSuccess("Erfolg", "Formular wurde erfolgreich gespeichert.");
-                loadAll();
+                showSaved(f);
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Speichern");
@@ -216,14 +355,13 @@ public class FormularController {
         }
 
         try {
-            selected.setTyp(typField.getText().trim());
-            selected.setAusgabedatum(ausgabedatumPicker.getValue());
-            selected.setRueckgabedatum(rueckgabedatumPicker.getValue());
-            selected.setStatus(statusCombo.getValue());
-            selected.setMitgliedId(Integer.parseInt(mitgliedIdField.getText().trim()));
-            if (repo.update(selected)) {
+            // Kopie ändern, damit die Tabellenzeile bis zum Erfolg unverändert bleibt
+            Formular f = new Formular(selected.getFormularId(), typField.getText().trim(),
+                    ausgabedatumPicker.getValue(), rueckgabedatumPicker.getValue(), statusCombo.getValue(),
+                    Integer.parseInt(mitgliedIdField.getText().trim()));
+            if (repo.update(f)) {
                 DialogUtil.showSuccess("Erfolg", "Formular wurde erfolgreich aktualisiert.");
-                loadAll();
+                showSaved(f);
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Aktualisieren");
@@ -250,7 +388,7 @@ public class FormularController {
             try {
                 if (repo.delete(selected.getFormularId())) {
                     DialogUtil.showSuccess("Erfolg", "Formular wurde erfolgreich gelöscht.");
-                    loadAll();
+                    formularSync.remove(selected.getFormularId());
                     handleClear();
                 } else {
                     DialogUtil.showDatabaseError("Löschen");
@@ -425,18 +563,50 @@ public class FormularController {
         if (q == null || q.isBlank()) {
             loadAll();
         } else {
-            // Repo-Suche nach Typ laden und danach lokalen Volltextfilter anwenden
-            formularList.clear();
-            formularList.addAll(repo.searchByTyp(q.trim()));
-            applyFilter();
+            searchByTyp(q.trim());
         }
     }
 
+    /**
+     * Repo-Suche nach Typ laden und danach lokalen Volltextfilter anwenden;
+     * Änderungen werden bis zum nächsten {@link #loadAll()} gegen die Suche
+     * geprüft
+     */
+    private void searchByTyp(String typ) {
+        typSuche = typ;
+        loader.load(repo.searchByTypAsync(typ), formulare -> {
+            formularSync.setAll(formulare);
+            applyFilter();
+        });
+    }
+
     @FXML
     private void handleFilterToggle() {
         loadAll();
     }
 
+    /**
+     * Exportiert alle Formulare als CSV im Hintergrund; ein erneuter Klick
+     * während des Exports bricht ihn ab
+     */
+    @FXML
+    private void handleExportCsv() {
+        if (exportJob != null && !exportJob.isDone()) {
+            exportJob.cancel();
+            return;
+        }
+
+        Window owner = (formularTable != null && formularTable.getScene() != null) ? formularTable.getScene().getWindow() : null;
+        Path exportFile = DialogUtil.chooseCsvExportFile(owner, "Formulare als CSV exportieren", "formulare_export.csv");
+        if (exportFile == null) {
+            return;
+        }
+
+        exportJob = new ExportJob("Formulare", exportFile, repo::exportCsv);
+        exportJob.showIn(exportButton);
+        exportJob.start();
+    }
+
     @FXML
     private void handleBack() {
         try {
@@ -1,9 +1,15 @@
 package ch.hftm.controller;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -11,53 +17,79 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ch.hftm.App;
+import ch.hftm.persistence.CsvImporter;
 import ch.hftm.persistence.DatabaseConnection;
+import ch.hftm.persistence.ImportResult;
+import ch.hftm.persistence.SnapshotExporter;
 import ch.hftm.util.DialogUtil;
+import ch.hftm.util.ExportJob;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
 
 /**
  * Controller für die Hauptnavigation
  */
 @SuppressWarnings("unused") // FXML bindet Handler zur Laufzeit
-public class MainController {
+public class MainController implements ViewLifecycle {
 
     @FXML
     private Label dbStatusLabel;
+    @FXML
+    private Button datensicherungButton;
+    @FXML
+    private Button csvImportButton;
+
+    private ExportJob backupJob;
 
     private ScheduledExecutorService scheduler;
     private static final Logger LOGGER = Logger.getLogger(MainController.class.getName());
+    // Erste Prüfung erst nach dem Start, damit der Verbindungsaufbau nicht mit dem Vorladen konkurriert
+    private static final long STATUS_CHECK_DELAY_SECONDS = 2;
+    // Zeilenfehler, die im Ergebnisdialog einzeln aufgeführt werden
+    private static final int SHOWN_IMPORT_ERRORS = 10;
+    private static final Map<String, CsvImporter.Target> IMPORT_TARGETS = new LinkedHashMap<>();
+
+    static {
+        IMPORT_TARGETS.put("Mitglieder", CsvImporter.Target.MITGLIED);
+        IMPORT_TARGETS.put("Termine", CsvImporter.Target.TERMIN);
+        IMPORT_TARGETS.put("Formulare", CsvImporter.Target.FORMULAR);
+        IMPORT_TARGETS.put("Teilnahmen", CsvImporter.Target.TEILNAHME);
+    }
 
-    @FXML
-    public void initialize() {
+    @Override
+    public void onShow() {
         // DB-Status regelmäßig prüfen (alle 30 Sekunden)
-        startDatabaseStatusChecker(); // DB-Status regelmäßig prüfen
+        startDatabaseStatusChecker();
+    }
 
+    @Override
+    public void onHide() {
         // Scheduler sauber stoppen, wenn diese View (Main-Menü) verlassen wird
-        if (dbStatusLabel != null) {
-            dbStatusLabel.sceneProperty().addListener((obs, oldScene, newScene) -> {
-                if (newScene == null && scheduler != null) {
-                    scheduler.shutdownNow();
-                }
-            });
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
         }
     }
 
     private void startDatabaseStatusChecker() {
+        if (scheduler != null) {
+            return;
+        }
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "db-status-checker");
             t.setDaemon(true);
             return t;
         });
-        scheduler.scheduleAtFixedRate(this::checkDatabaseConnection, 0, 30, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::checkDatabaseConnection,
+                STATUS_CHECK_DELAY_SECONDS, 30, TimeUnit.SECONDS);
     }
 
     private void checkDatabaseConnection() {
-        try {
-            // Verbindung holen
-            Connection conn = DatabaseConnection.getConnection();
-
+        // Verbindung aus dem Pool holen und nach der Prüfung zurückgeben
+        try (Connection conn = DatabaseConnection.getConnection()) {
             // Echte Verbindungsprüfung: SELECT 1 Query
             if (conn != null && !conn.isClosed()) {
                 try (Statement stmt = conn.createStatement()) {
@@ -129,6 +161,83 @@ public class MainController {
         }
     }
 
+    @FXML
+    private void handleDatensicherung() {
+        if (backupJob != null && !backupJob.isDone()) {
+            backupJob.cancel();
+            return;
+        }
+        Path file = DialogUtil.chooseExportFile(datensicherungButton.getScene().getWindow(),
+                "Datensicherung speichern", "kud_sicherung_" + LocalDate.now() + ".zip", "ZIP Archive", "zip");
+        if (file == null) {
+            return;
+        }
+        SnapshotExporter exporter = new SnapshotExporter();
+        backupJob = new ExportJob("Datensätze", file, (target, listener) -> {
+            SnapshotExporter.Manifest manifest = exporter.export(target, listener);
+            return manifest != null ? manifest.getTotalRows() : -1;
+        });
+        backupJob.showIn(datensicherungButton);
+        backupJob.start();
+    }
+
+    @FXML
+    private void handleCsvImport() {
+        List<String> tabellen = List.copyOf(IMPORT_TARGETS.keySet());
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(tabellen.get(0), tabellen);
+        dialog.setTitle("CSV Import");
+        dialog.setHeaderText("Bestehende Datensätze werden über den fachlichen Schlüssel aktualisiert.");
+        dialog.setContentText("Importieren nach:");
+        Optional<String> auswahl = dialog.showAndWait();
+        if (auswahl.isEmpty()) {
+            return;
+        }
+        CsvImporter.Target target = IMPORT_TARGETS.get(auswahl.get());
+
+        Path file = DialogUtil.chooseCsvImportFile(csvImportButton.getScene().getWindow(), auswahl.get() + " importieren");
+        if (file == null) {
+            return;
+        }
+
+        String text = csvImportButton.getText();
+        csvImportButton.setDisable(true);
+        new CsvImporter().importCsvAsync(target, file, (zeilen, gelesen, gesamt) -> Platform.runLater(() ->
+                csvImportButton.setText(gesamt > 0 ? "Import " + (100 * gelesen / gesamt) + " %" : "Import " + zeilen + " Zeilen")))
+                .whenComplete((result, error) -> Platform.runLater(() -> {
+                    csvImportButton.setText(text);
+                    csvImportButton.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "CSV-Import fehlgeschlagen", error);
+                        DialogUtil.showError("CSV Import", "Der Import ist fehlgeschlagen: " + error.getMessage());
+                    } else {
+                        showImportResult(result);
+                    }
+                }));
+    }
+
+    private static void showImportResult(ImportResult result) {
+        if (!result.isCompleted()) {
+            DialogUtil.showError("CSV Import", "Es wurde nichts importiert.\n\n" + result.getFailure());
+            return;
+        }
+        String summary = result.getRowsRead() + " Zeilen gelesen\n"
+                + result.getInserted() + " neu, " + result.getUpdated() + " aktualisiert";
+        if (result.getRowsRejected() == 0) {
+            DialogUtil.showSuccess("CSV Import", summary);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(summary)
+                .append("\n").append(result.getRowsRejected()).append(" Zeilen übersprungen:\n");
+        List<ImportResult.RowError> errors = result.getErrors();
+        for (int i = 0; i < Math.min(errors.size(), SHOWN_IMPORT_ERRORS); i++) {
+            sb.append("\n").append(errors.get(i));
+        }
+        if (result.getRowsRejected() > SHOWN_IMPORT_ERRORS) {
+            sb.append("\n…");
+        }
+        DialogUtil.showWarning("CSV Import", sb.toString());
+    }
+
     @FXML
     private void handleBeenden() {
         System.exit(0);
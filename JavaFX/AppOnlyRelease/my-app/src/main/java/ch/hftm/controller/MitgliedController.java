@@ -1,15 +1,32 @@
 package ch.hftm.controller;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import ch.hftm.App;
 import ch.hftm.model.Mitglied;
 import ch.hftm.model.Rolle;
+import ch.hftm.persistence.CachingMitgliedRepository;
+import ch.hftm.persistence.ChangeEvent;
+import ch.hftm.persistence.ChangeNotifier;
 import ch.hftm.persistence.MitgliedRepository;
+import ch.hftm.util.AsyncLoader;
 import ch.hftm.util.DialogUtil;
+import ch.hftm.util.ExportJob;
 import ch.hftm.util.ExportUtil;
+import ch.hftm.util.FilterPipeline;
+import ch.hftm.util.ListSynchronizer;
+import ch.hftm.util.SearchIndex;
 import ch.hftm.util.ValidationUtil;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -21,13 +38,18 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.FileChooser;
 import javafx.stage.Window;
 
 /**
  * Controller für die Mitgliederverwaltung
  */
-public class MitgliedController {
+public class MitgliedController implements ViewLifecycle {
+
+    // Wie MitgliedRepository.findAll: nach Nachname, Vorname
+    private static final Comparator<Mitglied> ORDER = Comparator
+            .comparing(Mitglied::getNachname, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Mitglied::getVorname, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparingInt(Mitglied::getMitgliedId);
 
     @FXML
     private TableView<Mitglied> mitgliedTable;
@@ -58,20 +80,42 @@ public class MitgliedController {
     private Button deleteButton;
     @FXML
     private Button clearButton;
+    @FXML
+    private Button exportButton;
 
     @FXML
     private TextField searchField;
 
     private MitgliedRepository mitgliedRepository;
     private ObservableList<Mitglied> mitgliedList;
+    private ListSynchronizer<Mitglied, Integer> mitgliedSync;
     private FilteredList<Mitglied> filteredMitglieder;
+    private final SearchIndex<Mitglied> searchIndex = new SearchIndex<>(MitgliedController::searchFields);
     private SortedList<Mitglied> sortedMitglieder;
+    private FilterPipeline<Mitglied> filter;
     private Mitglied selectedMitglied;
+    private final AsyncLoader loader = new AsyncLoader();
+    private ExportJob exportJob;
+    // Suchbegriff der geladenen Datenbanksuche, null = alle Mitglieder geladen
+    private String suche;
+    // Änderungen aus der Datenbank (auch von anderen Arbeitsplätzen) übernehmen
+    private final ChangeNotifier.Listener changeListener = new ChangeNotifier.Listener() {
+        @Override
+        public void changed(List<ChangeEvent> events) {
+            Platform.runLater(() -> applyChanges(events));
+        }
+
+        @Override
+        public void resync() {
+            Platform.runLater(() -> reload());
+        }
+    };
 
     @FXML
     public void initialize() {
-        mitgliedRepository = new MitgliedRepository();
+        mitgliedRepository = new CachingMitgliedRepository();
         mitgliedList = FXCollections.observableArrayList();
+        mitgliedSync = new ListSynchronizer<>(mitgliedList, Mitglied::getMitgliedId, ORDER);
 
         // Tabellenspalten konfigurieren
         mitgliedIdColumn.setCellValueFactory(new PropertyValueFactory<>("mitgliedId"));
@@ -81,11 +125,17 @@ public class MitgliedController {
         rolleColumn.setCellValueFactory(new PropertyValueFactory<>("rolle"));
 
         // Filtering + Sorting vorbereiten
+        searchIndex.bind(mitgliedList);
         filteredMitglieder = new FilteredList<>(mitgliedList, m -> true);
+        filter = new FilterPipeline<>(filteredMitglieder);
         sortedMitglieder = new SortedList<>(filteredMitglieder);
         sortedMitglieder.comparatorProperty().bind(mitgliedTable.comparatorProperty());
         mitgliedTable.setItems(sortedMitglieder);
 
+        // Ladezustand anzeigen; Änderungen auch empfangen, solange die View verborgen ist
+        loader.showLoadingIn(mitgliedTable);
+        ChangeNotifier.addListener(changeListener);
+
         // ComboBox mit Rollen füllen
         rolleComboBox.setItems(FXCollections.observableArrayList(Rolle.values()));
         rolleComboBox.setValue(Rolle.MITGLIED);
@@ -99,40 +149,125 @@ public class MitgliedController {
                 }
         );
 
-        // Live-Suche beim Tippen
+        // Live-Suche beim Tippen, gefiltert erst nach einer kurzen Pause
         if (searchField != null) {
-            searchField.textProperty().addListener((obs, oldV, newV) -> applyFilter(newV));
+            searchField.textProperty().addListener((obs, oldV, newV) -> filter.submit(() -> searchIndex.matcher(newV)));
         }
 
         loadAllMitglieder();
     }
 
     /**
-     * Lädt alle Mitglieder aus der Datenbank
+     * Ohne Änderungsbenachrichtigungen können beim Verlassen Änderungen
+     * verpasst worden sein; dann neu laden
+     */
+    @Override
+    public void onShow() {
+        if (!ChangeNotifier.isListening() && !loader.isLoading()) {
+            reload();
+        }
+    }
+
+    /**
+     * Auswahl und Eingabefelder zurücksetzen, wie bei einer neu geladenen View
+     */
+    @Override
+    public void onHide() {
+        handleClear();
+    }
+
+    /**
+     * Lädt die Liste neu; eine aktive Suche wird wiederholt
+     */
+    private void reload() {
+        if (suche != null) {
+            searchMitglieder(suche);
+        } else {
+            loadAllMitglieder();
+        }
+    }
+
+    /**
+     * Lädt alle Mitglieder aus der Datenbank (asynchron, ersetzt laufende
+     * Ladevorgänge) und übernimmt nur die Unterschiede in die Tabelle
      */
     private void loadAllMitglieder() {
-        mitgliedList.clear();
-        mitgliedList.addAll(mitgliedRepository.findAll());
-        // Nach dem Laden Filter anwenden (z. B. wenn ein Suchtext aktiv ist)
-        applyFilter(searchField != null ? searchField.getText() : null);
+        suche = null;
+        loader.load(mitgliedRepository.findAllAsync(), mitglieder -> {
+            mitgliedSync.sync(mitglieder, MitgliedController::unchanged);
+            // Nach dem Laden Filter anwenden (z. B. wenn ein Suchtext aktiv ist)
+            applyFilter(searchField != null ? searchField.getText() : null);
+        });
+    }
+
+    /**
+     * Lädt nur die geänderten Mitglieder nach und ersetzt, ergänzt oder
+     * entfernt sie in der Liste
+     */
+    private void applyChanges(List<ChangeEvent> events) {
+        Set<Integer> ids = ChangeEvent.ids(events, ChangeEvent.Entity.MITGLIED);
+        if (ids.isEmpty()) {
+            return;
+        }
+        mitgliedRepository.findByIdsAsync(ids).thenAccept(mitglieder -> Platform.runLater(() -> {
+            List<Mitglied> visible = new ArrayList<>();
+            Set<Integer> removed = new HashSet<>(ids);
+            for (Mitglied m : mitglieder) {
+                if (isVisible(m)) {
+                    visible.add(m);
+                    removed.remove(m.getMitgliedId());
+                }
+            }
+            mitgliedSync.patch(visible, removed);
+        }));
+    }
+
+    /**
+     * Übernimmt ein gespeichertes Mitglied in die Tabelle oder entfernt es,
+     * wenn es nicht mehr zur Suche passt
+     */
+    private void showSaved(Mitglied m) {
+        if (isVisible(m)) {
+            mitgliedSync.put(m);
+        } else {
+            mitgliedSync.remove(m.getMitgliedId());
+        }
+    }
+
+    /**
+     * Ob das Mitglied zur geladenen Liste gehört: bei aktiver Suche wie
+     * {@link MitgliedRepository#search(String)} (Vorname, Nachname oder
+     * E-Mail enthält den Suchbegriff), sonst immer
+     */
+    private boolean isVisible(Mitglied m) {
+        if (suche == null) {
+            return true;
+        }
+        String s = suche.toLowerCase(Locale.ROOT);
+        return Stream.of(m.getVorname(), m.getNachname(), m.getEmail())
+                .anyMatch(v -> v != null && v.toLowerCase(Locale.ROOT).contains(s));
+    }
+
+    private static boolean unchanged(Mitglied a, Mitglied b) {
+        return Objects.equals(a.getVorname(), b.getVorname())
+                && Objects.equals(a.getNachname(), b.getNachname())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && a.getRolle() == b.getRolle();
     }
 
     /**
      * Wendet einen Volltext-Filter über die wichtigsten Felder an
      */
     private void applyFilter(String query) {
-        final String q = query == null ? "" : query.trim().toLowerCase();
-        filteredMitglieder.setPredicate(m -> {
-            if (q.isEmpty()) {
-                return true;
-            }
-            boolean byVorname = m.getVorname() != null && m.getVorname().toLowerCase().contains(q);
-            boolean byNachname = m.getNachname() != null && m.getNachname().toLowerCase().contains(q);
-            boolean byEmail = m.getEmail() != null && m.getEmail().toLowerCase().contains(q);
-            boolean byRolle = m.getRolle() != null && m.getRolle().name().toLowerCase().contains(q);
-            boolean byId = String.valueOf(m.getMitgliedId()).contains(q);
-            return byVorname || byNachname || byEmail || byRolle || byId;
-        });
+        filter.submitNow(() -> searchIndex.matcher(query));
+    }
+
+    private static String[] searchFields(Mitglied m) {
+        return new String[] {
+            m.getVorname(), m.getNachname(), m.getEmail(),
+            m.getRolle() != null ? m.getRolle().name() : null,
+            String.valueOf(m.getMitgliedId())
+        };
     }
 
     /**
@@ -167,7 +302,7 @@ public class MitgliedController {
 
             if (mitgliedRepository.save(mitglied)) {
                 DialogUtil.showSuccess("Erfolg", "Mitglied wurde erfolgreich gespeichert.");
-                loadAllMitglieder();
+                showSaved(mitglied);
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Speichern");
@@ -192,14 +327,14 @@ public class MitgliedController {
         }
 
         try {
-            selectedMitglied.setVorname(vornameField.getText().trim());
-            selectedMitglied.setNachname(nachnameField.getText().trim());
-            selectedMitglied.setEmail(emailField.getText().trim());
-            selectedMitglied.setRolle(rolleComboBox.getValue());
+            // Kopie ändern, damit die Tabellenzeile bis zum Erfolg unverändert bleibt
+            Mitglied mitglied = new Mitglied(selectedMitglied.getMitgliedId(),
+                    vornameField.getText().trim(), nachnameField.getText().trim(),
+                    emailField.getText().trim(), rolleComboBox.getValue());
 
-            if (mitgliedRepository.update(selectedMitglied)) {
+            if (mitgliedRepository.update(mitglied)) {
                 DialogUtil.showSuccess("Erfolg", "Mitglied wurde erfolgreich aktualisiert.");
-                loadAllMitglieder();
+                showSaved(mitglied);
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Aktualisieren");
@@ -230,7 +365,7 @@ public class MitgliedController {
             try {
                 if (mitgliedRepository.delete(selectedMitglied.getMitgliedId())) {
                     DialogUtil.showSuccess("Erfolg", "Mitglied wurde erfolgreich gelöscht.");
-                    loadAllMitglieder();
+                    mitgliedSync.remove(selectedMitglied.getMitgliedId());
                     handleClear();
                 } else {
                     DialogUtil.showDatabaseError("Löschen");
@@ -271,70 +406,61 @@ public class MitgliedController {
             // Wenn leer, alle Mitglieder laden und Filter zurücksetzen
             loadAllMitglieder();
         } else {
-            // DB-gestützte Suche (case-insensitive über Vorname/Nachname/Email)
-            mitgliedList.clear();
-            mitgliedList.addAll(mitgliedRepository.search(searchTerm));
+            searchMitglieder(searchTerm);
+        }
+    }
+
+    /**
+     * DB-gestützte Suche (case-insensitive über Vorname/Nachname/Email);
+     * Änderungen werden bis zum nächsten {@link #loadAllMitglieder()} gegen
+     * die Suche geprüft
+     */
+    private void searchMitglieder(String searchTerm) {
+        suche = searchTerm;
+        loader.load(mitgliedRepository.searchAsync(searchTerm), mitglieder -> {
+            mitgliedSync.setAll(mitglieder);
             // Zusätzlich lokalen Volltextfilter anwenden (z. B. wenn Rolle/ID enthalten ist)
             applyFilter(searchTerm);
-        }
+        });
     }
 
     /**
-     * Exportiert die aktuelle Mitgliederliste als CSV
+     * Exportiert die Mitglieder als CSV im Hintergrund; ein erneuter Klick
+     * während des Exports bricht ihn ab
      */
     @FXML
     private void handleExportCsv() {
-        try {
-            var headers = java.util.List.of("ID", "Vorname", "Nachname", "E-Mail", "Rolle");
-            var mappers = java.util.List.of(
-                    (java.util.function.Function<Mitglied, String>) (m -> String.valueOf(m.getMitgliedId())),
-                    (java.util.function.Function<Mitglied, String>) Mitglied::getVorname,
-                    (java.util.function.Function<Mitglied, String>) Mitglied::getNachname,
-                    (java.util.function.Function<Mitglied, String>) Mitglied::getEmail,
-                    (java.util.function.Function<Mitglied, String>) (m -> m.getRolle() != null ? m.getRolle().name() : "")
-            );
-
-            Window owner = (mitgliedTable != null && mitgliedTable.getScene() != null) ? mitgliedTable.getScene().getWindow() : null;
-            FileChooser chooser = new FileChooser();
-            chooser.setTitle("Mitglieder als CSV exportieren");
-            chooser.setInitialFileName("mitglieder.csv");
-            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Dateien (*.csv)", "*.csv"));
-            File exportFile = chooser.showSaveDialog(owner);
-            if (exportFile == null) {
-                return;
-            }
-
-            // Falls Benutzer keinen Suffix angibt, .csv anhängen
-            String name = exportFile.getName() != null ? exportFile.getName() : "";
-            if (!name.toLowerCase(java.util.Locale.ROOT).endsWith(".csv")) {
-                exportFile = new File(exportFile.getParentFile(), name + ".csv");
-            }
-
-            if (exportFile.exists()) {
-                boolean overwrite = DialogUtil.showConfirmation(
-                        "Datei überschreiben?",
-                        "Die Datei existiert bereits:\n" + exportFile.getAbsolutePath() + "\n\nMöchten Sie sie überschreiben?"
-                );
-                if (!overwrite) {
-                    return;
-                }
-            }
+        if (exportJob != null && !exportJob.isDone()) {
+            exportJob.cancel();
+            return;
+        }
 
-            boolean success = ExportUtil.exportCsv(
-                    exportFile,
-                    mitgliedList,
-                    headers,
-                    m -> mappers.stream().map(fn -> fn.apply(m)).toList()
-            );
+        Window owner = (mitgliedTable != null && mitgliedTable.getScene() != null) ? mitgliedTable.getScene().getWindow() : null;
+        Path exportFile = DialogUtil.chooseCsvExportFile(owner, "Mitglieder als CSV exportieren", "mitglieder.csv");
+        if (exportFile == null) {
+            return;
+        }
 
-            if (success) {
-                DialogUtil.showSuccess("CSV-Export", "Datei gespeichert: " + exportFile.getAbsolutePath());
-            } else {
-                DialogUtil.showError("CSV-Export fehlgeschlagen", "Die CSV-Datei konnte nicht erstellt werden.");
-            }
-        } catch (Exception e) {
-            DialogUtil.showError("CSV-Export fehlgeschlagen", e.getMessage());
+        String searchTerm = searchField != null && searchField.getText() != null ? searchField.getText().trim() : "";
+        if (searchTerm.isEmpty()) {
+            // Ohne Suche alle Mitglieder direkt aus der Datenbank streamen
+            exportJob = new ExportJob("Mitglieder", exportFile, mitgliedRepository::exportCsv);
+        } else {
+            // Angezeigtes Suchergebnis auf dem FX-Thread kopieren, geschrieben wird im Hintergrund
+            List<Mitglied> mitglieder = List.copyOf(sortedMitglieder);
+            exportJob = new ExportJob("Mitglieder", exportFile, (file, listener) -> ExportUtil.exportCsv(
+                    file.toFile(),
+                    mitglieder,
+                    List.of("ID", "Vorname", "Nachname", "E-Mail", "Rolle"),
+                    (out, m) -> out.append(m.getMitgliedId())
+                            .append(m.getVorname())
+                            .append(m.getNachname())
+                            .append(m.getEmail())
+                            .append(m.getRolle() != null ? m.getRolle().name() : "")
+            ) ? mitglieder.size() : -1);
         }
+        exportJob.showIn(exportButton);
+        exportJob.start();
     }
 
     /**
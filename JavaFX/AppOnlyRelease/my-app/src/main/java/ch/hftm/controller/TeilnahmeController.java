@@ -1,17 +1,31 @@
 package ch.hftm.controller;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 
 import ch.hftm.App;
 import ch.hftm.model.Teilnahme;
+import ch.hftm.model.TeilnahmeDetail;
 import ch.hftm.model.TeilnahmeStatus;
+import ch.hftm.persistence.ChangeEvent;
+import ch.hftm.persistence.ChangeNotifier;
+import ch.hftm.persistence.TeilnahmeQuery;
 import ch.hftm.persistence.TeilnahmeRepository;
+import ch.hftm.util.AsyncLoader;
 import ch.hftm.util.DialogUtil;
+import ch.hftm.util.ExportJob;
+import ch.hftm.util.PagingDataSource;
 import ch.hftm.util.ValidationUtil;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
@@ -19,25 +33,45 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Window;
+import javafx.util.Duration;
 
 /**
  * Controller für die Teilnahmeverwaltung
  */
 @SuppressWarnings("unused") // FXML bindet Felder und Handler methoden zur Laufzeit
-public class TeilnahmeController {
+public class TeilnahmeController implements ViewLifecycle {
 
+    // Keyset-Pagination: höchstens MAX_PAGES * PAGE_SIZE Teilnahmen im Speicher
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 5;
+    // Suchtext erst nach einer Tipppause an die Datenbank schicken
+    private static final Duration SEARCH_DELAY = Duration.millis(300);
+
+    // Wie TeilnahmeRepository.findDetailPage: neueste zuerst
+    private static final Comparator<TeilnahmeDetail> ORDER =
+            Comparator.comparingInt(TeilnahmeDetail::getTeilnahmeId).reversed();
+
+    @FXML
+    private TableView<TeilnahmeDetail> teilnahmeTable;
+    @FXML
+    private TableColumn<TeilnahmeDetail, Integer> teilnahmeIdColumn;
+    @FXML
+    private TableColumn<TeilnahmeDetail, Integer> mitgliedIdColumn;
     @FXML
-    private TableView<Teilnahme> teilnahmeTable;
+    private TableColumn<TeilnahmeDetail, String> mitgliedNameColumn;
     @FXML
-    private TableColumn<Teilnahme, Integer> teilnahmeIdColumn;
+    private TableColumn<TeilnahmeDetail, Integer> terminIdColumn;
     @FXML
-    private TableColumn<Teilnahme, Integer> mitgliedIdColumn;
+    private TableColumn<TeilnahmeDetail, LocalDate> terminDatumColumn;
     @FXML
-    private TableColumn<Teilnahme, Integer> terminIdColumn;
+    private TableColumn<TeilnahmeDetail, String> terminOrtColumn;
     @FXML
-    private TableColumn<Teilnahme, Integer> formularIdColumn;
+    private TableColumn<TeilnahmeDetail, Integer> formularIdColumn;
     @FXML
-    private TableColumn<Teilnahme, TeilnahmeStatus> statusColumn;
+    private TableColumn<TeilnahmeDetail, String> formularTypColumn;
+    @FXML
+    private TableColumn<TeilnahmeDetail, TeilnahmeStatus> statusColumn;
 
     @FXML
     private TextField mitgliedIdField;
@@ -56,6 +90,10 @@ public class TeilnahmeController {
     private Button deleteButton;
     @FXML
     private Button clearButton;
+    @FXML
+    private Button exportButton;
+    @FXML
+    private Button statistikButton;
 
     @FXML
     private TextField searchMitgliedField;
@@ -65,10 +103,29 @@ public class TeilnahmeController {
     private TextField searchField;
 
     private final TeilnahmeRepository repo = new TeilnahmeRepository();
-    private ObservableList<Teilnahme> teilnahmeList;
-    private FilteredList<Teilnahme> filteredTeilnahmen;
-    private SortedList<Teilnahme> sortedTeilnahmen;
-    private Teilnahme selected;
+    private ObservableList<TeilnahmeDetail> teilnahmeList;
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    // Kriterien der geladenen Teilnahmen (alle Suchfelder, in SQL ausgewertet)
+    private TeilnahmeQuery currentQuery = TeilnahmeQuery.alle();
+    // Exakte Suche per "Nach Mitglied"/"Nach Termin", bis das Suchfeld geändert wird
+    private Integer mitgliedFilter;
+    private Integer terminFilter;
+    private TeilnahmeDetail selected;
+    private final AsyncLoader loader = new AsyncLoader();
+    private ExportJob exportJob;
+    private PagingDataSource<TeilnahmeDetail> pager;
+    // Änderungen aus der Datenbank (auch von anderen Arbeitsplätzen) übernehmen
+    private final ChangeNotifier.Listener changeListener = new ChangeNotifier.Listener() {
+        @Override
+        public void changed(List<ChangeEvent> events) {
+            Platform.runLater(() -> applyChanges(events));
+        }
+
+        @Override
+        public void resync() {
+            Platform.runLater(() -> loadAll());
+        }
+    };
 
     @FXML
     public void initialize() {
@@ -77,29 +134,47 @@ public class TeilnahmeController {
 
         teilnahmeIdColumn.setCellValueFactory(new PropertyValueFactory<>("teilnahmeId"));
         mitgliedIdColumn.setCellValueFactory(new PropertyValueFactory<>("mitgliedId"));
+        mitgliedNameColumn.setCellValueFactory(new PropertyValueFactory<>("mitgliedName"));
         terminIdColumn.setCellValueFactory(new PropertyValueFactory<>("terminId"));
+        terminDatumColumn.setCellValueFactory(new PropertyValueFactory<>("terminDatum"));
+        terminOrtColumn.setCellValueFactory(new PropertyValueFactory<>("terminOrt"));
         formularIdColumn.setCellValueFactory(new PropertyValueFactory<>("formularId"));
+        formularTypColumn.setCellValueFactory(new PropertyValueFactory<>("formularTyp"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        filteredTeilnahmen = new FilteredList<>(teilnahmeList, t -> true);
-        sortedTeilnahmen = new SortedList<>(filteredTeilnahmen);
-        sortedTeilnahmen.comparatorProperty().bind(teilnahmeTable.comparatorProperty());
-        teilnahmeTable.setItems(sortedTeilnahmen);
+        // Die Tabelle hält nur ein Fenster, neueste zuerst; Sortieren per
+        // Spaltenkopf würde nur dieses Fenster umordnen
+        teilnahmeTable.getColumns().forEach(column -> column.setSortable(false));
+        teilnahmeTable.setItems(teilnahmeList);
+        // Teilnahmen inkl. Namen/Termin per JOIN seitenweise nachladen
+        pager = new PagingDataSource<>(teilnahmeList,
+                (after, limit) -> repo.findDetailPageAsync(currentQuery, after, limit),
+                loader, PAGE_SIZE, MAX_PAGES);
+        pager.attach(teilnahmeTable);
+        loader.showLoadingIn(teilnahmeTable);
+        ChangeNotifier.addListener(changeListener);
         teilnahmeTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
             if (n != null) {
                 select(n);
             }
         });
 
-        // Live Filter
+        // Live-Suche per Abfrage
+        searchDelay.setOnFinished(e -> loadAll());
         if (searchField != null) {
-            searchField.textProperty().addListener((obs, o, n) -> applyFilter());
+            searchField.textProperty().addListener((obs, o, n) -> searchDelay.playFromStart());
         }
         if (searchMitgliedField != null) {
-            searchMitgliedField.textProperty().addListener((obs, o, n) -> applyFilter());
+            searchMitgliedField.textProperty().addListener((obs, o, n) -> {
+                mitgliedFilter = null;
+                searchDelay.playFromStart();
+            });
         }
         if (searchTerminField != null) {
-            searchTerminField.textProperty().addListener((obs, o, n) -> applyFilter());
+            searchTerminField.textProperty().addListener((obs, o, n) -> {
+                terminFilter = null;
+                searchDelay.playFromStart();
+            });
         }
 
         loadAll();
@@ -107,43 +182,91 @@ public class TeilnahmeController {
         deleteButton.setDisable(true);
     }
 
+    /**
+     * Ohne Änderungsbenachrichtigungen können beim Verlassen Änderungen
+     * verpasst worden sein; dann neu laden
+     */
+    @Override
+    public void onShow() {
+        if (!ChangeNotifier.isListening() && !loader.isLoading()) {
+            loadAll();
+        }
+    }
+
+    /**
+     * Auswahl und Eingabefelder zurücksetzen, wie bei einer neu geladenen View
+     */
+    @Override
+    public void onHide() {
+        handleClear();
+    }
+
+    /**
+     * Lädt die Teilnahmen zu den Suchfeldern seitenweise (weitere Seiten beim
+     * Scrollen)
+     */
     private void loadAll() {
-        teilnahmeList.clear();
-        teilnahmeList.addAll(repo.findAll());
-        applyFilter();
+        searchDelay.stop();
+        currentQuery = buildQuery();
+        pager.reset();
     }
 
     /**
-     * Wendet einen kombinierten Volltext- und Feldfilter an
+     * Lädt geänderte Teilnahmen nach, ebenso geladene Teilnahmen, deren
+     * Mitglied, Termin oder Formular sich geändert hat (Namen, Datum, Typ)
      */
-    @FXML
-    public void applyFilter() {
-        final String qAll = (searchField != null && searchField.getText() != null) ? searchField.getText().trim().toLowerCase() : "";
-        final String qMit = (searchMitgliedField != null && searchMitgliedField.getText() != null) ? searchMitgliedField.getText().trim().toLowerCase() : "";
-        final String qTer = (searchTerminField != null && searchTerminField.getText() != null) ? searchTerminField.getText().trim().toLowerCase() : "";
-
-        filteredTeilnahmen.setPredicate(t -> {
-            // Feldbasierte Filter (Mitglied/Termin) vorrangig
-            if (!qMit.isEmpty() && !String.valueOf(t.getMitgliedId()).contains(qMit)) {
-                return false;
-            }
-            if (!qTer.isEmpty() && !String.valueOf(t.getTerminId()).contains(qTer)) {
-                return false;
+    private void applyChanges(List<ChangeEvent> events) {
+        Set<Integer> ids = ChangeEvent.ids(events, ChangeEvent.Entity.TEILNAHME);
+        Set<Integer> mitglieder = ChangeEvent.ids(events, ChangeEvent.Entity.MITGLIED);
+        Set<Integer> termine = ChangeEvent.ids(events, ChangeEvent.Entity.TERMIN);
+        Set<Integer> formulare = ChangeEvent.ids(events, ChangeEvent.Entity.FORMULAR);
+        for (TeilnahmeDetail t : teilnahmeList) {
+            if (mitglieder.contains(t.getMitgliedId()) || termine.contains(t.getTerminId())
+                    || formulare.contains(t.getFormularId())) {
+                ids.add(t.getTeilnahmeId());
             }
+        }
+        if (!ids.isEmpty()) {
+            refreshTeilnahmen(ids);
+        }
+    }
 
-            if (qAll.isEmpty()) {
-                return true;
+    /**
+     * Lädt die Teilnahmen mit den IDs samt Namen neu und ersetzt sie im
+     * geladenen Fenster; nicht mehr vorhandene werden entfernt
+     */
+    private void refreshTeilnahmen(Set<Integer> ids) {
+        TeilnahmeQuery query = currentQuery;
+        repo.findDetailsByIdsAsync(query, ids).thenAccept(details -> Platform.runLater(() -> {
+            if (!query.equals(currentQuery)) {
+                // Inzwischen mit anderen Kriterien neu geladen
+                return;
             }
-            boolean byMitglied = String.valueOf(t.getMitgliedId()).contains(qAll);
-            boolean byTermin = String.valueOf(t.getTerminId()).contains(qAll);
-            boolean byFormular = String.valueOf(t.getFormularId()).contains(qAll);
-            boolean byStatus = t.getStatus() != null && t.getStatus().name().toLowerCase().contains(qAll);
-            boolean byId = String.valueOf(t.getTeilnahmeId()).contains(qAll);
-            return byMitglied || byTermin || byFormular || byStatus || byId;
-        });
+            // Gelöscht oder passt nicht mehr zur Suche
+            Set<Integer> removed = new HashSet<>(ids);
+            details.forEach(t -> removed.remove(t.getTeilnahmeId()));
+            pager.applyChanges(details, removed, TeilnahmeDetail::getTeilnahmeId, ORDER);
+        }));
     }
 
-    private void select(Teilnahme t) {
+    /**
+     * Sucht sofort, ohne die Tipppause abzuwarten
+     */
+    @FXML
+    public void applyFilter() {
+        loadAll();
+    }
+
+    private TeilnahmeQuery buildQuery() {
+        return TeilnahmeQuery.alle()
+                .mitgliedId(mitgliedFilter)
+                .terminId(terminFilter)
+                .mitgliedIdEnthaelt(searchMitgliedField != null ? searchMitgliedField.getText() : null)
+                .terminIdEnthaelt(searchTerminField != null ? searchTerminField.getText() : null)
+                .suche(searchField != null ? searchField.getText() : null);
+    }
+
+    private void select(TeilnahmeDetail t) {
         selected = t;
         mitgliedIdField.setText(String.valueOf(t.getMitgliedId()));
         terminIdField.setText(String.valueOf(t.getTerminId()));
@@ -170,7 +293,7 @@ public class TeilnahmeController {
             t.setStatus(statusCombo.getValue());
             if (repo.save(t)) {
                 DialogUtil.showSuccess("Erfolg", "Teilnahme wurde erfolgreich gespeichert.");
-                loadAll();
+                refreshTeilnahmen(Set.of(t.getTeilnahmeId()));
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Speichern");
@@ -192,18 +315,17 @@ public class TeilnahmeController {
         }
 
         try {
-            selected.setMitgliedId(Integer.parseInt(mitgliedIdField.getText().trim()));
-            selected.setTerminId(Integer.parseInt(terminIdField.getText().trim()));
+            // Kopie ändern, damit die Tabellenzeile bis zum Erfolg unverändert bleibt
             String fid = formularIdField.getText().trim();
-            if (!fid.isEmpty()) {
-                selected.setFormularId(Integer.parseInt(fid));
-            } else {
-                selected.setFormularId(0);
-            }
-            selected.setStatus(statusCombo.getValue());
-            if (repo.update(selected)) {
+            Teilnahme t = new Teilnahme(selected.getTeilnahmeId(),
+                    Integer.parseInt(mitgliedIdField.getText().trim()),
+                    Integer.parseInt(terminIdField.getText().trim()),
+                    fid.isEmpty() ? null : Integer.parseInt(fid),
+                    statusCombo.getValue());
+            if (repo.update(t)) {
                 DialogUtil.showSuccess("Erfolg", "Teilnahme wurde erfolgreich aktualisiert.");
-                loadAll();
+                // Zeile samt Namen von Mitglied/Termin/Formular neu laden
+                refreshTeilnahmen(Set.of(t.getTeilnahmeId()));
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Aktualisieren");
@@ -231,7 +353,8 @@ public class TeilnahmeController {
             try {
                 if (repo.delete(selected.getTeilnahmeId())) {
                     DialogUtil.showSuccess("Erfolg", "Teilnahme wurde erfolgreich gelöscht.");
-                    loadAll();
+                    pager.applyChanges(List.<TeilnahmeDetail>of(), Set.of(selected.getTeilnahmeId()),
+                            TeilnahmeDetail::getTeilnahmeId, ORDER);
                     handleClear();
                 } else {
                     DialogUtil.showDatabaseError("Löschen");
@@ -259,38 +382,110 @@ public class TeilnahmeController {
         teilnahmeTable.getSelectionModel().clearSelection();
     }
 
+    /**
+     * Zeigt nur die Teilnahmen mit genau dieser Mitglied-ID; wie die übrigen
+     * Suchfelder Teil der Abfrage, damit Änderungen dagegen geprüft werden
+     */
     @FXML
     private void handleSearchMitglied() {
         String q = searchMitgliedField.getText();
         if (q == null || q.isBlank()) {
+            mitgliedFilter = null;
             loadAll();
         } else {
             try {
-                teilnahmeList.clear();
-                teilnahmeList.addAll(repo.findByMitglied(Integer.parseInt(q.trim())));
-                applyFilter();
+                mitgliedFilter = Integer.parseInt(q.trim());
+                loadAll();
             } catch (NumberFormatException ex) {
                 DialogUtil.showWarning("Ungültige Eingabe", "Mitglied-ID muss eine Zahl sein.");
             }
         }
     }
 
+    /**
+     * Zeigt nur die Teilnahmen mit genau dieser Termin-ID; wie die übrigen
+     * Suchfelder Teil der Abfrage, damit Änderungen dagegen geprüft werden
+     */
     @FXML
     private void handleSearchTermin() {
         String q = searchTerminField.getText();
         if (q == null || q.isBlank()) {
+            terminFilter = null;
             loadAll();
         } else {
             try {
-                teilnahmeList.clear();
-                teilnahmeList.addAll(repo.findByTermin(Integer.parseInt(q.trim())));
-                applyFilter();
+                terminFilter = Integer.parseInt(q.trim());
+                loadAll();
             } catch (NumberFormatException ex) {
                 DialogUtil.showWarning("Ungültige Eingabe", "Termin-ID muss eine Zahl sein.");
             }
         }
     }
 
+    /**
+     * Exportiert die gesamte Teilnahme-Historie als CSV im Hintergrund;
+     * ein erneuter Klick während des Exports bricht ihn ab
+     */
+    @FXML
+    private void handleExportCsv() {
+        if (exportJob != null && !exportJob.isDone()) {
+            exportJob.cancel();
+            return;
+        }
+
+        Window owner = (teilnahmeTable != null && teilnahmeTable.getScene() != null) ? teilnahmeTable.getScene().getWindow() : null;
+        Path exportFile = DialogUtil.chooseCsvExportFile(owner, "Teilnahmen als CSV exportieren", "teilnahmen_export.csv");
+        if (exportFile == null) {
+            return;
+        }
+
+        // Die Tabelle hält nur ein Fenster – der Export liest die ganze Historie per Cursor
+        exportJob = new ExportJob("Teilnahmen", exportFile, repo::exportDetailsCsv);
+        exportJob.showIn(exportButton);
+        exportJob.start();
+    }
+
+    /**
+     * Zählt die Teilnahmen der ganzen Historie pro Status im Hintergrund,
+     * bei einer Suche nach Mitglied bzw. Termin zusätzlich für dieses
+     */
+    @FXML
+    private void handleStatistik() {
+        Integer mitglied = mitgliedFilter;
+        Integer termin = terminFilter;
+        statistikButton.setDisable(true);
+        repo.loadColumnStoreAsync().whenComplete((store, ex) -> Platform.runLater(() -> {
+            statistikButton.setDisable(false);
+            if (store == null) {
+                DialogUtil.showDatabaseError("Statistik laden");
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            appendCounts(text, "Alle Teilnahmen", store.size(), store::count);
+            if (mitglied != null) {
+                appendCounts(text, "Mitglied " + mitglied, store.countByMitglied(mitglied),
+                        s -> store.countByMitglied(mitglied, s));
+            }
+            if (termin != null) {
+                appendCounts(text, "Termin " + termin, store.countByTermin(termin),
+                        s -> store.countByTermin(termin, s));
+            }
+            DialogUtil.showSuccess("Teilnahme-Statistik", text.toString());
+        }));
+    }
+
+    private static void appendCounts(StringBuilder text, String title, int total, ToIntFunction<TeilnahmeStatus> count) {
+        text.append(title).append(": ").append(total).append('\n');
+        for (TeilnahmeStatus s : TeilnahmeStatus.values()) {
+            text.append("  ").append(s.getDisplayName()).append(": ").append(count.applyAsInt(s)).append('\n');
+        }
+        // Fehlender oder unbekannter Status, nicht einem Status zugeschlagen
+        int unbekannt = count.applyAsInt(null);
+        if (unbekannt > 0) {
+            text.append("  Ohne gültigen Status: ").append(unbekannt).append('\n');
+        }
+    }
+
     @FXML
     private void handleBack() {
         try {
@@ -1,25 +1,33 @@
 package ch.hftm.controller;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
-import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import ch.hftm.App;
 import ch.hftm.model.Termin;
+import ch.hftm.persistence.CachingTerminRepository;
+import ch.hftm.persistence.ChangeEvent;
+import ch.hftm.persistence.ChangeNotifier;
+import ch.hftm.persistence.TerminQuery;
 import ch.hftm.persistence.TerminRepository;
+import ch.hftm.util.AsyncLoader;
 import ch.hftm.util.DialogUtil;
-import ch.hftm.util.ExportUtil;
+import ch.hftm.util.ExportJob;
+import ch.hftm.util.PagingDataSource;
 import ch.hftm.util.ValidationUtil;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -32,15 +40,15 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
-import javafx.stage.FileChooser;
 import javafx.stage.Window;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 
 /**
  * Controller für die Terminverwaltung
  */
 @SuppressWarnings("unused") // FXML bindet Felder und Handler methoden zur Laufzeit
-public class TerminController {
+public class TerminController implements ViewLifecycle {
 
     private static final PseudoClass UPCOMING_PSEUDO_CLASS = PseudoClass.getPseudoClass("upcoming");
 
@@ -52,6 +60,12 @@ public class TerminController {
             .appendValueReduced(ChronoField.YEAR, 2, 2, 2000)
             .toFormatter();
 
+    // Keyset-Pagination: höchstens MAX_PAGES * PAGE_SIZE Termine im Speicher
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 5;
+    // Suchtext erst nach einer Tipppause an die Datenbank schicken
+    private static final Duration SEARCH_DELAY = Duration.millis(300);
+
     @FXML
     private TableView<Termin> terminTable;
     @FXML
@@ -81,6 +95,8 @@ public class TerminController {
     private Button deleteButton;
     @FXML
     private Button clearButton;
+    @FXML
+    private Button exportButton;
 
     @FXML
     private TextField searchField;
@@ -93,13 +109,29 @@ public class TerminController {
 
     private TerminRepository terminRepository;
     private ObservableList<Termin> terminList;
-    private FilteredList<Termin> filteredTermine;
-    private SortedList<Termin> sortedTermine;
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
     private Termin selectedTermin;
+    private final AsyncLoader loader = new AsyncLoader();
+    private ExportJob exportJob;
+    private PagingDataSource<Termin> pager;
+    // Kriterien der geladenen Termine (Suche, Datumsbereich, kommende; alle in SQL)
+    private TerminQuery currentQuery = TerminQuery.alle();
+    // Änderungen aus der Datenbank (auch von anderen Arbeitsplätzen) übernehmen
+    private final ChangeNotifier.Listener changeListener = new ChangeNotifier.Listener() {
+        @Override
+        public void changed(List<ChangeEvent> events) {
+            Platform.runLater(() -> applyChanges(events));
+        }
+
+        @Override
+        public void resync() {
+            Platform.runLater(() -> loadAllTermine());
+        }
+    };
 
     @FXML
     public void initialize() {
-        terminRepository = new TerminRepository();
+        terminRepository = new CachingTerminRepository();
         terminList = FXCollections.observableArrayList();
 
         // DatePicker konfigurieren (Kalender + Tippen; robustes Parsing)
@@ -114,11 +146,20 @@ public class TerminController {
         ortColumn.setCellValueFactory(new PropertyValueFactory<>("ort"));
         ferienFlagColumn.setCellValueFactory(new PropertyValueFactory<>("ferienFlag"));
 
-        // Filter + Sort vorbereiten
-        filteredTermine = new FilteredList<>(terminList, t -> true);
-        sortedTermine = new SortedList<>(filteredTermine);
-        sortedTermine.comparatorProperty().bind(terminTable.comparatorProperty());
-        terminTable.setItems(sortedTermine);
+        // Die Tabelle hält nur ein Fenster in der Reihenfolge der Abfrage;
+        // Sortieren per Spaltenkopf würde nur dieses Fenster umordnen
+        terminTable.getColumns().forEach(column -> column.setSortable(false));
+        terminTable.setItems(terminList);
+
+        // Termine der aktuellen Abfrage seitenweise beim Scrollen nachladen
+        pager = new PagingDataSource<>(terminList,
+                (after, limit) -> terminRepository.findPageAsync(currentQuery, after, limit),
+                loader, PAGE_SIZE, MAX_PAGES);
+        pager.attach(terminTable);
+
+        // Ladezustand anzeigen; Änderungen auch empfangen, solange die View verborgen ist
+        loader.showLoadingIn(terminTable);
+        ChangeNotifier.addListener(changeListener);
 
         // Zeilen hervorheben: kommende Termine
         installUpcomingRowHighlight();
@@ -132,15 +173,16 @@ public class TerminController {
                 }
         );
 
-        // Live-Suche/Filter
+        // Live-Suche und Datumsbereich per Abfrage
+        searchDelay.setOnFinished(e -> loadAllTermine());
         if (searchField != null) {
-            searchField.textProperty().addListener((obs, o, n) -> applyFilter());
+            searchField.textProperty().addListener((obs, o, n) -> searchDelay.playFromStart());
         }
         if (vonDatumPicker != null) {
-            vonDatumPicker.valueProperty().addListener((obs, o, n) -> applyFilter());
+            vonDatumPicker.valueProperty().addListener((obs, o, n) -> loadAllTermine());
         }
         if (bisDatumPicker != null) {
-            bisDatumPicker.valueProperty().addListener((obs, o, n) -> applyFilter());
+            bisDatumPicker.valueProperty().addListener((obs, o, n) -> loadAllTermine());
         }
         if (nurKommendeCheckBox != null) {
             nurKommendeCheckBox.selectedProperty().addListener((obs, o, n) -> loadAllTermine());
@@ -274,48 +316,75 @@ public class TerminController {
     }
 
     /**
-     * Lädt alle Termine aus der Datenbank
+     * Ohne Änderungsbenachrichtigungen können beim Verlassen Änderungen
+     * verpasst worden sein; dann neu laden
+     */
+    @Override
+    public void onShow() {
+        if (!ChangeNotifier.isListening() && !loader.isLoading()) {
+            loadAllTermine();
+        }
+    }
+
+    /**
+     * Auswahl und Eingabefelder zurücksetzen, wie bei einer neu geladenen View
+     */
+    @Override
+    public void onHide() {
+        handleClear();
+    }
+
+    /**
+     * Lädt die Termine aus der Datenbank (asynchron, ersetzt laufende
+     * Ladevorgänge). Suche, Datumsbereich und "nur kommende" werden in SQL
+     * ausgewertet; geladen wird seitenweise.
      */
     private void loadAllTermine() {
-        // Basisdaten laden
-        terminList.clear();
-        if (nurKommendeCheckBox != null && nurKommendeCheckBox.isSelected()) {
-            terminList.addAll(terminRepository.findUpcoming());
-        } else {
-            terminList.addAll(terminRepository.findAll());
+        searchDelay.stop();
+        TerminQuery query = buildQuery();
+        if (query.equals(currentQuery) && loader.isLoading()) {
+            // Gleiche Abfrage läuft bereits (z. B. Listener und onAction)
+            return;
         }
-        // Filter anwenden
-        applyFilter();
+        currentQuery = query;
+        pager.reset();
     }
 
     /**
-     * Wendet Datumsbereich und Volltextsuche über Ort/Datum/Uhrzeit an
+     * Lädt nur die geänderten Termine nach und ersetzt, ergänzt oder entfernt
+     * sie im geladenen Fenster
      */
-    private void applyFilter() {
-        final LocalDate von = vonDatumPicker != null ? vonDatumPicker.getValue() : null;
-        final LocalDate bis = bisDatumPicker != null ? bisDatumPicker.getValue() : null;
-        final String q = (searchField != null && searchField.getText() != null) ? searchField.getText().trim().toLowerCase() : "";
-
-        filteredTermine.setPredicate(t -> {
-            // Datumsbereich
-            if (von != null && t.getDatum() != null && t.getDatum().isBefore(von)) {
-                return false;
-            }
-            if (bis != null && t.getDatum() != null && t.getDatum().isAfter(bis)) {
-                return false;
-            }
+    private void applyChanges(List<ChangeEvent> events) {
+        Set<Integer> ids = ChangeEvent.ids(events, ChangeEvent.Entity.TERMIN);
+        if (!ids.isEmpty()) {
+            refreshTermine(ids);
+        }
+    }
 
-            // Volltextsuche
-            if (q.isEmpty()) {
-                return true;
+    /**
+     * Lädt die Termine mit den IDs mit den aktuellen Kriterien nach; wer nicht
+     * mehr dazu passt, wird aus der Tabelle entfernt
+     */
+    private void refreshTermine(Set<Integer> ids) {
+        TerminQuery query = currentQuery;
+        terminRepository.findByIdsAsync(query, ids).thenAccept(termine -> Platform.runLater(() -> {
+            if (!query.equals(currentQuery)) {
+                // Inzwischen mit anderen Kriterien neu geladen
+                return;
             }
-            boolean byOrt = t.getOrt() != null && t.getOrt().toLowerCase().contains(q);
-            // Datum in schweizer Format (dd.MM.yyyy) prüfen
-            boolean byDatum = t.getDatum() != null && t.getDatum().format(DATE_OUTPUT_FORMAT).contains(q);
-            boolean byUhrzeit = t.getUhrzeit() != null && t.getUhrzeit().toString().contains(q);
-            boolean byId = String.valueOf(t.getTerminId()).contains(q);
-            return byOrt || byDatum || byUhrzeit || byId;
-        });
+            // Gelöscht oder passt nicht mehr zur Abfrage
+            Set<Integer> removed = new HashSet<>(ids);
+            termine.forEach(t -> removed.remove(t.getTerminId()));
+            pager.applyChanges(termine, removed, Termin::getTerminId, query.pageOrder());
+        }));
+    }
+
+    private TerminQuery buildQuery() {
+        return TerminQuery.alle()
+                .von(vonDatumPicker != null ? vonDatumPicker.getValue() : null)
+                .bis(bisDatumPicker != null ? bisDatumPicker.getValue() : null)
+                .nurKommende(nurKommendeCheckBox != null && nurKommendeCheckBox.isSelected())
+                .suche(searchField != null ? searchField.getText() : null);
     }
 
     /**
@@ -354,7 +423,7 @@ public class TerminController {
 
             if (terminRepository.save(termin)) {
                 DialogUtil.showSuccess("Erfolg", "Termin wurde erfolgreich gespeichert.");
-                loadAllTermine();
+                refreshTermine(Set.of(termin.getTerminId()));
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Speichern");
@@ -383,14 +452,14 @@ public class TerminController {
                 DialogUtil.showWarning("Eingabe erforderlich", "Bitte wählen Sie ein Datum aus.");
                 return;
             }
-            selectedTermin.setDatum(datumPicker.getValue());
-            selectedTermin.setUhrzeit(LocalTime.parse(uhrzeitField.getText().trim()));
-            selectedTermin.setOrt(ortField.getText().trim());
-            selectedTermin.setFerienFlag(ferienCheckBox.isSelected());
+            // Kopie ändern, damit die Tabellenzeile bis zum Erfolg unverändert bleibt
+            Termin termin = new Termin(selectedTermin.getTerminId(), datumPicker.getValue(),
+                    LocalTime.parse(uhrzeitField.getText().trim()), ortField.getText().trim(),
+                    ferienCheckBox.isSelected());
 
-            if (terminRepository.update(selectedTermin)) {
+            if (terminRepository.update(termin)) {
                 DialogUtil.showSuccess("Erfolg", "Termin wurde erfolgreich aktualisiert.");
-                loadAllTermine();
+                refreshTermine(Set.of(termin.getTerminId()));
                 handleClear();
             } else {
                 DialogUtil.showDatabaseError("Aktualisieren");
@@ -421,7 +490,8 @@ public class TerminController {
             try {
                 if (terminRepository.delete(selectedTermin.getTerminId())) {
                     DialogUtil.showSuccess("Erfolg", "Termin wurde erfolgreich gelöscht.");
-                    loadAllTermine();
+                    pager.applyChanges(List.<Termin>of(), Set.of(selectedTermin.getTerminId()),
+                            Termin::getTerminId, currentQuery.pageOrder());
                     handleClear();
                 } else {
                     DialogUtil.showDatabaseError("Löschen");
@@ -468,7 +538,7 @@ public class TerminController {
     }
 
     /**
-     * Sucht Termine (Platzhalter für erweiterte Suche)
+     * Sucht sofort, ohne die Tipppause abzuwarten
      */
     @FXML
     private void handleSearch() {
@@ -539,64 +609,31 @@ public class TerminController {
     }
 
     /**
-     * Exportiert die aktuell angezeigten Termine als CSV
+     * Exportiert alle Termine der aktuellen Filter als CSV im Hintergrund;
+     * ein erneuter Klick während des Exports bricht ihn ab
      */
     @FXML
     private void handleExportCsv() {
+        if (exportJob != null && !exportJob.isDone()) {
+            exportJob.cancel();
+            return;
+        }
         if (terminList.isEmpty()) {
             DialogUtil.showWarning("Keine Daten", "Es gibt keine Termine zum Exportieren.");
             return;
         }
 
-        try {
-            Window owner = (terminTable != null && terminTable.getScene() != null) ? terminTable.getScene().getWindow() : null;
-
-            FileChooser chooser = new FileChooser();
-            chooser.setTitle("Termine als CSV exportieren");
-            chooser.setInitialFileName("termine_export.csv");
-            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Dateien (*.csv)", "*.csv"));
-            File exportFile = chooser.showSaveDialog(owner);
-            if (exportFile == null) {
-                return;
-            }
-
-            // Falls Benutzer keinen Suffix angibt, .csv anhängen
-            String name = exportFile.getName() != null ? exportFile.getName() : "";
-            if (!name.toLowerCase(java.util.Locale.ROOT).endsWith(".csv")) {
-                exportFile = new File(exportFile.getParentFile(), name + ".csv");
-            }
-
-            if (exportFile.exists()) {
-                boolean overwrite = DialogUtil.showConfirmation(
-                        "Datei überschreiben?",
-                        "Die Datei existiert bereits:\n" + exportFile.getAbsolutePath() + "\n\nMöchten Sie sie überschreiben?"
-                );
-                if (!overwrite) {
-                    return;
-                }
-            }
-
-            boolean success = ExportUtil.exportCsv(
-                    exportFile,
-                    terminList,
-                    Arrays.asList("Termin-ID", "Datum", "Uhrzeit", "Ort", "Ferien"),
-                    termin -> Arrays.asList(
-                            String.valueOf(termin.getTerminId()),
-                            termin.getDatum() != null ? termin.getDatum().toString() : "",
-                            termin.getUhrzeit() != null ? termin.getUhrzeit().toString() : "",
-                            termin.getOrt() != null ? termin.getOrt() : "",
-                            termin.isFerienFlag() ? "Ja" : "Nein"
-                    )
-            );
-
-            if (success) {
-                DialogUtil.showSuccess("Export erfolgreich",
-                        "Termine wurden erfolgreich exportiert nach:\n" + exportFile.getAbsolutePath());
-            } else {
-                DialogUtil.showError("Export fehlgeschlagen", "Die CSV-Datei konnte nicht erstellt werden.");
-            }
-        } catch (RuntimeException e) {
-            DialogUtil.showError("Export-Fehler", "Fehler beim Exportieren: " + e.getMessage());
+        Window owner = (terminTable != null && terminTable.getScene() != null) ? terminTable.getScene().getWindow() : null;
+        Path exportFile = DialogUtil.chooseCsvExportFile(owner, "Termine als CSV exportieren", "termine_export.csv");
+        if (exportFile == null) {
+            return;
         }
+
+        // Die Tabelle hält nur ein Fenster der Termine – der Export liest die ganze Abfrage per Cursor
+        TerminQuery query = currentQuery;
+        exportJob = new ExportJob("Termine", exportFile,
+                (file, listener) -> terminRepository.exportCsv(query, file, listener));
+        exportJob.showIn(exportButton);
+        exportJob.start();
     }
 }
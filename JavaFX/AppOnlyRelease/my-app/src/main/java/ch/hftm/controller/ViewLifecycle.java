@@ -0,0 +1,24 @@
+package ch.hftm.controller;
+
+/**
+ * Rückrufe für Controller, deren View zwischengespeichert und mehrfach
+ * angezeigt wird.
+ *
+ * <p>{@code initialize()} läuft nur einmal beim ersten Laden der View.
+ * Danach ruft die App bei jedem Wechsel {@link #onHide()} für die bisherige
+ * und {@link #onShow()} für die neue View auf.</p>
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Die View wird angezeigt
+     */
+    default void onShow() {
+    }
+
+    /**
+     * Die View wird verlassen, bleibt aber erhalten
+     */
+    default void onHide() {
+    }
+}
@@ -11,15 +11,24 @@ import javafx.beans.property.StringProperty;
 
 /**
  * Model-Klasse für ein Formular
+ *
+ * <p>Die Felder sind einfache Werte; eine Property entsteht erst, wenn
+ * {@code xxxProperty()} aufgerufen wird.</p>
  */
 public class Formular {
 
-    private final IntegerProperty formularId = new SimpleIntegerProperty(this, "formularId", 0);
-    private final StringProperty typ = new SimpleStringProperty(this, "typ", "");
-    private final ObjectProperty<LocalDate> ausgabedatum = new SimpleObjectProperty<>(this, "ausgabedatum");
-    private final ObjectProperty<LocalDate> rueckgabedatum = new SimpleObjectProperty<>(this, "rueckgabedatum");
-    private final ObjectProperty<FormularStatus> status = new SimpleObjectProperty<>(this, "status", FormularStatus.AUSSTEHEND);
-    private final IntegerProperty mitgliedId = new SimpleIntegerProperty(this, "mitgliedId", 0);
+    private int formularId;
+    private IntegerProperty formularIdProperty;
+    private String typ = "";
+    private StringProperty typProperty;
+    private LocalDate ausgabedatum;
+    private ObjectProperty<LocalDate> ausgabedatumProperty;
+    private LocalDate rueckgabedatum;
+    private ObjectProperty<LocalDate> rueckgabedatumProperty;
+    private FormularStatus status = FormularStatus.AUSSTEHEND;
+    private ObjectProperty<FormularStatus> statusProperty;
+    private int mitgliedId;
+    private IntegerProperty mitgliedIdProperty;
 
     // Konstruktoren
     public Formular() {
@@ -27,94 +36,136 @@ public class Formular {
 
     public Formular(int formularId, String typ, LocalDate ausgabedatum, LocalDate rueckgabedatum,
             FormularStatus status, int mitgliedId) {
-        this.formularId.set(formularId);
-        this.typ.set(typ);
-        this.ausgabedatum.set(ausgabedatum);
-        this.rueckgabedatum.set(rueckgabedatum);
-        this.status.set(status);
-        this.mitgliedId.set(mitgliedId);
+        this.formularId = formularId;
+        this.typ = typ;
+        this.ausgabedatum = ausgabedatum;
+        this.rueckgabedatum = rueckgabedatum;
+        this.status = status;
+        this.mitgliedId = mitgliedId;
     }
 
     // formularId
     public int getFormularId() {
-        return formularId.get();
+        return formularIdProperty != null ? formularIdProperty.get() : formularId;
     }
 
     public void setFormularId(int value) {
-        formularId.set(value);
+        if (formularIdProperty != null) {
+            formularIdProperty.set(value);
+        } else {
+            formularId = value;
+        }
     }
 
     public IntegerProperty formularIdProperty() {
-        return formularId;
+        if (formularIdProperty == null) {
+            formularIdProperty = new SimpleIntegerProperty(this, "formularId", formularId);
+        }
+        return formularIdProperty;
     }
 
     // typ
     public String getTyp() {
-        return typ.get();
+        return typProperty != null ? typProperty.get() : typ;
     }
 
     public void setTyp(String value) {
-        typ.set(value);
+        if (typProperty != null) {
+            typProperty.set(value);
+        } else {
+            typ = value;
+        }
     }
 
     public StringProperty typProperty() {
-        return typ;
+        if (typProperty == null) {
+            typProperty = new SimpleStringProperty(this, "typ", typ);
+        }
+        return typProperty;
     }
 
     // ausgabedatum
     public LocalDate getAusgabedatum() {
-        return ausgabedatum.get();
+        return ausgabedatumProperty != null ? ausgabedatumProperty.get() : ausgabedatum;
     }
 
     public void setAusgabedatum(LocalDate value) {
-        ausgabedatum.set(value);
+        if (ausgabedatumProperty != null) {
+            ausgabedatumProperty.set(value);
+        } else {
+            ausgabedatum = value;
+        }
     }
 
     public ObjectProperty<LocalDate> ausgabedatumProperty() {
-        return ausgabedatum;
+        if (ausgabedatumProperty == null) {
+            ausgabedatumProperty = new SimpleObjectProperty<>(this, "ausgabedatum", ausgabedatum);
+        }
+        return ausgabedatumProperty;
     }
 
     // rueckgabedatum
     public LocalDate getRueckgabedatum() {
-        return rueckgabedatum.get();
+        return rueckgabedatumProperty != null ? rueckgabedatumProperty.get() : rueckgabedatum;
     }
 
     public void setRueckgabedatum(LocalDate value) {
-        rueckgabedatum.set(value);
+        if (rueckgabedatumProperty != null) {
+            rueckgabedatumProperty.set(value);
+        } else {
+            rueckgabedatum = value;
+        }
     }
 
     public ObjectProperty<LocalDate> rueckgabedatumProperty() {
-        return rueckgabedatum;
+        if (rueckgabedatumProperty == null) {
+            rueckgabedatumProperty = new SimpleObjectProperty<>(this, "rueckgabedatum", rueckgabedatum);
+        }
+        return rueckgabedatumProperty;
     }
 
     // status
     public FormularStatus getStatus() {
-        return status.get();
+        return statusProperty != null ? statusProperty.get() : status;
     }
 
     public void setStatus(FormularStatus value) {
-        status.set(value);
+        if (statusProperty != null) {
+            statusProperty.set(value);
+        } else {
+            status = value;
+        }
     }
 
     public ObjectProperty<FormularStatus> statusProperty() {
-        return status;
+        if (statusProperty == null) {
+            statusProperty = new SimpleObjectProperty<>(this, "status", status);
+        }
+        return statusProperty;
     }
 
     // mitgliedId
     public int getMitgliedId() {
-        return mitgliedId.get();
+        return mitgliedIdProperty != null ? mitgliedIdProperty.get() : mitgliedId;
     }
 
     public void setMitgliedId(int value) {
-        mitgliedId.set(value);
+        if (mitgliedIdProperty != null) {
+            mitgliedIdProperty.set(value);
+        } else {
+            mitgliedId = value;
+        }
     }
 
     public IntegerProperty mitgliedIdProperty() {
-        return mitgliedId;
+        if (mitgliedIdProperty == null) {
+            mitgliedIdProperty = new SimpleIntegerProperty(this, "mitgliedId", mitgliedId);
+        }
+        return mitgliedIdProperty;
     }
 
     @Override
     public String toString() {
-        return typ.get() + " (" + status.get() + ")";
+        return getTyp() + " (" + getStatus() + ")";
     }
 }
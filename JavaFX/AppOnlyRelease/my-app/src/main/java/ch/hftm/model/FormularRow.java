@@ -0,0 +1,25 @@
+package ch.hftm.model;
+
+import java.time.LocalDate;
+
+/**
+ * Unveränderliche Lesesicht auf ein Formular, z. B. für Erinnerungen an
+ * ausstehende Formulare
+ *
+ * @see #toFormular()
+ */
+public record FormularRow(int formularId, String typ, LocalDate ausgabedatum, LocalDate rueckgabedatum,
+        FormularStatus status, int mitgliedId) {
+
+    public static FormularRow of(Formular f) {
+        return new FormularRow(f.getFormularId(), f.getTyp(), f.getAusgabedatum(), f.getRueckgabedatum(),
+                f.getStatus(), f.getMitgliedId());
+    }
+
+    /**
+     * Bindbares Modell für die Anzeige und Bearbeitung in der Oberfläche
+     */
+    public Formular toFormular() {
+        return new Formular(formularId, typ, ausgabedatum, rueckgabedatum, status, mitgliedId);
+    }
+}
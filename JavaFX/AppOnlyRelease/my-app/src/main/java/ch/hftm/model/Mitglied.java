@@ -9,94 +9,136 @@ import javafx.beans.property.StringProperty;
 
 /**
  * Model-Klasse für ein Mitglied des Tanzvereins
+ *
+ * <p>Properties werden erst bei Bedarf angelegt (siehe {@link Termin}).</p>
  */
 public class Mitglied {
 
-    private final IntegerProperty mitgliedId = new SimpleIntegerProperty(this, "mitgliedId", 0);
-    private final StringProperty vorname = new SimpleStringProperty(this, "vorname", "");
-    private final StringProperty nachname = new SimpleStringProperty(this, "nachname", "");
-    private final StringProperty email = new SimpleStringProperty(this, "email", "");
-    private final ObjectProperty<Rolle> rolle = new SimpleObjectProperty<>(this, "rolle", Rolle.MITGLIED);
+    private int mitgliedId;
+    private IntegerProperty mitgliedIdProperty;
+    private String vorname = "";
+    private StringProperty vornameProperty;
+    private String nachname = "";
+    private StringProperty nachnameProperty;
+    private String email = "";
+    private StringProperty emailProperty;
+    private Rolle rolle = Rolle.MITGLIED;
+    private ObjectProperty<Rolle> rolleProperty;
 
     // Konstruktoren
     public Mitglied() {
     }
 
     public Mitglied(int mitgliedId, String vorname, String nachname, String email, Rolle rolle) {
-        this.mitgliedId.set(mitgliedId);
-        this.vorname.set(vorname);
-        this.nachname.set(nachname);
-        this.email.set(email);
-        this.rolle.set(rolle);
+        this.mitgliedId = mitgliedId;
+        this.vorname = vorname;
+        this.nachname = nachname;
+        this.email = email;
+        this.rolle = rolle;
     }
 
     // mitgliedId
     public int getMitgliedId() {
-        return mitgliedId.get();
+        return mitgliedIdProperty != null ? mitgliedIdProperty.get() : mitgliedId;
     }
 
     public void setMitgliedId(int value) {
-        mitgliedId.set(value);
+        if (mitgliedIdProperty != null) {
+            mitgliedIdProperty.set(value);
+        } else {
+            mitgliedId = value;
+        }
     }
 
     public IntegerProperty mitgliedIdProperty() {
-        return mitgliedId;
+        if (mitgliedIdProperty == null) {
+            mitgliedIdProperty = new SimpleIntegerProperty(this, "mitgliedId", mitgliedId);
+        }
+        return mitgliedIdProperty;
     }
 
     // vorname
     public String getVorname() {
-        return vorname.get();
+        return vornameProperty != null ? vornameProperty.get() : vorname;
     }
 
     public void setVorname(String value) {
-        vorname.set(value);
+        if (vornameProperty != null) {
+            vornameProperty.set(value);
+        } else {
+            vorname = value;
+        }
     }
 
     public StringProperty vornameProperty() {
-        return vorname;
+        if (vornameProperty == null) {
+            vornameProperty = new SimpleStringProperty(this, "vorname", vorname);
+        }
+        return vornameProperty;
     }
 
     // nachname
     public String getNachname() {
-        return nachname.get();
+        return nachnameProperty != null ? nachnameProperty.get() : nachname;
     }
 
     public void setNachname(String value) {
-        nachname.set(value);
+        if (nachnameProperty != null) {
+            nachnameProperty.set(value);
+        } else {
+            nachname = value;
+        }
     }
 
     public StringProperty nachnameProperty() {
-        return nachname;
+        if (nachnameProperty == null) {
+            nachnameProperty = new SimpleStringProperty(this, "nachname", nachname);
+        }
+        return nachnameProperty;
     }
 
     // email
     public String getEmail() {
-        return email.get();
+        return emailProperty != null ? emailProperty.get() : email;
     }
 
     public void setEmail(String value) {
-        email.set(value);
+        if (emailProperty != null) {
+            emailProperty.set(value);
+        } else {
+            email = value;
+        }
     }
 
     public StringProperty emailProperty() {
-        return email;
+        if (emailProperty == null) {
+            emailProperty = new SimpleStringProperty(this, "email", email);
+        }
+        return emailProperty;
     }
 
     // rolle
     public Rolle getRolle() {
-        return rolle.get();
+        return rolleProperty != null ? rolleProperty.get() : rolle;
     }
 
     public void setRolle(Rolle value) {
-        rolle.set(value);
+        if (rolleProperty != null) {
+            rolleProperty.set(value);
+        } else {
+            rolle = value;
+        }
     }
 
     public ObjectProperty<Rolle> rolleProperty() {
-        return rolle;
+        if (rolleProperty == null) {
+            rolleProperty = new SimpleObjectProperty<>(this, "rolle", rolle);
+        }
+        return rolleProperty;
     }
 
     @Override
     public String toString() {
-        return vorname.get() + " " + nachname.get() + " (" + email.get() + ")";
+        return getVorname() + " " + getNachname() + " (" + getEmail() + ")";
     }
 }
@@ -0,0 +1,20 @@
+package ch.hftm.model;
+
+/**
+ * Unveränderliche Lesesicht auf ein Mitglied, z. B. für den E-Mail-Versand
+ * oder als Cache-Eintrag
+ *
+ * <p>Darf ohne Kopie zwischen Threads und Aufrufern geteilt werden. Für die
+ * Anzeige in einer Tabelle liefert {@link #toMitglied()} ein bindbares
+ * Modell.</p>
+ */
+public record MitgliedRow(int mitgliedId, String vorname, String nachname, String email, Rolle rolle) {
+
+    public static MitgliedRow of(Mitglied m) {
+        return new MitgliedRow(m.getMitgliedId(), m.getVorname(), m.getNachname(), m.getEmail(), m.getRolle());
+    }
+
+    public Mitglied toMitglied() {
+        return new Mitglied(mitgliedId, vorname, nachname, email, rolle);
+    }
+}
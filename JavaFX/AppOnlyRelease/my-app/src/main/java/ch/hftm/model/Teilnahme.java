@@ -7,96 +7,142 @@ import javafx.beans.property.SimpleObjectProperty;
 
 /**
  * Model-Klasse für eine Teilnahme (Verknüpfung Mitglied-Termin)
+ *
+ * <p>Getter und Setter arbeiten auf einfachen Feldern, solange niemand die
+ * Property verlangt. Erst {@code xxxProperty()} (z. B. über eine
+ * {@code PropertyValueFactory} für eine sichtbare Zelle) legt sie an und
+ * übernimmt den aktuellen Wert. So kostet eine Teilnahme für Berichte über
+ * viele Zeilen nur ein Objekt statt sechs.</p>
  */
 public class Teilnahme {
 
-    private final IntegerProperty teilnahmeId = new SimpleIntegerProperty(this, "teilnahmeId", 0);
-    private final IntegerProperty mitgliedId = new SimpleIntegerProperty(this, "mitgliedId", 0);
-    private final IntegerProperty terminId = new SimpleIntegerProperty(this, "terminId", 0);
-    private final IntegerProperty formularId = new SimpleIntegerProperty(this, "formularId", 0);
-    private final ObjectProperty<TeilnahmeStatus> status = new SimpleObjectProperty<>(this, "status", TeilnahmeStatus.ZUGESAGT);
+    private int teilnahmeId;
+    private IntegerProperty teilnahmeIdProperty;
+    private int mitgliedId;
+    private IntegerProperty mitgliedIdProperty;
+    private int terminId;
+    private IntegerProperty terminIdProperty;
+    private int formularId;
+    private IntegerProperty formularIdProperty;
+    private TeilnahmeStatus status = TeilnahmeStatus.ZUGESAGT;
+    private ObjectProperty<TeilnahmeStatus> statusProperty;
 
     // Konstruktoren
     public Teilnahme() {
     }
 
     public Teilnahme(int teilnahmeId, int mitgliedId, int terminId, Integer formularId, TeilnahmeStatus status) {
-        this.teilnahmeId.set(teilnahmeId);
-        this.mitgliedId.set(mitgliedId);
-        this.terminId.set(terminId);
+        this.teilnahmeId = teilnahmeId;
+        this.mitgliedId = mitgliedId;
+        this.terminId = terminId;
         if (formularId != null) {
-            this.formularId.set(formularId);
+            this.formularId = formularId;
         }
-        this.status.set(status);
+        this.status = status;
     }
 
     // teilnahmeId
     public int getTeilnahmeId() {
-        return teilnahmeId.get();
+        return teilnahmeIdProperty != null ? teilnahmeIdProperty.get() : teilnahmeId;
     }
 
     public void setTeilnahmeId(int value) {
-        teilnahmeId.set(value);
+        if (teilnahmeIdProperty != null) {
+            teilnahmeIdProperty.set(value);
+        } else {
+            teilnahmeId = value;
+        }
     }
 
     public IntegerProperty teilnahmeIdProperty() {
-        return teilnahmeId;
+        if (teilnahmeIdProperty == null) {
+            teilnahmeIdProperty = new SimpleIntegerProperty(this, "teilnahmeId", teilnahmeId);
+        }
+        return teilnahmeIdProperty;
     }
 
     // mitgliedId
     public int getMitgliedId() {
-        return mitgliedId.get();
+        return mitgliedIdProperty != null ? mitgliedIdProperty.get() : mitgliedId;
     }
 
     public void setMitgliedId(int value) {
-        mitgliedId.set(value);
+        if (mitgliedIdProperty != null) {
+            mitgliedIdProperty.set(value);
+        } else {
+            mitgliedId = value;
+        }
     }
 
     public IntegerProperty mitgliedIdProperty() {
-        return mitgliedId;
+        if (mitgliedIdProperty == null) {
+            mitgliedIdProperty = new SimpleIntegerProperty(this, "mitgliedId", mitgliedId);
+        }
+        return mitgliedIdProperty;
     }
 
     // terminId
     public int getTerminId() {
-        return terminId.get();
+        return terminIdProperty != null ? terminIdProperty.get() : terminId;
     }
 
     public void setTerminId(int value) {
-        terminId.set(value);
+        if (terminIdProperty != null) {
+            terminIdProperty.set(value);
+        } else {
+            terminId = value;
+        }
     }
 
     public IntegerProperty terminIdProperty() {
-        return terminId;
+        if (terminIdProperty == null) {
+            terminIdProperty = new SimpleIntegerProperty(this, "terminId", terminId);
+        }
+        return terminIdProperty;
     }
 
     // formularId
     public int getFormularId() {
-        return formularId.get();
+        return formularIdProperty != null ? formularIdProperty.get() : formularId;
     }
 
     public void setFormularId(int value) {
-        formularId.set(value);
+        if (formularIdProperty != null) {
+            formularIdProperty.set(value);
+        } else {
+            formularId = value;
+        }
     }
 
     public IntegerProperty formularIdProperty() {
-        return formularId;
+        if (formularIdProperty == null) {
+            formularIdProperty = new SimpleIntegerProperty(this, "formularId", formularId);
+        }
+        return formularIdProperty;
     }
 
     // status
     public TeilnahmeStatus getStatus() {
-        return status.get();
+        return statusProperty != null ? statusProperty.get() : status;
     }
 
     public void setStatus(TeilnahmeStatus value) {
-        status.set(value);
+        if (statusProperty != null) {
+            statusProperty.set(value);
+        } else {
+            status = value;
+        }
     }
 
     public ObjectProperty<TeilnahmeStatus> statusProperty() {
-        return status;
+        if (statusProperty == null) {
+            statusProperty = new SimpleObjectProperty<>(this, "status", status);
+        }
+        return statusProperty;
     }
 
     @Override
     public String toString() {
-        return "Teilnahme #" + teilnahmeId.get() + " - " + status.get();
+        return "Teilnahme #" + getTeilnahmeId() + " - " + getStatus();
     }
 }
@@ -0,0 +1,309 @@
+package ch.hftm.model;
+
+import java.util.Arrays;
+
+/**
+ * Spaltenweiser Speicher für viele Teilnahmen, z. B. für
+ * Anwesenheitsauswertungen über die ganze Historie.
+ *
+ * <p>Jede Teilnahme belegt 13 Byte in drei {@code int}- und einem
+ * {@code byte}-Array (Status als Ordinalzahl) statt eines Objekts mit
+ * Properties. Fehlende oder unbekannte Status werden als eigener Wert
+ * gezählt, nicht einem Status zugeschlagen. Für Abfragen nach Mitglied
+ * bzw. Termin wird beim ersten Zugriff je ein Index aufgebaut: eine offene
+ * Hashtabelle von der ID auf eine Gruppennummer, die Anzahl pro Gruppe und
+ * Status sowie die Zeilennummern jeder Gruppe zusammenhängend in einem
+ * Array. Zählen ist danach ein Array-Zugriff. Neue Zeilen verwerfen die
+ * Indizes.</p>
+ *
+ * <p>Nicht threadsicher; wird typischerweise in einem Hintergrund-Thread
+ * befüllt und danach nur noch gelesen.</p>
+ */
+public final class TeilnahmeColumnStore {
+
+    private static final TeilnahmeStatus[] STATUS = TeilnahmeStatus.values();
+    // Ein Zähler pro Status plus einer für fehlende/unbekannte Status
+    private static final int SLOTS = STATUS.length + 1;
+    private static final byte UNBEKANNT = (byte) STATUS.length;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] mitgliedIds;
+    private int[] terminIds;
+    private int[] formularIds;
+    private byte[] status;
+    private int size;
+
+    private Index byMitglied;
+    private Index byTermin;
+
+    public TeilnahmeColumnStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param capacity erwartete Anzahl Teilnahmen
+     */
+    public TeilnahmeColumnStore(int capacity) {
+        int c = Math.max(capacity, 16);
+        mitgliedIds = new int[c];
+        terminIds = new int[c];
+        formularIds = new int[c];
+        status = new byte[c];
+    }
+
+    /**
+     * @param formularId {@code 0}, wenn kein Formular verknüpft ist
+     * @param status {@code null} für einen fehlenden oder unbekannten Status;
+     * wird separat gezählt, siehe {@link #count(TeilnahmeStatus)}
+     */
+    public void add(int mitgliedId, int terminId, int formularId, TeilnahmeStatus status) {
+        if (size == mitgliedIds.length) {
+            int c = size * 2;
+            mitgliedIds = Arrays.copyOf(mitgliedIds, c);
+            terminIds = Arrays.copyOf(terminIds, c);
+            formularIds = Arrays.copyOf(formularIds, c);
+            this.status = Arrays.copyOf(this.status, c);
+        }
+        mitgliedIds[size] = mitgliedId;
+        terminIds[size] = terminId;
+        formularIds[size] = formularId;
+        this.status[size] = (byte) slot(status);
+        size++;
+        byMitglied = null;
+        byTermin = null;
+    }
+
+    public void add(TeilnahmeRow row) {
+        add(row.mitgliedId(), row.terminId(), row.formularId(), row.status());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int mitgliedId(int row) {
+        return mitgliedIds[checkRow(row)];
+    }
+
+    public int terminId(int row) {
+        return terminIds[checkRow(row)];
+    }
+
+    /**
+     * @return {@code 0}, wenn kein Formular verknüpft ist
+     */
+    public int formularId(int row) {
+        return formularIds[checkRow(row)];
+    }
+
+    /**
+     * @return {@code null}, wenn der Status fehlt oder unbekannt ist
+     */
+    public TeilnahmeStatus status(int row) {
+        byte s = status[checkRow(row)];
+        return s == UNBEKANNT ? null : STATUS[s];
+    }
+
+    /**
+     * Anzahl Teilnahmen mit dem Status über alle Mitglieder und Termine
+     *
+     * @param s {@code null} zählt die Teilnahmen mit fehlendem oder
+     * unbekanntem Status
+     */
+    public int count(TeilnahmeStatus s) {
+        int n = 0;
+        byte ordinal = (byte) slot(s);
+        for (int i = 0; i < size; i++) {
+            if (status[i] == ordinal) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public int countByMitglied(int mitgliedId) {
+        return mitgliedIndex().count(mitgliedId);
+    }
+
+    public int countByMitglied(int mitgliedId, TeilnahmeStatus s) {
+        return mitgliedIndex().count(mitgliedId, s);
+    }
+
+    public int countByTermin(int terminId) {
+        return terminIndex().count(terminId);
+    }
+
+    public int countByTermin(int terminId, TeilnahmeStatus s) {
+        return terminIndex().count(terminId, s);
+    }
+
+    /**
+     * Zeilennummern der Teilnahmen des Mitglieds in Einfügereihenfolge
+     */
+    public int[] rowsByMitglied(int mitgliedId) {
+        return mitgliedIndex().rows(mitgliedId);
+    }
+
+    /**
+     * Zeilennummern der Teilnahmen am Termin in Einfügereihenfolge
+     */
+    public int[] rowsByTermin(int terminId) {
+        return terminIndex().rows(terminId);
+    }
+
+    /**
+     * Alle vorkommenden Mitglied-IDs in der Reihenfolge ihres ersten
+     * Auftretens
+     */
+    public int[] mitgliedIds() {
+        return mitgliedIndex().keys();
+    }
+
+    /**
+     * Alle vorkommenden Termin-IDs in der Reihenfolge ihres ersten Auftretens
+     */
+    public int[] terminIds() {
+        return terminIndex().keys();
+    }
+
+    private Index mitgliedIndex() {
+        if (byMitglied == null) {
+            byMitglied = new Index(mitgliedIds, status, size);
+        }
+        return byMitglied;
+    }
+
+    private Index terminIndex() {
+        if (byTermin == null) {
+            byTermin = new Index(terminIds, status, size);
+        }
+        return byTermin;
+    }
+
+    private static int slot(TeilnahmeStatus s) {
+        return s != null ? s.ordinal() : UNBEKANNT;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Zeile " + row + " bei " + size + " Teilnahmen");
+        }
+        return row;
+    }
+
+    /**
+     * Gruppiert die Zeilen nach einer ID-Spalte, ohne Boxing
+     */
+    private static final class Index {
+
+        // Gruppennummer + 1 pro Hash-Slot, 0 = frei (lineares Sondieren)
+        private int[] table = new int[16];
+        private int[] keys = new int[8];
+        private int groups;
+        // Anzahl pro Gruppe und Status: counts[gruppe * SLOTS + ordinal]
+        private int[] counts = new int[8 * SLOTS];
+        // Zeilen der Gruppe g stehen in rows[offsets[g]] bis rows[offsets[g + 1] - 1]
+        private final int[] offsets;
+        private final int[] rows;
+
+        Index(int[] column, byte[] status, int size) {
+            for (int i = 0; i < size; i++) {
+                int g = groupOrAdd(column[i]);
+                counts[g * SLOTS + status[i]]++;
+            }
+            offsets = new int[groups + 1];
+            for (int g = 0; g < groups; g++) {
+                offsets[g + 1] = offsets[g] + groupSize(g);
+            }
+            int[] next = Arrays.copyOf(offsets, groups);
+            rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[next[group(column[i])]++] = i;
+            }
+        }
+
+        int count(int key) {
+            int g = group(key);
+            return g < 0 ? 0 : offsets[g + 1] - offsets[g];
+        }
+
+        int count(int key, TeilnahmeStatus s) {
+            int g = group(key);
+            return g < 0 ? 0 : counts[g * SLOTS + slot(s)];
+        }
+
+        int[] rows(int key) {
+            int g = group(key);
+            return g < 0 ? new int[0] : Arrays.copyOfRange(rows, offsets[g], offsets[g + 1]);
+        }
+
+        int[] keys() {
+            return Arrays.copyOf(keys, groups);
+        }
+
+        private int groupSize(int g) {
+            int base = g * SLOTS;
+            int n = 0;
+            for (int s = 0; s < SLOTS; s++) {
+                n += counts[base + s];
+            }
+            return n;
+        }
+
+        private int group(int key) {
+            int mask = table.length - 1;
+            for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (keys[entry - 1] == key) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        private int groupOrAdd(int key) {
+            int mask = table.length - 1;
+            int slot = hash(key) & mask;
+            for (;; slot = (slot + 1) & mask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    break;
+                }
+                if (keys[entry - 1] == key) {
+                    return entry - 1;
+                }
+            }
+            int g = groups++;
+            if (g == keys.length) {
+                keys = Arrays.copyOf(keys, g * 2);
+                counts = Arrays.copyOf(counts, g * 2 * SLOTS);
+            }
+            keys[g] = key;
+            table[slot] = g + 1;
+            // Höchstens halb voll, damit die Sondierketten kurz bleiben
+            if (groups * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            return g;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int g = 0; g < groups; g++) {
+                int slot = hash(keys[g]) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = g + 1;
+            }
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ch.hftm.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Teilnahme mit den Anzeigedaten von Mitglied, Termin und Formular
+ *
+ * <p>Wird in einer einzigen JOIN-Abfrage geladen; die zusätzlichen Felder
+ * sind eine Momentaufnahme und nur lesbar.</p>
+ */
+public class TeilnahmeDetail extends Teilnahme {
+
+    private final String mitgliedVorname;
+    private final String mitgliedNachname;
+    private final LocalDate terminDatum;
+    private final LocalTime terminUhrzeit;
+    private final String terminOrt;
+    private final String formularTyp;
+
+    public TeilnahmeDetail(int teilnahmeId, int mitgliedId, int terminId, Integer formularId, TeilnahmeStatus status,
+            String mitgliedVorname, String mitgliedNachname, LocalDate terminDatum, LocalTime terminUhrzeit,
+            String terminOrt, String formularTyp) {
+        super(teilnahmeId, mitgliedId, terminId, formularId, status);
+        this.mitgliedVorname = mitgliedVorname;
+        this.mitgliedNachname = mitgliedNachname;
+        this.terminDatum = terminDatum;
+        this.terminUhrzeit = terminUhrzeit;
+        this.terminOrt = terminOrt;
+        this.formularTyp = formularTyp;
+    }
+
+    public String getMitgliedVorname() {
+        return mitgliedVorname;
+    }
+
+    public String getMitgliedNachname() {
+        return mitgliedNachname;
+    }
+
+    /**
+     * Vor- und Nachname des Mitglieds
+     */
+    public String getMitgliedName() {
+        if (mitgliedVorname == null) {
+            return mitgliedNachname != null ? mitgliedNachname : "";
+        }
+        return mitgliedNachname != null ? mitgliedVorname + " " + mitgliedNachname : mitgliedVorname;
+    }
+
+    public LocalDate getTerminDatum() {
+        return terminDatum;
+    }
+
+    public LocalTime getTerminUhrzeit() {
+        return terminUhrzeit;
+    }
+
+    public String getTerminOrt() {
+        return terminOrt;
+    }
+
+    /**
+     * Typ des verknüpften Formulars oder {@code null}
+     */
+    public String getFormularTyp() {
+        return formularTyp;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " (" + getMitgliedName() + ", " + terminDatum + ")";
+    }
+}
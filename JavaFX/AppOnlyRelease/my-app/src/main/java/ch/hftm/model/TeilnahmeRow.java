@@ -0,0 +1,22 @@
+package ch.hftm.model;
+
+/**
+ * Unveränderliche Lesesicht auf eine Teilnahme für Auswertungen über viele
+ * Zeilen
+ *
+ * <p>Vier Zahlen und ein Enum statt fünf JavaFX-Properties mit
+ * Rückverweisen; {@link #toTeilnahme()} erzeugt das bindbare Modell.</p>
+ *
+ * @param formularId {@code 0}, wenn kein Formular verknüpft ist
+ */
+public record TeilnahmeRow(int teilnahmeId, int mitgliedId, int terminId, int formularId, TeilnahmeStatus status) {
+
+    public static TeilnahmeRow of(Teilnahme t) {
+        return new TeilnahmeRow(t.getTeilnahmeId(), t.getMitgliedId(), t.getTerminId(), t.getFormularId(),
+                t.getStatus());
+    }
+
+    public Teilnahme toTeilnahme() {
+        return new Teilnahme(teilnahmeId, mitgliedId, terminId, formularId > 0 ? formularId : null, status);
+    }
+}
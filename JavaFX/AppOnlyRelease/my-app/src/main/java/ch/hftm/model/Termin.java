@@ -14,94 +14,138 @@ import javafx.beans.property.StringProperty;
 
 /**
  * Model-Klasse für einen Termin (Training oder Veranstaltung)
+ *
+ * <p>Die Werte liegen in einfachen Feldern. Die JavaFX-Property eines Felds
+ * entsteht erst beim ersten Aufruf von {@code xxxProperty()}, z. B. durch eine
+ * Tabellenspalte, und hält den Wert ab dann.</p>
  */
 public class Termin {
 
-    private final IntegerProperty terminId = new SimpleIntegerProperty(this, "terminId", 0);
-    private final ObjectProperty<LocalDate> datum = new SimpleObjectProperty<>(this, "datum");
-    private final ObjectProperty<LocalTime> uhrzeit = new SimpleObjectProperty<>(this, "uhrzeit");
-    private final StringProperty ort = new SimpleStringProperty(this, "ort", "");
-    private final BooleanProperty ferienFlag = new SimpleBooleanProperty(this, "ferienFlag", false);
+    private int terminId;
+    private IntegerProperty terminIdProperty;
+    private LocalDate datum;
+    private ObjectProperty<LocalDate> datumProperty;
+    private LocalTime uhrzeit;
+    private ObjectProperty<LocalTime> uhrzeitProperty;
+    private String ort = "";
+    private StringProperty ortProperty;
+    private boolean ferienFlag;
+    private BooleanProperty ferienFlagProperty;
 
     // Konstruktoren
     public Termin() {
     }
 
     public Termin(int terminId, LocalDate datum, LocalTime uhrzeit, String ort, boolean ferienFlag) {
-        this.terminId.set(terminId);
-        this.datum.set(datum);
-        this.uhrzeit.set(uhrzeit);
-        this.ort.set(ort);
-        this.ferienFlag.set(ferienFlag);
+        this.terminId = terminId;
+        this.datum = datum;
+        this.uhrzeit = uhrzeit;
+        this.ort = ort;
+        this.ferienFlag = ferienFlag;
     }
 
     // terminId
     public int getTerminId() {
-        return terminId.get();
+        return terminIdProperty != null ? terminIdProperty.get() : terminId;
     }
 
     public void setTerminId(int value) {
-        terminId.set(value);
+        if (terminIdProperty != null) {
+            terminIdProperty.set(value);
+        } else {
+            terminId = value;
+        }
     }
 
     public IntegerProperty terminIdProperty() {
-        return terminId;
+        if (terminIdProperty == null) {
+            terminIdProperty = new SimpleIntegerProperty(this, "terminId", terminId);
+        }
+        return terminIdProperty;
     }
 
     // datum
     public LocalDate getDatum() {
-        return datum.get();
+        return datumProperty != null ? datumProperty.get() : datum;
     }
 
     public void setDatum(LocalDate value) {
-        datum.set(value);
+        if (datumProperty != null) {
+            datumProperty.set(value);
+        } else {
+            datum = value;
+        }
     }
 
     public ObjectProperty<LocalDate> datumProperty() {
-        return datum;
+        if (datumProperty == null) {
+            datumProperty = new SimpleObjectProperty<>(this, "datum", datum);
+        }
+        return datumProperty;
     }
 
     // uhrzeit
     public LocalTime getUhrzeit() {
-        return uhrzeit.get();
+        return uhrzeitProperty != null ? uhrzeitProperty.get() : uhrzeit;
     }
 
     public void setUhrzeit(LocalTime value) {
-        uhrzeit.set(value);
+        if (uhrzeitProperty != null) {
+            uhrzeitProperty.set(value);
+        } else {
+            uhrzeit = value;
+        }
     }
 
     public ObjectProperty<LocalTime> uhrzeitProperty() {
-        return uhrzeit;
+        if (uhrzeitProperty == null) {
+            uhrzeitProperty = new SimpleObjectProperty<>(this, "uhrzeit", uhrzeit);
+        }
+        return uhrzeitProperty;
     }
 
     // ort
     public String getOrt() {
-        return ort.get();
+        return ortProperty != null ? ortProperty.get() : ort;
     }
 
     public void setOrt(String value) {
-        ort.set(value);
+        if (ortProperty != null) {
+            ortProperty.set(value);
+        } else {
+            ort = value;
+        }
     }
 
     public StringProperty ortProperty() {
-        return ort;
+        if (ortProperty == null) {
+            ortProperty = new SimpleStringProperty(this, "ort", ort);
+        }
+        return ortProperty;
     }
 
     // ferienFlag
     public boolean isFerienFlag() {
-        return ferienFlag.get();
+        return ferienFlagProperty != null ? ferienFlagProperty.get() : ferienFlag;
     }
 
     public void setFerienFlag(boolean value) {
-        ferienFlag.set(value);
+        if (ferienFlagProperty != null) {
+            ferienFlagProperty.set(value);
+        } else {
+            ferienFlag = value;
+        }
     }
 
     public BooleanProperty ferienFlagProperty() {
-        return ferienFlag;
+        if (ferienFlagProperty == null) {
+            ferienFlagProperty = new SimpleBooleanProperty(this, "ferienFlag", ferienFlag);
+        }
+        return ferienFlagProperty;
     }
 
     @Override
     public String toString() {
-        return datum.get() + " " + uhrzeit.get() + " - " + ort.get();
+        return getDatum() + " " + getUhrzeit() + " - " + getOrt();
     }
 }
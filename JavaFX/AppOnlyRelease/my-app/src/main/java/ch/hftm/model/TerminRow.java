@@ -0,0 +1,23 @@
+package ch.hftm.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Unveränderliche Lesesicht auf einen Termin für Pfade ohne Oberfläche, z. B.
+ * Erinnerungen oder Auswertungen
+ *
+ * <p>Hält nur die Werte selbst; das bindbare {@link Termin} mit seinen
+ * JavaFX-Properties entsteht erst über {@link #toTermin()}, wenn die Zeile
+ * in einer Tabelle angezeigt wird.</p>
+ */
+public record TerminRow(int terminId, LocalDate datum, LocalTime uhrzeit, String ort, boolean ferienFlag) {
+
+    public static TerminRow of(Termin t) {
+        return new TerminRow(t.getTerminId(), t.getDatum(), t.getUhrzeit(), t.getOrt(), t.isFerienFlag());
+    }
+
+    public Termin toTermin() {
+        return new Termin(terminId, datum, uhrzeit, ort, ferienFlag);
+    }
+}
@@ -0,0 +1,176 @@
+package ch.hftm.persistence;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.hftm.util.ExportColumn;
+import ch.hftm.util.ExportFormat;
+import ch.hftm.util.ExportListener;
+
+/**
+ * Exportiert Termine und Teilnahmen eines Jahres als Archiv in einem
+ * {@link ExportFormat}.
+ *
+ * <p>Wie beim CSV-Export läuft die Abfrage als Server-Cursor und die Zeilen
+ * gehen ohne Modellobjekte direkt in den Writer des Formats. Die Spalten sind
+ * typisiert (Zahl, Datum, Text), damit das Spaltenformat IDs und Daten
+ * delta- und Texte per Wörterbuch kodieren kann.</p>
+ */
+public class ArchiveExporter {
+
+    private static final Logger LOGGER = Logger.getLogger(ArchiveExporter.class.getName());
+
+    static final int PROGRESS_INTERVAL_ROWS = 5000;
+
+    /**
+     * Archivierbare Daten mit Abfrage (Parameter: Jahresanfang, Folgejahr)
+     * und Spalten
+     */
+    public enum Dataset {
+        TERMINE("Termine",
+                "SELECT termin_id, datum, to_char(uhrzeit, 'HH24:MI'), ort, "
+                + "CASE WHEN ferien_flag THEN 'Ja' ELSE 'Nein' END "
+                + "FROM termin WHERE datum >= ? AND datum < ? "
+                + "ORDER BY datum, uhrzeit, termin_id",
+                List.of(ExportColumn.integer("termin_id"), ExportColumn.date("datum"), ExportColumn.text("uhrzeit"),
+                        ExportColumn.text("ort"), ExportColumn.text("ferien"))),
+        TEILNAHMEN("Teilnahmen",
+                "SELECT t.teilnahme_id, t.mitglied_id, m.vorname || ' ' || m.nachname, t.termin_id, te.datum, te.ort, "
+                + "t.status, t.formular_id, f.typ "
+                + "FROM teilnahme t "
+                + "JOIN mitglied m ON m.mitglied_id = t.mitglied_id "
+                + "JOIN termin te ON te.termin_id = t.termin_id "
+                + "LEFT JOIN formular f ON f.formular_id = t.formular_id "
+                + "WHERE te.datum >= ? AND te.datum < ? "
+                + "ORDER BY te.datum, t.teilnahme_id",
+                List.of(ExportColumn.integer("teilnahme_id"), ExportColumn.integer("mitglied_id"),
+                        ExportColumn.text("mitglied"), ExportColumn.integer("termin_id"), ExportColumn.date("datum"),
+                        ExportColumn.text("ort"), ExportColumn.text("status"), ExportColumn.integer("formular_id"),
+                        ExportColumn.text("formular_typ")));
+
+        private final String beschreibung;
+        private final String sql;
+        private final List<ExportColumn> columns;
+
+        Dataset(String beschreibung, String sql, List<ExportColumn> columns) {
+            this.beschreibung = beschreibung;
+            this.sql = sql;
+            this.columns = columns;
+        }
+
+        public String getBeschreibung() {
+            return beschreibung;
+        }
+
+        /**
+         * Spalten der Archivdatei, z. B. zum Lesen mit
+         * {@link ExportFormat#openReader}
+         */
+        public List<ExportColumn> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Schreibt die Daten eines Jahres in die Datei.
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     * @return Anzahl exportierter Zeilen oder {@code -1} bei einem Fehler oder
+     * wenn der Thread unterbrochen wurde
+     */
+    public long export(Dataset dataset, int jahr, ExportFormat format, Path file, ExportListener listener) {
+        List<ExportColumn> columns = dataset.getColumns();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // PostgreSQL nutzt die Fetch-Size nur innerhalb einer Transaktion
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(dataset.sql);
+                    CountingOutputStream counting = new CountingOutputStream(Files.newOutputStream(file));
+                    ExportFormat.RecordWriter out = format.openWriter(counting, columns)) {
+                ps.setFetchSize(CursorCsvExport.FETCH_SIZE);
+                ps.setDate(1, Date.valueOf(LocalDate.of(jahr, 1, 1)));
+                ps.setDate(2, Date.valueOf(LocalDate.of(jahr + 1, 1, 1)));
+                Object[] values = new Object[columns.size()];
+                long rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        for (int c = 0; c < values.length; c++) {
+                            values[c] = read(rs, c + 1, columns.get(c).type());
+                        }
+                        out.write(values);
+                        rows++;
+                        if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                LOGGER.log(Level.INFO, "Archiv-Export der {0} abgebrochen", dataset.getBeschreibung());
+                                return -1;
+                            }
+                            if (listener != null) {
+                                listener.progress(rows, counting.count);
+                            }
+                        }
+                    }
+                }
+                out.close();
+                if (listener != null) {
+                    listener.progress(rows, counting.count);
+                }
+                return rows;
+            } finally {
+                conn.rollback();
+            }
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Archiv-Export der " + dataset.getBeschreibung() + " " + jahr
+                    + " nach " + file, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Liest einen Spaltenwert als Java-Wert des Exporttyps
+     */
+    static Object read(ResultSet rs, int column, ExportColumn.Type type) throws SQLException {
+        return switch (type) {
+            case INTEGER -> {
+                int value = rs.getInt(column);
+                yield rs.wasNull() ? null : value;
+            }
+            case DATE -> rs.getObject(column, LocalDate.class);
+            case TEXT -> rs.getString(column);
+        };
+    }
+
+    /**
+     * Zählt die in die Datei geschriebenen (komprimierten) Bytes
+     */
+    static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ch.hftm.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JDBC-Batching für die {@code saveAll}/{@code updateAll}/{@code deleteAll}
+ * Methoden der Repositories.
+ *
+ * <p>Alle Zeilen werden in einer Transaktion geschrieben und in Blöcken zu
+ * {@link DatabaseConnection#getBatchSize()} Zeilen mit
+ * {@code executeBatch()} gesendet. Mit {@code reWriteBatchedInserts} fasst
+ * der Treiber INSERTs eines Blocks zu einem mehrzeiligen INSERT zusammen.
+ * Bei einem Fehler wird die ganze Transaktion zurückgerollt, mit
+ * {@link #writeExisting} auch dann, wenn eine Zeile keinen Datensatz
+ * trifft.</p>
+ */
+final class BatchWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchWriter.class.getName());
+
+    /**
+     * Setzt die Parameter einer Zeile.
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    /**
+     * Übernimmt den generierten Schlüssel einer eingefügten Zeile.
+     */
+    @FunctionalInterface
+    interface KeySetter<T> {
+
+        void setKey(T item, int key);
+    }
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Schreibt alle Elemente mit derselben Anweisung.
+     *
+     * @param keySetter erhält nach dem Commit die generierten Schlüssel in der
+     * Reihenfolge der Elemente; {@code null}, wenn keine erzeugt werden
+     * @param beschreibung für die Fehlermeldung, z. B. "Speichern der Termine"
+     * @return {@code true}, wenn alle Zeilen geschrieben wurden
+     */
+    static <T> boolean write(String sql, Collection<? extends T> items, Binder<? super T> binder,
+            KeySetter<? super T> keySetter, String beschreibung) {
+        return write(sql, items, binder, keySetter, false, beschreibung);
+    }
+
+    /**
+     * Wie {@link #write}, für UPDATE/DELETE per ID: jedes Element muss
+     * mindestens einen Datensatz treffen, sonst wird alles zurückgerollt
+     * (z. B. wenn ein anderer Arbeitsplatz die Zeile inzwischen gelöscht hat)
+     *
+     * @return {@code true}, wenn jedes Element mindestens eine Zeile geändert
+     * hat
+     */
+    static <T> boolean writeExisting(String sql, Collection<? extends T> items, Binder<? super T> binder,
+            String beschreibung) {
+        return write(sql, items, binder, null, true, beschreibung);
+    }
+
+    private static <T> boolean write(String sql, Collection<? extends T> items, Binder<? super T> binder,
+            KeySetter<? super T> keySetter, boolean requireRow, String beschreibung) {
+        if (items == null || items.isEmpty()) {
+            return true;
+        }
+        List<T> rows = new ArrayList<>(items);
+        int batchSize = DatabaseConnection.getBatchSize();
+        int[] keys = keySetter != null ? new int[rows.size()] : null;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = keySetter != null
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql)) {
+                int start = 0;
+                while (start < rows.size()) {
+                    int end = Math.min(start + batchSize, rows.size());
+                    for (int i = start; i < end; i++) {
+                        binder.bind(ps, rows.get(i));
+                        ps.addBatch();
+                    }
+                    int[] counts = ps.executeBatch();
+                    if (requireRow) {
+                        checkCounts(counts, start);
+                    }
+                    if (keys != null) {
+                        readKeys(ps, keys, start, end);
+                    }
+                    start = end;
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim " + beschreibung + " (" + rows.size() + " Zeilen, zurückgerollt)", e);
+            return false;
+        }
+
+        if (keys != null) {
+            // Erst nach erfolgreichem Commit übernehmen
+            for (int i = 0; i < rows.size(); i++) {
+                keySetter.setKey(rows.get(i), keys[i]);
+            }
+        }
+        return true;
+    }
+
+    private static void checkCounts(int[] counts, int start) throws SQLException {
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO: erfolgreich, Anzahl vom Treiber nicht gemeldet
+            if (counts[i] < 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                throw new SQLException("Element " + (start + i) + " hat keine Zeile getroffen (" + counts[i] + ")");
+            }
+        }
+    }
+
+    private static void readKeys(PreparedStatement ps, int[] keys, int start, int end) throws SQLException {
+        try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+            int i = start;
+            while (i < end && generatedKeys.next()) {
+                keys[i++] = generatedKeys.getInt(1);
+            }
+            if (i < end) {
+                throw new SQLException("Generierte Schlüssel unvollständig: " + (i - start) + " von " + (end - start));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ch.hftm.persistence;
+
+import java.util.Collection;
+
+import ch.hftm.model.Mitglied;
+import ch.hftm.model.MitgliedRow;
+import ch.hftm.util.EntityCache;
+
+/**
+ * {@link MitgliedRepository} mit Read-Through-Cache für {@link #findById(int)}
+ * und {@link #findRowById(int)}.
+ *
+ * <p>Der Cache ist für alle Instanzen gemeinsam; Änderungen über eine
+ * beliebige Instanz invalidieren ihn. Änderungen an der Datenbank an der
+ * Anwendung vorbei (Import, andere Clients) werden spätestens nach der TTL
+ * sichtbar. Gecacht werden unveränderliche {@link MitgliedRow}; {@code findById}
+ * baut daraus jedes Mal ein neues Modell, damit Bearbeitungen in der UI den
+ * gecachten Stand nicht verändern.</p>
+ */
+public class CachingMitgliedRepository extends MitgliedRepository {
+
+    private static final EntityCache<Integer, MitgliedRow> CACHE = new EntityCache<>(
+            DatabaseConnection.getEntityCacheSize(), DatabaseConnection.getEntityCacheTtlMs());
+
+    public static EntityCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * Leert den Cache, z. B. nach einem Import
+     */
+    public static void invalidateCache() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Entfernt ein Mitglied aus dem Cache, z. B. nach einer Änderung durch
+     * einen anderen Client
+     */
+    public static void invalidateCache(int mitgliedId) {
+        CACHE.invalidate(mitgliedId);
+    }
+
+    @Override
+    public MitgliedRow findRowById(int id) {
+        return CACHE.get(id, super::findRowById);
+    }
+
+    @Override
+    public boolean save(Mitglied mitglied) {
+        boolean saved = super.save(mitglied);
+        CACHE.invalidate(mitglied.getMitgliedId());
+        return saved;
+    }
+
+    @Override
+    public boolean update(Mitglied mitglied) {
+        boolean updated = super.update(mitglied);
+        CACHE.invalidate(mitglied.getMitgliedId());
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int mitgliedId) {
+        boolean deleted = super.delete(mitgliedId);
+        CACHE.invalidate(mitgliedId);
+        return deleted;
+    }
+
+    @Override
+    public boolean updateAll(Collection<Mitglied> mitglieder) {
+        boolean updated = super.updateAll(mitglieder);
+        mitglieder.forEach(m -> CACHE.invalidate(m.getMitgliedId()));
+        return updated;
+    }
+
+    @Override
+    public boolean deleteAll(Collection<Integer> mitgliedIds) {
+        boolean deleted = super.deleteAll(mitgliedIds);
+        mitgliedIds.forEach(CACHE::invalidate);
+        return deleted;
+    }
+}
@@ -0,0 +1,83 @@
+package ch.hftm.persistence;
+
+import java.util.Collection;
+
+import ch.hftm.model.Termin;
+import ch.hftm.model.TerminRow;
+import ch.hftm.util.EntityCache;
+
+/**
+ * {@link TerminRepository} mit Read-Through-Cache für {@link #findById(int)}
+ * und {@link #findRowById(int)}.
+ *
+ * <p>Der Cache ist für alle Instanzen gemeinsam; Änderungen über eine
+ * beliebige Instanz invalidieren ihn. Änderungen an der Datenbank an der
+ * Anwendung vorbei (Import, andere Clients) werden spätestens nach der TTL
+ * sichtbar. Gecacht werden unveränderliche {@link TerminRow}; {@code findById}
+ * baut daraus jedes Mal ein neues Modell, damit Bearbeitungen in der UI den
+ * gecachten Stand nicht verändern.</p>
+ */
+public class CachingTerminRepository extends TerminRepository {
+
+    private static final EntityCache<Integer, TerminRow> CACHE = new EntityCache<>(
+            DatabaseConnection.getEntityCacheSize(), DatabaseConnection.getEntityCacheTtlMs());
+
+    public static EntityCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * Leert den Cache, z. B. nach einem Import
+     */
+    public static void invalidateCache() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Entfernt einen Termin aus dem Cache, z. B. nach einer Änderung durch
+     * einen anderen Client
+     */
+    public static void invalidateCache(int terminId) {
+        CACHE.invalidate(terminId);
+    }
+
+    @Override
+    public TerminRow findRowById(int id) {
+        return CACHE.get(id, super::findRowById);
+    }
+
+    @Override
+    public boolean save(Termin termin) {
+        boolean saved = super.save(termin);
+        CACHE.invalidate(termin.getTerminId());
+        return saved;
+    }
+
+    @Override
+    public boolean update(Termin termin) {
+        boolean updated = super.update(termin);
+        CACHE.invalidate(termin.getTerminId());
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int terminId) {
+        boolean deleted = super.delete(terminId);
+        CACHE.invalidate(terminId);
+        return deleted;
+    }
+
+    @Override
+    public boolean updateAll(Collection<Termin> termine) {
+        boolean updated = super.updateAll(termine);
+        termine.forEach(t -> CACHE.invalidate(t.getTerminId()));
+        return updated;
+    }
+
+    @Override
+    public boolean deleteAll(Collection<Integer> terminIds) {
+        boolean deleted = super.deleteAll(terminIds);
+        terminIds.forEach(CACHE::invalidate);
+        return deleted;
+    }
+}
@@ -0,0 +1,61 @@
+package ch.hftm.persistence;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Änderung einer Zeile, gemeldet per {@code NOTIFY} (Migration
+ * {@code 005_change_notify.sql}), auch aus anderen Instanzen der Anwendung.
+ *
+ * @param id Primärschlüssel der geänderten Zeile
+ */
+public record ChangeEvent(Entity entity, Operation operation, int id) {
+
+    public enum Entity {
+        MITGLIED, TERMIN, FORMULAR, TEILNAHME
+    }
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    public boolean isDelete() {
+        return operation == Operation.DELETE;
+    }
+
+    /**
+     * IDs aller Ereignisse zu der Entität
+     */
+    public static Set<Integer> ids(Collection<ChangeEvent> events, Entity entity) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (ChangeEvent event : events) {
+            if (event.entity() == entity) {
+                ids.add(event.id());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Liest die Nutzlast {@code <tabelle>:<operation>:<id>} des Triggers.
+     *
+     * @return Ereignis oder {@code null}, wenn die Nutzlast nicht passt
+     */
+    static ChangeEvent parse(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new ChangeEvent(Entity.valueOf(parts[0].toUpperCase(Locale.ROOT)),
+                    Operation.valueOf(parts[1]), Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
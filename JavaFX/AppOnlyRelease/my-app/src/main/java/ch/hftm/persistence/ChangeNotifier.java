@@ -0,0 +1,242 @@
+package ch.hftm.persistence;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Empfängt Änderungen an Mitgliedern, Terminen, Formularen und Teilnahmen
+ * über {@code LISTEN kud_changes} und verteilt sie an die lokalen Caches und
+ * registrierte Listener.
+ *
+ * <p>Ein eigener Thread hält dafür eine Verbindung ausserhalb des Pools und
+ * wartet blockierend auf Benachrichtigungen – es wird nicht gepollt. Was in
+ * einem Durchgang eintrifft, wird pro Zeile zusammengefasst (letzte Operation
+ * gewinnt) und als ein Block gemeldet. Nach einem Verbindungsabbruch wird
+ * mit wachsender Wartezeit neu verbunden; da dazwischen Änderungen verloren
+ * gehen können, erhalten die Listener danach {@link Listener#resync()}.
+ * Ebenso bei sehr vielen Änderungen auf einmal (z. B. Import), wo neu Laden
+ * günstiger ist als Zeile für Zeile.</p>
+ *
+ * <p>Listener werden auf dem Empfangs-Thread aufgerufen; UI-Code muss selbst
+ * auf den FX-Thread wechseln. Der Treiber ist keine Modul-Abhängigkeit, die
+ * Notification-API wird deshalb wie in {@link PgCopyIn} per Reflection
+ * angesprochen.</p>
+ */
+public final class ChangeNotifier {
+
+    /**
+     * Empfänger von Änderungen
+     */
+    public interface Listener {
+
+        /**
+         * @param events Änderungen seit dem letzten Aufruf, je Zeile höchstens eine
+         */
+        void changed(List<ChangeEvent> events);
+
+        /**
+         * Änderungen wurden evtl. verpasst; angezeigte Daten neu laden.
+         */
+        void resync();
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeNotifier.class.getName());
+
+    static final String CHANNEL = "kud_changes";
+    // Maximale Wartezeit pro Aufruf; danach wird geprüft, ob der Thread beendet werden soll
+    private static final int WAIT_MILLIS = 5_000;
+    // Mehr Änderungen in einem Durchgang werden als Resync gemeldet
+    private static final int MAX_EVENTS_PER_BATCH = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private static final class Api {
+
+        static final Class<?> PG_CONNECTION;
+        static final Method GET_NOTIFICATIONS;
+        static final Method GET_PARAMETER;
+
+        static {
+            try {
+                PG_CONNECTION = Class.forName("org.postgresql.PGConnection");
+                GET_NOTIFICATIONS = PG_CONNECTION.getMethod("getNotifications", int.class);
+                GET_PARAMETER = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static Thread thread;
+    private static volatile boolean running;
+    private static volatile boolean listening;
+
+    private ChangeNotifier() {
+    }
+
+    /**
+     * Startet den Empfangs-Thread (mehrfacher Aufruf ist unschädlich).
+     */
+    public static synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("db-change-listener").start(ChangeNotifier::run);
+    }
+
+    /**
+     * Beendet den Empfangs-Thread; er schliesst seine Verbindung spätestens
+     * nach der maximalen Wartezeit.
+     */
+    public static synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * @return {@code true}, solange Benachrichtigungen empfangen werden; sonst
+     * können geladene Daten veraltet sein
+     */
+    public static boolean isListening() {
+        return listening;
+    }
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void run() {
+        long delay = 1_000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection conn = DatabaseConnection.openDedicatedConnection()) {
+                Object pgConnection = conn.unwrap(Api.PG_CONNECTION);
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                LOGGER.log(Level.INFO, "Warte auf Änderungen (LISTEN {0})", CHANNEL);
+                if (connectedBefore) {
+                    resyncAll();
+                }
+                connectedBefore = true;
+                listening = true;
+                delay = 1_000;
+                while (running) {
+                    List<String> payloads = receive(pgConnection);
+                    if (!payloads.isEmpty()) {
+                        dispatch(payloads);
+                    }
+                }
+            } catch (SQLException | ExceptionInInitializerError | NoClassDefFoundError e) {
+                listening = false;
+                if (!running) {
+                    break;
+                }
+                LOGGER.log(Level.WARNING, "Änderungsbenachrichtigung unterbrochen, neuer Versuch in " + delay + " ms", e);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+        listening = false;
+        LOGGER.fine("Änderungsbenachrichtigung beendet");
+    }
+
+    private static List<String> receive(Object pgConnection) throws SQLException {
+        Object notifications;
+        try {
+            notifications = Api.GET_NOTIFICATIONS.invoke(pgConnection, WAIT_MILLIS);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new SQLException("Benachrichtigungen nicht lesbar: " + e.getCause(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Notification-API des Treibers nicht zugreifbar", e);
+        }
+        if (notifications == null) {
+            return List.of();
+        }
+        int count = Array.getLength(notifications);
+        List<String> payloads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            try {
+                payloads.add((String) Api.GET_PARAMETER.invoke(Array.get(notifications, i)));
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Benachrichtigung nicht lesbar", e);
+            }
+        }
+        return payloads;
+    }
+
+    private static void dispatch(List<String> payloads) {
+        if (payloads.size() > MAX_EVENTS_PER_BATCH) {
+            LOGGER.log(Level.INFO, "{0} Änderungen auf einmal – Ansichten werden neu geladen", payloads.size());
+            resyncAll();
+            return;
+        }
+        // Pro Zeile zählt die letzte Operation
+        Map<String, ChangeEvent> latest = new LinkedHashMap<>();
+        for (String payload : payloads) {
+            ChangeEvent event = ChangeEvent.parse(payload);
+            if (event == null) {
+                LOGGER.log(Level.WARNING, "Unbekannte Änderungsmeldung: {0}", payload);
+                continue;
+            }
+            String key = event.entity() + ":" + event.id();
+            latest.remove(key);
+            latest.put(key, event);
+        }
+        List<ChangeEvent> events = List.copyOf(latest.values());
+        for (ChangeEvent event : events) {
+            switch (event.entity()) {
+                case MITGLIED -> CachingMitgliedRepository.invalidateCache(event.id());
+                case TERMIN -> CachingTerminRepository.invalidateCache(event.id());
+                default -> {
+                    // nicht gecacht
+                }
+            }
+        }
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.changed(events);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Fehler in einem Änderungs-Listener", e);
+            }
+        }
+    }
+
+    private static void resyncAll() {
+        CachingMitgliedRepository.invalidateCache();
+        CachingTerminRepository.invalidateCache();
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.resync();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Fehler in einem Änderungs-Listener", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package ch.hftm.persistence;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Begrenzter Connection-Pool für die PostgreSQL-Verbindungen der Anwendung.
+ *
+ * <p>Ausgeliehene Verbindungen sind Proxies: {@code close()} gibt die
+ * physische Verbindung an den Pool zurück, statt sie abzubauen. Dadurch
+ * entfällt der Verbindungsaufbau (TCP + Authentifizierung) bei jedem
+ * Repository-Aufruf.</p>
+ *
+ * <ul>
+ * <li>Min-/Max-Grösse: {@code maxSize} begrenzt die gleichzeitig offenen
+ * Verbindungen, {@code minSize} wird im Hintergrund vorgehalten</li>
+ * <li>Idle-Eviction: überzählige Verbindungen werden nach
+ * {@code idleTimeoutMs} geschlossen</li>
+ * <li>Validierung beim Ausleihen, wenn die Verbindung länger als
+ * {@code validationIntervalMs} unbenutzt war</li>
+ * <li>Leak-Erkennung: Verbindungen, die länger als {@code leakDetectionMs}
+ * ausgeliehen sind, werden mit Aufrufer-Stacktrace geloggt</li>
+ * <li>Borrow-Timeout: ist der Pool erschöpft, wird höchstens
+ * {@code borrowTimeoutMs} gewartet</li>
+ * <li>Statement-Cache: jede physische Verbindung hält bis zu
+ * {@code statementCacheSize} PreparedStatements ({@link StatementCache})</li>
+ * </ul>
+ */
+class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final Properties connectionProps;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long leakDetectionMs;
+    private final long validationIntervalMs;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
+
+    ConnectionPool(String url, Properties connectionProps, int minSize, int maxSize, long idleTimeoutMs,
+            long borrowTimeoutMs, long leakDetectionMs, long validationIntervalMs, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize muss mindestens 1 sein");
+        }
+        this.url = url;
+        this.connectionProps = connectionProps;
+        this.maxSize = maxSize;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakDetectionMs = leakDetectionMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, Math.min(idleTimeoutMs, 30_000L) / 2);
+        // Erster Lauf sofort: füllt den Pool im Hintergrund auf minSize auf
+        housekeeper.scheduleWithFixedDelay(this::housekeeping, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leiht eine Verbindung aus. Der Aufrufer muss sie mit {@code close()}
+     * zurückgeben (try-with-resources).
+     *
+     * @throws SQLException wenn innerhalb des Borrow-Timeouts keine Verbindung
+     * verfügbar ist oder keine aufgebaut werden kann
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection-Pool ist geschlossen");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Keine freie Datenbankverbindung nach " + borrowTimeoutMs + " ms (Pool-Grösse " + maxSize
+                        + ", ausgeliehen " + borrowed.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf Datenbankverbindung unterbrochen", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = pollIdle()) != null) {
+                if (isUsable(pc)) {
+                    break;
+                }
+                pc.closePhysical();
+            }
+            if (pc == null) {
+                pc = createConnection();
+            }
+            Connection handle = pc.lease(leakDetectionMs > 0 ? new Exception("Verbindung ausgeliehen von") : null);
+            borrowed.add(pc);
+            return handle;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wird vom Proxy bei {@code close()} aufgerufen.
+     */
+    void release(PooledConnection pc) {
+        borrowed.remove(pc);
+        try {
+            if (closed) {
+                pc.closePhysical();
+                return;
+            }
+            try {
+                pc.reset();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Verbindung konnte nicht zurückgesetzt werden – wird verworfen", e);
+                pc.closePhysical();
+                return;
+            }
+            synchronized (idle) {
+                // LIFO: zuletzt benutzte Verbindung zuerst wieder ausgeben (warme Caches, Idle-Eviction greift am Ende)
+                idle.addFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Schliesst alle freien Verbindungen; ausgeliehene werden bei der Rückgabe
+     * geschlossen.
+     */
+    void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (PooledConnection pc : idle) {
+                pc.closePhysical();
+            }
+            idle.clear();
+        }
+        if (!borrowed.isEmpty()) {
+            LOGGER.log(Level.WARNING, "Connection-Pool geschlossen, {0} Verbindung(en) noch ausgeliehen", borrowed.size());
+        }
+    }
+
+    int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    private PooledConnection pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.getLastUsed() < validationIntervalMs) {
+            return true;
+        }
+        try {
+            return pc.getPhysical().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Validierung der Verbindung fehlgeschlagen", e);
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, connectionProps);
+            LOGGER.fine("Neue Datenbankverbindung für den Pool hergestellt");
+            return new PooledConnection(this, physical, statementCacheSize);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Verbinden zur Datenbank", e);
+            throw e;
+        }
+    }
+
+    private void housekeeping() {
+        try {
+            evictIdle();
+            detectLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Fehler im Connection-Pool-Housekeeping", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        synchronized (idle) {
+            int total = idle.size() + borrowed.size();
+            // Älteste freie Verbindungen liegen am Ende der Deque
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.getLastUsed() >= idleTimeoutMs) {
+                    it.remove();
+                    pc.closePhysical();
+                    total--;
+                }
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.isLeakReported() && now - pc.getBorrowedAt() >= leakDetectionMs) {
+                pc.markLeakReported();
+                LOGGER.log(Level.WARNING, "Mögliches Connection-Leak: Verbindung seit " + (now - pc.getBorrowedAt())
+                        + " ms ausgeliehen", pc.getBorrowSite());
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() + borrowed.size() >= minSize) {
+                    return;
+                }
+            }
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                PooledConnection pc = createConnection();
+                synchronized (idle) {
+                    idle.addLast(pc);
+                }
+            } catch (SQLException e) {
+                // Datenbank (noch) nicht erreichbar – nächster Lauf versucht es erneut
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package ch.hftm.persistence;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import ch.hftm.model.FormularStatus;
+import ch.hftm.model.Rolle;
+import ch.hftm.model.TeilnahmeStatus;
+import ch.hftm.util.CsvReader;
+import ch.hftm.util.ValidationUtil;
+
+/**
+ * Massenimport von Mitgliedern, Terminen, Formularen und Teilnahmen aus
+ * CSV-Dateien.
+ *
+ * <p>Ablauf pro Datei in einer Transaktion:</p>
+ * <ol>
+ * <li>Die Datei wird datensatzweise gelesen und jede Zeile mit den Regeln
+ * aus {@link ValidationUtil} geprüft; ungültige Zeilen landen im
+ * Fehlerbericht.</li>
+ * <li>Gültige Zeilen werden per {@code COPY FROM STDIN} in eine temporäre
+ * Staging-Tabelle geschrieben.</li>
+ * <li>Zeilen mit unbekannten Mitglied-/Termin-/Formular-IDs werden
+ * aussortiert und gemeldet.</li>
+ * <li>Ein Merge über den fachlichen Schlüssel aktualisiert vorhandene
+ * Datensätze und fügt die übrigen ein (je eine SQL-Anweisung). Kommt ein
+ * Schlüssel mehrfach in der Datei vor, gilt die letzte Zeile.</li>
+ * </ol>
+ *
+ * <p>Spaltennamen werden ohne Gross-/Kleinschreibung, Sonderzeichen und
+ * Umlaute verglichen ("E-Mail" = "email", "Rückgabedatum" =
+ * "rueckgabedatum"); die Exportdateien der Anwendung können also direkt
+ * wieder importiert werden. ID-Spalten des Datensatzes selbst werden
+ * ignoriert. Trennzeichen (Komma, Semikolon, Tabulator) wird erkannt.</p>
+ */
+public class CsvImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(CsvImporter.class.getName());
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    // Zeichen, ab denen der Puffer an den COPY-Strom übergeben wird
+    private static final int COPY_CHUNK_CHARS = 256 * 1024;
+    private static final int PROGRESS_INTERVAL_ROWS = 1000;
+
+    // STRICT: 31.2. wird abgelehnt statt auf den Monatsletzten gekürzt
+    private static final DateTimeFormatter DATE_DOT_FORMAT = DateTimeFormatter.ofPattern("d.M.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * Fortschritt eines Imports; wird im importierenden Thread aufgerufen.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param zeilen bisher gelesene Datenzeilen
+         * @param bytesGelesen bisher gelesene Bytes der Datei
+         * @param bytesGesamt Dateigrösse in Bytes
+         */
+        void progress(long zeilen, long bytesGelesen, long bytesGesamt);
+    }
+
+    /**
+     * Importierbare Tabellen mit Spalten, fachlichem Schlüssel und
+     * Validierung.
+     */
+    public enum Target {
+
+        MITGLIED("mitglied", List.of("email"), List.of("vorname", "nachname", "rolle"), List.of(),
+                new Column("vorname", "text", "Vorname", true),
+                new Column("nachname", "text", "Nachname", true),
+                new Column("email", "text", "E-Mail", true),
+                new Column("rolle", "text", "Rolle", false)) {
+
+            @Override
+            String[] convert(String[] raw, List<String> errors) {
+                return new String[]{
+                    text(raw[0], "Vorname", 50, errors),
+                    text(raw[1], "Nachname", 50, errors),
+                    email(raw[2], errors),
+                    enumName(raw[3], Rolle.values(), Rolle.MITGLIED, "Rolle", errors)
+                };
+            }
+        },
+        TERMIN("termin", List.of("datum", "uhrzeit", "ort"), List.of("ferien_flag"), List.of(),
+                new Column("datum", "date", "Datum", true),
+                new Column("uhrzeit", "time", "Uhrzeit", true),
+                new Column("ort", "text", "Ort", true),
+                new Column("ferien_flag", "boolean", "Ferien", false, "ferien")) {
+
+            @Override
+            String[] convert(String[] raw, List<String> errors) {
+                return new String[]{
+                    date(raw[0], "Datum", true, errors),
+                    time(raw[1], "Uhrzeit", errors),
+                    text(raw[2], "Ort", 100, errors),
+                    bool(raw[3], "Ferien", errors)
+                };
+            }
+        },
+        FORMULAR("formular", List.of("mitglied_id", "typ", "ausgabedatum"), List.of("rueckgabedatum", "status"),
+                List.of(new Reference("mitglied_id", "mitglied", "Mitglied-ID")),
+                new Column("typ", "text", "Typ", true),
+                new Column("ausgabedatum", "date", "Ausgabedatum", true),
+                new Column("rueckgabedatum", "date", "Rückgabedatum", false),
+                new Column("status", "text", "Status", false),
+                new Column("mitglied_id", "integer", "Mitglied-ID", true, "mitglied")) {
+
+            @Override
+            String[] convert(String[] raw, List<String> errors) {
+                return new String[]{
+                    text(raw[0], "Typ", 50, errors),
+                    date(raw[1], "Ausgabedatum", true, errors),
+                    date(raw[2], "Rückgabedatum", false, errors),
+                    enumName(raw[3], FormularStatus.values(), FormularStatus.AUSSTEHEND, "Status", errors),
+                    id(raw[4], "Mitglied-ID", true, errors)
+                };
+            }
+        },
+        TEILNAHME("teilnahme", List.of("mitglied_id", "termin_id"), List.of("formular_id", "status"),
+                List.of(new Reference("mitglied_id", "mitglied", "Mitglied-ID"),
+                        new Reference("termin_id", "termin", "Termin-ID"),
+                        new Reference("formular_id", "formular", "Formular-ID")),
+                new Column("mitglied_id", "integer", "Mitglied-ID", true, "mitglied"),
+                new Column("termin_id", "integer", "Termin-ID", true, "termin"),
+                new Column("formular_id", "integer", "Formular-ID", false, "formular"),
+                new Column("status", "text", "Status", false)) {
+
+            @Override
+            String[] convert(String[] raw, List<String> errors) {
+                return new String[]{
+                    id(raw[0], "Mitglied-ID", true, errors),
+                    id(raw[1], "Termin-ID", true, errors),
+                    id(raw[2], "Formular-ID", false, errors),
+                    enumName(raw[3], TeilnahmeStatus.values(), TeilnahmeStatus.ZUGESAGT, "Status", errors)
+                };
+            }
+        };
+
+        private final String table;
+        private final List<String> keyColumns;
+        private final List<String> valueColumns;
+        private final List<Reference> references;
+        private final Column[] columns;
+
+        Target(String table, List<String> keyColumns, List<String> valueColumns, List<Reference> references, Column... columns) {
+            this.table = table;
+            this.keyColumns = keyColumns;
+            this.valueColumns = valueColumns;
+            this.references = references;
+            this.columns = columns;
+        }
+
+        /**
+         * Prüft und normalisiert eine Zeile.
+         *
+         * @param raw Rohwerte in Spaltenreihenfolge ({@code null}, wenn die
+         * Spalte in der Datei fehlt)
+         * @param errors nimmt Fehlermeldungen auf
+         * @return Werte für COPY ({@code null} = SQL NULL)
+         */
+        abstract String[] convert(String[] raw, List<String> errors);
+
+        String stagingTable() {
+            return "import_" + table;
+        }
+
+        String createStagingSql() {
+            return "CREATE TEMP TABLE " + stagingTable() + " (zeile bigint, "
+                    + Stream.of(columns).map(c -> c.name + " " + c.sqlType).collect(Collectors.joining(", "))
+                    + ") ON COMMIT DROP";
+        }
+
+        String copySql() {
+            return "COPY " + stagingTable() + " (zeile, " + columnList("") + ") FROM STDIN WITH (FORMAT csv)";
+        }
+
+        String deleteUnknownSql(Reference ref) {
+            return "DELETE FROM " + stagingTable() + " s WHERE s." + ref.column + " IS NOT NULL "
+                    + "AND NOT EXISTS (SELECT 1 FROM " + ref.table + " r WHERE r." + ref.column + " = s." + ref.column + ") "
+                    + "RETURNING s.zeile, s." + ref.column;
+        }
+
+        /**
+         * Aktualisiert vorhandene Datensätze (nur bei geänderten Werten)
+         *
+         * @param present Wertspalten, die in der Datei vorkommen; fehlende
+         * Spalten behalten ihren Wert in der Datenbank
+         */
+        String updateSql(List<String> present) {
+            return "UPDATE " + table + " t SET "
+                    + present.stream().map(c -> c + " = s." + c).collect(Collectors.joining(", "))
+                    + " FROM " + deduplicated()
+                    + " WHERE " + keyMatch()
+                    + " AND (" + prefixed(present, "t.") + ") IS DISTINCT FROM (" + prefixed(present, "s.") + ")";
+        }
+
+        /**
+         * Fügt Datensätze ein, deren Schlüssel noch nicht existiert
+         */
+        String insertSql() {
+            return "INSERT INTO " + table + " (" + columnList("") + ") SELECT " + columnList("s.")
+                    + " FROM " + deduplicated()
+                    + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " t WHERE " + keyMatch() + ")";
+        }
+
+        private String deduplicated() {
+            String keys = String.join(", ", keyColumns);
+            return "(SELECT DISTINCT ON (" + keys + ") * FROM " + stagingTable() + " ORDER BY " + keys + ", zeile DESC) s";
+        }
+
+        private String keyMatch() {
+            return keyColumns.stream().map(c -> "t." + c + " = s." + c).collect(Collectors.joining(" AND "));
+        }
+
+        private String columnList(String prefix) {
+            return Stream.of(columns).map(c -> prefix + c.name).collect(Collectors.joining(", "));
+        }
+
+        private static String prefixed(List<String> names, String prefix) {
+            return names.stream().map(n -> prefix + n).collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * Zielspalte mit zulässigen Spaltennamen in der Datei; optionale Spalten
+     * dürfen in der Datei fehlen.
+     */
+    private record Column(String name, String sqlType, String label, boolean required, String... aliases) {
+
+        boolean matches(String normalizedHeader) {
+            if (normalizedHeader.equals(normalize(name)) || normalizedHeader.equals(normalize(label))) {
+                return true;
+            }
+            for (String alias : aliases) {
+                if (normalizedHeader.equals(normalize(alias))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Fremdschlüssel, der vor dem Merge geprüft wird.
+     */
+    private record Reference(String column, String table, String label) {
+    }
+
+    /**
+     * Importiert eine CSV-Datei in einer Transaktion.
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     */
+    public ImportResult importCsv(Target target, Path file, ProgressListener listener) {
+        ImportResult result = new ImportResult();
+        long totalBytes = 0;
+        try {
+            totalBytes = Files.size(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Dateigrösse nicht ermittelbar: " + file, e);
+        }
+
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            reader.mark(READ_BUFFER_SIZE);
+            String firstLine = reader.readLine();
+            reader.reset();
+            CsvReader csv = new CsvReader(reader, CsvReader.detectDelimiter(firstLine));
+
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                result.fail("Die Datei ist leer.");
+                return result;
+            }
+            int[] mapping = mapHeader(target, header, result);
+            if (mapping == null) {
+                return result;
+            }
+
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (Statement st = conn.createStatement()) {
+                        st.execute(target.createStagingSql());
+                    }
+                    copyRows(conn, target, csv, mapping, result, counting, totalBytes, listener);
+                    merge(conn, target, presentValueColumns(target, mapping), result);
+                    conn.commit();
+                    result.complete();
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "CSV-Import aus " + file + " fehlgeschlagen", e);
+            result.fail("Datei konnte nicht gelesen werden: " + e.getMessage());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "CSV-Import in " + target.table + " fehlgeschlagen", e);
+            result.fail("Datenbankfehler: " + e.getMessage());
+        }
+
+        if (listener != null) {
+            listener.progress(result.getRowsRead(), totalBytes, totalBytes);
+        }
+        LOGGER.log(Level.INFO, "CSV-Import {0}: {1}", new Object[]{target, result});
+        return result;
+    }
+
+    /**
+     * Importiert eine CSV-Datei ausserhalb des FX-Threads. Fortschritts-
+     * meldungen kommen aus dem Import-Thread.
+     */
+    public CompletableFuture<ImportResult> importCsvAsync(Target target, Path file, ProgressListener listener) {
+        return DbExecutor.supplyAsync(() -> importCsv(target, file, listener));
+    }
+
+    static int[] mapHeader(Target target, List<String> header, ImportResult result) {
+        int[] mapping = new int[target.columns.length];
+        List<String> missing = new ArrayList<>();
+        for (int c = 0; c < target.columns.length; c++) {
+            mapping[c] = -1;
+            for (int h = 0; h < header.size(); h++) {
+                if (target.columns[c].matches(normalize(header.get(h)))) {
+                    mapping[c] = h;
+                    break;
+                }
+            }
+            if (mapping[c] < 0 && target.columns[c].required) {
+                missing.add(target.columns[c].label);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.fail("Fehlende Spalten: " + String.join(", ", missing));
+            return null;
+        }
+        return mapping;
+    }
+
+    private static void copyRows(Connection conn, Target target, CsvReader csv, int[] mapping, ImportResult result,
+            CountingInputStream counting, long totalBytes, ProgressListener listener) throws SQLException, IOException {
+        StringBuilder chunk = new StringBuilder(COPY_CHUNK_CHARS + 1024);
+        List<String> errors = new ArrayList<>();
+        String[] raw = new String[mapping.length];
+
+        try (PgCopyIn copy = PgCopyIn.start(conn, target.copySql())) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                result.rowRead();
+                for (int c = 0; c < mapping.length; c++) {
+                    raw[c] = mapping[c] >= 0 && mapping[c] < record.size() ? record.get(mapping[c]) : null;
+                }
+                errors.clear();
+                String[] values = target.convert(raw, errors);
+                if (!errors.isEmpty()) {
+                    result.addError(csv.getRecordLine(), String.join("; ", errors));
+                } else {
+                    appendCopyRow(chunk, csv.getRecordLine(), values);
+                    if (chunk.length() >= COPY_CHUNK_CHARS) {
+                        flush(copy, chunk);
+                    }
+                }
+                if (listener != null && result.getRowsRead() % PROGRESS_INTERVAL_ROWS == 0) {
+                    listener.progress(result.getRowsRead(), counting.getCount(), totalBytes);
+                }
+            }
+            flush(copy, chunk);
+            copy.end();
+        }
+    }
+
+    private static List<String> presentValueColumns(Target target, int[] mapping) {
+        List<String> present = new ArrayList<>();
+        for (int c = 0; c < mapping.length; c++) {
+            if (mapping[c] >= 0 && target.valueColumns.contains(target.columns[c].name)) {
+                present.add(target.columns[c].name);
+            }
+        }
+        return present;
+    }
+
+    private static void merge(Connection conn, Target target, List<String> presentValueColumns, ImportResult result) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (Reference ref : target.references) {
+                try (ResultSet rs = st.executeQuery(target.deleteUnknownSql(ref))) {
+                    while (rs.next()) {
+                        result.addError(rs.getLong(1), ref.label + " " + rs.getInt(2) + " existiert nicht");
+                    }
+                }
+            }
+            if (!presentValueColumns.isEmpty()) {
+                result.setUpdated(st.executeUpdate(target.updateSql(presentValueColumns)));
+            }
+            result.setInserted(st.executeUpdate(target.insertSql()));
+        }
+    }
+
+    static void appendCopyRow(StringBuilder sb, long zeile, String[] values) {
+        sb.append(zeile);
+        for (String value : values) {
+            sb.append(',');
+            if (value != null) {
+                // Immer quoten: leerer String bleibt leer, unquotiert leer = NULL
+                sb.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char ch = value.charAt(i);
+                    if (ch == '"') {
+                        sb.append('"');
+                    }
+                    sb.append(ch);
+                }
+                sb.append('"');
+            }
+        }
+        sb.append('\n');
+    }
+
+    private static void flush(PgCopyIn copy, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copy.write(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String field : record) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kleinbuchstaben, Umlaute ausgeschrieben, nur Buchstaben und Ziffern
+     */
+    static String normalize(String header) {
+        if (header == null) {
+            return "";
+        }
+        String s = header.trim().toLowerCase(Locale.ROOT)
+                .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue").replace("ß", "ss");
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // --- Validierung einzelner Felder (Meldungen für den Fehlerbericht) ---
+    private static String text(String value, String label, int maxLength, List<String> errors) {
+        if (!ValidationUtil.isNotEmpty(value)) {
+            errors.add(label + " darf nicht leer sein");
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > maxLength) {
+            errors.add(label + " ist länger als " + maxLength + " Zeichen");
+            return null;
+        }
+        return trimmed;
+    }
+
+    private static String email(String value, List<String> errors) {
+        if (!ValidationUtil.isValidEmail(value)) {
+            errors.add("E-Mail '" + (value != null ? value.trim() : "") + "' ist ungültig");
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > 100) {
+            errors.add("E-Mail ist länger als 100 Zeichen");
+            return null;
+        }
+        return trimmed;
+    }
+
+    /**
+     * ISO (JJJJ-MM-TT) oder Schweizer Format (T.M.JJJJ)
+     */
+    private static String date(String value, String label, boolean required, List<String> errors) {
+        if (!ValidationUtil.isNotEmpty(value)) {
+            if (required) {
+                errors.add(label + " darf nicht leer sein");
+            }
+            return null;
+        }
+        String trimmed = value.trim();
+        if (ValidationUtil.isValidDate(trimmed)) {
+            return trimmed;
+        }
+        try {
+            return LocalDate.parse(trimmed, DATE_DOT_FORMAT).toString();
+        } catch (DateTimeParseException e) {
+            errors.add(label + " '" + trimmed + "' ist kein gültiges Datum");
+            return null;
+        }
+    }
+
+    private static String time(String value, String label, List<String> errors) {
+        if (!ValidationUtil.isValidTime(value)) {
+            errors.add(label + " '" + (value != null ? value.trim() : "") + "' ist keine gültige Uhrzeit (HH:MM)");
+            return null;
+        }
+        return LocalTime.parse(value.trim()).toString();
+    }
+
+    private static String bool(String value, String label, List<String> errors) {
+        String v = value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+        return switch (v) {
+            case "", "nein", "false", "0", "n" -> "false";
+            case "ja", "true", "1", "j", "x" -> "true";
+            default -> {
+                errors.add(label + " '" + value.trim() + "' ist weder Ja noch Nein");
+                yield null;
+            }
+        };
+    }
+
+    private static String id(String value, String label, boolean required, List<String> errors) {
+        if (!ValidationUtil.isNotEmpty(value)) {
+            if (required) {
+                errors.add(label + " darf nicht leer sein");
+            }
+            return null;
+        }
+        try {
+            int id = Integer.parseInt(value.trim());
+            if (id > 0) {
+                return String.valueOf(id);
+            }
+        } catch (NumberFormatException e) {
+            // Meldung unten
+        }
+        errors.add(label + " '" + value.trim() + "' ist keine gültige ID");
+        return null;
+    }
+
+    /**
+     * Enum-Name oder Anzeigename (z. B. "GEPRUEFT" oder "Geprüft"); leer =
+     * Standardwert
+     */
+    static <E extends Enum<E>> String enumName(String value, E[] values, E fallback, String label, List<String> errors) {
+        if (!ValidationUtil.isNotEmpty(value)) {
+            return fallback.name();
+        }
+        String v = normalize(value);
+        for (E e : values) {
+            if (normalize(e.name()).equals(v) || normalize(e.toString()).equals(v)) {
+                return e.name();
+            }
+        }
+        errors.add(label + " '" + value.trim() + "' ist unbekannt");
+        return null;
+    }
+
+    /**
+     * Zählt die gelesenen Bytes für die Fortschrittsanzeige.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ch.hftm.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.hftm.util.CsvWriter;
+import ch.hftm.util.ExportListener;
+
+/**
+ * Schreibt das Ergebnis einer Abfrage direkt als CSV-Datei.
+ *
+ * <p>Die Abfrage läuft als Server-Cursor (Fetch-Size, Autocommit aus); jede
+ * Zeile wird ohne Umweg über Modellobjekte vom {@link CsvWriter} in einen
+ * grossen Puffer kodiert und blockweise auf die Platte geschrieben. Der
+ * Speicherbedarf hängt damit nicht von der Anzahl Zeilen ab. Formatierungen
+ * (Uhrzeit, Ja/Nein) gehören deshalb ins SQL; gelesen wird jede Spalte mit
+ * {@link ResultSet#getString(int)}.</p>
+ */
+final class CursorCsvExport {
+
+    private static final Logger LOGGER = Logger.getLogger(CursorCsvExport.class.getName());
+
+    // Zeilen pro Roundtrip; bei schmalen Exportzeilen weit unter 1 MB
+    static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int PROGRESS_INTERVAL_ROWS = 5000;
+
+    private CursorCsvExport() {
+    }
+
+    /**
+     * Führt die Abfrage aus und schreibt Kopfzeile und alle Zeilen in die
+     * Datei; eine bestehende Datei wird überschrieben.
+     *
+     * @param sql Abfrage, deren Spalten in Reihenfolge der Kopfzeile stehen
+     * @param params Parameter für die Platzhalter der Abfrage
+     * @param headers Spaltenüberschriften
+     * @param file Zieldatei
+     * @param beschreibung für die Fehlermeldung im Log, z. B. "Termine"
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     * @return Anzahl exportierter Zeilen (ohne Kopfzeile) oder {@code -1} bei
+     * einem Fehler oder wenn der Thread unterbrochen wurde
+     */
+    static long export(String sql, List<?> params, List<String> headers, Path file, String beschreibung,
+            ExportListener listener) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // PostgreSQL nutzt die Fetch-Size nur innerhalb einer Transaktion
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql);
+                    CsvWriter out = new CsvWriter(Files.newOutputStream(file), ',', BUFFER_SIZE)) {
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                out.writeRecord(headers);
+                long rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    int columns = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        for (int c = 1; c <= columns; c++) {
+                            out.append(rs.getString(c));
+                        }
+                        out.endRecord();
+                        rows++;
+                        if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                LOGGER.log(Level.INFO, "CSV-Export der {0} abgebrochen", beschreibung);
+                                return -1;
+                            }
+                            if (listener != null) {
+                                listener.progress(rows, out.getBytesWritten());
+                            }
+                        }
+                    }
+                }
+                out.flush();
+                if (listener != null) {
+                    listener.progress(rows, out.getBytesWritten());
+                }
+                return rows;
+            } finally {
+                conn.rollback();
+            }
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim CSV-Export der " + beschreibung + " nach " + file, e);
+            return -1;
+        }
+    }
+}
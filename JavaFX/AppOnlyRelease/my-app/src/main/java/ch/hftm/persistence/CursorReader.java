@@ -0,0 +1,80 @@
+package ch.hftm.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Liest das Ergebnis einer Abfrage zeilenweise über einen Server-Cursor.
+ *
+ * <p>Wie {@link CursorCsvExport}, aber jede Zeile wird gemappt und an einen
+ * Consumer übergeben, z. B. als Read-Model für Auswertungen, oder direkt von
+ * einem {@link RowHandler} gelesen. Die Ergebnismenge wird nie ganz im
+ * Speicher gehalten.</p>
+ */
+final class CursorReader {
+
+    private static final Logger LOGGER = Logger.getLogger(CursorReader.class.getName());
+
+    // Zeilen pro Roundtrip
+    static final int FETCH_SIZE = 500;
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowHandler {
+
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private CursorReader() {
+    }
+
+    /**
+     * @param params Parameter für die Platzhalter der Abfrage
+     * @param action wird pro Zeile im aufrufenden Thread aufgerufen
+     * @param beschreibung für die Fehlermeldung im Log, z. B. "Teilnahmen"
+     * @return {@code false} bei einem Datenbankfehler
+     */
+    static <T> boolean read(String sql, List<?> params, RowMapper<? extends T> mapper, Consumer<? super T> action,
+            String beschreibung) {
+        return forEach(sql, params, rs -> action.accept(mapper.map(rs)), beschreibung);
+    }
+
+    /**
+     * Wie {@link #read}, aber ohne Objekt pro Zeile: der Handler liest die
+     * Spalten der aktuellen Zeile selbst
+     */
+    static boolean forEach(String sql, List<?> params, RowHandler handler, String beschreibung) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // PostgreSQL nutzt die Fetch-Size nur innerhalb einer Transaktion
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Streamen der " + beschreibung, e);
+            return false;
+        }
+    }
+}
@@ -8,7 +8,11 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Verwaltet die Datenbankverbindung für die Anwendung
+ * Verwaltet die Datenbankverbindungen für die Anwendung
+ *
+ * <p>Verbindungen werden aus einem {@link ConnectionPool} ausgeliehen.
+ * Repositories verwenden sie wie bisher mit try-with-resources; {@code close()}
+ * gibt die Verbindung an den Pool zurück.</p>
  */
 public class DatabaseConnection {
 
@@ -22,7 +26,24 @@ public class DatabaseConnection {
     private static final String DEFAULT_DB_USER = "transferdemo";
     private static final String DEFAULT_DB_PASSWORD = "transferdemo";
 
-    private static Connection connection = null;
+    // Pool-Defaults (überschreibbar wie die Verbindungsdaten, z. B. -Ddb.pool.maxSize=20)
+    private static final int DEFAULT_POOL_MIN_SIZE = 1;
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT_MS = 600_000L;
+    private static final long DEFAULT_POOL_BORROW_TIMEOUT_MS = 10_000L;
+    private static final long DEFAULT_POOL_LEAK_DETECTION_MS = 60_000L;
+    private static final long DEFAULT_POOL_VALIDATION_INTERVAL_MS = 1_000L;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    // 1 = serverseitiges Prepared Statement ab der ersten Ausführung (PgJDBC-Default: 5)
+    private static final int DEFAULT_PREPARE_THRESHOLD = 1;
+    // Zeilen pro executeBatch() in den saveAll/updateAll/deleteAll-Methoden
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final String DEFAULT_REWRITE_BATCHED_INSERTS = "true";
+    // Read-Through-Cache für Mitglieder/Termine nach ID (CachingMitgliedRepository, CachingTerminRepository)
+    private static final int DEFAULT_ENTITY_CACHE_SIZE = 1000;
+    private static final long DEFAULT_ENTITY_CACHE_TTL_MS = 300_000L;
+
+    private static ConnectionPool pool = null;
 
     private static final Properties DB_PROPS = loadDbProperties();
 
@@ -71,42 +92,119 @@ public class DatabaseConnection {
         return getConfigValue("db.password", "KUD_DB_PASSWORD", "db.password", DEFAULT_DB_PASSWORD);
     }
 
+    private static long getConfigLong(String key, String envVar, long fallback) {
+        String value = getConfigValue(key, envVar, key, null);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ungültiger Wert für {0}: {1} – verwende {2}", new Object[]{key, value, fallback});
+            return fallback;
+        }
+    }
+
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            Properties props = new Properties();
+            props.setProperty("user", dbUser());
+            props.setProperty("password", dbPassword());
+            props.setProperty("prepareThreshold", String.valueOf(
+                    getConfigLong("db.prepareThreshold", "KUD_DB_PREPARE_THRESHOLD", DEFAULT_PREPARE_THRESHOLD)));
+            // Batch-INSERTs als mehrzeiliges INSERT senden
+            props.setProperty("reWriteBatchedInserts", getConfigValue("db.reWriteBatchedInserts",
+                    "KUD_DB_REWRITE_BATCHED_INSERTS", "db.reWriteBatchedInserts", DEFAULT_REWRITE_BATCHED_INSERTS));
+            pool = new ConnectionPool(
+                    dbUrl(),
+                    props,
+                    (int) getConfigLong("db.pool.minSize", "KUD_DB_POOL_MIN_SIZE", DEFAULT_POOL_MIN_SIZE),
+                    (int) getConfigLong("db.pool.maxSize", "KUD_DB_POOL_MAX_SIZE", DEFAULT_POOL_MAX_SIZE),
+                    getConfigLong("db.pool.idleTimeoutMs", "KUD_DB_POOL_IDLE_TIMEOUT_MS", DEFAULT_POOL_IDLE_TIMEOUT_MS),
+                    getConfigLong("db.pool.borrowTimeoutMs", "KUD_DB_POOL_BORROW_TIMEOUT_MS", DEFAULT_POOL_BORROW_TIMEOUT_MS),
+                    getConfigLong("db.pool.leakDetectionMs", "KUD_DB_POOL_LEAK_DETECTION_MS", DEFAULT_POOL_LEAK_DETECTION_MS),
+                    getConfigLong("db.pool.validationIntervalMs", "KUD_DB_POOL_VALIDATION_INTERVAL_MS", DEFAULT_POOL_VALIDATION_INTERVAL_MS),
+                    (int) getConfigLong("db.statementCacheSize", "KUD_DB_STATEMENT_CACHE_SIZE", DEFAULT_STATEMENT_CACHE_SIZE)
+            );
+            LOGGER.info("Datenbank-Connection-Pool initialisiert");
+        }
+        return pool;
+    }
+
     /**
-     * Stellt eine Verbindung zur Datenbank her oder gibt die bestehende zurück
+     * Leiht eine Verbindung aus dem Pool aus. Die Verbindung muss nach
+     * Gebrauch geschlossen werden (try-with-resources) und geht dann an den
+     * Pool zurück.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(dbUrl(), dbUser(), dbPassword());
-                LOGGER.info("Datenbankverbindung erfolgreich hergestellt");
-            } catch (SQLException e) {
-                LOGGER.log(Level.SEVERE, "Fehler beim Verbinden zur Datenbank", e);
-                throw e;
-            }
-        }
-        return connection;
+        return pool().borrow();
     }
 
     /**
-     * Schliesst die Datenbankverbindung
+     * Öffnet eine eigene Verbindung ausserhalb des Pools für langlebige
+     * Aufgaben (z. B. LISTEN); der Aufrufer muss sie schliessen.
      */
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                LOGGER.info("Datenbankverbindung geschlossen");
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Fehler beim Schliessen der Datenbankverbindung", e);
-            }
+    static Connection openDedicatedConnection() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", dbUser());
+        props.setProperty("password", dbPassword());
+        return DriverManager.getConnection(dbUrl(), props);
+    }
+
+    /**
+     * Zeilen pro {@code executeBatch()} bei Batch-Operationen (mindestens 1)
+     */
+    static int getBatchSize() {
+        return (int) Math.max(1, getConfigLong("db.batch.size", "KUD_DB_BATCH_SIZE", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Maximale Anzahl Einträge je Entity-Cache ({@code 0} = kein Caching)
+     */
+    static int getEntityCacheSize() {
+        return (int) getConfigLong("db.entityCache.size", "KUD_DB_ENTITY_CACHE_SIZE", DEFAULT_ENTITY_CACHE_SIZE);
+    }
+
+    /**
+     * Gültigkeit eines Entity-Cache-Eintrags in Millisekunden
+     */
+    static long getEntityCacheTtlMs() {
+        return getConfigLong("db.entityCache.ttlMs", "KUD_DB_ENTITY_CACHE_TTL_MS", DEFAULT_ENTITY_CACHE_TTL_MS);
+    }
+
+    /**
+     * Schliesst den Connection-Pool und alle freien Verbindungen
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            LOGGER.log(Level.INFO, "Datenbankverbindungen geschlossen (Statement-Cache: {0} Treffer, {1} Fehlgriffe)",
+                    new Object[]{getStatementCacheHits(), getStatementCacheMisses()});
+            LOGGER.log(Level.INFO, "Entity-Cache Mitglieder: {0}; Termine: {1}",
+                    new Object[]{CachingMitgliedRepository.getCacheStats(), CachingTerminRepository.getCacheStats()});
         }
     }
 
+    /**
+     * Anzahl wiederverwendeter PreparedStatements über alle Pool-Verbindungen
+     */
+    public static long getStatementCacheHits() {
+        return StatementCache.getHitCount();
+    }
+
+    /**
+     * Anzahl neu vorbereiteter PreparedStatements über alle Pool-Verbindungen
+     */
+    public static long getStatementCacheMisses() {
+        return StatementCache.getMissCount();
+    }
+
     /**
      * Testet die Datenbankverbindung
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Verbindungstest fehlgeschlagen", e);
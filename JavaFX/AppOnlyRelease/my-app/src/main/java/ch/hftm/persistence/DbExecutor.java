@@ -0,0 +1,39 @@
+package ch.hftm.persistence;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Executor für Datenbankzugriffe ausserhalb des JavaFX Application Threads.
+ *
+ * <p>Jeder Auftrag läuft in einem eigenen virtuellen Thread; blockierende
+ * JDBC-Aufrufe belegen damit keinen Plattform-Thread. Die tatsächliche
+ * Parallelität auf der Datenbank begrenzt der Connection-Pool.</p>
+ */
+public final class DbExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("db-worker-", 0).factory());
+
+    private DbExecutor() {
+    }
+
+    /**
+     * Führt einen Repository-Aufruf asynchron aus.
+     *
+     * @param task Datenbankzugriff (läuft in einem virtuellen Thread)
+     * @return Future mit dem Ergebnis
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Liefert den Executor, z. B. für eigene {@link CompletableFuture}-Ketten.
+     */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+}
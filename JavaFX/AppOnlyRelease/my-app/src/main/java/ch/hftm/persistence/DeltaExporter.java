@@ -0,0 +1,256 @@
+package ch.hftm.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.hftm.util.ExportColumn;
+import ch.hftm.util.ExportFormat;
+import ch.hftm.util.ExportListener;
+
+/**
+ * Exportiert nur die Änderungen einer Tabelle seit dem letzten Export.
+ *
+ * <p>Voraussetzung ist Migration {@code 004_change_tracking.sql}: Trigger
+ * setzen bei jeder Änderung {@code updated_at} und {@code change_xid},
+ * Löschungen landen als Tombstone in {@code export_tombstone}. Als
+ * Wasserstand dient der Snapshot des letzten erfolgreichen Exports je Ziel
+ * und Tabelle ({@code export_watermark}); exportiert wird alles, was darin
+ * noch nicht sichtbar war. Das ist exakt, auch wenn Transaktionen in
+ * anderer Reihenfolge committen als sie begonnen haben.</p>
+ *
+ * <p>Jede Datenzeile beginnt mit {@code aenderung} ({@value #UPSERT} oder
+ * {@value #DELETE}) und {@code geaendert_am} (UTC), danach folgen die Spalten
+ * der Tabelle; bei Löschungen ist nur der Primärschlüssel gesetzt. Der
+ * erste Export eines Ziels enthält alle Zeilen. Der Wasserstand wird erst
+ * weitergesetzt, wenn die Datei vollständig geschrieben ist; schlägt der
+ * Export fehl, enthält der nächste dieselben Änderungen noch einmal.</p>
+ */
+public class DeltaExporter {
+
+    private static final Logger LOGGER = Logger.getLogger(DeltaExporter.class.getName());
+
+    public static final String UPSERT = "upsert";
+    public static final String DELETE = "delete";
+
+    private static final String CHANGED_AT = "to_char(%s AT TIME ZONE 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"')";
+
+    // Seit dem Snapshot ? geändert; die erste Bedingung ist über den Index eingrenzbar
+    private static final String CHANGED_SINCE =
+            "change_xid >= pg_snapshot_xmin(?::pg_snapshot) AND NOT pg_visible_in_snapshot(change_xid, ?::pg_snapshot)";
+
+    private static final String SELECT_WATERMARK =
+            "SELECT snapshot FROM export_watermark WHERE ziel = ? AND tabelle = ?";
+    private static final String UPSERT_WATERMARK =
+            "INSERT INTO export_watermark (ziel, tabelle, snapshot) VALUES (?, ?, ?) "
+            + "ON CONFLICT (ziel, tabelle) DO UPDATE SET snapshot = EXCLUDED.snapshot, exportiert_am = now()";
+    // Tombstones, die im Snapshot jedes Ziels sichtbar sind, wurden überall abgeholt
+    private static final String PURGE_TOMBSTONES =
+            "DELETE FROM export_tombstone WHERE tabelle = ? AND change_xid < "
+            + "(SELECT min(pg_snapshot_xmin(snapshot::pg_snapshot)) FROM export_watermark WHERE tabelle = ?)";
+
+    /**
+     * Spalten der Exportdatei für die Tabelle
+     */
+    public static List<ExportColumn> columns(ExportTable table) {
+        List<ExportColumn> columns = new ArrayList<>(table.getColumns().size() + 2);
+        columns.add(ExportColumn.text("aenderung"));
+        columns.add(ExportColumn.text("geaendert_am"));
+        columns.addAll(table.getColumns());
+        return columns;
+    }
+
+    /**
+     * Schreibt alle Änderungen seit dem letzten Export an dasselbe Ziel
+     * (zuerst Löschungen, dann neue und geänderte Zeilen) und setzt danach
+     * den Wasserstand weiter.
+     *
+     * @param ziel Name des Empfängers, z. B. "verband"; jedes Ziel hat einen
+     * eigenen Wasserstand
+     * @param file Zieldatei, wird überschrieben
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     * @return Anzahl exportierter Änderungen oder {@code -1} bei einem Fehler
+     * oder wenn der Thread unterbrochen wurde
+     */
+    public long export(ExportTable table, String ziel, ExportFormat format, Path file, ExportListener listener) {
+        List<ExportColumn> columns = columns(table);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            boolean committed = false;
+            try {
+                // Erste Abfrage: legt den Snapshot der Transaktion fest
+                String snapshot;
+                try (PreparedStatement ps = conn.prepareStatement("SELECT pg_current_snapshot()::text");
+                        ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    snapshot = rs.getString(1);
+                }
+                String lastSnapshot = loadWatermark(conn, ziel, table);
+
+                long rows;
+                ArchiveExporter.CountingOutputStream counter =
+                        new ArchiveExporter.CountingOutputStream(Files.newOutputStream(file));
+                try (ExportFormat.RecordWriter out = format.openWriter(counter, columns)) {
+                    Object[] values = new Object[columns.size()];
+                    rows = lastSnapshot == null ? 0 : writeDeletes(conn, table, lastSnapshot, out, values);
+                    rows = writeUpserts(conn, table, lastSnapshot, out, values, rows, counter, listener);
+                }
+                if (rows < 0) {
+                    LOGGER.log(Level.INFO, "Delta-Export {0} abgebrochen", table.getTableName());
+                    return -1;
+                }
+                if (listener != null) {
+                    listener.progress(rows, counter.count);
+                }
+
+                saveWatermark(conn, ziel, table, snapshot);
+                conn.commit();
+                committed = true;
+                LOGGER.log(Level.INFO, "Delta-Export {0} an {1}: {2} Änderungen{3}",
+                        new Object[] {table.getTableName(), ziel, rows, lastSnapshot == null ? " (vollständig)" : ""});
+                return rows;
+            } finally {
+                if (!committed) {
+                    conn.rollback();
+                }
+            }
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Delta-Export " + table.getTableName() + " nach " + file, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Setzt den Wasserstand zurück; der nächste Export an das Ziel enthält
+     * wieder alle Zeilen.
+     *
+     * @return {@code true} bei Erfolg
+     */
+    public boolean resetWatermark(ExportTable table, String ziel) {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(
+                        "DELETE FROM export_watermark WHERE ziel = ? AND tabelle = ?")) {
+            ps.setString(1, ziel);
+            ps.setString(2, table.getTableName());
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Zurücksetzen des Wasserstands " + table.getTableName(), e);
+            return false;
+        }
+    }
+
+    private static String loadWatermark(Connection conn, String ziel, ExportTable table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_WATERMARK)) {
+            ps.setString(1, ziel);
+            ps.setString(2, table.getTableName());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void saveWatermark(Connection conn, String ziel, ExportTable table, String snapshot)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_WATERMARK)) {
+            ps.setString(1, ziel);
+            ps.setString(2, table.getTableName());
+            ps.setString(3, snapshot);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(PURGE_TOMBSTONES)) {
+            ps.setString(1, table.getTableName());
+            ps.setString(2, table.getTableName());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Tombstones seit dem Snapshot; Parameter: Tabelle, zweimal Snapshot
+     */
+    static String deletesSql() {
+        return "SELECT id, " + CHANGED_AT.formatted("geloescht_am") + " FROM export_tombstone "
+                + "WHERE tabelle = ? AND " + CHANGED_SINCE + " ORDER BY change_xid, id";
+    }
+
+    /**
+     * Geänderte Zeilen in der Spaltenreihenfolge von {@link #columns}, ohne
+     * {@code aenderung}
+     *
+     * @param incremental {@code false} für den ersten Export (alle Zeilen);
+     * sonst Parameter: zweimal Snapshot
+     */
+    static String upsertsSql(ExportTable table, boolean incremental) {
+        return "SELECT " + CHANGED_AT.formatted("updated_at") + ", " + table.selectList()
+                + " FROM " + table.getTableName()
+                + (incremental ? " WHERE " + CHANGED_SINCE : "")
+                + " ORDER BY " + table.getIdColumn();
+    }
+
+    private static long writeDeletes(Connection conn, ExportTable table, String lastSnapshot,
+            ExportFormat.RecordWriter out, Object[] values) throws SQLException, IOException {
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(deletesSql())) {
+            ps.setString(1, table.getTableName());
+            ps.setString(2, lastSnapshot);
+            ps.setString(3, lastSnapshot);
+            try (ResultSet rs = ps.executeQuery()) {
+                Arrays.fill(values, null);
+                while (rs.next()) {
+                    values[0] = DELETE;
+                    values[1] = rs.getString(2);
+                    values[2] = rs.getInt(1);
+                    out.write(values);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return Gesamtzahl geschriebener Zeilen oder {@code -1} bei Abbruch
+     */
+    private static long writeUpserts(Connection conn, ExportTable table, String lastSnapshot,
+            ExportFormat.RecordWriter out, Object[] values, long rows, ArchiveExporter.CountingOutputStream counter,
+            ExportListener listener) throws SQLException, IOException {
+        List<ExportColumn> tableColumns = table.getColumns();
+        try (PreparedStatement ps = conn.prepareStatement(upsertsSql(table, lastSnapshot != null))) {
+            ps.setFetchSize(CursorCsvExport.FETCH_SIZE);
+            if (lastSnapshot != null) {
+                ps.setString(1, lastSnapshot);
+                ps.setString(2, lastSnapshot);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    values[0] = UPSERT;
+                    values[1] = rs.getString(1);
+                    for (int c = 0; c < tableColumns.size(); c++) {
+                        values[c + 2] = ArchiveExporter.read(rs, c + 2, tableColumns.get(c).type());
+                    }
+                    out.write(values);
+                    rows++;
+                    if (rows % ArchiveExporter.PROGRESS_INTERVAL_ROWS == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return -1;
+                        }
+                        if (listener != null) {
+                            listener.progress(rows, counter.count);
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+}
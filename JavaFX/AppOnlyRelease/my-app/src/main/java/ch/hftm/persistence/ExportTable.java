@@ -0,0 +1,65 @@
+package ch.hftm.persistence;
+
+import java.util.List;
+import java.util.Locale;
+
+import ch.hftm.util.ExportColumn;
+
+/**
+ * Exportierbare Tabellen mit allen fachlichen Spalten in Exporttypen.
+ *
+ * <p>Gemeinsame Grundlage für Datensicherung ({@link SnapshotExporter}) und
+ * inkrementellen Export ({@link DeltaExporter}). Die erste Spalte ist
+ * jeweils der Primärschlüssel.</p>
+ */
+public enum ExportTable {
+    MITGLIED("mitglied_id, vorname, nachname, email, rolle",
+            List.of(ExportColumn.integer("mitglied_id"), ExportColumn.text("vorname"),
+                    ExportColumn.text("nachname"), ExportColumn.text("email"), ExportColumn.text("rolle"))),
+    TERMIN("termin_id, datum, to_char(uhrzeit, 'HH24:MI:SS'), ort, "
+            + "CASE WHEN ferien_flag THEN 'true' ELSE 'false' END",
+            List.of(ExportColumn.integer("termin_id"), ExportColumn.date("datum"), ExportColumn.text("uhrzeit"),
+                    ExportColumn.text("ort"), ExportColumn.text("ferien_flag"))),
+    FORMULAR("formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id",
+            List.of(ExportColumn.integer("formular_id"), ExportColumn.text("typ"),
+                    ExportColumn.date("ausgabedatum"), ExportColumn.date("rueckgabedatum"),
+                    ExportColumn.text("status"), ExportColumn.integer("mitglied_id"))),
+    TEILNAHME("teilnahme_id, mitglied_id, termin_id, formular_id, status",
+            List.of(ExportColumn.integer("teilnahme_id"), ExportColumn.integer("mitglied_id"),
+                    ExportColumn.integer("termin_id"), ExportColumn.integer("formular_id"),
+                    ExportColumn.text("status")));
+
+    private final String selectList;
+    private final List<ExportColumn> columns;
+
+    ExportTable(String selectList, List<ExportColumn> columns) {
+        this.selectList = selectList;
+        this.columns = columns;
+    }
+
+    public String getTableName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String getIdColumn() {
+        return columns.get(0).name();
+    }
+
+    public List<ExportColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Spaltenliste für SELECT in der Reihenfolge von {@link #getColumns()}
+     */
+    String selectList() {
+        return selectList;
+    }
+
+    /**
+     * Alle Zeilen nach Primärschlüssel sortiert
+     */
+    String selectAllSql() {
+        return "SELECT " + selectList + " FROM " + getTableName() + " ORDER BY " + getIdColumn();
+    }
+}
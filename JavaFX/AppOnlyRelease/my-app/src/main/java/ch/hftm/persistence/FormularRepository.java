@@ -1,5 +1,7 @@
 package ch.hftm.persistence;
 
+import java.nio.file.Path;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -8,12 +10,19 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ch.hftm.model.Formular;
+import ch.hftm.model.FormularRow;
 import ch.hftm.model.FormularStatus;
+import ch.hftm.util.ExportListener;
 
 /**
  * Repository für Formular-Datenbankoperationen
@@ -22,10 +31,14 @@ public class FormularRepository {
 
     private static final Logger LOGGER = Logger.getLogger(FormularRepository.class.getName());
 
+    private static final String INSERT_SQL = "INSERT INTO formular(typ, ausgabedatum, rueckgabedatum, status, mitglied_id) VALUES(?,?,?,?,?)";
+    private static final String UPDATE_SQL = "UPDATE Formular SET typ=?, ausgabedatum=?, rueckgabedatum=?, status=?, mitglied_id=? WHERE formular_id=?";
+    private static final String DELETE_SQL = "DELETE FROM Formular WHERE formular_id=?";
+
     public List<Formular> findAll() {
         List<Formular> list = new ArrayList<>();
         String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular ORDER BY ausgabedatum DESC, formular_id DESC";
-        try (Connection conn = DatabaseConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 list.add(map(rs));
             }
@@ -35,14 +48,163 @@ public class FormularRepository {
         return list;
     }
 
+    /**
+     * Lädt eine Seite Formulare per Keyset-Pagination (neueste zuerst)
+     *
+     * <p>Sortierung: Ausgabedatum, ID absteigend (Ausgabedatum ist in der DB
+     * Pflichtfeld). Für die erste Seite ist {@code afterAusgabedatum}
+     * {@code null}.</p>
+     */
+    public List<Formular> findPage(LocalDate afterAusgabedatum, int afterId, int limit) {
+        List<Formular> list = new ArrayList<>();
+        String sql = afterAusgabedatum == null
+                ? "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "ORDER BY ausgabedatum DESC, formular_id DESC LIMIT ?"
+                : "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "WHERE (ausgabedatum, formular_id) < (?, ?) ORDER BY ausgabedatum DESC, formular_id DESC LIMIT ?";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            if (afterAusgabedatum != null) {
+                ps.setDate(idx++, Date.valueOf(afterAusgabedatum));
+                ps.setInt(idx++, afterId);
+            }
+            ps.setInt(idx, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden einer Formularseite", e);
+        }
+        return list;
+    }
+
+    /**
+     * Gibt die Formulare mit einem der Status zurück (neueste zuerst)
+     *
+     * <p>Gefiltert wird in SQL über den Index auf {@code status}; übertragen
+     * werden nur die passenden Formulare. Der Vergleich ist exakt auf die
+     * Enum-Namen; abweichende Schreibweisen vereinheitlicht die Migration
+     * {@code 007_formular_status_normalisieren.sql} so, wie die Tabelle sie
+     * anzeigt.</p>
+     */
+    public List<Formular> findByStatus(Set<FormularStatus> status) {
+        List<Formular> list = new ArrayList<>();
+        if (status == null || status.isEmpty()) {
+            return list;
+        }
+        String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "WHERE status = ANY(?) ORDER BY ausgabedatum DESC, formular_id DESC";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            Array names = conn.createArrayOf("varchar", status.stream().map(Enum::name).toArray());
+            try {
+                ps.setArray(1, names);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(map(rs));
+                    }
+                }
+            } finally {
+                names.free();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Formulare mit Status " + status, e);
+        }
+        return list;
+    }
+
+    /**
+     * Lädt die Formulare mit den IDs, z. B. nach einer Änderungsmeldung;
+     * nicht (mehr) vorhandene IDs fehlen im Ergebnis
+     */
+    public List<Formular> findByIds(Collection<Integer> ids) {
+        List<Formular> list = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return list;
+        }
+        String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "WHERE formular_id = ANY(?)";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            Array idArray = conn.createArrayOf("integer", ids.toArray());
+            try {
+                ps.setArray(1, idArray);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(map(rs));
+                    }
+                }
+            } finally {
+                idArray.free();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Formulare " + ids, e);
+        }
+        return list;
+    }
+
+    /**
+     * Gibt die ausstehenden Formulare zurück, deren Rückgabedatum vor dem
+     * Stichtag liegt (älteste Fälligkeit zuerst)
+     */
+    public List<Formular> findOverdue(LocalDate stichtag) {
+        List<FormularRow> rows = findOverdueRows(stichtag);
+        List<Formular> list = new ArrayList<>(rows.size());
+        for (FormularRow row : rows) {
+            list.add(row.toFormular());
+        }
+        return list;
+    }
+
+    /**
+     * Wie {@link #findOverdue(LocalDate)} als unveränderliche Lesesichten,
+     * z. B. für Erinnerungen
+     */
+    public List<FormularRow> findOverdueRows(LocalDate stichtag) {
+        List<FormularRow> list = new ArrayList<>();
+        // Status als Literal, damit der partielle Index idx_formular_ueberfaellig greift
+        String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "WHERE status = 'AUSSTEHEND' AND rueckgabedatum < ? ORDER BY rueckgabedatum, formular_id";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(stichtag));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden überfälliger Formulare", e);
+        }
+        return list;
+    }
+
+    /**
+     * Liest alle Formulare als {@link FormularRow} zeilenweise über einen
+     * Server-Cursor, z. B. für Auswertungen; keine feste Reihenfolge
+     *
+     * @param action wird pro Zeile im aufrufenden Thread aufgerufen
+     * @return {@code false} bei einem Datenbankfehler
+     */
+    public boolean streamRows(Consumer<? super FormularRow> action) {
+        return CursorReader.read(
+                "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular",
+                List.of(), FormularRepository::mapRow, action, "Formulare");
+    }
+
+    /**
+     * Formulare, deren Typ den Text enthält (Gross-/Kleinschreibung egal,
+     * Platzhalter wörtlich)
+     */
     public List<Formular> searchByTyp(String keyword) {
         List<Formular> list = new ArrayList<>();
-        String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular WHERE typ ILIKE ? ORDER BY ausgabedatum DESC";
+        String sql = "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular WHERE typ ILIKE ?"
+                + SqlLike.ESCAPE + " ORDER BY ausgabedatum DESC";
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, "%" + keyword + "%");
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(map(rs));
+            ps.setString(1, SqlLike.contains(keyword));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler bei Formular-Suche", e);
@@ -51,14 +213,17 @@ public class FormularRepository {
     }
 
     public boolean save(Formular f) {
-        String sql = "INSERT INTO formular(typ, ausgabedatum, rueckgabedatum, status, mitglied_id) VALUES(?,?,?,?,?)";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, f.getTyp());
-            setDate(ps, 2, f.getAusgabedatum());
-            setDate(ps, 3, f.getRueckgabedatum());
-            ps.setString(4, f.getStatus() != null ? f.getStatus().name() : FormularStatus.AUSSTEHEND.name());
-            ps.setInt(5, f.getMitgliedId());
-            return ps.executeUpdate() == 1;
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(ps, f);
+            if (ps.executeUpdate() != 1) {
+                return false;
+            }
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    f.setFormularId(keys.getInt(1));
+                }
+            }
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Speichern des Formulars", e);
             return false;
@@ -66,14 +231,8 @@ public class FormularRepository {
     }
 
     public boolean update(Formular f) {
-        String sql = "UPDATE Formular SET typ=?, ausgabedatum=?, rueckgabedatum=?, status=?, mitglied_id=? WHERE formular_id=?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, f.getTyp());
-            setDate(ps, 2, f.getAusgabedatum());
-            setDate(ps, 3, f.getRueckgabedatum());
-            ps.setString(4, f.getStatus() != null ? f.getStatus().name() : FormularStatus.AUSSTEHEND.name());
-            ps.setInt(5, f.getMitgliedId());
-            ps.setInt(6, f.getFormularId());
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
+            bindUpdate(ps, f);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Aktualisieren des Formulars", e);
@@ -82,8 +241,7 @@ public class FormularRepository {
     }
 
     public boolean delete(int formularId) {
-        String sql = "DELETE FROM Formular WHERE formular_id=?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
             ps.setInt(1, formularId);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
@@ -92,6 +250,83 @@ public class FormularRepository {
         }
     }
 
+    /**
+     * Speichert mehrere neue Formulare in einer Transaktion (JDBC-Batch) und
+     * setzt ihre generierten IDs
+     */
+    public boolean saveAll(Collection<Formular> formulare) {
+        return BatchWriter.write(INSERT_SQL, formulare, FormularRepository::bindInsert,
+                Formular::setFormularId, "Speichern der Formulare");
+    }
+
+    public boolean updateAll(Collection<Formular> formulare) {
+        return BatchWriter.writeExisting(UPDATE_SQL, formulare, FormularRepository::bindUpdate,
+                "Aktualisieren der Formulare");
+    }
+
+    public boolean deleteAll(Collection<Integer> formularIds) {
+        return BatchWriter.<Integer>writeExisting(DELETE_SQL, formularIds, (ps, id) -> ps.setInt(1, id),
+                "Löschen der Formulare");
+    }
+
+    /**
+     * Exportiert alle Formulare als CSV direkt aus einem Datenbank-Cursor,
+     * ohne Formular-Objekte anzulegen
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     * @return Anzahl exportierter Formulare oder {@code -1} bei einem Fehler
+     */
+    public long exportCsv(Path file, ExportListener listener) {
+        return CursorCsvExport.export(
+                "SELECT formular_id, typ, ausgabedatum, rueckgabedatum, status, mitglied_id FROM formular "
+                + "ORDER BY ausgabedatum DESC, formular_id DESC",
+                List.of(), List.of("Formular-ID", "Typ", "Ausgabedatum", "Rückgabedatum", "Status", "Mitglied-ID"),
+                file, "Formulare", listener);
+    }
+
+    public CompletableFuture<List<Formular>> findAllAsync() {
+        return DbExecutor.supplyAsync(this::findAll);
+    }
+
+    public CompletableFuture<List<Formular>> findPageAsync(Formular after, int limit) {
+        if (after != null && after.getAusgabedatum() == null) {
+            // Ohne Ausgabedatum gibt es keinen gültigen Cursor
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return DbExecutor.supplyAsync(() -> after == null
+                ? findPage(null, 0, limit)
+                : findPage(after.getAusgabedatum(), after.getFormularId(), limit));
+    }
+
+    public CompletableFuture<List<Formular>> findByStatusAsync(Set<FormularStatus> status) {
+        return DbExecutor.supplyAsync(() -> findByStatus(status));
+    }
+
+    public CompletableFuture<List<Formular>> findByIdsAsync(Collection<Integer> ids) {
+        return DbExecutor.supplyAsync(() -> findByIds(ids));
+    }
+
+    public CompletableFuture<List<Formular>> findOverdueAsync(LocalDate stichtag) {
+        return DbExecutor.supplyAsync(() -> findOverdue(stichtag));
+    }
+
+    public CompletableFuture<List<Formular>> searchByTypAsync(String keyword) {
+        return DbExecutor.supplyAsync(() -> searchByTyp(keyword));
+    }
+
+    private static void bindInsert(PreparedStatement ps, Formular f) throws SQLException {
+        ps.setString(1, f.getTyp());
+        setDate(ps, 2, f.getAusgabedatum());
+        setDate(ps, 3, f.getRueckgabedatum());
+        ps.setString(4, f.getStatus() != null ? f.getStatus().name() : FormularStatus.AUSSTEHEND.name());
+        ps.setInt(5, f.getMitgliedId());
+    }
+
+    private static void bindUpdate(PreparedStatement ps, Formular f) throws SQLException {
+        bindInsert(ps, f);
+        ps.setInt(6, f.getFormularId());
+    }
+
     private static void setDate(PreparedStatement ps, int idx, LocalDate date) throws SQLException {
         if (date == null) {
             ps.setDate(idx, null);
@@ -101,19 +336,26 @@ public class FormularRepository {
     }
 
     private static Formular map(ResultSet rs) throws SQLException {
+        return mapRow(rs).toFormular();
+    }
+
+    private static FormularRow mapRow(ResultSet rs) throws SQLException {
         int id = rs.getInt("formular_id");
         String typ = rs.getString("typ");
         LocalDate ausgabe = rs.getDate("ausgabedatum") != null ? rs.getDate("ausgabedatum").toLocalDate() : null;
         LocalDate rueckgabe = rs.getDate("rueckgabedatum") != null ? rs.getDate("rueckgabedatum").toLocalDate() : null;
         String statusStr = rs.getString("status");
-        FormularStatus status = null;
+        FormularStatus status;
         try {
-            status = statusStr != null ? FormularStatus.valueOf(statusStr) : FormularStatus.AUSSTEHEND;
+            // Gleiche Regeln wie Migration 007: Schreibweise egal, sonst AUSSTEHEND
+            status = statusStr != null
+                    ? FormularStatus.valueOf(statusStr.trim().toUpperCase(Locale.ROOT))
+                    : FormularStatus.AUSSTEHEND;
         } catch (IllegalArgumentException ex) {
-            // Falls DB andere Schreibweise speichert, fallback auf AUSSTEHEND
+            LOGGER.log(Level.WARNING, "Unbekannter Formular-Status {0}, angezeigt als AUSSTEHEND", statusStr);
             status = FormularStatus.AUSSTEHEND;
         }
         int mitgliedId = rs.getInt("mitglied_id");
-        return new Formular(id, typ, ausgabe, rueckgabe, status, mitgliedId);
+        return new FormularRow(id, typ, ausgabe, rueckgabe, status, mitgliedId);
     }
 }
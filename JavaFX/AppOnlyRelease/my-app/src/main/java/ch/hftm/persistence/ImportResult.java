@@ -0,0 +1,122 @@
+package ch.hftm.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis eines CSV-Imports mit Fehlerbericht pro Zeile.
+ *
+ * <p>Ungültige Zeilen werden übersprungen, gültige trotzdem übernommen.
+ * Schlägt der Import als Ganzes fehl (Dateifehler, fehlende Spalten,
+ * Datenbankfehler), wurde nichts geschrieben und {@link #isCompleted()}
+ * ist {@code false}.</p>
+ */
+public class ImportResult {
+
+    /**
+     * Fehler in einer Zeile der Datei.
+     *
+     * @param zeile Zeilennummer in der Datei (Kopfzeile = 1)
+     * @param meldung Beschreibung für den Benutzer
+     */
+    public record RowError(long zeile, String meldung) {
+
+        @Override
+        public String toString() {
+            return "Zeile " + zeile + ": " + meldung;
+        }
+    }
+
+    // Grosse Dateien: nur die ersten Fehler im Detail behalten
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final List<RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long rowsRejected;
+    private long inserted;
+    private long updated;
+    private boolean completed;
+    private String failure;
+
+    void addError(long zeile, String meldung) {
+        rowsRejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(zeile, meldung));
+        }
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    void complete() {
+        // Prüfungen in der Datenbank melden nach den Validierungsfehlern – nach Zeile ordnen
+        errors.sort((a, b) -> Long.compare(a.zeile(), b.zeile()));
+        this.completed = true;
+    }
+
+    void fail(String failure) {
+        this.completed = false;
+        this.failure = failure;
+        this.inserted = 0;
+        this.updated = 0;
+    }
+
+    /**
+     * Anzahl gelesener Datenzeilen (ohne Kopf- und Leerzeilen)
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Anzahl übersprungener Zeilen (Validierung oder unbekannte Referenzen)
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Zeilenfehler, höchstens die ersten {@value #MAX_REPORTED_ERRORS}
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Grund, wenn der Import als Ganzes fehlgeschlagen ist, sonst {@code null}
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        if (!completed) {
+            return "Import fehlgeschlagen: " + failure;
+        }
+        return rowsRead + " Zeilen gelesen, " + inserted + " neu, " + updated + " aktualisiert, "
+                + rowsRejected + " übersprungen";
+    }
+}
@@ -1,17 +1,23 @@
 package ch.hftm.persistence;
 
+import java.nio.file.Path;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ch.hftm.model.Mitglied;
+import ch.hftm.model.MitgliedRow;
 import ch.hftm.model.Rolle;
+import ch.hftm.util.ExportListener;
 
 /**
  * Repository für Mitglieder-Datenbankopertionen
@@ -20,6 +26,10 @@ public class MitgliedRepository {
 
     private static final Logger LOGGER = Logger.getLogger(MitgliedRepository.class.getName());
 
+    private static final String INSERT_SQL = "INSERT INTO mitglied (vorname, nachname, email, rolle) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE mitglied SET vorname = ?, nachname = ?, email = ?, rolle = ? WHERE mitglied_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM mitglied WHERE mitglied_id = ?";
+
     /**
      * Gibt alle Mitglieder zurück
      */
@@ -27,7 +37,7 @@ public class MitgliedRepository {
         List<Mitglied> mitglieder = new ArrayList<>();
         String sql = "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied ORDER BY nachname, vorname";
 
-        try (Connection conn = DatabaseConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 mitglieder.add(mapResultSetToMitglied(rs));
@@ -39,19 +49,64 @@ public class MitgliedRepository {
         return mitglieder;
     }
 
+    /**
+     * Lädt eine Seite Mitglieder per Keyset-Pagination
+     *
+     * <p>Sortierung: Nachname, Vorname, ID. Für die erste Seite ist
+     * {@code afterNachname} {@code null}; für Folgeseiten werden die Werte der
+     * letzten Zeile der Vorgängerseite übergeben.</p>
+     */
+    public List<Mitglied> findPage(String afterNachname, String afterVorname, int afterId, int limit) {
+        List<Mitglied> mitglieder = new ArrayList<>();
+        String sql = afterNachname == null
+                ? "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied "
+                + "ORDER BY nachname, vorname, mitglied_id LIMIT ?"
+                : "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied "
+                + "WHERE (nachname, vorname, mitglied_id) > (?, ?, ?) "
+                + "ORDER BY nachname, vorname, mitglied_id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int idx = 1;
+            if (afterNachname != null) {
+                stmt.setString(idx++, afterNachname);
+                stmt.setString(idx++, afterVorname != null ? afterVorname : "");
+                stmt.setInt(idx++, afterId);
+            }
+            stmt.setInt(idx, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mitglieder.add(mapResultSetToMitglied(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden einer Mitgliederseite", e);
+        }
+
+        return mitglieder;
+    }
+
     /**
      * Sucht ein Mitglied nach ID
      */
     public Mitglied findById(int id) {
+        MitgliedRow row = findRowById(id);
+        return row != null ? row.toMitglied() : null;
+    }
+
+    /**
+     * Sucht ein Mitglied nach ID als unveränderliche Lesesicht, z. B. für den
+     * E-Mail-Versand
+     */
+    public MitgliedRow findRowById(int id) {
         String sql = "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied WHERE mitglied_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToMitglied(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Laden des Mitglieds mit ID " + id, e);
@@ -60,6 +115,49 @@ public class MitgliedRepository {
         return null;
     }
 
+    /**
+     * Lädt die Mitglieder mit den IDs, z. B. nach einer Änderungsmeldung;
+     * nicht (mehr) vorhandene IDs fehlen im Ergebnis
+     */
+    public List<Mitglied> findByIds(Collection<Integer> ids) {
+        List<MitgliedRow> rows = findRowsByIds(ids);
+        List<Mitglied> mitglieder = new ArrayList<>(rows.size());
+        for (MitgliedRow row : rows) {
+            mitglieder.add(row.toMitglied());
+        }
+        return mitglieder;
+    }
+
+    /**
+     * Wie {@link #findByIds(Collection)}, aber als unveränderliche
+     * Lesesichten ohne JavaFX-Properties
+     */
+    public List<MitgliedRow> findRowsByIds(Collection<Integer> ids) {
+        List<MitgliedRow> rows = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return rows;
+        }
+        String sql = "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied WHERE mitglied_id = ANY(?)";
+
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Array idArray = conn.createArrayOf("integer", ids.toArray());
+            try {
+                stmt.setArray(1, idArray);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapRow(rs));
+                    }
+                }
+            } finally {
+                idArray.free();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Mitglieder " + ids, e);
+        }
+
+        return rows;
+    }
+
     /**
      * Sucht Mitglieder nach Suchbegriff (Name oder Email) Nutzt ILIKE für
      * case-insensitive Suche (PostgreSQL-spezifisch)
@@ -77,9 +175,10 @@ public class MitgliedRepository {
             stmt.setString(2, pattern);
             stmt.setString(3, pattern);
 
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                mitglieder.add(mapResultSetToMitglied(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mitglieder.add(mapResultSetToMitglied(rs));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler bei der Mitgliedersuche", e);
@@ -92,22 +191,17 @@ public class MitgliedRepository {
      * Speichert ein neues Mitglied
      */
     public boolean save(Mitglied mitglied) {
-        String sql = "INSERT INTO mitglied (vorname, nachname, email, rolle) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, mitglied.getVorname());
-            stmt.setString(2, mitglied.getNachname());
-            stmt.setString(3, mitglied.getEmail());
-            // Speichere als ENUM-Name (UPPERCASE) passend zum DB CHECK Constraint
-            stmt.setString(4, mitglied.getRolle().name());
+            bindInsert(stmt, mitglied);
 
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    mitglied.setMitgliedId(generatedKeys.getInt(1));
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        mitglied.setMitgliedId(generatedKeys.getInt(1));
+                    }
                 }
                 return true;
             }
@@ -122,16 +216,9 @@ public class MitgliedRepository {
      * Aktualisiert ein bestehendes Mitglied
      */
     public boolean update(Mitglied mitglied) {
-        String sql = "UPDATE mitglied SET vorname = ?, nachname = ?, email = ?, rolle = ? WHERE mitglied_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, mitglied.getVorname());
-            stmt.setString(2, mitglied.getNachname());
-            stmt.setString(3, mitglied.getEmail());
-            // Speichere als ENUM-Name (UPPERCASE)
-            stmt.setString(4, mitglied.getRolle().name());
-            stmt.setInt(5, mitglied.getMitgliedId());
+            bindUpdate(stmt, mitglied);
 
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -145,9 +232,7 @@ public class MitgliedRepository {
      * Löscht ein Mitglied
      */
     public boolean delete(int mitgliedId) {
-        String sql = "DELETE FROM mitglied WHERE mitglied_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, mitgliedId);
             return stmt.executeUpdate() > 0;
@@ -158,10 +243,110 @@ public class MitgliedRepository {
         return false;
     }
 
+    /**
+     * Speichert mehrere neue Mitglieder in einer Transaktion (JDBC-Batch) und
+     * setzt ihre generierten IDs
+     */
+    public boolean saveAll(Collection<Mitglied> mitglieder) {
+        return BatchWriter.write(INSERT_SQL, mitglieder, MitgliedRepository::bindInsert,
+                Mitglied::setMitgliedId, "Speichern der Mitglieder");
+    }
+
+    /**
+     * Aktualisiert mehrere Mitglieder in einer Transaktion (JDBC-Batch); {@code false} und nichts geändert, wenn eine ID nicht (mehr) existiert
+     */
+    public boolean updateAll(Collection<Mitglied> mitglieder) {
+        return BatchWriter.writeExisting(UPDATE_SQL, mitglieder, MitgliedRepository::bindUpdate,
+                "Aktualisieren der Mitglieder");
+    }
+
+    /**
+     * Löscht mehrere Mitglieder in einer Transaktion (JDBC-Batch); {@code false} und nichts geändert, wenn eine ID nicht (mehr) existiert
+     */
+    public boolean deleteAll(Collection<Integer> mitgliedIds) {
+        return BatchWriter.<Integer>writeExisting(DELETE_SQL, mitgliedIds, (stmt, id) -> stmt.setInt(1, id),
+                "Löschen der Mitglieder");
+    }
+
+    /**
+     * Exportiert alle Mitglieder als CSV direkt aus einem Datenbank-Cursor,
+     * ohne Mitglied-Objekte anzulegen
+     *
+     * @return Anzahl exportierter Mitglieder oder {@code -1} bei einem Fehler
+     */
+    public long exportCsv(Path file) {
+        return exportCsv(file, null);
+    }
+
+    /**
+     * Wie {@link #exportCsv(Path)} mit Fortschrittsmeldungen
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     */
+    public long exportCsv(Path file, ExportListener listener) {
+        return CursorCsvExport.export(
+                "SELECT mitglied_id, vorname, nachname, email, rolle FROM mitglied ORDER BY nachname, vorname",
+                List.of(), List.of("ID", "Vorname", "Nachname", "E-Mail", "Rolle"), file, "Mitglieder", listener);
+    }
+
+    /**
+     * Lädt alle Mitglieder ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Mitglied>> findAllAsync() {
+        return DbExecutor.supplyAsync(this::findAll);
+    }
+
+    /**
+     * Lädt die Seite nach dem übergebenen Mitglied ausserhalb des FX-Threads
+     *
+     * @param after letztes Mitglied der Vorgängerseite, {@code null} für die
+     * erste Seite
+     */
+    public CompletableFuture<List<Mitglied>> findPageAsync(Mitglied after, int limit) {
+        return DbExecutor.supplyAsync(() -> after == null
+                ? findPage(null, null, 0, limit)
+                : findPage(after.getNachname(), after.getVorname(), after.getMitgliedId(), limit));
+    }
+
+    /**
+     * Lädt die Mitglieder mit den IDs ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Mitglied>> findByIdsAsync(Collection<Integer> ids) {
+        return DbExecutor.supplyAsync(() -> findByIds(ids));
+    }
+
+    /**
+     * Sucht Mitglieder ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Mitglied>> searchAsync(String searchTerm) {
+        return DbExecutor.supplyAsync(() -> search(searchTerm));
+    }
+
+    /**
+     * Setzt Vorname, Nachname, E-Mail und Rolle als Parameter 1–4; gemeinsam
+     * für INSERT und UPDATE
+     */
+    private static void bindInsert(PreparedStatement stmt, Mitglied mitglied) throws SQLException {
+        stmt.setString(1, mitglied.getVorname());
+        stmt.setString(2, mitglied.getNachname());
+        stmt.setString(3, mitglied.getEmail());
+        // Speichere als ENUM-Name (UPPERCASE) passend zum DB CHECK Constraint
+        stmt.setString(4, mitglied.getRolle().name());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Mitglied mitglied) throws SQLException {
+        bindInsert(stmt, mitglied);
+        stmt.setInt(5, mitglied.getMitgliedId());
+    }
+
     /**
      * Hilfsmethode: Mapped ResultSet zu Mitglied-Objekt
      */
     private Mitglied mapResultSetToMitglied(ResultSet rs) throws SQLException {
+        return mapRow(rs).toMitglied();
+    }
+
+    private static MitgliedRow mapRow(ResultSet rs) throws SQLException {
         int id = rs.getInt("mitglied_id");
         String vorname = rs.getString("vorname");
         String nachname = rs.getString("nachname");
@@ -182,6 +367,6 @@ public class MitgliedRepository {
             }
         }
 
-        return new Mitglied(id, vorname, nachname, email, rolle);
+        return new MitgliedRow(id, vorname, nachname, email, rolle);
     }
 }
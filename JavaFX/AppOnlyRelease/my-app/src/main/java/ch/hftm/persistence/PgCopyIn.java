@@ -0,0 +1,102 @@
+package ch.hftm.persistence;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@code COPY ... FROM STDIN} über den CopyManager des PostgreSQL-Treibers.
+ *
+ * <p>Der Treiber ist keine Modul-Abhängigkeit von {@code my.app} (er liegt
+ * als automatisches Modul bzw. auf dem Classpath und würde {@code jlink}
+ * blockieren). Die öffentliche Copy-API wird deshalb per Reflection
+ * angesprochen; die Methoden werden einmalig aufgelöst.</p>
+ */
+final class PgCopyIn implements AutoCloseable {
+
+    private static final class Api {
+
+        static final Class<?> PG_CONNECTION;
+        static final Method GET_COPY_API;
+        static final Method COPY_IN;
+        static final Method WRITE_TO_COPY;
+        static final Method END_COPY;
+        static final Method CANCEL_COPY;
+        static final Method IS_ACTIVE;
+
+        static {
+            try {
+                PG_CONNECTION = Class.forName("org.postgresql.PGConnection");
+                Class<?> copyManager = Class.forName("org.postgresql.copy.CopyManager");
+                Class<?> copyIn = Class.forName("org.postgresql.copy.CopyIn");
+                GET_COPY_API = PG_CONNECTION.getMethod("getCopyAPI");
+                COPY_IN = copyManager.getMethod("copyIn", String.class);
+                WRITE_TO_COPY = copyIn.getMethod("writeToCopy", byte[].class, int.class, int.class);
+                END_COPY = copyIn.getMethod("endCopy");
+                CANCEL_COPY = copyIn.getMethod("cancelCopy");
+                IS_ACTIVE = copyIn.getMethod("isActive");
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private final Object copyIn;
+
+    private PgCopyIn(Object copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    /**
+     * Startet den COPY-Vorgang auf der Verbindung.
+     *
+     * @param copySql z. B. {@code COPY t (a, b) FROM STDIN WITH (FORMAT csv)}
+     */
+    static PgCopyIn start(Connection conn, String copySql) throws SQLException {
+        Object pgConnection;
+        try {
+            pgConnection = conn.unwrap(Api.PG_CONNECTION);
+        } catch (ExceptionInInitializerError | NoClassDefFoundError e) {
+            throw new SQLException("PostgreSQL-Treiber unterstützt kein COPY", e);
+        }
+        Object copyManager = invoke(Api.GET_COPY_API, pgConnection);
+        return new PgCopyIn(invoke(Api.COPY_IN, copyManager, copySql));
+    }
+
+    void write(byte[] data, int off, int len) throws SQLException {
+        invoke(Api.WRITE_TO_COPY, copyIn, data, off, len);
+    }
+
+    /**
+     * Schliesst den Datenstrom ab.
+     *
+     * @return Anzahl vom Server übernommener Zeilen
+     */
+    long end() throws SQLException {
+        return (Long) invoke(Api.END_COPY, copyIn);
+    }
+
+    /**
+     * Bricht einen noch aktiven COPY-Vorgang ab.
+     */
+    @Override
+    public void close() throws SQLException {
+        if ((Boolean) invoke(Api.IS_ACTIVE, copyIn)) {
+            invoke(Api.CANCEL_COPY, copyIn);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new SQLException("COPY fehlgeschlagen: " + e.getCause(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new SQLException("COPY-API des Treibers nicht zugreifbar", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ch.hftm.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Physische Datenbankverbindung, die vom {@link ConnectionPool} verwaltet
+ * wird.
+ *
+ * <p>Pro Ausleihe wird ein eigener {@link Connection}-Proxy erzeugt. Nach
+ * {@code close()} ist dieser Proxy unbrauchbar, auch wenn die physische
+ * Verbindung bereits wieder an einen anderen Aufrufer ausgeliehen wurde.</p>
+ *
+ * <p>{@code prepareStatement(sql)} und
+ * {@code prepareStatement(sql, autoGeneratedKeys)} werden über den
+ * {@link StatementCache} der Verbindung bedient.</p>
+ */
+class PooledConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final int defaultIsolation;
+    private final StatementCache statementCache;
+
+    private volatile long lastUsed = System.currentTimeMillis();
+    private volatile long borrowedAt;
+    private volatile Throwable borrowSite;
+    private volatile boolean leakReported;
+
+    PooledConnection(ConnectionPool pool, Connection physical, int statementCacheSize) throws SQLException {
+        this.pool = pool;
+        this.physical = physical;
+        this.defaultIsolation = physical.getTransactionIsolation();
+        this.statementCache = new StatementCache(physical, statementCacheSize);
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable getBorrowSite() {
+        return borrowSite;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        leakReported = true;
+    }
+
+    /**
+     * Erzeugt einen neuen Proxy für eine Ausleihe.
+     */
+    Connection lease(Throwable site) {
+        borrowedAt = System.currentTimeMillis();
+        borrowSite = site;
+        leakReported = false;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease());
+    }
+
+    /**
+     * Setzt den Verbindungszustand vor der Rückgabe in den Pool zurück, damit
+     * der nächste Aufrufer eine "frische" Verbindung erhält.
+     */
+    void reset() throws SQLException {
+        statementCache.releaseAll();
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        if (physical.isReadOnly()) {
+            physical.setReadOnly(false);
+        }
+        if (physical.getTransactionIsolation() != defaultIsolation) {
+            physical.setTransactionIsolation(defaultIsolation);
+        }
+        physical.clearWarnings();
+        lastUsed = System.currentTimeMillis();
+        borrowSite = null;
+    }
+
+    void closePhysical() {
+        statementCache.clear();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Fehler beim Schliessen einer Pool-Verbindung", e);
+        }
+    }
+
+    /**
+     * Handler eines einzelnen Verbindungs-Proxys.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close" -> {
+                    synchronized (this) {
+                        if (closed) {
+                            return null;
+                        }
+                        closed = true;
+                    }
+                    pool.release(PooledConnection.this);
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + physical + (closed ? ", zurückgegeben" : "") + "]";
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Verbindung wurde bereits an den Pool zurückgegeben");
+                    }
+                }
+            }
+            if ("prepareStatement".equals(name) && args != null && args[0] instanceof String sql) {
+                if (args.length == 1) {
+                    return statementCache.prepare(sql, Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && args[1] instanceof Integer keys) {
+                    return statementCache.prepare(sql, keys);
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package ch.hftm.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import ch.hftm.util.ExportColumn;
+import ch.hftm.util.ExportFormat;
+import ch.hftm.util.ExportListener;
+
+/**
+ * Sichert alle Tabellen konsistent in ein ZIP-Archiv.
+ *
+ * <p>Eine REPEATABLE-READ-Transaktion exportiert ihren Snapshot mit
+ * {@code pg_export_snapshot()}; je Tabelle übernimmt eine weitere Verbindung
+ * ihn mit {@code SET TRANSACTION SNAPSHOT} und liest parallel. Alle Tabellen
+ * zeigen damit denselben Datenstand und sind referenziell konsistent, die
+ * Dauer entspricht etwa der grössten Tabelle.</p>
+ *
+ * <p>Jede Tabelle wird zuerst in eine eigene temporäre Datei geschrieben
+ * (Prüfsummen werden dabei mitgerechnet) und danach unkomprimiert ins
+ * Archiv übernommen – das Format sollte deshalb selbst komprimieren
+ * (Standard: {@link ExportFormat#CSV_GZIP}). Das Archiv enthält zusätzlich
+ * {@value #MANIFEST_NAME} mit Zeilenzahlen und SHA-256 je Datei.</p>
+ */
+public class SnapshotExporter {
+
+    private static final Logger LOGGER = Logger.getLogger(SnapshotExporter.class.getName());
+
+    static final String MANIFEST_NAME = "manifest.json";
+
+    // Snapshot-IDs von PostgreSQL, z. B. 00000003-0000001B-1
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+
+    /**
+     * Eintrag des Manifests
+     *
+     * @param datei Name im Archiv, z. B. {@code termin.csv.gz}
+     * @param bytes Grösse der Datei
+     * @param sha256 Prüfsumme der Datei (hex)
+     */
+    public record Entry(ExportTable table, String datei, long zeilen, long bytes, String sha256) {
+    }
+
+    /**
+     * Inhalt von {@value #MANIFEST_NAME}
+     */
+    public record Manifest(String snapshotId, Instant erstellt, String format, List<Entry> entries) {
+
+        public long getTotalRows() {
+            return entries.stream().mapToLong(Entry::zeilen).sum();
+        }
+
+        String toJson() {
+            StringBuilder json = new StringBuilder("{\n");
+            json.append("  \"erstellt\": \"").append(erstellt).append("\",\n");
+            json.append("  \"snapshot\": \"").append(snapshotId).append("\",\n");
+            json.append("  \"format\": \"").append(format).append("\",\n");
+            json.append("  \"tabellen\": [\n");
+            for (int i = 0; i < entries.size(); i++) {
+                Entry e = entries.get(i);
+                json.append("    {\"tabelle\": \"").append(e.table().getTableName())
+                        .append("\", \"datei\": \"").append(e.datei())
+                        .append("\", \"zeilen\": ").append(e.zeilen())
+                        .append(", \"bytes\": ").append(e.bytes())
+                        .append(", \"sha256\": \"").append(e.sha256()).append("\"}")
+                        .append(i < entries.size() - 1 ? ",\n" : "\n");
+            }
+            return json.append("  ]\n}\n").toString();
+        }
+    }
+
+    // Geschriebene Tabellendatei mit der für STORED-Einträge nötigen CRC
+    private record Part(Entry entry, Path file, long crc) {
+    }
+
+    /**
+     * Sichert alle Tabellen als gzip-komprimiertes CSV.
+     *
+     * @see #export(Path, ExportFormat, ExportListener)
+     */
+    public Manifest export(Path file, ExportListener listener) {
+        return export(file, ExportFormat.CSV_GZIP, listener);
+    }
+
+    /**
+     * Sichert alle Tabellen aus einem gemeinsamen Snapshot in das Archiv.
+     *
+     * @param file Zieldatei (ZIP), wird überschrieben
+     * @param format Format der Tabellendateien im Archiv
+     * @param listener erhält den Gesamtfortschritt aller Tabellen (aus
+     * mehreren Threads), darf {@code null} sein
+     * @return Manifest oder {@code null} bei einem Fehler oder Abbruch
+     */
+    public Manifest export(Path file, ExportFormat format, ExportListener listener) {
+        ExportTable[] tables = ExportTable.values();
+        Path dir = file.toAbsolutePath().getParent();
+        List<Path> tempFiles = new ArrayList<>();
+        List<CompletableFuture<Part>> workers = new ArrayList<>();
+        AtomicBoolean abort = new AtomicBoolean();
+        Progress progress = new Progress(tables.length, listener);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            List<Part> parts = new ArrayList<>();
+            String snapshotId;
+            try {
+                snapshotId = exportSnapshot(conn);
+                for (ExportTable table : tables) {
+                    tempFiles.add(Files.createTempFile(dir, ".snapshot-" + table.getTableName() + "-", ".part"));
+                }
+                // Tabellen 2..n in eigenen Verbindungen, die erste in dieser Transaktion
+                for (int i = 1; i < tables.length; i++) {
+                    ExportTable table = tables[i];
+                    Path temp = tempFiles.get(i);
+                    int slot = i;
+                    workers.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return exportInSnapshot(snapshotId, table, format, temp, abort, progress, slot);
+                        } catch (SQLException | IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, DbExecutor.executor()));
+                }
+                parts.add(exportTable(conn, tables[0], format, tempFiles.get(0), abort, progress, 0));
+                for (CompletableFuture<Part> worker : workers) {
+                    parts.add(worker.get());
+                }
+            } finally {
+                // Snapshot erst freigeben, wenn alle Worker fertig sind
+                abort.set(true);
+                conn.rollback();
+            }
+
+            List<Entry> entries = parts.stream().map(Part::entry).toList();
+            Manifest manifest = new Manifest(snapshotId, Instant.now(), format.getExtension(), entries);
+            writeArchive(file, manifest, parts);
+            LOGGER.log(Level.INFO, "Datensicherung erstellt: {0} ({1} Zeilen)",
+                    new Object[] {file, manifest.getTotalRows()});
+            return manifest;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.INFO, "Datensicherung abgebrochen");
+            return null;
+        } catch (InterruptedIOException e) {
+            LOGGER.log(Level.INFO, "Datensicherung abgebrochen");
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedIOException) {
+                LOGGER.log(Level.INFO, "Datensicherung abgebrochen");
+                return null;
+            }
+            LOGGER.log(Level.SEVERE, "Fehler bei der Datensicherung nach " + file, e.getCause());
+            return null;
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Fehler bei der Datensicherung nach " + file, e);
+            return null;
+        } finally {
+            // Abgebrochene Worker geben ihre Verbindung beim nächsten Prüfpunkt zurück
+            workers.forEach(w -> w.exceptionally(t -> null).join());
+            for (Path temp : tempFiles) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Temporäre Datei konnte nicht gelöscht werden: " + temp, e);
+                }
+            }
+        }
+    }
+
+    private static String exportSnapshot(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT pg_export_snapshot()");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            String snapshotId = rs.getString(1);
+            if (snapshotId == null || !SNAPSHOT_ID.matcher(snapshotId).matches()) {
+                throw new SQLException("Unerwartete Snapshot-ID: " + snapshotId);
+            }
+            return snapshotId;
+        }
+    }
+
+    private static Part exportInSnapshot(String snapshotId, ExportTable table, ExportFormat format, Path temp,
+            AtomicBoolean abort, Progress progress, int slot) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                // Muss die erste Anweisung der Transaktion sein; Parameter sind hier nicht erlaubt
+                try (Statement st = conn.createStatement()) {
+                    st.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                }
+                return exportTable(conn, table, format, temp, abort, progress, slot);
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+
+    private static Part exportTable(Connection conn, ExportTable table, ExportFormat format, Path temp,
+            AtomicBoolean abort, Progress progress, int slot) throws SQLException, IOException {
+        List<ExportColumn> columns = table.getColumns();
+        long rows = 0;
+        ChecksumOutputStream checksum = new ChecksumOutputStream(Files.newOutputStream(temp));
+        try (PreparedStatement ps = conn.prepareStatement(table.selectAllSql());
+                ExportFormat.RecordWriter out = format.openWriter(checksum, columns)) {
+            ps.setFetchSize(CursorCsvExport.FETCH_SIZE);
+            Object[] values = new Object[columns.size()];
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    for (int c = 0; c < values.length; c++) {
+                        values[c] = ArchiveExporter.read(rs, c + 1, columns.get(c).type());
+                    }
+                    out.write(values);
+                    rows++;
+                    if (rows % ArchiveExporter.PROGRESS_INTERVAL_ROWS == 0) {
+                        if (abort.get() || Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Datensicherung abgebrochen");
+                        }
+                        progress.update(slot, rows, checksum.count);
+                    }
+                }
+            }
+        }
+        progress.update(slot, rows, checksum.count);
+        String datei = table.getTableName() + "." + format.getExtension();
+        return new Part(new Entry(table, datei, rows, checksum.count, checksum.sha256()), temp, checksum.crc.getValue());
+    }
+
+    private static void writeArchive(Path file, Manifest manifest, List<Part> parts) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            zip.putNextEntry(new ZipEntry(MANIFEST_NAME));
+            zip.write(manifest.toJson().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            for (Part part : parts) {
+                // Tabellendateien sind bereits komprimiert: unverändert übernehmen
+                ZipEntry entry = new ZipEntry(part.entry().datei());
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(part.entry().bytes());
+                entry.setCompressedSize(part.entry().bytes());
+                entry.setCrc(part.crc());
+                zip.putNextEntry(entry);
+                Files.copy(part.file(), zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Summiert den Fortschritt der parallel exportierten Tabellen
+     */
+    private static final class Progress {
+
+        private final AtomicLongArray rows;
+        private final AtomicLongArray bytes;
+        private final ExportListener listener;
+
+        Progress(int tables, ExportListener listener) {
+            this.rows = new AtomicLongArray(tables);
+            this.bytes = new AtomicLongArray(tables);
+            this.listener = listener;
+        }
+
+        void update(int slot, long tableRows, long tableBytes) {
+            rows.set(slot, tableRows);
+            bytes.set(slot, tableBytes);
+            if (listener != null) {
+                long totalRows = 0;
+                long totalBytes = 0;
+                for (int i = 0; i < rows.length(); i++) {
+                    totalRows += rows.get(i);
+                    totalBytes += bytes.get(i);
+                }
+                listener.progress(totalRows, totalBytes);
+            }
+        }
+    }
+
+    /**
+     * Zählt die geschriebenen Bytes und berechnet CRC-32 und SHA-256
+     */
+    private static final class ChecksumOutputStream extends FilterOutputStream {
+
+        private final CRC32 crc = new CRC32();
+        private final MessageDigest sha256;
+        private long count;
+
+        ChecksumOutputStream(OutputStream out) {
+            super(out);
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // Jede Java-Plattform muss SHA-256 anbieten
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            sha256.update((byte) b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            sha256.update(b, off, len);
+            count += len;
+        }
+
+        String sha256() {
+            return HexFormat.of().formatHex(sha256.digest());
+        }
+    }
+}
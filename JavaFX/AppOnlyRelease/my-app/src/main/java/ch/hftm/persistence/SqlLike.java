@@ -0,0 +1,23 @@
+package ch.hftm.persistence;
+
+/**
+ * Muster für Teilstring-Suchen mit {@code LIKE}/{@code ILIKE ... ESCAPE '\'}.
+ *
+ * <p>Platzhalter ({@code %}, {@code _}) und der Escape selbst im Suchtext
+ * werden wörtlich genommen.</p>
+ */
+final class SqlLike {
+
+    // An die Bedingung anhängen: "spalte ILIKE ?" + ESCAPE
+    static final String ESCAPE = " ESCAPE '\\'";
+
+    private SqlLike() {
+    }
+
+    /**
+     * @return {@code %text%} mit maskierten Platzhaltern
+     */
+    static String contains(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
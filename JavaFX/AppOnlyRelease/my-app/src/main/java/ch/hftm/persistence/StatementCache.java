@@ -0,0 +1,242 @@
+package ch.hftm.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU-Cache für PreparedStatements einer einzelnen Pool-Verbindung.
+ *
+ * <p>Schlüssel ist der SQL-Text (plus Generated-Keys-Flag). Repositories
+ * schliessen ihre Statements wie gewohnt mit try-with-resources; der
+ * zurückgegebene Proxy setzt bei {@code close()} die Parameter sowie
+ * geänderte Einstellungen (Fetch-Size, Max-Rows, Query-Timeout, ...) zurück
+ * und gibt das Statement für den nächsten Aufruf mit gleichem SQL frei. Der
+ * Cache lebt so lange wie die physische Verbindung.</p>
+ */
+class StatementCache {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    // Zähler über alle Verbindungen (für Logging/Diagnose)
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    // Setter, deren Wert sonst beim nächsten Aufrufer mit gleichem SQL weiter gälte
+    private static final Set<String> SETTINGS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout");
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static long getHitCount() {
+        return HITS.sum();
+    }
+
+    static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Liefert ein (ggf. gecachtes) PreparedStatement für das SQL.
+     *
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} oder
+     * {@link Statement#NO_GENERATED_KEYS}
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        if (maxSize <= 0) {
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K|" + sql : "N|" + sql;
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            HITS.increment();
+            return entry.checkout();
+        }
+        MISSES.increment();
+        PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (entry != null) {
+            // Gleiches SQL wird auf dieser Verbindung bereits verwendet (verschachtelt) – nicht cachen
+            return ps;
+        }
+        try {
+            entry = new Entry(ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        entries.put(key, entry);
+        return entry.checkout();
+    }
+
+    /**
+     * Gibt Statements frei, die ein Aufrufer nicht geschlossen hat. Wird bei
+     * der Rückgabe der Verbindung an den Pool aufgerufen; alte Proxies werden
+     * dabei ungültig.
+     */
+    synchronized void releaseAll() {
+        for (Entry entry : entries.values()) {
+            if (entry.inUse) {
+                entry.checkin();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            entry.evict();
+        }
+        entries.clear();
+    }
+
+    private final class Entry {
+
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final long maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean settingsChanged;
+        private int generation;
+
+        Entry(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxRows = statement.getLargeMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement checkout() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this, generation));
+        }
+
+        void checkin() {
+            generation++;
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (settingsChanged) {
+                    statement.setFetchSize(fetchSize);
+                    statement.setFetchDirection(fetchDirection);
+                    statement.setLargeMaxRows(maxRows);
+                    statement.setMaxFieldSize(maxFieldSize);
+                    statement.setQueryTimeout(queryTimeout);
+                    settingsChanged = false;
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Gecachtes Statement konnte nicht zurückgesetzt werden", e);
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Fehler beim Schliessen eines gecachten Statements", e);
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+
+        private final Entry entry;
+        private final int generation;
+
+        Handle(Entry entry, int generation) {
+            this.entry = entry;
+            this.generation = generation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            synchronized (StatementCache.this) {
+                boolean stale = generation != entry.generation;
+                switch (name) {
+                    case "close" -> {
+                        if (!stale) {
+                            entry.checkin();
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return stale || entry.statement.isClosed();
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "CachedStatement[" + entry.statement + "]";
+                    }
+                    default -> {
+                        if (stale) {
+                            throw new SQLException("Statement wurde bereits geschlossen");
+                        }
+                        if (SETTINGS.contains(name)) {
+                            entry.settingsChanged = true;
+                        }
+                    }
+                }
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ch.hftm.persistence;
+
+import java.util.Objects;
+
+/**
+ * Filterkriterien für die Teilnahme-Detailansicht, die das
+ * {@link TeilnahmeRepository} in eine parametrisierte SQL-Abfrage übersetzt.
+ *
+ * <p>Nicht gesetzte Kriterien ({@code null}, leer) schränken nicht ein.
+ * Unveränderlich wie {@link TerminQuery}: jede Methode liefert eine neue
+ * Abfrage.</p>
+ */
+public final class TeilnahmeQuery {
+
+    private static final TeilnahmeQuery ALLE = new TeilnahmeQuery(null, null, null, null, null);
+
+    private final Integer mitgliedId;
+    private final Integer terminId;
+    private final String mitgliedIdEnthaelt;
+    private final String terminIdEnthaelt;
+    private final String suche;
+
+    private TeilnahmeQuery(Integer mitgliedId, Integer terminId, String mitgliedIdEnthaelt,
+            String terminIdEnthaelt, String suche) {
+        this.mitgliedId = mitgliedId;
+        this.terminId = terminId;
+        this.mitgliedIdEnthaelt = mitgliedIdEnthaelt;
+        this.terminIdEnthaelt = terminIdEnthaelt;
+        this.suche = suche;
+    }
+
+    /**
+     * Abfrage ohne Einschränkungen
+     */
+    public static TeilnahmeQuery alle() {
+        return ALLE;
+    }
+
+    /**
+     * Nur Teilnahmen dieses Mitglieds
+     */
+    public TeilnahmeQuery mitgliedId(Integer value) {
+        return new TeilnahmeQuery(value, terminId, mitgliedIdEnthaelt, terminIdEnthaelt, suche);
+    }
+
+    /**
+     * Nur Teilnahmen an diesem Termin
+     */
+    public TeilnahmeQuery terminId(Integer value) {
+        return new TeilnahmeQuery(mitgliedId, value, mitgliedIdEnthaelt, terminIdEnthaelt, suche);
+    }
+
+    /**
+     * Mitglied-ID enthält die Ziffernfolge
+     */
+    public TeilnahmeQuery mitgliedIdEnthaelt(String value) {
+        return new TeilnahmeQuery(mitgliedId, terminId, value, terminIdEnthaelt, suche);
+    }
+
+    /**
+     * Termin-ID enthält die Ziffernfolge
+     */
+    public TeilnahmeQuery terminIdEnthaelt(String value) {
+        return new TeilnahmeQuery(mitgliedId, terminId, mitgliedIdEnthaelt, value, suche);
+    }
+
+    /**
+     * Volltextsuche wie in der Tabelle: IDs, Name, Termindatum (TT.MM.JJJJ),
+     * Ort, Formulartyp oder Status enthält den Text (Gross-/Kleinschreibung
+     * egal)
+     */
+    public TeilnahmeQuery suche(String value) {
+        return new TeilnahmeQuery(mitgliedId, terminId, mitgliedIdEnthaelt, terminIdEnthaelt, value);
+    }
+
+    public Integer getMitgliedId() {
+        return mitgliedId;
+    }
+
+    public Integer getTerminId() {
+        return terminId;
+    }
+
+    public String getMitgliedIdEnthaelt() {
+        return mitgliedIdEnthaelt;
+    }
+
+    public String getTerminIdEnthaelt() {
+        return terminIdEnthaelt;
+    }
+
+    public String getSuche() {
+        return suche;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TeilnahmeQuery other)) {
+            return false;
+        }
+        return Objects.equals(mitgliedId, other.mitgliedId)
+                && Objects.equals(terminId, other.terminId)
+                && Objects.equals(mitgliedIdEnthaelt, other.mitgliedIdEnthaelt)
+                && Objects.equals(terminIdEnthaelt, other.terminIdEnthaelt)
+                && Objects.equals(suche, other.suche);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mitgliedId, terminId, mitgliedIdEnthaelt, terminIdEnthaelt, suche);
+    }
+
+    @Override
+    public String toString() {
+        return "TeilnahmeQuery[mitgliedId=" + mitgliedId + ", terminId=" + terminId
+                + ", mitglied=" + mitgliedIdEnthaelt + ", termin=" + terminIdEnthaelt + ", suche=" + suche + "]";
+    }
+}
@@ -1,17 +1,29 @@
 package ch.hftm.persistence;
 
+import java.nio.file.Path;
+import java.sql.Array;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ch.hftm.model.Teilnahme;
+import ch.hftm.model.TeilnahmeColumnStore;
+import ch.hftm.model.TeilnahmeDetail;
+import ch.hftm.model.TeilnahmeRow;
 import ch.hftm.model.TeilnahmeStatus;
+import ch.hftm.util.ExportListener;
 
 /**
  * Repository für Teilnahme-Datenbankoperationen
@@ -20,10 +32,22 @@ public class TeilnahmeRepository {
 
     private static final Logger LOGGER = Logger.getLogger(TeilnahmeRepository.class.getName());
 
+    private static final String INSERT_SQL = "INSERT INTO teilnahme(mitglied_id, termin_id, formular_id, status) VALUES(?,?,?,?)";
+    private static final String UPDATE_SQL = "UPDATE teilnahme SET mitglied_id=?, termin_id=?, formular_id=?, status=? WHERE teilnahme_id=?";
+    private static final String DELETE_SQL = "DELETE FROM teilnahme WHERE teilnahme_id=?";
+
+    // Teilnahme mit Mitglied, Termin und (optionalem) Formular in einer Abfrage
+    private static final String DETAIL_SELECT = "SELECT t.teilnahme_id, t.mitglied_id, t.termin_id, t.formular_id, t.status, "
+            + "m.vorname, m.nachname, te.datum, te.uhrzeit, te.ort, f.typ AS formular_typ "
+            + "FROM teilnahme t "
+            + "JOIN mitglied m ON m.mitglied_id = t.mitglied_id "
+            + "JOIN termin te ON te.termin_id = t.termin_id "
+            + "LEFT JOIN formular f ON f.formular_id = t.formular_id ";
+
     public List<Teilnahme> findAll() {
         List<Teilnahme> list = new ArrayList<>();
         String sql = "SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme ORDER BY teilnahme_id DESC";
-        try (Connection conn = DatabaseConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 list.add(map(rs));
             }
@@ -33,14 +57,43 @@ public class TeilnahmeRepository {
         return list;
     }
 
+    /**
+     * Lädt eine Seite Teilnahmen per Keyset-Pagination (neueste zuerst)
+     *
+     * @param afterTeilnahmeId ID der letzten Zeile der Vorgängerseite,
+     * {@code <= 0} für die erste Seite
+     */
+    public List<Teilnahme> findPage(int afterTeilnahmeId, int limit) {
+        List<Teilnahme> list = new ArrayList<>();
+        String sql = afterTeilnahmeId <= 0
+                ? "SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme ORDER BY teilnahme_id DESC LIMIT ?"
+                : "SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme WHERE teilnahme_id < ? ORDER BY teilnahme_id DESC LIMIT ?";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            if (afterTeilnahmeId > 0) {
+                ps.setInt(idx++, afterTeilnahmeId);
+            }
+            ps.setInt(idx, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden einer Teilnahmeseite", e);
+        }
+        return list;
+    }
+
     public List<Teilnahme> findByMitglied(int mitgliedId) {
         List<Teilnahme> list = new ArrayList<>();
         String sql = "SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme WHERE mitglied_id=? ORDER BY teilnahme_id DESC";
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, mitgliedId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(map(rs));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Laden der Teilnahmen für Mitglied " + mitgliedId, e);
@@ -53,9 +106,10 @@ public class TeilnahmeRepository {
         String sql = "SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme WHERE termin_id=? ORDER BY teilnahme_id DESC";
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, terminId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(map(rs));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(map(rs));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Laden der Teilnahmen für Termin " + terminId, e);
@@ -63,18 +117,175 @@ public class TeilnahmeRepository {
         return list;
     }
 
+    /**
+     * Lädt eine Seite Teilnahmen inklusive Mitglied-, Termin- und
+     * Formulardaten per Keyset-Pagination (neueste zuerst)
+     *
+     * @param afterTeilnahmeId ID der letzten Zeile der Vorgängerseite,
+     * {@code <= 0} für die erste Seite
+     */
+    public List<TeilnahmeDetail> findDetailPage(int afterTeilnahmeId, int limit) {
+        return findDetailPage(TeilnahmeQuery.alle(), afterTeilnahmeId, limit);
+    }
+
+    /**
+     * Lädt eine Seite der gefilterten Teilnahmen inklusive Details per
+     * Keyset-Pagination (neueste zuerst); alle Kriterien werden in SQL
+     * ausgewertet
+     *
+     * @param afterTeilnahmeId ID der letzten Zeile der Vorgängerseite,
+     * {@code <= 0} für die erste Seite
+     */
+    public List<TeilnahmeDetail> findDetailPage(TeilnahmeQuery query, int afterTeilnahmeId, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(DETAIL_SELECT).append("WHERE TRUE");
+        appendCriteria(sql, params, query);
+        if (afterTeilnahmeId > 0) {
+            sql.append(" AND t.teilnahme_id < ?");
+            params.add(afterTeilnahmeId);
+        }
+        sql.append(" ORDER BY t.teilnahme_id DESC LIMIT ?");
+        params.add(limit);
+        return findDetails(sql.toString(), params.toArray());
+    }
+
+    public List<TeilnahmeDetail> findDetailsByMitglied(int mitgliedId) {
+        return findDetails(DETAIL_SELECT + "WHERE t.mitglied_id = ? ORDER BY t.teilnahme_id DESC", mitgliedId);
+    }
+
+    public List<TeilnahmeDetail> findDetailsByTermin(int terminId) {
+        return findDetails(DETAIL_SELECT + "WHERE t.termin_id = ? ORDER BY t.teilnahme_id DESC", terminId);
+    }
+
+    /**
+     * Lädt die Teilnahmen mit den IDs inklusive Details, z. B. nach einer
+     * Änderungsmeldung; nicht (mehr) vorhandene IDs fehlen im Ergebnis
+     */
+    public List<TeilnahmeDetail> findDetailsByIds(Collection<Integer> ids) {
+        return findDetailsByIds(TeilnahmeQuery.alle(), ids);
+    }
+
+    /**
+     * Lädt die Teilnahmen mit den IDs, die die Kriterien der Abfrage erfüllen,
+     * z. B. nach einer Änderungsmeldung; alle anderen IDs fehlen im Ergebnis
+     */
+    public List<TeilnahmeDetail> findDetailsByIds(TeilnahmeQuery query, Collection<Integer> ids) {
+        List<TeilnahmeDetail> list = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return list;
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(DETAIL_SELECT).append("WHERE t.teilnahme_id = ANY(?)");
+        appendCriteria(sql, params, query);
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            Array idArray = conn.createArrayOf("integer", ids.toArray());
+            try {
+                ps.setArray(1, idArray);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 2, params.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(mapDetail(rs));
+                    }
+                }
+            } finally {
+                idArray.free();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Teilnahme-Details " + ids, e);
+        }
+        return list;
+    }
+
+    /**
+     * Liest alle Teilnahmen inklusive Details zeilenweise über einen
+     * Server-Cursor, ohne die Ergebnismenge im Speicher zu halten
+     *
+     * @param action wird pro Zeile im aufrufenden Thread aufgerufen
+     * @return {@code false} bei einem Datenbankfehler
+     */
+    public boolean streamDetails(Consumer<? super TeilnahmeDetail> action) {
+        return CursorReader.read(DETAIL_SELECT + "ORDER BY t.teilnahme_id DESC", List.of(),
+                TeilnahmeRepository::mapDetail, action, "Teilnahmen");
+    }
+
+    /**
+     * Liest alle Teilnahmen als {@link TeilnahmeRow} zeilenweise über einen
+     * Server-Cursor, z. B. für Auswertungen; keine JavaFX-Properties, keine
+     * feste Reihenfolge
+     *
+     * @param action wird pro Zeile im aufrufenden Thread aufgerufen
+     * @return {@code false} bei einem Datenbankfehler
+     */
+    public boolean streamRows(Consumer<? super TeilnahmeRow> action) {
+        return CursorReader.read("SELECT teilnahme_id, mitglied_id, termin_id, formular_id, status FROM teilnahme",
+                List.of(), TeilnahmeRepository::mapRow, action, "Teilnahmen");
+    }
+
+    /**
+     * Lädt alle Teilnahmen spaltenweise für Anwesenheitsauswertungen. Die
+     * Spalten werden direkt aus dem Cursor in die primitiven Arrays des
+     * Speichers gelesen, ohne Objekt pro Zeile. Teilnahmen ohne gültigen
+     * Status zählt der Speicher separat; ihre Anzahl wird als Warnung
+     * protokolliert.
+     *
+     * @return gefüllter Speicher oder {@code null} bei einem Datenbankfehler
+     */
+    public TeilnahmeColumnStore loadColumnStore() {
+        TeilnahmeColumnStore store = new TeilnahmeColumnStore();
+        boolean ok = CursorReader.forEach("SELECT mitglied_id, termin_id, formular_id, status FROM teilnahme", List.of(),
+                rs -> store.add(rs.getInt(1), rs.getInt(2), rs.getInt(3), statusOrNull(rs.getString(4))), "Teilnahmen");
+        if (!ok) {
+            return null;
+        }
+        int unbekannt = store.count(null);
+        if (unbekannt > 0) {
+            LOGGER.log(Level.WARNING, "{0} Teilnahmen ohne gültigen Status", unbekannt);
+        }
+        return store;
+    }
+
+    /**
+     * Exportiert die gesamte Teilnahme-Historie als CSV direkt aus einem
+     * Datenbank-Cursor, ohne Teilnahme-Objekte anzulegen
+     *
+     * @return Anzahl exportierter Teilnahmen oder {@code -1} bei einem Fehler
+     */
+    public long exportDetailsCsv(Path file) {
+        return exportDetailsCsv(file, null);
+    }
+
+    /**
+     * Wie {@link #exportDetailsCsv(Path)} mit Fortschrittsmeldungen
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     */
+    public long exportDetailsCsv(Path file, ExportListener listener) {
+        String sql = "SELECT t.teilnahme_id, m.vorname || ' ' || m.nachname, te.datum, to_char(te.uhrzeit, 'HH24:MI'), "
+                + "te.ort, t.status, f.typ "
+                + "FROM teilnahme t "
+                + "JOIN mitglied m ON m.mitglied_id = t.mitglied_id "
+                + "JOIN termin te ON te.termin_id = t.termin_id "
+                + "LEFT JOIN formular f ON f.formular_id = t.formular_id "
+                + "ORDER BY t.teilnahme_id DESC";
+        return CursorCsvExport.export(sql, List.of(),
+                List.of("Teilnahme-ID", "Mitglied", "Datum", "Uhrzeit", "Ort", "Status", "Formular"), file, "Teilnahmen", listener);
+    }
+
     public boolean save(Teilnahme t) {
-        String sql = "INSERT INTO teilnahme(mitglied_id, termin_id, formular_id, status) VALUES(?,?,?,?)";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, t.getMitgliedId());
-            ps.setInt(2, t.getTerminId());
-            if (t.getFormularId() > 0) {
-                ps.setInt(3, t.getFormularId());
-            } else {
-                ps.setNull(3, java.sql.Types.INTEGER);
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(ps, t);
+            if (ps.executeUpdate() != 1) {
+                return false;
             }
-            ps.setString(4, t.getStatus() != null ? t.getStatus().name() : TeilnahmeStatus.ZUGESAGT.name());
-            return ps.executeUpdate() == 1;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    t.setTeilnahmeId(keys.getInt(1));
+                }
+            }
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Speichern der Teilnahme", e);
             return false;
@@ -82,17 +293,8 @@ public class TeilnahmeRepository {
     }
 
     public boolean update(Teilnahme t) {
-        String sql = "UPDATE teilnahme SET mitglied_id=?, termin_id=?, formular_id=?, status=? WHERE teilnahme_id=?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, t.getMitgliedId());
-            ps.setInt(2, t.getTerminId());
-            if (t.getFormularId() > 0) {
-                ps.setInt(3, t.getFormularId());
-            } else {
-                ps.setNull(3, java.sql.Types.INTEGER);
-            }
-            ps.setString(4, t.getStatus() != null ? t.getStatus().name() : TeilnahmeStatus.ZUGESAGT.name());
-            ps.setInt(5, t.getTeilnahmeId());
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
+            bindUpdate(ps, t);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Aktualisieren der Teilnahme", e);
@@ -101,8 +303,7 @@ public class TeilnahmeRepository {
     }
 
     public boolean delete(int teilnahmeId) {
-        String sql = "DELETE FROM teilnahme WHERE teilnahme_id=?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
             ps.setInt(1, teilnahmeId);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
@@ -111,18 +312,194 @@ public class TeilnahmeRepository {
         }
     }
 
-    private static Teilnahme map(ResultSet rs) throws SQLException {
-        int id = rs.getInt("teilnahme_id");
-        int mitglied = rs.getInt("mitglied_id");
-        int termin = rs.getInt("termin_id");
+    /**
+     * Speichert mehrere neue Teilnahmen in einer Transaktion (JDBC-Batch),
+     * z. B. eine ganze Trainingsgruppe für einen Termin, und setzt ihre
+     * generierten IDs
+     */
+    public boolean saveAll(Collection<Teilnahme> teilnahmen) {
+        return BatchWriter.write(INSERT_SQL, teilnahmen, TeilnahmeRepository::bindInsert,
+                Teilnahme::setTeilnahmeId, "Speichern der Teilnahmen");
+    }
+
+    public boolean updateAll(Collection<Teilnahme> teilnahmen) {
+        return BatchWriter.writeExisting(UPDATE_SQL, teilnahmen, TeilnahmeRepository::bindUpdate,
+                "Aktualisieren der Teilnahmen");
+    }
+
+    public boolean deleteAll(Collection<Integer> teilnahmeIds) {
+        return BatchWriter.<Integer>writeExisting(DELETE_SQL, teilnahmeIds, (ps, id) -> ps.setInt(1, id),
+                "Löschen der Teilnahmen");
+    }
+
+    public CompletableFuture<List<Teilnahme>> findAllAsync() {
+        return DbExecutor.supplyAsync(this::findAll);
+    }
+
+    public CompletableFuture<List<Teilnahme>> findPageAsync(Teilnahme after, int limit) {
+        return DbExecutor.supplyAsync(() -> findPage(after != null ? after.getTeilnahmeId() : 0, limit));
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailPageAsync(Teilnahme after, int limit) {
+        return DbExecutor.supplyAsync(() -> findDetailPage(after != null ? after.getTeilnahmeId() : 0, limit));
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailPageAsync(TeilnahmeQuery query, Teilnahme after, int limit) {
+        return DbExecutor.supplyAsync(() -> findDetailPage(query, after != null ? after.getTeilnahmeId() : 0, limit));
+    }
+
+    public CompletableFuture<TeilnahmeColumnStore> loadColumnStoreAsync() {
+        return DbExecutor.supplyAsync(this::loadColumnStore);
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailsByMitgliedAsync(int mitgliedId) {
+        return DbExecutor.supplyAsync(() -> findDetailsByMitglied(mitgliedId));
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailsByTerminAsync(int terminId) {
+        return DbExecutor.supplyAsync(() -> findDetailsByTermin(terminId));
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailsByIdsAsync(Collection<Integer> ids) {
+        return DbExecutor.supplyAsync(() -> findDetailsByIds(ids));
+    }
+
+    public CompletableFuture<List<TeilnahmeDetail>> findDetailsByIdsAsync(TeilnahmeQuery query, Collection<Integer> ids) {
+        return DbExecutor.supplyAsync(() -> findDetailsByIds(query, ids));
+    }
+
+    public CompletableFuture<List<Teilnahme>> findByMitgliedAsync(int mitgliedId) {
+        return DbExecutor.supplyAsync(() -> findByMitglied(mitgliedId));
+    }
+
+    public CompletableFuture<List<Teilnahme>> findByTerminAsync(int terminId) {
+        return DbExecutor.supplyAsync(() -> findByTermin(terminId));
+    }
+
+    private static void bindInsert(PreparedStatement ps, Teilnahme t) throws SQLException {
+        ps.setInt(1, t.getMitgliedId());
+        ps.setInt(2, t.getTerminId());
+        if (t.getFormularId() > 0) {
+            ps.setInt(3, t.getFormularId());
+        } else {
+            ps.setNull(3, java.sql.Types.INTEGER);
+        }
+        ps.setString(4, t.getStatus() != null ? t.getStatus().name() : TeilnahmeStatus.ZUGESAGT.name());
+    }
+
+    private static void bindUpdate(PreparedStatement ps, Teilnahme t) throws SQLException {
+        bindInsert(ps, t);
+        ps.setInt(5, t.getTeilnahmeId());
+    }
+
+    /**
+     * Hängt die gesetzten Kriterien der Abfrage als {@code AND}-Bedingungen an
+     * und sammelt die zugehörigen Parameter
+     */
+    private static void appendCriteria(StringBuilder sql, List<Object> params, TeilnahmeQuery query) {
+        if (query.getMitgliedId() != null) {
+            sql.append(" AND t.mitglied_id = ?");
+            params.add(query.getMitgliedId());
+        }
+        if (query.getTerminId() != null) {
+            sql.append(" AND t.termin_id = ?");
+            params.add(query.getTerminId());
+        }
+        String mitglied = query.getMitgliedIdEnthaelt() != null ? query.getMitgliedIdEnthaelt().trim() : "";
+        if (!mitglied.isEmpty()) {
+            sql.append(" AND CAST(t.mitglied_id AS text) LIKE ?").append(SqlLike.ESCAPE);
+            params.add(SqlLike.contains(mitglied));
+        }
+        String termin = query.getTerminIdEnthaelt() != null ? query.getTerminIdEnthaelt().trim() : "";
+        if (!termin.isEmpty()) {
+            sql.append(" AND CAST(t.termin_id AS text) LIKE ?").append(SqlLike.ESCAPE);
+            params.add(SqlLike.contains(termin));
+        }
+        String suche = query.getSuche() != null ? query.getSuche().trim() : "";
+        if (!suche.isEmpty()) {
+            // Felder wie in der Tabelle formatiert, jedes einzeln geprüft
+            String[] fields = {
+                "CAST(t.teilnahme_id AS text)", "CAST(t.mitglied_id AS text)", "concat_ws(' ', m.vorname, m.nachname)",
+                "CAST(t.termin_id AS text)", "to_char(te.datum, 'DD.MM.YYYY')", "te.ort",
+                "CAST(t.formular_id AS text)", "f.typ", "t.status"
+            };
+            sql.append(" AND (");
+            for (int i = 0; i < fields.length; i++) {
+                sql.append(i > 0 ? " OR " : "").append(fields[i]).append(" ILIKE ?").append(SqlLike.ESCAPE);
+                params.add(SqlLike.contains(suche));
+            }
+            sql.append(")");
+        }
+    }
+
+    private List<TeilnahmeDetail> findDetails(String sql, Object... params) {
+        List<TeilnahmeDetail> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapDetail(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Teilnahme-Details", e);
+        }
+        return list;
+    }
+
+    private static TeilnahmeDetail mapDetail(ResultSet rs) throws SQLException {
         int formular = rs.getInt("formular_id");
-        String statusStr = rs.getString("status");
-        TeilnahmeStatus status = TeilnahmeStatus.ZUGESAGT;
+        Date datum = rs.getDate("datum");
+        Time uhrzeit = rs.getTime("uhrzeit");
+        return new TeilnahmeDetail(
+                rs.getInt("teilnahme_id"),
+                rs.getInt("mitglied_id"),
+                rs.getInt("termin_id"),
+                formular > 0 ? formular : null,
+                parseStatus(rs.getString("status")),
+                rs.getString("vorname"),
+                rs.getString("nachname"),
+                datum != null ? datum.toLocalDate() : null,
+                uhrzeit != null ? uhrzeit.toLocalTime() : null,
+                rs.getString("ort"),
+                rs.getString("formular_typ"));
+    }
+
+    private static Teilnahme map(ResultSet rs) throws SQLException {
+        return mapRow(rs).toTeilnahme();
+    }
+
+    private static TeilnahmeRow mapRow(ResultSet rs) throws SQLException {
+        return new TeilnahmeRow(
+                rs.getInt("teilnahme_id"),
+                rs.getInt("mitglied_id"),
+                rs.getInt("termin_id"),
+                rs.getInt("formular_id"),
+                parseStatus(rs.getString("status")));
+    }
+
+    /**
+     * @return {@code null} bei fehlendem oder unbekanntem Status (mit
+     * Warnung), statt ihn einem gültigen Status zuzuschlagen
+     */
+    private static TeilnahmeStatus parseStatus(String statusStr) {
+        TeilnahmeStatus status = statusOrNull(statusStr);
+        if (status == null && statusStr != null) {
+            LOGGER.log(Level.WARNING, "Unbekannter Teilnahme-Status: {0}", statusStr);
+        }
+        return status;
+    }
+
+    private static TeilnahmeStatus statusOrNull(String statusStr) {
+        if (statusStr == null) {
+            return null;
+        }
         try {
-            status = statusStr != null ? TeilnahmeStatus.valueOf(statusStr) : TeilnahmeStatus.ZUGESAGT;
+            return TeilnahmeStatus.valueOf(statusStr.trim().toUpperCase(Locale.ROOT));
         } catch (IllegalArgumentException ex) {
-            // Falls DB andere Schreibweise hat, fallback
+            return null;
         }
-        return new Teilnahme(id, mitglied, termin, formular > 0 ? formular : null, status);
     }
 }
@@ -0,0 +1,167 @@
+package ch.hftm.persistence;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+import ch.hftm.model.Termin;
+
+/**
+ * Filterkriterien für Termin-Abfragen, die das {@link TerminRepository} in
+ * eine parametrisierte SQL-Abfrage übersetzt.
+ *
+ * <p>Nicht gesetzte Kriterien ({@code null}, leer) schränken nicht ein.
+ * Beispiel: {@code TerminQuery.alle().von(start).bis(ende).limit(500)}</p>
+ *
+ * <p>Unveränderlich: jede Methode liefert eine neue Abfrage. Damit kann
+ * {@link #equals(Object)} prüfen, ob eine gemerkte Abfrage noch aktuell
+ * ist.</p>
+ */
+public final class TerminQuery {
+
+    private static final TerminQuery ALLE = new TerminQuery(null, null, false, null, null, null, 0);
+
+    private final LocalDate von;
+    private final LocalDate bis;
+    private final boolean nurKommende;
+    private final Boolean ferienFlag;
+    private final String ortEnthaelt;
+    private final String suche;
+    private final int limit;
+
+    private TerminQuery(LocalDate von, LocalDate bis, boolean nurKommende, Boolean ferienFlag,
+            String ortEnthaelt, String suche, int limit) {
+        this.von = von;
+        this.bis = bis;
+        this.nurKommende = nurKommende;
+        this.ferienFlag = ferienFlag;
+        this.ortEnthaelt = ortEnthaelt;
+        this.suche = suche;
+        this.limit = limit;
+    }
+
+    /**
+     * Abfrage ohne Einschränkungen
+     */
+    public static TerminQuery alle() {
+        return ALLE;
+    }
+
+    /**
+     * Nur Termine ab diesem Datum (inklusive)
+     */
+    public TerminQuery von(LocalDate value) {
+        return new TerminQuery(value, bis, nurKommende, ferienFlag, ortEnthaelt, suche, limit);
+    }
+
+    /**
+     * Nur Termine bis zu diesem Datum (inklusive)
+     */
+    public TerminQuery bis(LocalDate value) {
+        return new TerminQuery(von, value, nurKommende, ferienFlag, ortEnthaelt, suche, limit);
+    }
+
+    /**
+     * Nur Termine ab heute; sortiert dann aufsteigend (nächster Termin zuerst)
+     */
+    public TerminQuery nurKommende(boolean value) {
+        return new TerminQuery(von, bis, value, ferienFlag, ortEnthaelt, suche, limit);
+    }
+
+    /**
+     * Nur Ferien- ({@code true}) bzw. Nicht-Ferientermine ({@code false})
+     */
+    public TerminQuery ferienFlag(Boolean value) {
+        return new TerminQuery(von, bis, nurKommende, value, ortEnthaelt, suche, limit);
+    }
+
+    /**
+     * Ort enthält den Text (Gross-/Kleinschreibung egal)
+     */
+    public TerminQuery ortEnthaelt(String value) {
+        return new TerminQuery(von, bis, nurKommende, ferienFlag, value, suche, limit);
+    }
+
+    /**
+     * Volltextsuche wie in der Tabelle: Ort, Datum (TT.MM.JJJJ), Uhrzeit
+     * (HH:MM) oder ID enthält den Text (Gross-/Kleinschreibung egal)
+     */
+    public TerminQuery suche(String value) {
+        return new TerminQuery(von, bis, nurKommende, ferienFlag, ortEnthaelt, value, limit);
+    }
+
+    /**
+     * Maximale Anzahl Zeilen; {@code 0} = unbegrenzt
+     */
+    public TerminQuery limit(int value) {
+        return new TerminQuery(von, bis, nurKommende, ferienFlag, ortEnthaelt, suche, value);
+    }
+
+    /**
+     * Reihenfolge der Seiten von {@link TerminRepository#findPage(TerminQuery, Termin, int)}:
+     * neueste Tage zuerst, innerhalb eines Tages nach Uhrzeit aufsteigend; bei
+     * {@link #nurKommende(boolean)} durchgehend aufsteigend
+     */
+    public Comparator<Termin> pageOrder() {
+        Comparator<Termin> byDatum = Comparator.comparing(Termin::getDatum);
+        return (nurKommende ? byDatum : byDatum.reversed())
+                .thenComparing(Termin::getUhrzeit)
+                .thenComparingInt(Termin::getTerminId);
+    }
+
+    public LocalDate getVon() {
+        return von;
+    }
+
+    public LocalDate getBis() {
+        return bis;
+    }
+
+    public boolean isNurKommende() {
+        return nurKommende;
+    }
+
+    public Boolean getFerienFlag() {
+        return ferienFlag;
+    }
+
+    public String getOrtEnthaelt() {
+        return ortEnthaelt;
+    }
+
+    public String getSuche() {
+        return suche;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TerminQuery other)) {
+            return false;
+        }
+        return nurKommende == other.nurKommende
+                && limit == other.limit
+                && Objects.equals(von, other.von)
+                && Objects.equals(bis, other.bis)
+                && Objects.equals(ferienFlag, other.ferienFlag)
+                && Objects.equals(ortEnthaelt, other.ortEnthaelt)
+                && Objects.equals(suche, other.suche);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(von, bis, nurKommende, ferienFlag, ortEnthaelt, suche, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "TerminQuery[von=" + von + ", bis=" + bis + ", nurKommende=" + nurKommende
+                + ", ferienFlag=" + ferienFlag + ", ort=" + ortEnthaelt + ", suche=" + suche + ", limit=" + limit + "]";
+    }
+}
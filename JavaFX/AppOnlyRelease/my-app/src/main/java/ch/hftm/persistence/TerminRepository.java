@@ -1,5 +1,7 @@
 package ch.hftm.persistence;
 
+import java.nio.file.Path;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -10,11 +12,16 @@ import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ch.hftm.model.Termin;
+import ch.hftm.model.TerminRow;
+import ch.hftm.util.ExportListener;
 
 /**
  * Repository für Termin-Datenbankoperationen
@@ -23,6 +30,10 @@ public class TerminRepository {
 
     private static final Logger LOGGER = Logger.getLogger(TerminRepository.class.getName());
 
+    private static final String INSERT_SQL = "INSERT INTO termin (datum, uhrzeit, ort, ferien_flag) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE termin SET datum = ?, uhrzeit = ?, ort = ?, ferien_flag = ? WHERE termin_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM termin WHERE termin_id = ?";
+
     /**
      * Gibt alle Termine zurück
      */
@@ -30,7 +41,7 @@ public class TerminRepository {
         List<Termin> termine = new ArrayList<>();
         String sql = "SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin ORDER BY datum DESC, uhrzeit";
 
-        try (Connection conn = DatabaseConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 termine.add(mapResultSetToTermin(rs));
@@ -46,15 +57,23 @@ public class TerminRepository {
      * Sucht einen Termin nach ID
      */
     public Termin findById(int id) {
+        TerminRow row = findRowById(id);
+        return row != null ? row.toTermin() : null;
+    }
+
+    /**
+     * Sucht einen Termin nach ID als unveränderliche Lesesicht
+     */
+    public TerminRow findRowById(int id) {
         String sql = "SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin WHERE termin_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToTermin(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRow(rs);
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Laden des Termins mit ID " + id, e);
@@ -63,6 +82,96 @@ public class TerminRepository {
         return null;
     }
 
+    /**
+     * Liest die Termine der Abfrage als {@link TerminRow} zeilenweise über
+     * einen Server-Cursor, z. B. für Auswertungen; Sortierung und Limit der
+     * Abfrage werden ignoriert
+     *
+     * @param action wird pro Zeile im aufrufenden Thread aufgerufen
+     * @return {@code false} bei einem Datenbankfehler
+     */
+    public boolean streamRows(TerminQuery query, Consumer<? super TerminRow> action) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin WHERE TRUE");
+        appendCriteria(sql, params, query);
+        return CursorReader.read(sql.toString(), params, TerminRepository::mapRow, action, "Termine");
+    }
+
+    /**
+     * Sucht Termine nach den Kriterien der Abfrage
+     *
+     * <p>Alle Kriterien werden in SQL ausgewertet, sodass nur passende Zeilen
+     * übertragen werden. Sortierung wie {@link #findPage(TerminQuery, Termin, int)}.</p>
+     */
+    public List<Termin> find(TerminQuery query) {
+        return query(query, null, query.getLimit());
+    }
+
+    /**
+     * Lädt eine Seite Termine per Keyset-Pagination (neueste zuerst)
+     *
+     * <p>Sortierung: Datum absteigend, innerhalb eines Tages Uhrzeit und ID
+     * aufsteigend. Für die erste Seite ist
+     * {@code afterDatum} {@code null}; für Folgeseiten werden die Werte der
+     * letzten Zeile der Vorgängerseite übergeben. Die Abfrage setzt dort per
+     * Index fort, statt vorherige Zeilen zu überspringen (kein OFFSET).</p>
+     */
+    public List<Termin> findPage(LocalDate afterDatum, LocalTime afterUhrzeit, int afterId, int limit) {
+        Termin after = afterDatum == null ? null
+                : new Termin(afterId, afterDatum, afterUhrzeit != null ? afterUhrzeit : LocalTime.MIN, null, false);
+        return query(TerminQuery.alle(), after, limit);
+    }
+
+    /**
+     * Lädt eine Seite der gefilterten Termine per Keyset-Pagination
+     *
+     * <p>Sortierung: Datum absteigend, innerhalb eines Tages Uhrzeit und ID
+     * aufsteigend; bei {@link TerminQuery#nurKommende(boolean)} durchgehend
+     * aufsteigend (nächster Termin zuerst). Das Limit der Abfrage wird ignoriert.</p>
+     *
+     * @param after letzter Termin der Vorgängerseite, {@code null} für die
+     * erste Seite
+     */
+    public List<Termin> findPage(TerminQuery query, Termin after, int limit) {
+        return query(query, after, limit);
+    }
+
+    /**
+     * Lädt die Termine mit den IDs, die die Kriterien der Abfrage erfüllen,
+     * z. B. nach einer Änderungsmeldung; alle anderen IDs fehlen im Ergebnis
+     */
+    public List<Termin> findByIds(TerminQuery query, Collection<Integer> ids) {
+        List<Termin> termine = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return termine;
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin WHERE TRUE");
+        appendCriteria(sql, params, query);
+        sql.append(" AND termin_id = ANY(?)");
+
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            Array idArray = conn.createArrayOf("integer", ids.toArray());
+            try {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                stmt.setArray(params.size() + 1, idArray);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        termine.add(mapResultSetToTermin(rs));
+                    }
+                }
+            } finally {
+                idArray.free();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Termine " + ids, e);
+        }
+
+        return termine;
+    }
+
     /**
      * Gibt kommende Termine (ab heute) zurück
      */
@@ -71,7 +180,7 @@ public class TerminRepository {
         String sql = "SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin "
                 + "WHERE datum >= CURRENT_DATE ORDER BY datum ASC, uhrzeit";
 
-        try (Connection conn = DatabaseConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 termine.add(mapResultSetToTermin(rs));
@@ -87,21 +196,17 @@ public class TerminRepository {
      * Speichert einen neuen Termin
      */
     public boolean save(Termin termin) {
-        String sql = "INSERT INTO termin (datum, uhrzeit, ort, ferien_flag) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setDate(1, Date.valueOf(termin.getDatum()));
-            stmt.setTime(2, Time.valueOf(termin.getUhrzeit()));
-            stmt.setString(3, termin.getOrt());
-            stmt.setBoolean(4, termin.isFerienFlag());
+            bindInsert(stmt, termin);
 
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    termin.setTerminId(generatedKeys.getInt(1));
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        termin.setTerminId(generatedKeys.getInt(1));
+                    }
                 }
                 return true;
             }
@@ -116,15 +221,9 @@ public class TerminRepository {
      * Aktualisiert einen bestehenden Termin
      */
     public boolean update(Termin termin) {
-        String sql = "UPDATE termin SET datum = ?, uhrzeit = ?, ort = ?, ferien_flag = ? WHERE termin_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
-            stmt.setDate(1, Date.valueOf(termin.getDatum()));
-            stmt.setTime(2, Time.valueOf(termin.getUhrzeit()));
-            stmt.setString(3, termin.getOrt());
-            stmt.setBoolean(4, termin.isFerienFlag());
-            stmt.setInt(5, termin.getTerminId());
+            bindUpdate(stmt, termin);
 
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -138,9 +237,7 @@ public class TerminRepository {
      * Löscht einen Termin
      */
     public boolean delete(int terminId) {
-        String sql = "DELETE FROM termin WHERE termin_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, terminId);
             return stmt.executeUpdate() > 0;
@@ -151,16 +248,232 @@ public class TerminRepository {
         return false;
     }
 
+    /**
+     * Speichert mehrere neue Termine in einer Transaktion (JDBC-Batch) und
+     * setzt ihre generierten IDs
+     */
+    public boolean saveAll(Collection<Termin> termine) {
+        return BatchWriter.write(INSERT_SQL, termine, TerminRepository::bindInsert,
+                Termin::setTerminId, "Speichern der Termine");
+    }
+
+    /**
+     * Aktualisiert mehrere Termine in einer Transaktion (JDBC-Batch); {@code false} und nichts geändert, wenn eine ID nicht (mehr) existiert
+     */
+    public boolean updateAll(Collection<Termin> termine) {
+        return BatchWriter.writeExisting(UPDATE_SQL, termine, TerminRepository::bindUpdate,
+                "Aktualisieren der Termine");
+    }
+
+    /**
+     * Löscht mehrere Termine in einer Transaktion (JDBC-Batch); {@code false} und nichts geändert, wenn eine ID nicht (mehr) existiert
+     */
+    public boolean deleteAll(Collection<Integer> terminIds) {
+        return BatchWriter.<Integer>writeExisting(DELETE_SQL, terminIds, (stmt, id) -> stmt.setInt(1, id),
+                "Löschen der Termine");
+    }
+
+    /**
+     * Exportiert die Termine der Abfrage als CSV direkt aus einem
+     * Datenbank-Cursor, ohne Termin-Objekte anzulegen
+     *
+     * @return Anzahl exportierter Termine oder {@code -1} bei einem Fehler
+     */
+    public long exportCsv(TerminQuery query, Path file) {
+        return exportCsv(query, file, null);
+    }
+
+    /**
+     * Wie {@link #exportCsv(TerminQuery, Path)} mit Fortschrittsmeldungen
+     *
+     * @param listener erhält Fortschrittsmeldungen, darf {@code null} sein
+     */
+    public long exportCsv(TerminQuery query, Path file, ExportListener listener) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT termin_id, datum, to_char(uhrzeit, 'HH24:MI'), ort, "
+                + "CASE WHEN ferien_flag THEN 'Ja' ELSE 'Nein' END FROM termin WHERE TRUE");
+        appendCriteria(sql, params, query);
+        sql.append(orderBy(query));
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            params.add(query.getLimit());
+        }
+        return CursorCsvExport.export(sql.toString(), params,
+                List.of("Termin-ID", "Datum", "Uhrzeit", "Ort", "Ferien"), file, "Termine", listener);
+    }
+
+    /**
+     * Lädt alle Termine ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Termin>> findAllAsync() {
+        return DbExecutor.supplyAsync(this::findAll);
+    }
+
+    /**
+     * Lädt kommende Termine ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Termin>> findUpcomingAsync() {
+        return DbExecutor.supplyAsync(this::findUpcoming);
+    }
+
+    /**
+     * Sucht Termine nach den Kriterien der Abfrage ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Termin>> findAsync(TerminQuery query) {
+        return DbExecutor.supplyAsync(() -> find(query));
+    }
+
+    /**
+     * Lädt die Seite nach dem übergebenen Termin ausserhalb des FX-Threads
+     *
+     * @param after letzter Termin der Vorgängerseite, {@code null} für die
+     * erste Seite
+     */
+    public CompletableFuture<List<Termin>> findPageAsync(Termin after, int limit) {
+        return findPageAsync(TerminQuery.alle(), after, limit);
+    }
+
+    /**
+     * Lädt eine Seite der gefilterten Termine ausserhalb des FX-Threads
+     */
+    public CompletableFuture<List<Termin>> findPageAsync(TerminQuery query, Termin after, int limit) {
+        return DbExecutor.supplyAsync(() -> findPage(query, after, limit));
+    }
+
+    /**
+     * Lädt die Termine mit den IDs ausserhalb des FX-Threads
+     *
+     * @see #findByIds(TerminQuery, Collection)
+     */
+    public CompletableFuture<List<Termin>> findByIdsAsync(TerminQuery query, Collection<Integer> ids) {
+        return DbExecutor.supplyAsync(() -> findByIds(query, ids));
+    }
+
+    /**
+     * Baut aus der Abfrage eine parametrisierte SQL-Abfrage und führt sie aus
+     *
+     * <p>Nur gesetzte Kriterien erscheinen im SQL; die Parameter werden immer
+     * gebunden. Dadurch gibt es je Kriterien-Kombination genau einen
+     * SQL-Text, den der Statement-Cache wiederverwendet.</p>
+     *
+     * @param after Keyset-Cursor oder {@code null}
+     * @param limit maximale Anzahl Zeilen, {@code 0} = unbegrenzt
+     */
+    private List<Termin> query(TerminQuery query, Termin after, int limit) {
+        List<Termin> termine = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("SELECT termin_id, datum, uhrzeit, ort, ferien_flag FROM termin WHERE TRUE");
+        appendCriteria(sql, params, query);
+        if (after != null) {
+            if (query.isNurKommende()) {
+                sql.append(" AND (datum, uhrzeit, termin_id) > (?, ?, ?)");
+            } else {
+                // Datum absteigend, innerhalb des Tages Uhrzeit und ID aufsteigend
+                sql.append(" AND (datum < ? OR (datum = ? AND (uhrzeit, termin_id) > (?, ?)))");
+                params.add(Date.valueOf(after.getDatum()));
+            }
+            params.add(Date.valueOf(after.getDatum()));
+            params.add(Time.valueOf(after.getUhrzeit()));
+            params.add(after.getTerminId());
+        }
+        sql.append(orderBy(query));
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    termine.add(mapResultSetToTermin(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Termine (" + query + ")", e);
+        }
+
+        return termine;
+    }
+
+    /**
+     * Sortierung wie {@link TerminQuery#pageOrder()}: neueste Tage zuerst und
+     * innerhalb eines Tages nach Uhrzeit, wie vor der Pagination
+     */
+    private static String orderBy(TerminQuery query) {
+        return query.isNurKommende()
+                ? " ORDER BY datum ASC, uhrzeit ASC, termin_id ASC"
+                : " ORDER BY datum DESC, uhrzeit ASC, termin_id ASC";
+    }
+
+    /**
+     * Hängt die gesetzten Kriterien der Abfrage als {@code AND}-Bedingungen an
+     * und sammelt die zugehörigen Parameter
+     */
+    private static void appendCriteria(StringBuilder sql, List<Object> params, TerminQuery query) {
+        if (query.getVon() != null) {
+            sql.append(" AND datum >= ?");
+            params.add(Date.valueOf(query.getVon()));
+        }
+        if (query.getBis() != null) {
+            sql.append(" AND datum <= ?");
+            params.add(Date.valueOf(query.getBis()));
+        }
+        if (query.isNurKommende()) {
+            sql.append(" AND datum >= CURRENT_DATE");
+        }
+        if (query.getFerienFlag() != null) {
+            sql.append(" AND ferien_flag = ?");
+            params.add(query.getFerienFlag());
+        }
+        String ort = query.getOrtEnthaelt() != null ? query.getOrtEnthaelt().trim() : "";
+        if (!ort.isEmpty()) {
+            sql.append(" AND ort ILIKE ?").append(SqlLike.ESCAPE);
+            params.add(SqlLike.contains(ort));
+        }
+        String suche = query.getSuche() != null ? query.getSuche().trim() : "";
+        if (!suche.isEmpty()) {
+            // Felder wie in der Tabelle formatiert, jedes einzeln geprüft
+            String pattern = SqlLike.contains(suche);
+            sql.append(" AND (ort ILIKE ?").append(SqlLike.ESCAPE)
+                    .append(" OR to_char(datum, 'DD.MM.YYYY') LIKE ?").append(SqlLike.ESCAPE)
+                    .append(" OR to_char(uhrzeit, 'HH24:MI') LIKE ?").append(SqlLike.ESCAPE)
+                    .append(" OR CAST(termin_id AS text) LIKE ?").append(SqlLike.ESCAPE).append(")");
+            for (int i = 0; i < 4; i++) {
+                params.add(pattern);
+            }
+        }
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Termin termin) throws SQLException {
+        stmt.setDate(1, Date.valueOf(termin.getDatum()));
+        stmt.setTime(2, Time.valueOf(termin.getUhrzeit()));
+        stmt.setString(3, termin.getOrt());
+        stmt.setBoolean(4, termin.isFerienFlag());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Termin termin) throws SQLException {
+        bindInsert(stmt, termin);
+        stmt.setInt(5, termin.getTerminId());
+    }
+
     /**
      * Hilfsmethode: Mapped ResultSet zu Termin-Objekt
      */
     private Termin mapResultSetToTermin(ResultSet rs) throws SQLException {
+        return mapRow(rs).toTermin();
+    }
+
+    private static TerminRow mapRow(ResultSet rs) throws SQLException {
         int id = rs.getInt("termin_id");
         LocalDate datum = rs.getDate("datum").toLocalDate();
         LocalTime uhrzeit = rs.getTime("uhrzeit").toLocalTime();
         String ort = rs.getString("ort");
         boolean ferienFlag = rs.getBoolean("ferien_flag");
 
-        return new Termin(id, datum, uhrzeit, ort, ferienFlag);
+        return new TerminRow(id, datum, uhrzeit, ort, ferienFlag);
     }
 }
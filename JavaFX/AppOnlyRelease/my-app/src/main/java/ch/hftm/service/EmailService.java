@@ -1,9 +1,27 @@
 package ch.hftm.service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import ch.hftm.model.Formular;
+import ch.hftm.model.FormularRow;
+import ch.hftm.model.MitgliedRow;
+import ch.hftm.model.TerminRow;
+import ch.hftm.persistence.CachingMitgliedRepository;
+import ch.hftm.persistence.CachingTerminRepository;
+import ch.hftm.persistence.MitgliedRepository;
+import ch.hftm.persistence.TerminRepository;
+
 /**
  * E-Mail-Service (Stub-Implementierung)
  *
@@ -15,6 +33,42 @@ public class EmailService {
 
     private static final Logger LOGGER = Logger.getLogger(EmailService.class.getName());
 
+    private static final DateTimeFormatter DATUM = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final Supplier<MitgliedRepository> mitgliedSupplier;
+    private final Supplier<TerminRepository> terminSupplier;
+    private MitgliedRepository mitgliedRepository;
+    private TerminRepository terminRepository;
+
+    /**
+     * Lädt Mitglieder und Termine über die gecachten Repositories. Diese
+     * werden erst beim ersten Versand erzeugt, damit der Service den Start
+     * nicht verzögert.
+     */
+    public EmailService() {
+        this.mitgliedSupplier = CachingMitgliedRepository::new;
+        this.terminSupplier = CachingTerminRepository::new;
+    }
+
+    public EmailService(MitgliedRepository mitgliedRepository, TerminRepository terminRepository) {
+        this.mitgliedSupplier = () -> mitgliedRepository;
+        this.terminSupplier = () -> terminRepository;
+    }
+
+    private synchronized MitgliedRepository mitgliedRepository() {
+        if (mitgliedRepository == null) {
+            mitgliedRepository = mitgliedSupplier.get();
+        }
+        return mitgliedRepository;
+    }
+
+    private synchronized TerminRepository terminRepository() {
+        if (terminRepository == null) {
+            terminRepository = terminSupplier.get();
+        }
+        return terminRepository;
+    }
+
     /**
      * Sendet eine E-Mail (Stub)
      *
@@ -124,4 +178,70 @@ public class EmailService {
 
         return sendeEmail(empfaengerEmail, betreff, nachricht);
     }
+
+    /**
+     * Sendet eine Termin-Bestätigung; Mitglied und Termin werden über die
+     * Repositories nachgeschlagen.
+     *
+     * @return true wenn erfolgreich, false wenn Mitglied oder Termin nicht
+     * gefunden wurden
+     */
+    public boolean sendeTerminBestaetigung(int mitgliedId, int terminId) {
+        MitgliedRow mitglied = mitgliedRepository().findRowById(mitgliedId);
+        TerminRow termin = terminRepository().findRowById(terminId);
+        if (mitglied == null || termin == null) {
+            LOGGER.log(Level.WARNING, "Terminbestätigung nicht möglich: Mitglied {0} oder Termin {1} nicht gefunden",
+                    new Object[] {mitgliedId, terminId});
+            return false;
+        }
+        return sendeTerminBestaetigung(mitglied.email(), mitglied.vorname(),
+                termin.datum().format(DATUM), termin.ort());
+    }
+
+    /**
+     * Sendet Erinnerungen für die Formulare, z. B. für alle überfälligen.
+     *
+     * @return Anzahl versendeter Erinnerungen
+     * @see #sendeErinnerungen(List)
+     */
+    public int sendeFormularErinnerungen(Collection<Formular> formulare) {
+        List<FormularRow> rows = new ArrayList<>(formulare.size());
+        for (Formular formular : formulare) {
+            rows.add(FormularRow.of(formular));
+        }
+        return sendeErinnerungen(rows);
+    }
+
+    /**
+     * Sendet Erinnerungen für die Formulare, z. B. aus
+     * {@code FormularRepository.findOverdueRows(stichtag)}. Alle betroffenen
+     * Mitglieder werden in einer Abfrage geladen.
+     *
+     * @return Anzahl versendeter Erinnerungen
+     */
+    public int sendeErinnerungen(List<FormularRow> formulare) {
+        Set<Integer> mitgliedIds = new HashSet<>();
+        for (FormularRow formular : formulare) {
+            mitgliedIds.add(formular.mitgliedId());
+        }
+        Map<Integer, MitgliedRow> mitglieder = new HashMap<>();
+        for (MitgliedRow mitglied : mitgliedRepository().findRowsByIds(mitgliedIds)) {
+            mitglieder.put(mitglied.mitgliedId(), mitglied);
+        }
+
+        int gesendet = 0;
+        for (FormularRow formular : formulare) {
+            MitgliedRow mitglied = mitglieder.get(formular.mitgliedId());
+            if (mitglied == null) {
+                LOGGER.log(Level.WARNING, "Keine Erinnerung für Formular {0}: Mitglied {1} nicht gefunden",
+                        new Object[] {formular.formularId(), formular.mitgliedId()});
+                continue;
+            }
+            String rueckgabe = formular.rueckgabedatum() != null ? formular.rueckgabedatum().format(DATUM) : "-";
+            if (sendeFormularErinnerung(mitglied.email(), mitglied.vorname(), formular.typ(), rueckgabe)) {
+                gesendet++;
+            }
+        }
+        return gesendet;
+    }
 }
@@ -0,0 +1,103 @@
+package ch.hftm.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+
+/**
+ * Liefert Ergebnisse asynchroner Ladevorgänge auf dem JavaFX Application
+ * Thread aus.
+ *
+ * <p>Pro View wird ein Loader verwendet. Ein neuer Ladevorgang ersetzt den
+ * laufenden: dessen Ergebnis wird verworfen, damit veraltete Daten nie die
+ * aktuelle Anzeige überschreiben. Alle Methoden müssen auf dem FX-Thread
+ * aufgerufen werden.</p>
+ */
+public class AsyncLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncLoader.class.getName());
+
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(this, "loading", false);
+    private CompletableFuture<?> current;
+
+    /**
+     * Startet die Auslieferung eines Ladevorgangs; ein noch laufender wird
+     * abgebrochen.
+     *
+     * @param request laufender Ladevorgang (z. B. {@code repo.findAllAsync()})
+     * @param onSuccess wird auf dem FX-Thread mit dem Ergebnis aufgerufen
+     * @param onError wird auf dem FX-Thread bei einem Fehler aufgerufen
+     */
+    public <T> void load(CompletableFuture<T> request, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        cancel();
+        current = request;
+        loading.set(true);
+        request.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (current != request) {
+                // Veraltet: inzwischen wurde neu geladen oder abgebrochen
+                return;
+            }
+            current = null;
+            loading.set(false);
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    LOGGER.log(Level.WARNING, "Asynchroner Ladevorgang fehlgeschlagen", cause);
+                    onError.accept(cause);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Wie {@link #load(CompletableFuture, Consumer, Consumer)}, Fehler werden
+     * als Datenbankfehler-Dialog angezeigt.
+     */
+    public <T> void load(CompletableFuture<T> request, Consumer<T> onSuccess) {
+        load(request, onSuccess, error -> DialogUtil.showDatabaseError("Laden"));
+    }
+
+    /**
+     * Bricht den laufenden Ladevorgang ab; sein Ergebnis wird nicht mehr
+     * ausgeliefert.
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel(false);
+            current = null;
+        }
+        loading.set(false);
+    }
+
+    public boolean isLoading() {
+        return loading.get();
+    }
+
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /**
+     * Zeigt während des Ladens "Lade Daten…" als Platzhalter der Tabelle an.
+     */
+    public void showLoadingIn(TableView<?> table) {
+        if (table == null) {
+            return;
+        }
+        Label loadingLabel = new Label("Lade Daten…");
+        Label emptyLabel = new Label("Keine Einträge vorhanden");
+        table.setPlaceholder(emptyLabel);
+        loading.addListener((obs, wasLoading, isLoading) -> table.setPlaceholder(isLoading ? loadingLabel : emptyLabel));
+    }
+}
@@ -0,0 +1,327 @@
+package ch.hftm.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kompaktes spaltenweises Binärformat für Archive.
+ *
+ * <p>Aufbau: Kennung {@code KUDC}, Version, Spaltenliste (Name, Typ), danach
+ * Blöcke von höchstens {@value #ROW_GROUP_SIZE} Zeilen und zum Schluss ein
+ * Block mit 0 Zeilen. In einem Block steht jede Spalte für sich:</p>
+ * <ul>
+ * <li>Zahl und Datum (Epochentag): Differenz zum vorherigen Wert der
+ * Spalte, ZigZag- und Varint-kodiert; {@code 0} steht für {@code null}.
+ * Aufsteigende IDs und sortierte Daten brauchen so meist ein Byte.</li>
+ * <li>Text: Wörterbuch des Blocks, danach pro Zeile der Index als Varint
+ * ({@code 0} = {@code null}). Orte, Typen und Status wiederholen sich und
+ * kosten so pro Zeile ein Byte.</li>
+ * </ul>
+ */
+final class ColumnarExportFormat implements ExportFormat {
+
+    static final int ROW_GROUP_SIZE = 8192;
+
+    private static final int MAGIC = 0x4B554443;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getName() {
+        return "Spaltenformat (KUDC)";
+    }
+
+    @Override
+    public String getExtension() {
+        return "kudc";
+    }
+
+    @Override
+    public RecordWriter openWriter(OutputStream out, List<ExportColumn> columns) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        writeVarLong(data, columns.size());
+        for (ExportColumn column : columns) {
+            data.writeUTF(column.name());
+            data.writeByte(column.type().ordinal());
+        }
+        return new GroupWriter(data, columns);
+    }
+
+    @Override
+    public RecordReader openReader(InputStream in, List<ExportColumn> columns) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Keine KUDC-Datei");
+            }
+            int version = data.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Nicht unterstützte KUDC-Version " + version);
+            }
+            int count = (int) readVarLong(data);
+            List<ExportColumn> actual = new ArrayList<>(count);
+            ExportColumn.Type[] types = ExportColumn.Type.values();
+            for (int i = 0; i < count; i++) {
+                String name = data.readUTF();
+                int type = data.readUnsignedByte();
+                if (type >= types.length) {
+                    throw new IOException("Unbekannter Spaltentyp " + type);
+                }
+                actual.add(new ExportColumn(name, types[type]));
+            }
+            if (!actual.equals(columns)) {
+                throw new IOException("Unerwartete Spalten: " + actual + ", erwartet " + columns);
+            }
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        return new GroupReader(data, columns);
+    }
+
+    /**
+     * Sammelt einen Block von Zeilen spaltenweise und schreibt ihn am Stück.
+     */
+    private static final class GroupWriter implements RecordWriter {
+
+        private final DataOutputStream data;
+        private final List<ExportColumn> columns;
+        private final long[][] numbers;
+        private final boolean[][] nulls;
+        private final String[][] texts;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> dictionaryOrder = new ArrayList<>();
+        private int rows;
+        private boolean closed;
+
+        GroupWriter(DataOutputStream data, List<ExportColumn> columns) {
+            this.data = data;
+            this.columns = columns;
+            int n = columns.size();
+            numbers = new long[n][];
+            nulls = new boolean[n][];
+            texts = new String[n][];
+            for (int i = 0; i < n; i++) {
+                if (columns.get(i).type() == ExportColumn.Type.TEXT) {
+                    texts[i] = new String[ROW_GROUP_SIZE];
+                } else {
+                    numbers[i] = new long[ROW_GROUP_SIZE];
+                    nulls[i] = new boolean[ROW_GROUP_SIZE];
+                }
+            }
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            CsvExportFormat.checkArity(values, columns);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                switch (columns.get(i).type()) {
+                    case INTEGER -> {
+                        nulls[i][rows] = value == null;
+                        numbers[i][rows] = value == null ? 0 : ((Number) value).intValue();
+                    }
+                    case DATE -> {
+                        nulls[i][rows] = value == null;
+                        numbers[i][rows] = value == null ? 0 : ((LocalDate) value).toEpochDay();
+                    }
+                    case TEXT -> texts[i][rows] = (String) value;
+                }
+            }
+            if (++rows == ROW_GROUP_SIZE) {
+                flushGroup();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (rows > 0) {
+                    flushGroup();
+                }
+                writeVarLong(data, 0);
+            } finally {
+                data.close();
+            }
+        }
+
+        private void flushGroup() throws IOException {
+            writeVarLong(data, rows);
+            for (int c = 0; c < columns.size(); c++) {
+                if (texts[c] != null) {
+                    writeTextColumn(texts[c]);
+                } else {
+                    long previous = 0;
+                    for (int r = 0; r < rows; r++) {
+                        if (nulls[c][r]) {
+                            writeVarLong(data, 0);
+                        } else {
+                            writeVarLong(data, zigZag(numbers[c][r] - previous) + 1);
+                            previous = numbers[c][r];
+                        }
+                    }
+                }
+            }
+            rows = 0;
+        }
+
+        private void writeTextColumn(String[] values) throws IOException {
+            dictionary.clear();
+            dictionaryOrder.clear();
+            for (int r = 0; r < rows; r++) {
+                if (values[r] != null && dictionary.putIfAbsent(values[r], dictionary.size() + 1) == null) {
+                    dictionaryOrder.add(values[r]);
+                }
+            }
+            writeVarLong(data, dictionaryOrder.size());
+            for (String entry : dictionaryOrder) {
+                byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(data, bytes.length);
+                data.write(bytes);
+            }
+            for (int r = 0; r < rows; r++) {
+                writeVarLong(data, values[r] == null ? 0 : dictionary.get(values[r]));
+                values[r] = null;
+            }
+        }
+    }
+
+    /**
+     * Liest einen Block spaltenweise und gibt ihn zeilenweise aus.
+     */
+    private static final class GroupReader implements RecordReader {
+
+        private final DataInputStream data;
+        private final List<ExportColumn> columns;
+        private Object[][] group;
+        private int rows;
+        private int next;
+        private boolean finished;
+
+        GroupReader(DataInputStream data, List<ExportColumn> columns) {
+            this.data = data;
+            this.columns = columns;
+        }
+
+        @Override
+        public Object[] read() throws IOException {
+            if (next == rows) {
+                if (finished || !readGroup()) {
+                    return null;
+                }
+            }
+            Object[] record = new Object[columns.size()];
+            for (int c = 0; c < record.length; c++) {
+                record[c] = group[c][next];
+            }
+            next++;
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+
+        private boolean readGroup() throws IOException {
+            try {
+                rows = (int) readVarLong(data);
+                next = 0;
+                if (rows == 0) {
+                    finished = true;
+                    return false;
+                }
+                if (rows < 0 || rows > ROW_GROUP_SIZE) {
+                    throw new IOException("Ungültige Blockgrösse " + rows);
+                }
+                if (group == null) {
+                    group = new Object[columns.size()][ROW_GROUP_SIZE];
+                }
+                for (int c = 0; c < columns.size(); c++) {
+                    readColumn(columns.get(c).type(), group[c]);
+                }
+                return true;
+            } catch (EOFException e) {
+                throw new IOException("KUDC-Datei ist unvollständig", e);
+            }
+        }
+
+        private void readColumn(ExportColumn.Type type, Object[] target) throws IOException {
+            if (type == ExportColumn.Type.TEXT) {
+                int size = (int) readVarLong(data);
+                String[] dictionary = new String[size + 1];
+                for (int i = 1; i <= size; i++) {
+                    byte[] bytes = new byte[(int) readVarLong(data)];
+                    data.readFully(bytes);
+                    dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                for (int r = 0; r < rows; r++) {
+                    long index = readVarLong(data);
+                    if (index > size) {
+                        throw new IOException("Ungültiger Wörterbuch-Index " + index);
+                    }
+                    target[r] = dictionary[(int) index];
+                }
+                return;
+            }
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                long encoded = readVarLong(data);
+                if (encoded == 0) {
+                    target[r] = null;
+                    continue;
+                }
+                previous += unZigZag(encoded - 1);
+                target[r] = type == ExportColumn.Type.DATE
+                        ? LocalDate.ofEpochDay(previous)
+                        : Integer.valueOf((int) previous);
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Ungültiger Varint");
+    }
+}
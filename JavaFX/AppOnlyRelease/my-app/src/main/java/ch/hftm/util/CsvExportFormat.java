@@ -0,0 +1,120 @@
+package ch.hftm.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV mit Spaltennamen als Kopfzeile, optional gzip-komprimiert.
+ */
+final class CsvExportFormat implements ExportFormat {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final boolean gzip;
+
+    CsvExportFormat(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    @Override
+    public String getName() {
+        return gzip ? "CSV (gzip)" : "CSV";
+    }
+
+    @Override
+    public String getExtension() {
+        return gzip ? "csv.gz" : "csv";
+    }
+
+    @Override
+    public RecordWriter openWriter(OutputStream out, List<ExportColumn> columns) throws IOException {
+        CsvWriter csv = new CsvWriter(gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out);
+        csv.writeRecord(columns.stream().map(ExportColumn::name).toList());
+        return new RecordWriter() {
+            @Override
+            public void write(Object... values) throws IOException {
+                checkArity(values, columns);
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    if (value == null) {
+                        csv.append((String) null);
+                        continue;
+                    }
+                    switch (columns.get(i).type()) {
+                        case INTEGER -> csv.append(((Number) value).intValue());
+                        case DATE -> csv.append((LocalDate) value);
+                        case TEXT -> csv.append((String) value);
+                    }
+                }
+                csv.endRecord();
+            }
+
+            @Override
+            public void close() throws IOException {
+                csv.close();
+            }
+        };
+    }
+
+    @Override
+    public RecordReader openReader(InputStream in, List<ExportColumn> columns) throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(
+                gzip ? new GZIPInputStream(in, GZIP_BUFFER_SIZE) : in, StandardCharsets.UTF_8), ',');
+        List<String> header = csv.readRecord();
+        List<String> expected = columns.stream().map(ExportColumn::name).toList();
+        if (!expected.equals(header)) {
+            csv.close();
+            throw new IOException("Unerwartete Kopfzeile: " + header + ", erwartet " + expected);
+        }
+        return new RecordReader() {
+            @Override
+            public Object[] read() throws IOException {
+                List<String> record = csv.readRecord();
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() != columns.size()) {
+                    throw new IOException("Zeile " + csv.getRecordLine() + ": " + record.size()
+                            + " statt " + columns.size() + " Felder");
+                }
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    String raw = record.get(i);
+                    if (raw.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        values[i] = switch (columns.get(i).type()) {
+                            case INTEGER -> Integer.valueOf(raw);
+                            case DATE -> LocalDate.parse(raw);
+                            case TEXT -> raw;
+                        };
+                    } catch (NumberFormatException | DateTimeParseException e) {
+                        throw new IOException("Zeile " + csv.getRecordLine() + ", Spalte "
+                                + columns.get(i).name() + ": ungültiger Wert '" + raw + "'", e);
+                    }
+                }
+                return values;
+            }
+
+            @Override
+            public void close() throws IOException {
+                csv.close();
+            }
+        };
+    }
+
+    static void checkArity(Object[] values, List<ExportColumn> columns) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException(values.length + " Werte für " + columns.size() + " Spalten");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ch.hftm.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest CSV-Dateien datensatzweise (RFC 4180).
+ *
+ * <p>Unterstützt Felder in Anführungszeichen mit Trennzeichen, verdoppelten
+ * Anführungszeichen und Zeilenumbrüchen, CRLF/LF-Zeilenenden sowie ein
+ * UTF-8-BOM am Dateianfang. Es wird immer nur der aktuelle Datensatz im
+ * Speicher gehalten.</p>
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int pos;
+    private int len;
+    private int pushedBack = NONE;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+
+    /**
+     * @param in Quelle (wird nicht zusätzlich gepuffert)
+     * @param delimiter Feldtrennzeichen, z. B. {@code ','} oder {@code ';'}
+     */
+    public CsvReader(Reader in, char delimiter) {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Ungültiges Trennzeichen: " + delimiter);
+        }
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Ermittelt das Trennzeichen anhand der Kopfzeile: Semikolon (Excel mit
+     * deutschsprachigen Ländereinstellungen), Tabulator oder Komma.
+     */
+    public static char detectDelimiter(String headerLine) {
+        if (headerLine == null) {
+            return ',';
+        }
+        int commas = count(headerLine, ',');
+        int semicolons = count(headerLine, ';');
+        int tabs = count(headerLine, '\t');
+        if (semicolons > commas && semicolons >= tabs) {
+            return ';';
+        }
+        if (tabs > commas) {
+            return '\t';
+        }
+        return ',';
+    }
+
+    /**
+     * Liest den nächsten Datensatz.
+     *
+     * @return Felder des Datensatzes oder {@code null} am Dateiende
+     * @throws IOException bei Lesefehlern oder nicht geschlossenen
+     * Anführungszeichen
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Anführungszeichen nicht geschlossen (Datensatz ab Zeile " + recordLine + ")");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Zeilennummer (ab 1), in der der zuletzt gelesene Datensatz beginnt
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        if (pos == len) {
+            len = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        char c = buffer[pos++];
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                return read();
+            }
+        }
+        return c;
+    }
+
+    private static int count(String s, char c) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,290 @@
+package ch.hftm.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Schreibt CSV-Datensätze als UTF-8 direkt in einen Byte-Puffer.
+ *
+ * <p>Jeder Wert wird einmal durchlaufen, um über Anführungszeichen zu
+ * entscheiden, und danach Zeichen für Zeichen kodiert; Zahlen, Datum und
+ * Uhrzeit werden ohne Zwischen-Strings geschrieben. Pro Datensatz entstehen
+ * dadurch keine Objekte. Das Format entspricht dem bisherigen Export: Komma
+ * als Trennzeichen, Felder nur bei Bedarf in Anführungszeichen, Zeilenende
+ * des Systems.</p>
+ *
+ * <pre>{@code
+ * try (CsvWriter out = new CsvWriter(Files.newOutputStream(path))) {
+ *     out.writeRecord(List.of("ID", "Datum"));
+ *     out.append(termin.getTerminId()).append(termin.getDatum()).endRecord();
+ * }
+ * }</pre>
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    /**
+     * Schreibt die Felder eines Objekts als einen Datensatz.
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+
+        void write(CsvWriter out, T item) throws IOException;
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // Grösstes UTF-8-Zeichen (4 Byte) plus verdoppeltes Anführungszeichen
+    private static final int MAX_CHAR_BYTES = 8;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JA = {'J', 'a'};
+    private static final byte[] NEIN = {'N', 'e', 'i', 'n'};
+
+    private final OutputStream out;
+    private final byte delimiter;
+    private final byte[] buffer;
+    private int pos;
+    private boolean firstField = true;
+    private long bytesWritten;
+
+    /**
+     * @param out Ziel (wird nicht zusätzlich gepuffert)
+     */
+    public CsvWriter(OutputStream out) {
+        this(out, ',', DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param out Ziel (wird nicht zusätzlich gepuffert)
+     * @param delimiter Feldtrennzeichen (ASCII), z. B. {@code ','} oder {@code ';'}
+     * @param bufferSize Grösse des Schreibpuffers in Byte
+     */
+    public CsvWriter(OutputStream out, char delimiter, int bufferSize) {
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Ungültiges Trennzeichen: " + delimiter);
+        }
+        this.out = out;
+        this.delimiter = (byte) delimiter;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+    }
+
+    /**
+     * Hängt ein Textfeld an; {@code null} ergibt ein leeres Feld.
+     */
+    public CsvWriter append(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        int length = value.length();
+        boolean quote = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (quote) {
+            put((byte) '"');
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.length - pos < MAX_CHAR_BYTES) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"') {
+                    buffer[pos++] = '"';
+                }
+                buffer[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[pos++] = (byte) (0xC0 | (c >> 6));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer[pos++] = (byte) (0xF0 | (cp >> 18));
+                buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Ungepaartes Surrogat: wie der Standard-Encoder als '?'
+                buffer[pos++] = '?';
+            } else {
+                buffer[pos++] = (byte) (0xE0 | (c >> 12));
+                buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        if (quote) {
+            put((byte) '"');
+        }
+        return this;
+    }
+
+    public CsvWriter append(int value) throws IOException {
+        return append((long) value);
+    }
+
+    public CsvWriter append(long value) throws IOException {
+        separate();
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            // Betrag passt nicht in long
+            for (byte b : Long.toString(value).getBytes(StandardCharsets.US_ASCII)) {
+                buffer[pos++] = b;
+            }
+            return this;
+        }
+        if (value < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buffer[pos++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Ziffern stehen rückwärts im Puffer
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+        return this;
+    }
+
+    /**
+     * Schreibt {@code Ja} oder {@code Nein}, wie in den bisherigen Exporten.
+     */
+    public CsvWriter append(boolean value) throws IOException {
+        separate();
+        byte[] text = value ? JA : NEIN;
+        ensure(text.length);
+        System.arraycopy(text, 0, buffer, pos, text.length);
+        pos += text.length;
+        return this;
+    }
+
+    /**
+     * Schreibt das Datum im ISO-Format {@code yyyy-MM-dd}; {@code null} ergibt
+     * ein leeres Feld.
+     */
+    public CsvWriter append(LocalDate value) throws IOException {
+        if (value == null || value.getYear() < 0 || value.getYear() > 9999) {
+            return append(value != null ? value.toString() : null);
+        }
+        separate();
+        ensure(10);
+        digits(value.getYear(), 4);
+        buffer[pos++] = '-';
+        digits(value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        digits(value.getDayOfMonth(), 2);
+        return this;
+    }
+
+    /**
+     * Schreibt die Uhrzeit als {@code HH:mm}, mit Sekunden nur wenn gesetzt;
+     * {@code null} ergibt ein leeres Feld.
+     */
+    public CsvWriter append(LocalTime value) throws IOException {
+        separate();
+        if (value == null) {
+            return this;
+        }
+        ensure(8);
+        digits(value.getHour(), 2);
+        buffer[pos++] = ':';
+        digits(value.getMinute(), 2);
+        if (value.getSecond() != 0) {
+            buffer[pos++] = ':';
+            digits(value.getSecond(), 2);
+        }
+        return this;
+    }
+
+    /**
+     * Schliesst den aktuellen Datensatz ab.
+     */
+    public CsvWriter endRecord() throws IOException {
+        ensure(LINE_SEPARATOR.length);
+        System.arraycopy(LINE_SEPARATOR, 0, buffer, pos, LINE_SEPARATOR.length);
+        pos += LINE_SEPARATOR.length;
+        firstField = true;
+        return this;
+    }
+
+    /**
+     * Schreibt alle Werte als einen Datensatz, z. B. die Kopfzeile.
+     */
+    public CsvWriter writeRecord(List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            append(values.get(i));
+        }
+        return endRecord();
+    }
+
+    /**
+     * Anzahl bisher an das Ziel übergebener Bytes (ohne gepufferte)
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            put(delimiter);
+        }
+    }
+
+    private void digits(int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        pos += width;
+    }
+
+    private void put(byte b) throws IOException {
+        if (pos == buffer.length) {
+            flushBuffer();
+        }
+        buffer[pos++] = b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - pos < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+            bytesWritten += pos;
+            pos = 0;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package ch.hftm.util;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Optional;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
 
 /**
  * Utility-Klasse für Dialoge und Benutzer-Feedback
@@ -75,4 +80,65 @@ public class DialogUtil {
                 + "Bitte überprüfen Sie Ihre Datenbankverbindung."
         );
     }
+
+    /**
+     * Fragt nach der Zieldatei für einen CSV-Export. Ohne Endung wird
+     * ".csv" angehängt; eine bestehende Datei muss bestätigt werden.
+     *
+     * @return gewählte Datei oder {@code null}, wenn abgebrochen wurde
+     */
+    public static Path chooseCsvExportFile(Window owner, String title, String initialFileName) {
+        return chooseExportFile(owner, title, initialFileName, "CSV Dateien", "csv");
+    }
+
+    /**
+     * Fragt nach einer CSV-Datei, die importiert werden soll.
+     *
+     * @return gewählte Datei oder {@code null}, wenn abgebrochen wurde
+     */
+    public static Path chooseCsvImportFile(Window owner, String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Dateien (*.csv)", "*.csv"));
+        File importFile = chooser.showOpenDialog(owner);
+        return importFile != null ? importFile.toPath() : null;
+    }
+
+    /**
+     * Fragt nach der Zieldatei für einen Export. Ohne Endung wird sie
+     * angehängt; eine bestehende Datei muss bestätigt werden.
+     *
+     * @param filterDescription Beschreibung im Dateifilter, z. B. "ZIP Archive"
+     * @param extension Dateiendung ohne Punkt, z. B. "zip"
+     * @return gewählte Datei oder {@code null}, wenn abgebrochen wurde
+     */
+    public static Path chooseExportFile(Window owner, String title, String initialFileName,
+            String filterDescription, String extension) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.setInitialFileName(initialFileName);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                filterDescription + " (*." + extension + ")", "*." + extension));
+        File exportFile = chooser.showSaveDialog(owner);
+        if (exportFile == null) {
+            return null;
+        }
+
+        // Falls Benutzer keinen Suffix angibt, Endung anhängen
+        String name = exportFile.getName() != null ? exportFile.getName() : "";
+        if (!name.toLowerCase(Locale.ROOT).endsWith("." + extension)) {
+            exportFile = new File(exportFile.getParentFile(), name + "." + extension);
+        }
+
+        if (exportFile.exists()) {
+            boolean overwrite = showConfirmation(
+                    "Datei überschreiben?",
+                    "Die Datei existiert bereits:\n" + exportFile.getAbsolutePath() + "\n\nMöchten Sie sie überschreiben?"
+            );
+            if (!overwrite) {
+                return null;
+            }
+        }
+        return exportFile.toPath();
+    }
 }
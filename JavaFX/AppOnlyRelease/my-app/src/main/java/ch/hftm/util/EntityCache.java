@@ -0,0 +1,154 @@
+package ch.hftm.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Begrenzter Read-Through-Cache mit LRU-Verdrängung und Ablaufzeit.
+ *
+ * <p>Fehlende oder abgelaufene Einträge werden über den Loader geladen; der
+ * Loader läuft ausserhalb der Sperre, ein langsamer Datenbankzugriff
+ * blockiert also keine Treffer anderer Threads. Wird während eines Ladevorgangs
+ * invalidiert, verwirft der Cache das Ergebnis, statt einen möglicherweise
+ * veralteten Stand abzulegen. {@code null} (nicht gefunden) wird nicht
+ * gecacht.</p>
+ *
+ * @param <K> Schlüssel, z. B. die ID
+ * @param <V> gecachter Wert
+ */
+public class EntityCache<K, V> {
+
+    /**
+     * Zähler seit dem Anlegen des Caches
+     *
+     * @param evictions wegen der Grössenbeschränkung verdrängte Einträge
+     * @param expirations wegen Ablauf der TTL verworfene Einträge
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d Treffer, %d Fehlgriffe (%.0f %%), %d verdrängt, %d abgelaufen, %d Einträge",
+                    hits, misses, hitRate() * 100, evictions, expirations, size);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries;
+    // Erhöht bei jeder Invalidierung; Ladevorgänge mit älterem Stand werden nicht abgelegt
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxSize maximale Anzahl Einträge; {@code <= 0} schaltet den Cache ab
+     * @param ttlMillis Gültigkeit eines Eintrags ab dem Laden
+     */
+    public EntityCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * @param clock Zeitquelle in Nanosekunden (für Tests)
+     */
+    EntityCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Liefert den gecachten Wert oder lädt ihn.
+     *
+     * @param loader lädt den Wert zum Schlüssel, liefert {@code null}, wenn es
+     * ihn nicht gibt
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.expiresAt() < 0) {
+                    hits++;
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        if (value != null && maxSize > 0) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Entfernt einen Eintrag, z. B. nach Änderung oder Löschung
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Leert den Cache, z. B. nach Massenänderungen
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Entfernt abgelaufene Einträge; sonst geschieht das erst beim nächsten
+     * Zugriff oder durch Verdrängung.
+     */
+    public synchronized void cleanUp() {
+        long now = clock.getAsLong();
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext();) {
+            if (now - it.next().expiresAt() >= 0) {
+                it.remove();
+                expirations++;
+            }
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size());
+    }
+}
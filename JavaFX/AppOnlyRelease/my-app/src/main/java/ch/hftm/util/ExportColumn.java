@@ -0,0 +1,35 @@
+package ch.hftm.util;
+
+/**
+ * Spalte eines typisierten Exports (siehe {@link ExportFormat}).
+ *
+ * @param name Spaltenname, z. B. {@code termin_id}
+ * @param type Datentyp der Werte
+ */
+public record ExportColumn(String name, Type type) {
+
+    /**
+     * Datentypen und ihre Java-Werte. {@code null} ist in jeder Spalte
+     * erlaubt.
+     */
+    public enum Type {
+        /** {@link Integer} */
+        INTEGER,
+        /** {@link java.time.LocalDate} */
+        DATE,
+        /** {@link String} */
+        TEXT
+    }
+
+    public static ExportColumn integer(String name) {
+        return new ExportColumn(name, Type.INTEGER);
+    }
+
+    public static ExportColumn date(String name) {
+        return new ExportColumn(name, Type.DATE);
+    }
+
+    public static ExportColumn text(String name) {
+        return new ExportColumn(name, Type.TEXT);
+    }
+}
@@ -0,0 +1,96 @@
+package ch.hftm.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dateiformat für typisierte Exporte, z. B. Jahresarchive.
+ *
+ * <p>Jedes Format schreibt und liest Datensätze mit den Spalten einer
+ * {@link ExportColumn}-Liste. Geschrieben und gelesen wird als Datenstrom;
+ * nur das Spaltenformat hält einen Block von Zeilen im Speicher.</p>
+ *
+ * <ul>
+ * <li>{@link #CSV} und {@link #CSV_GZIP}: wie der CSV-Export, Kopfzeile mit
+ * den Spaltennamen; leere Felder werden als {@code null} gelesen</li>
+ * <li>{@link #JSON_LINES}: ein JSON-Objekt pro Zeile</li>
+ * <li>{@link #COLUMNAR}: kompaktes Binärformat mit Wörterbuch für Text und
+ * Delta-Kodierung für Zahlen und Datum</li>
+ * </ul>
+ */
+public interface ExportFormat {
+
+    /**
+     * Schreibt Datensätze; {@link #close()} schliesst auch den Datenstrom.
+     */
+    interface RecordWriter extends Closeable {
+
+        /**
+         * @param values Werte in Spaltenreihenfolge ({@link Integer},
+         * {@link java.time.LocalDate}, {@link String} oder {@code null})
+         */
+        void write(Object... values) throws IOException;
+    }
+
+    /**
+     * Liest Datensätze; {@link #close()} schliesst auch den Datenstrom.
+     */
+    interface RecordReader extends Closeable {
+
+        /**
+         * @return Werte des nächsten Datensatzes in Spaltenreihenfolge oder
+         * {@code null} am Ende
+         */
+        Object[] read() throws IOException;
+    }
+
+    ExportFormat CSV = new CsvExportFormat(false);
+    ExportFormat CSV_GZIP = new CsvExportFormat(true);
+    ExportFormat JSON_LINES = new JsonLinesExportFormat();
+    ExportFormat COLUMNAR = new ColumnarExportFormat();
+
+    /**
+     * Anzeigename, z. B. für Dateiauswahl-Filter
+     */
+    String getName();
+
+    /**
+     * Dateiendung ohne Punkt, z. B. {@code csv.gz}
+     */
+    String getExtension();
+
+    RecordWriter openWriter(OutputStream out, List<ExportColumn> columns) throws IOException;
+
+    /**
+     * @param columns erwartete Spalten; selbstbeschreibende Formate prüfen
+     * sie gegen die Datei
+     */
+    RecordReader openReader(InputStream in, List<ExportColumn> columns) throws IOException;
+
+    static List<ExportFormat> values() {
+        return List.of(CSV, CSV_GZIP, JSON_LINES, COLUMNAR);
+    }
+
+    /**
+     * Ermittelt das Format anhand der Dateiendung.
+     *
+     * @return Format oder {@code null}, wenn die Endung unbekannt ist
+     */
+    static ExportFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        ExportFormat match = null;
+        for (ExportFormat format : values()) {
+            // Längste passende Endung gewinnt (csv.gz vor csv)
+            if (name.endsWith("." + format.getExtension())
+                    && (match == null || format.getExtension().length() > match.getExtension().length())) {
+                match = format;
+            }
+        }
+        return match;
+    }
+}
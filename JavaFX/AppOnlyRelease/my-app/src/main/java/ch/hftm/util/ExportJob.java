@@ -0,0 +1,196 @@
+package ch.hftm.util;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.control.Button;
+
+/**
+ * Export in eine Datei, der ausserhalb des JavaFX Application Threads läuft.
+ *
+ * <p>Geschrieben wird in eine temporäre Datei im Zielverzeichnis, die erst
+ * nach erfolgreichem Abschluss an ihren Platz verschoben wird (atomar, wo
+ * das Dateisystem es unterstützt). Bei Abbruch oder Fehler wird sie
+ * gelöscht; eine bestehende Zieldatei bleibt dann unverändert. Jeder Job
+ * läuft in einem eigenen virtuellen Thread, mehrere Exporte können also
+ * gleichzeitig laufen.</p>
+ *
+ * <p>Ergebnis ist die Anzahl exportierter Zeilen. Standardmässig meldet der
+ * Job Erfolg und Fehler per Dialog; eigene Handler werden vor
+ * {@link #start()} gesetzt.</p>
+ */
+public final class ExportJob extends Task<Long> {
+
+    /**
+     * Schreibt den Export in die übergebene (temporäre) Datei.
+     */
+    @FunctionalInterface
+    public interface Exporter {
+
+        /**
+         * @param file Zieldatei des Schreibvorgangs
+         * @param listener für Fortschrittsmeldungen
+         * @return Anzahl geschriebener Zeilen oder {@code -1} bei einem Fehler
+         */
+        long export(Path file, ExportListener listener) throws IOException;
+    }
+
+    /**
+     * Stand eines laufenden Exports
+     *
+     * @param zeilen bisher geschriebene Datenzeilen
+     * @param bytes bisher geschriebene Bytes
+     * @param bytesProSekunde durchschnittliche Schreibrate seit dem Start
+     */
+    public record Progress(long zeilen, long bytes, double bytesProSekunde) {
+
+        @Override
+        public String toString() {
+            // Schweizer Tausendertrennzeichen
+            return String.format(Locale.ROOT, "%,d", zeilen).replace(',', '\'')
+                    + String.format(Locale.ROOT, " Zeilen, %.1f MB/s", bytesProSekunde / (1024 * 1024));
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ExportJob.class.getName());
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("export-", 0).factory());
+
+    private final String beschreibung;
+    private final Path target;
+    private final Exporter exporter;
+    private final ReadOnlyObjectWrapper<Progress> exportProgress = new ReadOnlyObjectWrapper<>(
+            this, "exportProgress", new Progress(0, 0, 0));
+    // Fortschritt aus dem Worker, den der FX-Thread noch nicht übernommen hat
+    private final AtomicReference<Progress> pendingProgress = new AtomicReference<>();
+    private long startNanos;
+
+    /**
+     * @param beschreibung exportierte Daten im Plural für Meldungen, z. B. "Termine"
+     * @param target Zieldatei
+     * @param exporter schreibt die Daten
+     */
+    public ExportJob(String beschreibung, Path target, Exporter exporter) {
+        this.beschreibung = beschreibung;
+        this.target = target.toAbsolutePath();
+        this.exporter = exporter;
+    }
+
+    /**
+     * Startet den Job im Hintergrund. Nicht gesetzte Erfolgs- und
+     * Fehler-Handler werden durch die Standarddialoge ersetzt.
+     */
+    public ExportJob start() {
+        if (getOnSucceeded() == null) {
+            setOnSucceeded(e -> DialogUtil.showSuccess("Export erfolgreich",
+                    getValue() + " " + beschreibung + " wurden exportiert nach:\n" + target));
+        }
+        if (getOnFailed() == null) {
+            setOnFailed(e -> DialogUtil.showError("Export fehlgeschlagen",
+                    getException() != null && getException().getMessage() != null
+                            ? getException().getMessage()
+                            : "Die Datei " + target.getFileName() + " mit den " + beschreibung
+                                    + " konnte nicht erstellt werden."));
+        }
+        EXECUTOR.execute(this);
+        return this;
+    }
+
+    /**
+     * Zeigt den Fortschritt auf dem Button an, bis der Job beendet ist. Der
+     * Aufrufer bricht den Job beim nächsten Klick mit {@link #cancel()} ab.
+     */
+    public void showIn(Button button) {
+        if (button == null) {
+            return;
+        }
+        String text = button.getText();
+        button.textProperty().bind(Bindings.createStringBinding(
+                () -> getMessage() == null || getMessage().isEmpty() ? "Abbrechen" : "Abbrechen (" + getMessage() + ")",
+                messageProperty()));
+        stateProperty().addListener((obs, oldState, state) -> {
+            if (state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+                button.textProperty().unbind();
+                button.setText(text);
+            }
+        });
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Letzter gemeldeter Fortschritt; wird auf dem FX-Thread aktualisiert
+     */
+    public Progress getExportProgress() {
+        return exportProgress.get();
+    }
+
+    public ReadOnlyObjectProperty<Progress> exportProgressProperty() {
+        return exportProgress.getReadOnlyProperty();
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        Path dir = target.getParent();
+        Path temp = Files.createTempFile(dir, "." + target.getFileName() + "-", ".part");
+        boolean moved = false;
+        startNanos = System.nanoTime();
+        try {
+            long rows = exporter.export(temp, this::report);
+            if (isCancelled()) {
+                return -1L;
+            }
+            if (rows < 0) {
+                throw new IOException("Die " + beschreibung + " konnten nicht exportiert werden.");
+            }
+            move(temp, target);
+            moved = true;
+            report(rows, Files.size(target));
+            return rows;
+        } finally {
+            if (!moved) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Temporäre Exportdatei konnte nicht gelöscht werden: " + temp, e);
+                }
+            }
+        }
+    }
+
+    private void report(long zeilen, long bytes) {
+        double sekunden = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-3);
+        Progress progress = new Progress(zeilen, bytes, bytes / sekunden);
+        updateMessage(progress.toString());
+        // Wie Task.updateProgress: höchstens ein ausstehendes runLater
+        if (pendingProgress.getAndSet(progress) == null) {
+            Platform.runLater(() -> exportProgress.set(pendingProgress.getAndSet(null)));
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
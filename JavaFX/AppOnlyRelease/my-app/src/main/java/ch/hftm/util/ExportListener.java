@@ -0,0 +1,14 @@
+package ch.hftm.util;
+
+/**
+ * Fortschritt eines Exports; wird im exportierenden Thread aufgerufen.
+ */
+@FunctionalInterface
+public interface ExportListener {
+
+    /**
+     * @param zeilen bisher geschriebene Datenzeilen
+     * @param bytesGeschrieben bisher geschriebene Bytes der Datei
+     */
+    void progress(long zeilen, long bytesGeschrieben);
+}
@@ -1,10 +1,8 @@
 package ch.hftm.util;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.function.Function;
 
@@ -24,19 +22,33 @@ public class ExportUtil {
             List<T> items,
             List<String> headers,
             Function<T, List<String>> rowMapper) {
+        return exportCsv(file, items, headers, (out, item) -> {
+            for (String value : rowMapper.apply(item)) {
+                out.append(value);
+            }
+        });
+    }
+
+    /**
+     * Exportiert eine Liste von Objekten als CSV-Datei; die Felder werden
+     * typisiert und ohne Zwischenlisten geschrieben
+     *
+     * @param file Zieldatei (File-Objekt)
+     * @param items Liste der zu exportierenden Objekte
+     * @param headers Spaltenüberschriften
+     * @param rowWriter schreibt die Felder eines Objekts, z. B.
+     * {@code (out, t) -> out.append(t.getTerminId()).append(t.getDatum())}
+     * @return true bei Erfolg, false bei Fehler
+     */
+    public static <T> boolean exportCsv(File file,
+            List<T> items,
+            List<String> headers,
+            CsvWriter.RowWriter<T> rowWriter) {
         if (items == null || items.isEmpty()) {
             return false;
         }
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
-            // Header
-            writer.write(String.join(",", headers.stream().map(ExportUtil::safeCsv).toList()));
-            writer.newLine();
-            // Rows
-            for (T item : items) {
-                List<String> row = rowMapper.apply(item);
-                writer.write(String.join(",", row.stream().map(ExportUtil::safeCsv).toList()));
-                writer.newLine();
-            }
+        try (CsvWriter writer = new CsvWriter(new FileOutputStream(file))) {
+            writeCsv(writer, items, headers, rowWriter);
             return true;
         } catch (IOException e) {
             return false;
@@ -66,33 +78,22 @@ public class ExportUtil {
             throw new IllegalArgumentException("Headers und Mappers müssen gleich viele Einträge haben.");
         }
         File file = new File(filename);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
-            // Header
-            writer.write(String.join(",", headers.stream().map(ExportUtil::safeCsv).toList()));
-            writer.newLine();
-            // Rows
-            for (T item : items) {
-                StringBuilder row = new StringBuilder();
-                for (int i = 0; i < mappers.size(); i++) {
-                    String value = safeCsv(mappers.get(i).apply(item));
-                    row.append(value);
-                    if (i < mappers.size() - 1) {
-                        row.append(',');
-                    }
+        try (CsvWriter writer = new CsvWriter(new FileOutputStream(file))) {
+            writeCsv(writer, items, headers, (out, item) -> {
+                for (Function<T, String> mapper : mappers) {
+                    out.append(mapper.apply(item));
                 }
-                writer.write(row.toString());
-                writer.newLine();
-            }
+            });
         }
         return file;
     }
 
-    private static String safeCsv(String s) {
-        if (s == null) {
-            return "";
+    private static <T> void writeCsv(CsvWriter writer, List<T> items, List<String> headers,
+            CsvWriter.RowWriter<T> rowWriter) throws IOException {
+        writer.writeRecord(headers);
+        for (T item : items) {
+            rowWriter.write(writer, item);
+            writer.endRecord();
         }
-        boolean needsQuotes = s.contains(",") || s.contains("\n") || s.contains("\r") || s.contains("\"");
-        String escaped = s.replace("\"", "\"\"");
-        return needsQuotes ? '"' + escaped + '"' : escaped;
     }
 }
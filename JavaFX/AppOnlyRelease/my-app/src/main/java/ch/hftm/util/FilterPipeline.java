@@ -0,0 +1,134 @@
+package ch.hftm.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.transformation.FilteredList;
+import javafx.util.Duration;
+
+/**
+ * Filtert eine FilteredList verzögert und im Hintergrund.
+ *
+ * <p>Eingaben werden gesammelt, bis {@code delay} lang nichts mehr kommt
+ * (Debounce). Dann wird eine unveränderliche Kopie der Quellzeilen im
+ * Hintergrund gefiltert, ab {@value #PARALLEL_THRESHOLD} Zeilen parallel.
+ * Das Ergebnis wird in einem Schritt auf dem FX-Thread als Prädikat gesetzt;
+ * Ergebnisse überholter Anfragen werden verworfen, laufende abgebrochen.
+ * Zeilen, die nach der Kopie dazukommen, prüft das gesetzte Prädikat
+ * einzeln.</p>
+ *
+ * <p>Alle Methoden müssen auf dem FX-Thread aufgerufen werden.</p>
+ *
+ * @param <T> Zeilentyp
+ */
+public class FilterPipeline<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(FilterPipeline.class.getName());
+
+    public static final Duration DEFAULT_DELAY = Duration.millis(150);
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final FilteredList<T> target;
+    private final PauseTransition debounce;
+    // Nummer der jüngsten Anfrage; ältere brechen ab bzw. werden verworfen
+    private final AtomicLong generation = new AtomicLong();
+    private Supplier<? extends Predicate<? super T>> pending;
+
+    public FilterPipeline(FilteredList<T> target) {
+        this(target, DEFAULT_DELAY);
+    }
+
+    public FilterPipeline(FilteredList<T> target, Duration delay) {
+        this.target = target;
+        this.debounce = new PauseTransition(delay);
+        this.debounce.setOnFinished(e -> {
+            Supplier<? extends Predicate<? super T>> query = pending;
+            pending = null;
+            if (query != null) {
+                run(query);
+            }
+        });
+    }
+
+    /**
+     * Filtert, sobald für die Verzögerung keine weitere Anfrage kommt, z. B.
+     * bei jedem Tastendruck im Suchfeld
+     *
+     * @param query liefert das Prädikat; läuft im Hintergrund und darf daher
+     * keine Controls lesen, sondern nur vorher ausgelesene Werte verwenden
+     */
+    public void submit(Supplier<? extends Predicate<? super T>> query) {
+        pending = query;
+        debounce.playFromStart();
+    }
+
+    /**
+     * Filtert ohne Verzögerung, z. B. direkt nach dem Laden
+     */
+    public void submitNow(Supplier<? extends Predicate<? super T>> query) {
+        debounce.stop();
+        pending = null;
+        run(query);
+    }
+
+    /**
+     * Verwirft ausstehende und laufende Anfragen
+     */
+    public void cancel() {
+        debounce.stop();
+        pending = null;
+        generation.incrementAndGet();
+    }
+
+    private void run(Supplier<? extends Predicate<? super T>> query) {
+        long gen = generation.incrementAndGet();
+        List<T> snapshot = List.copyOf(target.getSource());
+
+        CompletableFuture.supplyAsync(() -> filter(snapshot, query, gen))
+                .whenComplete((predicate, error) -> Platform.runLater(() -> {
+                    if (gen != generation.get()) {
+                        return;
+                    }
+                    if (error == null) {
+                        target.setPredicate(predicate);
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (!(cause instanceof CancellationException)) {
+                            LOGGER.log(Level.WARNING, "Filtern fehlgeschlagen", cause);
+                        }
+                    }
+                }));
+    }
+
+    private Predicate<T> filter(List<T> snapshot, Supplier<? extends Predicate<? super T>> query, long gen) {
+        Predicate<? super T> predicate = query.get();
+        Stream<T> rows = snapshot.size() >= PARALLEL_THRESHOLD ? snapshot.parallelStream() : snapshot.stream();
+        Set<T> visible = rows
+                .filter(row -> {
+                    if (gen != generation.get()) {
+                        throw new CancellationException();
+                    }
+                    return predicate.test(row);
+                })
+                .collect(Collectors.toCollection(() -> Collections.newSetFromMap(new IdentityHashMap<>())));
+
+        Set<T> known = Collections.newSetFromMap(new IdentityHashMap<>(snapshot.size() * 2));
+        known.addAll(snapshot);
+        return row -> visible.contains(row) || (!known.contains(row) && predicate.test(row));
+    }
+}
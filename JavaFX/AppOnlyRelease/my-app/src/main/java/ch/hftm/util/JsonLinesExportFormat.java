@@ -0,0 +1,273 @@
+package ch.hftm.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Lines: ein flaches JSON-Objekt pro Zeile, Datum als ISO-Text.
+ */
+final class JsonLinesExportFormat implements ExportFormat {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String getName() {
+        return "JSON Lines";
+    }
+
+    @Override
+    public String getExtension() {
+        return "jsonl";
+    }
+
+    @Override
+    public RecordWriter openWriter(OutputStream out, List<ExportColumn> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        // Schlüssel einmal vorbereiten: "name":
+        String[] keys = new String[columns.size()];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            appendString(key, columns.get(i).name());
+            keys[i] = key.append(':').toString();
+        }
+        StringBuilder line = new StringBuilder(256);
+        return new RecordWriter() {
+            @Override
+            public void write(Object... values) throws IOException {
+                CsvExportFormat.checkArity(values, columns);
+                line.setLength(0);
+                line.append('{');
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    line.append(keys[i]);
+                    Object value = values[i];
+                    if (value == null) {
+                        line.append("null");
+                    } else {
+                        switch (columns.get(i).type()) {
+                            case INTEGER -> line.append(((Number) value).intValue());
+                            case DATE -> line.append('"').append((LocalDate) value).append('"');
+                            case TEXT -> appendString(line, (String) value);
+                        }
+                    }
+                }
+                line.append('}').append('\n');
+                writer.append(line);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    @Override
+    public RecordReader openReader(InputStream in, List<ExportColumn> columns) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            index.put(columns.get(i).name(), i);
+        }
+        return new RecordReader() {
+            private long lineNumber;
+
+            @Override
+            public Object[] read() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        return null;
+                    }
+                } while (line.isBlank());
+                try {
+                    return new LineParser(line, columns, index).parse();
+                } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                    throw new IOException("Zeile " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Liest ein flaches Objekt mit Text-, Zahl- und {@code null}-Werten.
+     */
+    private static final class LineParser {
+
+        private final String line;
+        private final List<ExportColumn> columns;
+        private final Map<String, Integer> index;
+        private int pos;
+
+        LineParser(String line, List<ExportColumn> columns, Map<String, Integer> index) {
+            this.line = line;
+            this.columns = columns;
+            this.index = index;
+        }
+
+        Object[] parse() {
+            Object[] values = new Object[columns.size()];
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return values;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                Integer column = index.get(key);
+                Object raw = readValue();
+                if (column != null && raw != null) {
+                    values[column] = convert(columns.get(column), raw);
+                }
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return values;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("',' oder '}' erwartet an Position " + (pos - 1));
+                }
+            }
+        }
+
+        private static Object convert(ExportColumn column, Object raw) {
+            return switch (column.type()) {
+                case INTEGER -> {
+                    if (!(raw instanceof Long number)) {
+                        throw new IllegalArgumentException("Zahl erwartet für " + column.name());
+                    }
+                    yield Math.toIntExact(number);
+                }
+                case DATE -> LocalDate.parse(raw.toString());
+                case TEXT -> raw.toString();
+            };
+        }
+
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (line.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            int start = pos;
+            if (c == '-') {
+                pos++;
+            }
+            while (pos < line.length() && Character.isDigit(line.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("Wert erwartet an Position " + pos);
+            }
+            return Long.parseLong(line, start, pos, 10);
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > line.length()) {
+                            throw new IllegalArgumentException("Unvollständige Unicode-Sequenz");
+                        }
+                        sb.append((char) Integer.parseInt(line, pos, pos + 4, 16));
+                        pos += 4;
+                    }
+                    default -> sb.append(escaped);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("'" + expected + "' erwartet an Position " + (pos - 1));
+            }
+        }
+
+        private char peek() {
+            if (pos >= line.length()) {
+                throw new IllegalArgumentException("Unerwartetes Zeilenende");
+            }
+            return line.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+    }
+}
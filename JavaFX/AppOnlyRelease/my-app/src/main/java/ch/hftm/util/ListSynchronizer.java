@@ -0,0 +1,189 @@
+package ch.hftm.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import javafx.collections.ObservableList;
+
+/**
+ * Hält eine ObservableList über einzelne Einfüge-, Ersetz- und
+ * Löschoperationen aktuell, statt sie nach jeder Änderung neu zu befüllen.
+ *
+ * <p>Die Liste wird nach {@code order} sortiert gehalten; Zeilen werden per
+ * Schlüssel (z. B. ID) über eine Map und eine binäre Suche gefunden. Jede
+ * Operation löst genau ein Änderungsereignis für eine Zeile aus. Darauf
+ * aufbauende FilteredList/SortedList werten nur diese Zeile neu aus, die
+ * TableView behält Scrollposition und Auswahl.</p>
+ *
+ * <p>{@code order} muss stabil sein, solange eine Zeile in der Liste steht:
+ * Zeilen also nicht direkt ändern, sondern eine geänderte Kopie per
+ * {@link #put} einsetzen. Wird eine Zeile trotzdem direkt geändert, sucht
+ * {@link #put} sie linear.</p>
+ *
+ * <p>Alle Methoden müssen auf dem FX-Thread aufgerufen werden.</p>
+ *
+ * @param <T> Zeilentyp
+ * @param <K> Schlüssel, z. B. die ID
+ */
+public final class ListSynchronizer<T, K> {
+
+    private final ObservableList<T> target;
+    private final Function<? super T, ? extends K> key;
+    private final Comparator<? super T> order;
+    private final Map<K, T> byKey = new HashMap<>();
+
+    /**
+     * @param target Liste, die ab jetzt nur noch über diesen Synchronizer
+     * geändert wird
+     * @param key liefert den eindeutigen Schlüssel einer Zeile
+     * @param order Reihenfolge der Liste, z. B. die der Datenbankabfrage
+     */
+    public ListSynchronizer(ObservableList<T> target, Function<? super T, ? extends K> key,
+            Comparator<? super T> order) {
+        this.target = target;
+        this.key = key;
+        this.order = order;
+        setAll(new ArrayList<>(target));
+    }
+
+    /**
+     * Ersetzt den ganzen Inhalt, z. B. beim ersten Laden oder nach einer Suche
+     */
+    public void setAll(Collection<? extends T> items) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(order);
+        byKey.clear();
+        for (T item : sorted) {
+            byKey.put(key.apply(item), item);
+        }
+        target.setAll(sorted);
+    }
+
+    /**
+     * Fügt eine Zeile ein oder ersetzt die Zeile mit demselben Schlüssel
+     */
+    public void put(T item) {
+        T old = byKey.put(key.apply(item), item);
+        if (old == null) {
+            target.add(insertionPoint(item), item);
+            return;
+        }
+        int index = indexOf(old);
+        if (fitsAt(index, item)) {
+            target.set(index, item);
+        } else {
+            target.remove(index);
+            target.add(insertionPoint(item), item);
+        }
+    }
+
+    /**
+     * Entfernt die Zeile mit dem Schlüssel
+     *
+     * @return {@code true}, wenn sie in der Liste stand
+     */
+    public boolean remove(K k) {
+        T old = byKey.remove(k);
+        if (old == null) {
+            return false;
+        }
+        target.remove(indexOf(old));
+        return true;
+    }
+
+    /**
+     * Übernimmt nachgeladene Zeilen und entfernt gelöschte
+     *
+     * @param changed neue oder geänderte Zeilen
+     * @param removedKeys Schlüssel gelöschter Zeilen; unbekannte werden ignoriert
+     */
+    public void patch(Collection<? extends T> changed, Collection<? extends K> removedKeys) {
+        for (K k : removedKeys) {
+            remove(k);
+        }
+        for (T item : changed) {
+            put(item);
+        }
+    }
+
+    /**
+     * Gleicht die Liste mit dem Ergebnis einer erneuten Abfrage ab: fehlende
+     * Zeilen werden entfernt, neue eingefügt, geänderte ersetzt. Unterscheidet
+     * sich mehr als ein Viertel der Zeilen, wird die Liste in einem Schritt
+     * ersetzt, weil das dann günstiger ist als viele Einzelereignisse.
+     *
+     * @param unchanged erkennt Zeilen, die nicht ersetzt werden müssen
+     */
+    public void sync(Collection<? extends T> items, BiPredicate<? super T, ? super T> unchanged) {
+        Map<K, T> fresh = new HashMap<>();
+        List<T> changed = new ArrayList<>();
+        for (T item : items) {
+            K k = key.apply(item);
+            fresh.put(k, item);
+            T old = byKey.get(k);
+            if (old == null || !unchanged.test(old, item)) {
+                changed.add(item);
+            }
+        }
+        List<K> removed = new ArrayList<>();
+        for (K k : byKey.keySet()) {
+            if (!fresh.containsKey(k)) {
+                removed.add(k);
+            }
+        }
+        if (changed.size() + removed.size() > Math.max(16, byKey.size() / 4)) {
+            setAll(items);
+        } else {
+            patch(changed, removed);
+        }
+    }
+
+    public T get(K k) {
+        return byKey.get(k);
+    }
+
+    public boolean contains(K k) {
+        return byKey.containsKey(k);
+    }
+
+    private int indexOf(T element) {
+        int index = Collections.binarySearch(target, element, order);
+        if (index >= 0) {
+            // Gleichrangige Nachbarn nach dem gesuchten Objekt absuchen
+            for (int i = index; i >= 0 && order.compare(target.get(i), element) == 0; i--) {
+                if (target.get(i) == element) {
+                    return i;
+                }
+            }
+            for (int i = index + 1; i < target.size() && order.compare(target.get(i), element) == 0; i++) {
+                if (target.get(i) == element) {
+                    return i;
+                }
+            }
+        }
+        // Zeile wurde direkt geändert und steht nicht mehr an ihrer sortierten Position
+        for (int i = 0; i < target.size(); i++) {
+            if (target.get(i) == element) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Zeile nicht in der Liste: " + element);
+    }
+
+    private boolean fitsAt(int index, T item) {
+        return (index == 0 || order.compare(target.get(index - 1), item) <= 0)
+                && (index == target.size() - 1 || order.compare(item, target.get(index + 1)) <= 0);
+    }
+
+    private int insertionPoint(T item) {
+        int index = Collections.binarySearch(target, item, order);
+        return index >= 0 ? index : -index - 1;
+    }
+}
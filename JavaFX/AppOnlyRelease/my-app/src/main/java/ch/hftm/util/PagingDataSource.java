@@ -0,0 +1,301 @@
+package ch.hftm.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+/**
+ * Seitenweises Nachladen für TableViews (Keyset-Pagination).
+ *
+ * <p>Die Datenquelle lädt beim Scrollen die nächste bzw. vorherige Seite über
+ * einen {@link PageLoader} nach. Im Ziel-Listenobjekt werden höchstens
+ * {@code maxPages} Seiten gehalten; beim Weiterscrollen wird die Seite am
+ * anderen Ende verworfen. Damit bleibt der Speicherbedarf unabhängig von der
+ * Tabellengrösse. Für jede Seite wird nur ihr Keyset-Cursor (letzte Zeile der
+ * Vorgängerseite) gemerkt, um sie beim Zurückscrollen erneut zu laden.</p>
+ *
+ * <p>Alle Methoden müssen auf dem FX-Thread aufgerufen werden.</p>
+ *
+ * @param <T> Zeilentyp
+ */
+public class PagingDataSource<T> {
+
+    /**
+     * Lädt die Seite nach einer Zeile.
+     *
+     * @param <T> Zeilentyp
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+
+        /**
+         * @param after letzte Zeile der vorherigen Seite oder {@code null} für
+         * die erste Seite
+         * @param limit maximale Anzahl Zeilen
+         */
+        CompletableFuture<List<T>> loadAfter(T after, int limit);
+    }
+
+    // Nachladen, sobald weniger als 10 % Scrollweg bis zum Rand übrig sind
+    private static final double EDGE_THRESHOLD = 0.1;
+
+    private final ObservableList<T> target;
+    private final PageLoader<T> pageLoader;
+    private final AsyncLoader loader;
+    private final int pageSize;
+    private final int maxPages;
+
+    // cursors.get(i) = Argument "after" für Seite i (null für Seite 0)
+    private final List<T> cursors = new ArrayList<>();
+    private final Deque<Integer> pageSizes = new ArrayDeque<>();
+    private int firstPage;
+    private boolean exhausted;
+    private boolean active;
+    private TableView<?> table;
+
+    /**
+     * @param target Liste, die die Tabelle (ggf. über Filtered-/SortedList)
+     * anzeigt
+     * @param pageLoader lädt eine Seite (typisch: {@code repo.findPageAsync})
+     * @param loader Loader der View; andere Ladevorgänge der View brechen das
+     * Nachladen ab und umgekehrt
+     * @param pageSize Zeilen pro Seite
+     * @param maxPages maximal gleichzeitig gehaltene Seiten
+     */
+    public PagingDataSource(ObservableList<T> target, PageLoader<T> pageLoader, AsyncLoader loader, int pageSize, int maxPages) {
+        if (pageSize < 1 || maxPages < 2) {
+            throw new IllegalArgumentException("pageSize >= 1 und maxPages >= 2 erwartet");
+        }
+        this.target = target;
+        this.pageLoader = pageLoader;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Verbindet die Datenquelle mit der Scroll-Position der Tabelle.
+     */
+    public void attach(TableView<?> tableView) {
+        this.table = tableView;
+        if (tableView.getSkin() != null) {
+            installScrollListener();
+        } else {
+            tableView.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) {
+                    installScrollListener();
+                }
+            });
+        }
+    }
+
+    /**
+     * Verwirft alle geladenen Seiten und lädt die erste Seite.
+     */
+    public void reset() {
+        cursors.clear();
+        cursors.add(null);
+        pageSizes.clear();
+        firstPage = 0;
+        exhausted = false;
+        active = true;
+        loader.load(pageLoader.loadAfter(null, pageSize), rows -> {
+            target.setAll(rows);
+            pageLoaded(0, rows);
+            if (table != null && !rows.isEmpty()) {
+                table.scrollTo(0);
+            }
+        });
+    }
+
+    /**
+     * Deaktiviert das Nachladen, z. B. wenn die Liste durch ein Suchergebnis
+     * ersetzt wurde. {@link #reset()} aktiviert es wieder.
+     */
+    public void suspend() {
+        active = false;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Lädt die Seite nach dem aktuellen Fenster.
+     */
+    public void loadNext() {
+        if (!active || exhausted || loader.isLoading() || pageSizes.isEmpty()) {
+            return;
+        }
+        int page = firstPage + pageSizes.size();
+        if (page >= cursors.size()) {
+            return;
+        }
+        loader.load(pageLoader.loadAfter(cursors.get(page), pageSize), rows -> {
+            if (rows.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+            target.addAll(rows);
+            pageLoaded(page, rows);
+            if (pageSizes.size() > maxPages) {
+                int removed = pageSizes.removeFirst();
+                int firstVisible = firstVisibleIndex();
+                target.remove(0, Math.min(removed, target.size()));
+                firstPage++;
+                keepVisibleRow(firstVisible - removed);
+            }
+        });
+    }
+
+    /**
+     * Lädt die Seite vor dem aktuellen Fenster erneut.
+     */
+    public void loadPrevious() {
+        if (!active || firstPage == 0 || loader.isLoading()) {
+            return;
+        }
+        int page = firstPage - 1;
+        loader.load(pageLoader.loadAfter(cursors.get(page), pageSize), rows -> {
+            int firstVisible = firstVisibleIndex();
+            target.addAll(0, rows);
+            pageSizes.addFirst(rows.size());
+            firstPage = page;
+            if (pageSizes.size() > maxPages) {
+                int removed = pageSizes.removeLast();
+                target.remove(Math.max(0, target.size() - removed), target.size());
+                exhausted = false;
+            }
+            keepVisibleRow(firstVisible + rows.size());
+        });
+    }
+
+    /**
+     * Übernimmt einzelne geänderte Zeilen in das geladene Fenster, ohne neu
+     * zu laden (z. B. nach einer Änderungsmeldung).
+     *
+     * <p>Vorhandene Zeilen mit gleichem Schlüssel werden ersetzt, entfernte
+     * gelöscht. Neue Zeilen werden nach der Seitenreihenfolge eingefügt, wenn
+     * sie innerhalb des geladenen Fensters liegen; sonst kommen sie beim
+     * Scrollen mit ihrer Seite. Ist das Nachladen deaktiviert, gilt die Liste
+     * als vollständig.</p>
+     *
+     * @param changed neue oder geänderte Zeilen, die zur Abfrage passen
+     * @param removedKeys Schlüssel gelöschter oder nicht mehr passender Zeilen
+     * @param key Schlüssel einer Zeile (typisch die ID)
+     * @param pageOrder Reihenfolge der Seiten, wie ORDER BY der Abfrage
+     */
+    public <K> void applyChanges(Collection<? extends T> changed, Collection<K> removedKeys,
+            Function<? super T, K> key, Comparator<? super T> pageOrder) {
+        for (K removedKey : removedKeys) {
+            int index = indexOf(removedKey, key);
+            if (index >= 0) {
+                target.remove(index);
+                adjustPageSize(index, -1);
+            }
+        }
+        for (T row : changed) {
+            int index = indexOf(key.apply(row), key);
+            if (index >= 0) {
+                target.set(index, row);
+                continue;
+            }
+            int position = 0;
+            while (position < target.size() && pageOrder.compare(target.get(position), row) <= 0) {
+                position++;
+            }
+            boolean beforeWindow = active && position == 0 && firstPage > 0;
+            boolean afterWindow = active && position == target.size() && !exhausted;
+            if (!beforeWindow && !afterWindow) {
+                target.add(position, row);
+                adjustPageSize(position, 1);
+            }
+        }
+    }
+
+    private <K> int indexOf(K wanted, Function<? super T, K> key) {
+        for (int i = 0; i < target.size(); i++) {
+            if (Objects.equals(key.apply(target.get(i)), wanted)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Hält die Seitengrössen passend zur Liste, damit das Verwerfen von Seiten weiter stimmt
+    private void adjustPageSize(int index, int delta) {
+        if (pageSizes.isEmpty()) {
+            return;
+        }
+        List<Integer> sizes = new ArrayList<>(pageSizes);
+        int end = 0;
+        for (int i = 0; i < sizes.size(); i++) {
+            end += sizes.get(i);
+            if (index < end || i == sizes.size() - 1) {
+                sizes.set(i, Math.max(0, sizes.get(i) + delta));
+                break;
+            }
+        }
+        pageSizes.clear();
+        pageSizes.addAll(sizes);
+    }
+
+    private void pageLoaded(int page, List<T> rows) {
+        if (page == firstPage + pageSizes.size()) {
+            pageSizes.addLast(rows.size());
+        }
+        if (rows.size() < pageSize) {
+            exhausted = true;
+        } else if (cursors.size() == page + 1) {
+            cursors.add(rows.get(rows.size() - 1));
+        }
+    }
+
+    private void installScrollListener() {
+        VirtualFlow<?> flow = findFlow();
+        if (flow == null) {
+            return;
+        }
+        flow.positionProperty().addListener((obs, oldPos, newPos) -> {
+            double pos = newPos.doubleValue();
+            if (pos >= 1.0 - EDGE_THRESHOLD && pos > oldPos.doubleValue()) {
+                loadNext();
+            } else if (pos <= EDGE_THRESHOLD && pos < oldPos.doubleValue()) {
+                loadPrevious();
+            }
+        });
+    }
+
+    private VirtualFlow<?> findFlow() {
+        if (table == null) {
+            return null;
+        }
+        return table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow ? flow : null;
+    }
+
+    private int firstVisibleIndex() {
+        VirtualFlow<?> flow = findFlow();
+        if (flow == null) {
+            return 0;
+        }
+        IndexedCell<?> cell = flow.getFirstVisibleCell();
+        return cell != null ? cell.getIndex() : 0;
+    }
+
+    private void keepVisibleRow(int index) {
+        if (table != null && index >= 0 && index < table.getItems().size()) {
+            table.scrollTo(index);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package ch.hftm.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Volltextindex für die Live-Suche in Tabellen.
+ *
+ * <p>Pro Zeile wird einmal ein normalisierter Suchschlüssel gebildet
+ * (Kleinbuchstaben, ohne Akzente, Felder durch ein Trennzeichen getrennt) und
+ * jedes Trigramm daraus in eine Postingliste eingetragen. Eine Suche ab drei
+ * Zeichen prüft nur die Zeilen der kürzesten Postingliste ihrer Trigramme
+ * mit {@code contains}; kürzere Suchtexte prüfen alle Schlüssel, aber ohne
+ * Formatieren oder Umwandeln pro Tastendruck.</p>
+ *
+ * <p>Über {@link #bind} folgt der Index den Änderungen einer Liste. Gelöschte
+ * Zeilen bleiben in den Postinglisten stehen, bis sie mehr als die Hälfte
+ * ausmachen; dann wird neu aufgebaut.</p>
+ *
+ * <p>Änderungen am Index gehören auf den FX-Thread. {@link #matcher} und die
+ * gelieferten Prädikate dürfen auch in einem Hintergrund-Thread laufen, z. B.
+ * in einer {@link FilterPipeline}.</p>
+ *
+ * @param <T> Zeilentyp
+ */
+public class SearchIndex<T> {
+
+    private static final char SEPARATOR = '\u0001';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int MIN_COMPACT = 1024;
+    // Ab dieser Grösse werden kurze Suchtexte parallel über alle Schlüssel geprüft
+    private static final int PARALLEL_SCAN = 20_000;
+
+    private final Function<? super T, String[]> fields;
+
+    // Slot -> Eintrag; gelöschte Slots sind null
+    private final List<Entry<T>> entries = new ArrayList<>();
+    // Lesbar ohne Sperre, damit Prädikate im Hintergrund nachschlagen können
+    private final Map<T, Entry<T>> byRow = new ConcurrentHashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int dead;
+    // Erhöht bei jedem Neuaufbau; Slots älterer Epochen sind nicht vergleichbar
+    private int epoch;
+
+    private record Entry<T>(T row, String key, int slot, int epoch) {
+    }
+
+    /**
+     * @param fields durchsuchbare Felder einer Zeile, bereits so formatiert,
+     * wie sie in der Tabelle erscheinen; {@code null}-Einträge werden ignoriert
+     */
+    public SearchIndex(Function<? super T, String[]> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Baut den Index aus der Liste auf und hält ihn danach bei jeder
+     * Änderung der Liste nach
+     */
+    public void bind(ObservableList<? extends T> list) {
+        rebuild(list);
+        list.addListener((ListChangeListener<T>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    continue;
+                }
+                if (c.getRemovedSize() > 0 && c.getRemovedSize() >= size()) {
+                    clear();
+                } else {
+                    c.getRemoved().forEach(this::remove);
+                }
+                c.getAddedSubList().forEach(this::add);
+            }
+        });
+    }
+
+    public synchronized void rebuild(Collection<? extends T> items) {
+        clear();
+        items.forEach(this::add);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byRow.clear();
+        postings.clear();
+        dead = 0;
+        epoch++;
+    }
+
+    public synchronized void add(T row) {
+        if (byRow.containsKey(row)) {
+            return;
+        }
+        int slot = entries.size();
+        String key = key(row);
+        Entry<T> entry = new Entry<>(row, key, slot, epoch);
+        entries.add(entry);
+        byRow.put(row, entry);
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            long trigram = trigram(key, i);
+            if (trigram >= 0) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+            }
+        }
+    }
+
+    public synchronized void remove(T row) {
+        Entry<T> entry = byRow.remove(row);
+        if (entry == null) {
+            return;
+        }
+        entries.set(entry.slot(), null);
+        dead++;
+        if (dead > MIN_COMPACT && dead > byRow.size()) {
+            List<T> live = new ArrayList<>(byRow.size());
+            for (Entry<T> e : entries) {
+                if (e != null) {
+                    live.add(e.row());
+                }
+            }
+            rebuild(live);
+        }
+    }
+
+    public int size() {
+        return byRow.size();
+    }
+
+    /**
+     * Liefert ein Prädikat für FilteredList, das Zeilen mit dem Suchtext
+     * akzeptiert. Die Treffer werden hier einmal ermittelt; das Prädikat
+     * schlägt nur noch nach. Zeilen, die erst danach in den Index kommen,
+     * prüft es einzeln.
+     */
+    public synchronized Predicate<T> matcher(String query) {
+        String q = query == null ? "" : normalize(query.trim());
+        if (q.isEmpty()) {
+            return row -> true;
+        }
+        Set<T> hits = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (q.length() < 3) {
+            if (entries.size() >= PARALLEL_SCAN) {
+                entries.parallelStream()
+                        .filter(e -> e != null && e.key().contains(q))
+                        .forEachOrdered(e -> hits.add(e.row()));
+            } else {
+                for (Entry<T> e : entries) {
+                    if (e != null && e.key().contains(q)) {
+                        hits.add(e.row());
+                    }
+                }
+            }
+        } else {
+            Postings shortest = shortestPostings(q);
+            int previous = -1;
+            for (int i = 0; shortest != null && i < shortest.size; i++) {
+                int slot = shortest.slots[i];
+                // Ein Trigramm kann mehrfach im selben Schlüssel vorkommen
+                Entry<T> e = entries.get(slot);
+                if (slot != previous && e != null && e.key().contains(q)) {
+                    hits.add(e.row());
+                }
+                previous = slot;
+            }
+        }
+
+        int matchedEpoch = epoch;
+        int matchedSlots = entries.size();
+        return row -> {
+            if (hits.contains(row)) {
+                return true;
+            }
+            Entry<T> e = byRow.get(row);
+            if (e == null) {
+                return key(row).contains(q);
+            }
+            boolean newer = e.epoch() != matchedEpoch || e.slot() >= matchedSlots;
+            return newer && e.key().contains(q);
+        };
+    }
+
+    /**
+     * @return kürzeste Postingliste der Trigramme von {@code q} oder
+     * {@code null}, wenn ein Trigramm nirgends vorkommt
+     */
+    private Postings shortestPostings(String q) {
+        Postings shortest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings p = postings.get(trigram(q, i));
+            if (p == null) {
+                return null;
+            }
+            if (shortest == null || p.size < shortest.size) {
+                shortest = p;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * Kleinbuchstaben ohne Akzente, z. B. "Zürich" wird zu "zurich"
+     */
+    public static String normalize(String s) {
+        String lower = s.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    private String key(T row) {
+        StringBuilder sb = new StringBuilder();
+        for (String field : fields.apply(row)) {
+            if (field != null) {
+                sb.append(normalize(field)).append(SEPARATOR);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return die drei Zeichen ab {@code i} als Zahl, {@code -1}, wenn sie
+     * über eine Feldgrenze gehen
+     */
+    private static long trigram(String s, int i) {
+        char a = s.charAt(i);
+        char b = s.charAt(i + 1);
+        char c = s.charAt(i + 2);
+        if (a == SEPARATOR || b == SEPARATOR || c == SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Aufsteigende Slot-Nummern ohne Boxing
+     */
+    private static final class Postings {
+
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -11,6 +11,10 @@ import javafx.scene.control.TextField;
 
 /**
  * Utility-Klasse für Eingabe-Validierung
+ *
+ * <p>Die Regeln stehen als reine String-Prüfungen zur Verfügung (z. B. für den
+ * CSV-Import ohne UI); die Varianten für Eingabefelder verwenden dieselben
+ * Regeln und markieren das Feld zusätzlich.</p>
  */
 public class ValidationUtil {
 
@@ -21,6 +25,62 @@ public class ValidationUtil {
     private static final String ERROR_STYLE = "-fx-border-color: #cc0000; -fx-border-width: 2px;";
     private static final String NORMAL_STYLE = "-fx-border-color: #000000; -fx-border-width: 1.5px;";
 
+    /**
+     * Prüft, ob ein Text nach dem Trimmen nicht leer ist.
+     *
+     * @param text der zu prüfende Text
+     * @return true, wenn Text vorhanden ist, sonst false
+     */
+    public static boolean isNotEmpty(String text) {
+        return text != null && !text.trim().isEmpty();
+    }
+
+    /**
+     * Prüft, ob ein Text ein gültiges Datum im ISO-Format (YYYY-MM-DD) ist.
+     *
+     * @param text der zu prüfende Text
+     * @return true, wenn ein gültiges Datum geparst werden kann, sonst false
+     */
+    public static boolean isValidDate(String text) {
+        if (!isNotEmpty(text)) {
+            return false;
+        }
+        try {
+            LocalDate.parse(text.trim());
+            return true;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Prüft, ob ein Text eine gültige Uhrzeit im ISO-Format (HH:MM) ist.
+     *
+     * @param text der zu prüfende Text
+     * @return true, wenn eine gültige Uhrzeit geparst werden kann, sonst false
+     */
+    public static boolean isValidTime(String text) {
+        if (!isNotEmpty(text)) {
+            return false;
+        }
+        try {
+            LocalTime.parse(text.trim());
+            return true;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Prüft, ob ein Text einer einfachen E-Mail-Regex entspricht.
+     *
+     * @param email die zu prüfende Adresse
+     * @return true, wenn das Muster passt, sonst false
+     */
+    public static boolean isValidEmail(String email) {
+        return email != null && EMAIL_PATTERN.matcher(email.trim()).matches();
+    }
+
     /**
      * Prüft, ob ein TextField einen nicht-leeren Text enthält.
      *
@@ -32,8 +92,7 @@ public class ValidationUtil {
         if (field == null) {
             return false;
         }
-        String text = field.getText();
-        boolean valid = text != null && !text.trim().isEmpty();
+        boolean valid = isNotEmpty(field.getText());
 
         if (!valid) {
             field.setStyle(ERROR_STYLE);
@@ -55,16 +114,7 @@ public class ValidationUtil {
         if (field == null) {
             return false;
         }
-        String text = field.getText();
-        boolean valid = false;
-        if (text != null && !text.trim().isEmpty()) {
-            try {
-                LocalDate.parse(text.trim());
-                valid = true;
-            } catch (DateTimeParseException ex) {
-                valid = false;
-            }
-        }
+        boolean valid = isValidDate(field.getText());
 
         field.setStyle(valid ? NORMAL_STYLE : ERROR_STYLE);
         return valid;
@@ -81,16 +131,7 @@ public class ValidationUtil {
         if (field == null) {
             return false;
         }
-        String text = field.getText();
-        boolean valid = false;
-        if (text != null && !text.trim().isEmpty()) {
-            try {
-                LocalTime.parse(text.trim());
-                valid = true;
-            } catch (DateTimeParseException ex) {
-                valid = false;
-            }
-        }
+        boolean valid = isValidTime(field.getText());
 
         field.setStyle(valid ? NORMAL_STYLE : ERROR_STYLE);
         return valid;
@@ -107,8 +148,7 @@ public class ValidationUtil {
         if (field == null) {
             return false;
         }
-        String email = field.getText();
-        boolean valid = email != null && EMAIL_PATTERN.matcher(email.trim()).matches();
+        boolean valid = isValidEmail(field.getText());
 
         if (!valid) {
             field.setStyle(ERROR_STYLE);
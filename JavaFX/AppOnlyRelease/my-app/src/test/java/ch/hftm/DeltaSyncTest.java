@@ -0,0 +1,52 @@
+package ch.hftm;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import ch.hftm.persistence.ExportTable;
+import ch.hftm.util.ExportFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class DeltaSyncTest {
+
+    @Test
+    void parse_defaultsToCsvForVerband() {
+        DeltaSync.Options options = DeltaSync.parse(new String[] {"/tmp/sync"});
+
+        assertEquals(DeltaSync.DEFAULT_ZIEL, options.ziel());
+        assertSame(ExportFormat.CSV, options.format());
+        assertFalse(options.reset());
+        assertEquals(Path.of("/tmp/sync"), options.directory());
+    }
+
+    @Test
+    void parse_readsOptionsInAnyOrder() {
+        DeltaSync.Options options = DeltaSync.parse(new String[] {"--reset", "out", "--format", "csv.gz", "--ziel", "kanton"});
+
+        assertEquals("kanton", options.ziel());
+        assertSame(ExportFormat.CSV_GZIP, options.format());
+        assertTrue(options.reset());
+        assertEquals(Path.of("out"), options.directory());
+    }
+
+    @Test
+    void parse_rejectsInvalidArguments() {
+        assertNull(DeltaSync.parse(new String[0]));
+        assertNull(DeltaSync.parse(new String[] {"out", "--ziel"}));
+        assertNull(DeltaSync.parse(new String[] {"--format", "xlsx", "out"}));
+        assertNull(DeltaSync.parse(new String[] {"out", "noch-eins"}));
+        assertNull(DeltaSync.parse(new String[] {"--verbose", "out"}));
+    }
+
+    @Test
+    void file_namesTableDateAndExtension() {
+        assertEquals(Path.of("out", "formular_delta_2025-01-31.jsonl"),
+                DeltaSync.file(Path.of("out"), ExportTable.FORMULAR, ExportFormat.JSON_LINES, LocalDate.of(2025, 1, 31)));
+    }
+}
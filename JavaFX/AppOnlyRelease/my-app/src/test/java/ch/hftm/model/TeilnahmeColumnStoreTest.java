@@ -0,0 +1,77 @@
+package ch.hftm.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+class TeilnahmeColumnStoreTest {
+
+    @Test
+    void countsAndRows_byMitgliedAndTermin() {
+        TeilnahmeColumnStore store = new TeilnahmeColumnStore();
+        store.add(7, 100, 0, TeilnahmeStatus.ZUGESAGT);
+        store.add(8, 100, 5, TeilnahmeStatus.ABWESEND);
+        store.add(7, 101, 0, TeilnahmeStatus.ABWESEND);
+        store.add(new TeilnahmeRow(42, 7, 102, 0, null));
+
+        assertEquals(3, store.countByMitglied(7));
+        // Fehlender Status wird separat gezählt, nicht als Zusage
+        assertEquals(1, store.countByMitglied(7, TeilnahmeStatus.ZUGESAGT));
+        assertEquals(1, store.countByMitglied(7, TeilnahmeStatus.ABWESEND));
+        assertEquals(1, store.countByMitglied(7, null));
+        assertEquals(1, store.count(null));
+        assertEquals(1, store.count(TeilnahmeStatus.ZUGESAGT));
+        assertEquals(0, store.countByMitglied(9));
+        assertEquals(2, store.countByTermin(100));
+        assertEquals(1, store.countByTermin(100, TeilnahmeStatus.ABWESEND));
+        assertEquals(2, store.count(TeilnahmeStatus.ABWESEND));
+
+        assertArrayEquals(new int[] {0, 2, 3}, store.rowsByMitglied(7));
+        assertArrayEquals(new int[0], store.rowsByTermin(999));
+        assertArrayEquals(new int[] {7, 8}, store.mitgliedIds());
+        assertEquals(5, store.formularId(1));
+        assertNull(store.status(3));
+    }
+
+    @Test
+    void add_afterQuery_rebuildsIndex() {
+        TeilnahmeColumnStore store = new TeilnahmeColumnStore(1);
+        store.add(1, 10, 0, TeilnahmeStatus.ZUGESAGT);
+        assertEquals(1, store.countByTermin(10));
+
+        store.add(2, 10, 0, TeilnahmeStatus.ABGESAGT);
+        assertEquals(2, store.countByTermin(10));
+        assertEquals(1, store.countByTermin(10, TeilnahmeStatus.ABGESAGT));
+    }
+
+    @Test
+    void counts_matchNaiveGroupingForManyKeys() {
+        Random random = new Random(1);
+        TeilnahmeColumnStore store = new TeilnahmeColumnStore();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Negative und grosse IDs prüfen die Hashtabelle
+            int mitglied = random.nextInt(5000) * (i % 2 == 0 ? 1 : -65536);
+            store.add(mitglied, i % 300, 0, i % 4 == 3 ? null : TeilnahmeStatus.values()[i % 3]);
+            expected.merge(mitglied, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), store.mitgliedIds().length);
+        expected.forEach((id, n) -> assertEquals(n, store.countByMitglied(id), "Mitglied " + id));
+        int total = 0;
+        for (int termin : store.terminIds()) {
+            total += store.countByTermin(termin);
+            int perStatus = store.countByTermin(termin, null);
+            for (TeilnahmeStatus s : TeilnahmeStatus.values()) {
+                perStatus += store.countByTermin(termin, s);
+            }
+            assertEquals(store.countByTermin(termin), perStatus, "Termin " + termin);
+        }
+        assertEquals(store.size(), total);
+    }
+}
@@ -0,0 +1,117 @@
+package ch.hftm.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.hftm.model.FormularStatus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class CsvImporterTest {
+
+    @Test
+    void normalize_ignoresCaseUmlautsAndPunctuation() {
+        assertEquals("rueckgabedatum", CsvImporter.normalize(" Rückgabedatum "));
+        assertEquals("email", CsvImporter.normalize("E-Mail"));
+        assertEquals("mitgliedid", CsvImporter.normalize("mitglied_id"));
+        assertEquals("strasse", CsvImporter.normalize("Straße"));
+        assertEquals("", CsvImporter.normalize(null));
+    }
+
+    @Test
+    void enumName_acceptsNameAndDisplayName() {
+        List<String> errors = new ArrayList<>();
+        FormularStatus[] values = FormularStatus.values();
+
+        assertEquals("GEPRUEFT", CsvImporter.enumName("Geprüft", values, FormularStatus.AUSSTEHEND, "Status", errors));
+        assertEquals("EINGEREICHT", CsvImporter.enumName("eingereicht", values, FormularStatus.AUSSTEHEND, "Status", errors));
+        assertEquals("AUSSTEHEND", CsvImporter.enumName(" ", values, FormularStatus.AUSSTEHEND, "Status", errors));
+        assertTrue(errors.isEmpty());
+
+        assertNull(CsvImporter.enumName("verloren", values, FormularStatus.AUSSTEHEND, "Status", errors));
+        assertEquals(List.of("Status 'verloren' ist unbekannt"), errors);
+    }
+
+    @Test
+    void appendCopyRow_quotesValuesAndWritesNullUnquoted() {
+        StringBuilder sb = new StringBuilder();
+        CsvImporter.appendCopyRow(sb, 2, new String[]{"Muster", "", null, "sagt \"hallo\", tschüss"});
+        CsvImporter.appendCopyRow(sb, 3, new String[]{"a\nb"});
+
+        assertEquals("2,\"Muster\",\"\",,\"sagt \"\"hallo\"\", tschüss\"\n3,\"a\nb\"\n", sb.toString());
+    }
+
+    @Test
+    void mapHeader_matchesNamesLabelsAndAliasesInAnyOrder() {
+        ImportResult result = new ImportResult();
+        int[] mapping = CsvImporter.mapHeader(CsvImporter.Target.TEILNAHME,
+                List.of("Status", "Termin", "Bemerkung", "Mitglied-ID"), result);
+
+        // Spaltenreihenfolge: mitglied_id, termin_id, formular_id, status
+        assertArrayEquals(new int[]{3, 1, -1, 0}, mapping);
+        assertNull(result.getFailure());
+    }
+
+    @Test
+    void mapHeader_failsOnMissingRequiredColumns() {
+        ImportResult result = new ImportResult();
+        int[] mapping = CsvImporter.mapHeader(CsvImporter.Target.MITGLIED, List.of("Vorname", "Rolle"), result);
+
+        assertNull(mapping);
+        assertFalse(result.isCompleted());
+        assertEquals("Fehlende Spalten: Nachname, E-Mail", result.getFailure());
+    }
+
+    @Test
+    void convert_terminAcceptsSwissDateAndYesNo() {
+        List<String> errors = new ArrayList<>();
+        String[] values = CsvImporter.Target.TERMIN.convert(new String[]{"1.2.2025", "09:30", " Halle ", "ja"}, errors);
+
+        assertTrue(errors.isEmpty(), errors::toString);
+        assertArrayEquals(new String[]{"2025-02-01", "09:30", "Halle", "true"}, values);
+
+        values = CsvImporter.Target.TERMIN.convert(new String[]{"2025-03-04", "18:00", "Platz", null}, errors);
+        assertTrue(errors.isEmpty(), errors::toString);
+        assertEquals("false", values[3]);
+    }
+
+    @Test
+    void convert_reportsEveryInvalidField() {
+        List<String> errors = new ArrayList<>();
+        CsvImporter.Target.TERMIN.convert(new String[]{"31.2.2025", "25:00", "", "vielleicht"}, errors);
+
+        assertEquals(List.of(
+                "Datum '31.2.2025' ist kein gültiges Datum",
+                "Uhrzeit '25:00' ist keine gültige Uhrzeit (HH:MM)",
+                "Ort darf nicht leer sein",
+                "Ferien 'vielleicht' ist weder Ja noch Nein"), errors);
+    }
+
+    @Test
+    void convert_teilnahmeChecksIdsAndDefaultsStatus() {
+        List<String> errors = new ArrayList<>();
+        String[] values = CsvImporter.Target.TEILNAHME.convert(new String[]{" 7", "12", null, null}, errors);
+
+        assertTrue(errors.isEmpty(), errors::toString);
+        assertArrayEquals(new String[]{"7", "12", null, "ZUGESAGT"}, values);
+
+        CsvImporter.Target.TEILNAHME.convert(new String[]{"0", "x", "", "Zugesagt"}, errors);
+        assertEquals(List.of("Mitglied-ID '0' ist keine gültige ID", "Termin-ID 'x' ist keine gültige ID"), errors);
+    }
+
+    @Test
+    void mergeSql_usesBusinessKeyAndStagingTable() {
+        CsvImporter.Target target = CsvImporter.Target.MITGLIED;
+
+        assertEquals("COPY import_mitglied (zeile, vorname, nachname, email, rolle) FROM STDIN WITH (FORMAT csv)",
+                target.copySql());
+        assertEquals("INSERT INTO mitglied (vorname, nachname, email, rolle) SELECT s.vorname, s.nachname, s.email, s.rolle"
+                + " FROM (SELECT DISTINCT ON (email) * FROM import_mitglied ORDER BY email, zeile DESC) s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM mitglied t WHERE t.email = s.email)", target.insertSql());
+    }
+}
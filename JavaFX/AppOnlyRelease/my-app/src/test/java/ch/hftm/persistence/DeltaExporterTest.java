@@ -0,0 +1,49 @@
+package ch.hftm.persistence;
+
+import java.util.List;
+
+import ch.hftm.util.ExportColumn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class DeltaExporterTest {
+
+    @Test
+    void columns_prefixChangeTypeAndTimestamp() {
+        List<String> names = DeltaExporter.columns(ExportTable.TEILNAHME).stream().map(ExportColumn::name).toList();
+
+        assertEquals(List.of("aenderung", "geaendert_am", "teilnahme_id", "mitglied_id", "termin_id", "formular_id",
+                "status"), names);
+    }
+
+    @Test
+    void upsertsSql_selectsTableColumnsAfterTimestamp() {
+        String full = DeltaExporter.upsertsSql(ExportTable.MITGLIED, false);
+
+        assertEquals("SELECT to_char(updated_at AT TIME ZONE 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"'), "
+                + "mitglied_id, vorname, nachname, email, rolle FROM mitglied ORDER BY mitglied_id", full);
+        assertFalse(full.contains("?"));
+    }
+
+    @Test
+    void upsertsSql_incrementalFiltersBySnapshot() {
+        String sql = DeltaExporter.upsertsSql(ExportTable.TERMIN, true);
+
+        assertTrue(sql.contains(" FROM termin WHERE change_xid >= pg_snapshot_xmin(?::pg_snapshot)"
+                + " AND NOT pg_visible_in_snapshot(change_xid, ?::pg_snapshot) ORDER BY termin_id"), sql);
+        assertEquals(2, sql.chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    void deletesSql_readsTombstonesOfOneTable() {
+        String sql = DeltaExporter.deletesSql();
+
+        assertTrue(sql.startsWith("SELECT id, to_char(geloescht_am AT TIME ZONE 'UTC'"), sql);
+        assertTrue(sql.contains(" FROM export_tombstone WHERE tabelle = ? AND change_xid >= "), sql);
+        assertTrue(sql.endsWith(" ORDER BY change_xid, id"), sql);
+        assertEquals(3, sql.chars().filter(c -> c == '?').count());
+    }
+}
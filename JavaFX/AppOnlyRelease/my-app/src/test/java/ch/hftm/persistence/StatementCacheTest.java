@@ -0,0 +1,65 @@
+package ch.hftm.persistence;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+
+    private int prepared;
+
+    /**
+     * Statement, das nur seine Einstellungen in einer Map hält
+     */
+    private PreparedStatement fakeStatement() {
+        Map<String, Object> settings = new HashMap<>(Map.of(
+                "FetchSize", 0, "FetchDirection", ResultSet.FETCH_FORWARD, "LargeMaxRows", 0L,
+                "MaxFieldSize", 0, "QueryTimeout", 0));
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("get") && settings.containsKey(name.substring(3))) {
+                        return settings.get(name.substring(3));
+                    }
+                    if (name.startsWith("set") && settings.containsKey(name.substring(3))) {
+                        settings.put(name.substring(3), args[0]);
+                    }
+                    return null;
+                });
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        prepared++;
+                        return fakeStatement();
+                    }
+                    return null;
+                });
+    }
+
+    @Test
+    void close_resetsChangedSettingsBeforeReuse() throws Exception {
+        StatementCache cache = new StatementCache(fakeConnection(), 8);
+
+        PreparedStatement first = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        first.setFetchSize(500);
+        first.setQueryTimeout(30);
+        first.setLargeMaxRows(10);
+        first.close();
+
+        PreparedStatement second = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertEquals(1, prepared);
+        assertEquals(0, second.getFetchSize());
+        assertEquals(0, second.getQueryTimeout());
+        assertEquals(0L, second.getLargeMaxRows());
+    }
+}
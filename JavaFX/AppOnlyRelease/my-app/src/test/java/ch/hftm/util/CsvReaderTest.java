@@ -0,0 +1,68 @@
+package ch.hftm.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_handlesQuotesNewlinesAndCrlf() throws Exception {
+        String csv = "\uFEFFID,Ort\r\n1,\"Bern, Halle\"\r\n2,\"Zeile 1\nZeile 2\"\r\n3,\"x\"\"y\"\r\n";
+        CsvReader reader = new CsvReader(new StringReader(csv), ',');
+
+        assertEquals(List.of("ID", "Ort"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("1", "Bern, Halle"), reader.readRecord());
+        assertEquals(List.of("2", "Zeile 1\nZeile 2"), reader.readRecord());
+        assertEquals(List.of("3", "x\"y"), reader.readRecord());
+        // Datensatz 3 beginnt nach dem mehrzeiligen Feld in Zeile 5
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_keepsEmptyFieldsAndLastLineWithoutNewline() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a;;c\n;\"\";"), ';');
+
+        assertEquals(List.of("a", "", "c"), reader.readRecord());
+        assertEquals(List.of("", "", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_unclosedQuote_throws() {
+        CsvReader reader = new CsvReader(new StringReader("1,\"offen\n"), ',');
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+
+    @Test
+    void detectDelimiter_prefersSemicolonFromExcel() {
+        assertEquals(';', CsvReader.detectDelimiter("Vorname;Nachname;E-Mail"));
+        assertEquals(',', CsvReader.detectDelimiter("Vorname,Nachname,E-Mail"));
+        assertEquals('\t', CsvReader.detectDelimiter("Vorname\tNachname"));
+    }
+
+    @Test
+    void readRecord_readsExportUtilOutput() throws Exception {
+        Path tmp = Files.createTempFile("kud-roundtrip-", ".csv");
+        List<String> items = List.of("a,b", "x\"y", "mehr\nzeilig");
+        ExportUtil.exportCsv(tmp.toFile(), items, List.of("Wert"), s -> List.of(s));
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(tmp), ',')) {
+            assertEquals(List.of("Wert"), reader.readRecord());
+            for (String item : items) {
+                assertEquals(List.of(item), reader.readRecord());
+            }
+            assertNull(reader.readRecord());
+        }
+    }
+}
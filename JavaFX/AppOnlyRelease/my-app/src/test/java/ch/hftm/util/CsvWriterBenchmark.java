@@ -0,0 +1,144 @@
+package ch.hftm.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ch.hftm.model.Termin;
+
+/**
+ * Vergleicht den bisherigen zeilenweisen String-Aufbau des Exports mit dem
+ * {@link CsvWriter}.
+ *
+ * <p>Kein Unit-Test; JMH startet eine eigene JVM und braucht deshalb den
+ * Klassenpfad auf der Kommandozeile:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath ch.hftm.util.CsvWriterBenchmark"}.
+ * Die Allokationsrate pro Zeile steht in der Spalte {@code gc.alloc.rate.norm}
+ * (Byte pro Operation = pro Zeile).</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvWriterBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<Termin> termine;
+    private Writer legacyWriter;
+    private CsvWriter csvWriter;
+
+    @Setup
+    public void setUp() {
+        termine = new ArrayList<>(ROWS);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            String ort = i % 10 == 0 ? "Halle Süd, Eingang \"B\"" : "Turnhalle Zürich " + i;
+            termine.add(new Termin(i + 1, start.plusDays(i), LocalTime.of(18, 30), ort, i % 7 == 0));
+        }
+        // Ziele verwerfen die Bytes; gemessen wird nur Aufbereitung und Kodierung
+        legacyWriter = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+        csvWriter = new CsvWriter(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Vorher: Liste pro Zeile, safeCsv mit contains()/replace(), String.join()
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void legacyExportUtil() throws IOException {
+        for (Termin termin : termine) {
+            List<String> row = Arrays.asList(
+                    String.valueOf(termin.getTerminId()),
+                    termin.getDatum().toString(),
+                    termin.getUhrzeit().toString(),
+                    termin.getOrt(),
+                    termin.isFerienFlag() ? "Ja" : "Nein");
+            legacyWriter.write(String.join(",", row.stream().map(CsvWriterBenchmark::legacySafeCsv).toList()));
+            legacyWriter.write(System.lineSeparator());
+        }
+        legacyWriter.flush();
+    }
+
+    /**
+     * Nachher, bestehende Signatur: Liste pro Zeile, Felder direkt in den Puffer
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csvWriterStrings() throws IOException {
+        for (Termin termin : termine) {
+            for (String value : Arrays.asList(
+                    String.valueOf(termin.getTerminId()),
+                    termin.getDatum().toString(),
+                    termin.getUhrzeit().toString(),
+                    termin.getOrt(),
+                    termin.isFerienFlag() ? "Ja" : "Nein")) {
+                csvWriter.append(value);
+            }
+            csvWriter.endRecord();
+        }
+        csvWriter.flush();
+    }
+
+    /**
+     * Nachher, typisiert: keine Objekte pro Zeile
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csvWriterTyped() throws IOException {
+        for (Termin termin : termine) {
+            csvWriter.append(termin.getTerminId())
+                    .append(termin.getDatum())
+                    .append(termin.getUhrzeit())
+                    .append(termin.getOrt())
+                    .append(termin.isFerienFlag())
+                    .endRecord();
+        }
+        csvWriter.flush();
+    }
+
+    // Stand von ExportUtil.safeCsv vor dem CsvWriter
+    private static String legacySafeCsv(String s) {
+        if (s == null) {
+            return "";
+        }
+        boolean needsQuotes = s.contains(",") || s.contains("\n") || s.contains("\r") || s.contains("\"");
+        String escaped = s.replace("\"", "\"\"");
+        return needsQuotes ? '"' + escaped + '"' : escaped;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package ch.hftm.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void append_quotesOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvWriter out = new CsvWriter(bytes)) {
+            out.append("einfach").append("a,b").append("x\"y").append((String) null).append("Zürich").endRecord();
+        }
+
+        assertEquals("einfach,\"a,b\",\"x\"\"y\",,Zürich" + NL, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void append_typedValues() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvWriter out = new CsvWriter(bytes, ';', 64)) {
+            out.append(0).append(-42).append(Integer.MIN_VALUE).append(Long.MIN_VALUE).endRecord();
+            out.append(LocalDate.of(2024, 3, 7)).append(LocalTime.of(9, 5)).append(LocalTime.of(23, 59, 1))
+                    .append(true).append(false).append((LocalDate) null).endRecord();
+        }
+
+        assertEquals("0;-42;-2147483648;-9223372036854775808" + NL
+                + "2024-03-07;09:05;23:59:01;Ja;Nein;" + NL, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void append_smallBuffer_flushesMultibyteAndSurrogatesIntact() throws Exception {
+        String value = "Ärger 😀 ".repeat(50) + "\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvWriter out = new CsvWriter(bytes, ',', 16)) {
+            out.append(value).append("ende").endRecord();
+            assertEquals(bytes.size(), out.getBytesWritten());
+        }
+
+        try (CsvReader reader = new CsvReader(new StringReader(bytes.toString(StandardCharsets.UTF_8)), ',')) {
+            assertEquals(List.of(value, "ende"), reader.readRecord());
+            assertNull(reader.readRecord());
+        }
+    }
+}
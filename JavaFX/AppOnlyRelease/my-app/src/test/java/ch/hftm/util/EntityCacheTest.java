@@ -0,0 +1,67 @@
+package ch.hftm.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+
+    @Test
+    void get_loadsOnceUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        EntityCache<Integer, String> cache = new EntityCache<>(10, 60_000);
+
+        assertEquals("a1", cache.get(1, id -> "a" + loads.incrementAndGet()));
+        assertEquals("a1", cache.get(1, id -> "a" + loads.incrementAndGet()));
+        cache.invalidate(1);
+        assertEquals("a2", cache.get(1, id -> "a" + loads.incrementAndGet()));
+        assertNull(cache.get(2, id -> null));
+        assertNull(cache.get(2, id -> null));
+
+        EntityCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsed() {
+        EntityCache<Integer, String> cache = new EntityCache<>(2, 60_000);
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+        cache.get(1, String::valueOf);
+        cache.get(3, String::valueOf);
+
+        assertEquals("1", cache.get(1, id -> "neu"));
+        assertEquals("neu", cache.get(2, id -> "neu"));
+        assertEquals(2, cache.getStats().evictions());
+    }
+
+    @Test
+    void get_reloadsAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        EntityCache<Integer, String> cache = new EntityCache<>(10, 1_000, now::get);
+        cache.get(1, id -> "alt");
+
+        now.addAndGet(999_000_000L);
+        assertEquals("alt", cache.get(1, id -> "neu"));
+        now.addAndGet(1_000_000L);
+        assertEquals("neu", cache.get(1, id -> "neu"));
+        assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    void get_discardsValueLoadedDuringInvalidation() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10, 60_000);
+
+        // Änderung während des Ladens: der geladene Stand kann veraltet sein
+        assertEquals("alt", cache.get(1, id -> {
+            cache.invalidate(id);
+            return "alt";
+        }));
+        assertEquals("neu", cache.get(1, id -> "neu"));
+    }
+}
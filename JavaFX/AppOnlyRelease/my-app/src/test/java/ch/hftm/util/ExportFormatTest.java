@@ -0,0 +1,105 @@
+package ch.hftm.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ExportFormatTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.integer("teilnahme_id"),
+            ExportColumn.date("datum"),
+            ExportColumn.text("ort"),
+            ExportColumn.text("status"),
+            ExportColumn.integer("formular_id"));
+
+    private static final String[] ORTE = {"Turnhalle Zürich", "Halle Süd, Eingang \"B\"", "Aula\nBern"};
+    private static final String[] STATUS = {"ANGEMELDET", "TEILGENOMMEN", "ABGEMELDET"};
+
+    @Test
+    void roundTrip_allFormats() throws Exception {
+        // mehr als ein Block des Spaltenformats
+        List<Object[]> rows = sampleRows(ColumnarExportFormat.ROW_GROUP_SIZE + 100);
+        rows.add(new Object[] {-5, LocalDate.of(1999, 12, 31), "€ 😀 \\ \t", null, Integer.MAX_VALUE});
+        rows.add(new Object[] {Integer.MIN_VALUE, null, null, "X", null});
+
+        for (ExportFormat format : ExportFormat.values()) {
+            byte[] data = write(format, rows);
+            try (ExportFormat.RecordReader reader = format.openReader(new ByteArrayInputStream(data), COLUMNS)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    assertArrayEquals(rows.get(i), reader.read(), format.getName() + ", Zeile " + i);
+                }
+                assertNull(reader.read(), format.getName());
+            }
+        }
+    }
+
+    @Test
+    void columnar_isSeveralTimesSmallerThanCsv() throws Exception {
+        List<Object[]> rows = sampleRows(20_000);
+
+        int csv = write(ExportFormat.CSV, rows).length;
+        int gzip = write(ExportFormat.CSV_GZIP, rows).length;
+        int columnar = write(ExportFormat.COLUMNAR, rows).length;
+
+        assertTrue(gzip * 3 < csv, "gzip " + gzip + " / csv " + csv);
+        assertTrue(columnar * 5 < csv, "columnar " + columnar + " / csv " + csv);
+    }
+
+    @Test
+    void openReader_wrongColumns_throws() throws Exception {
+        List<ExportColumn> other = List.of(ExportColumn.integer("termin_id"));
+        for (ExportFormat format : List.of(ExportFormat.CSV, ExportFormat.CSV_GZIP, ExportFormat.COLUMNAR)) {
+            byte[] data = write(format, sampleRows(1));
+            assertThrows(IOException.class, () -> format.openReader(new ByteArrayInputStream(data), other),
+                    format.getName());
+        }
+    }
+
+    @Test
+    void forFile_matchesLongestExtension() {
+        assertSame(ExportFormat.CSV_GZIP, ExportFormat.forFile(Path.of("archiv", "teilnahmen_2024.csv.gz")));
+        assertSame(ExportFormat.CSV, ExportFormat.forFile(Path.of("termine.CSV")));
+        assertSame(ExportFormat.JSON_LINES, ExportFormat.forFile(Path.of("termine.jsonl")));
+        assertSame(ExportFormat.COLUMNAR, ExportFormat.forFile(Path.of("termine.kudc")));
+        assertNull(ExportFormat.forFile(Path.of("termine.xlsx")));
+    }
+
+    private static List<Object[]> sampleRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                i + 1,
+                start.plusDays(i / 40),
+                ORTE[i % ORTE.length],
+                STATUS[(i / 3) % STATUS.length],
+                i % 4 == 0 ? null : 1000 + i / 10
+            });
+        }
+        return rows;
+    }
+
+    private static byte[] write(ExportFormat format, List<Object[]> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ExportFormat.RecordWriter writer = format.openWriter(bytes, COLUMNS)) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        assertEquals(format, ExportFormat.forFile(Path.of("x." + format.getExtension())));
+        return bytes.toByteArray();
+    }
+}
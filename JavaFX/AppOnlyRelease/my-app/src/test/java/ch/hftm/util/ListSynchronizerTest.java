@@ -0,0 +1,101 @@
+package ch.hftm.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+class ListSynchronizerTest {
+
+    record Row(int id, String name) {
+    }
+
+    private static final Comparator<Row> BY_NAME = Comparator.comparing(Row::name).thenComparingInt(Row::id);
+
+    private final ObservableList<Row> list = FXCollections.observableArrayList();
+    private final ListSynchronizer<Row, Integer> sync = new ListSynchronizer<>(list, Row::id, BY_NAME);
+    private final List<String> changes = new ArrayList<>();
+
+    private void recordChanges() {
+        list.addListener((ListChangeListener<Row>) c -> {
+            while (c.next()) {
+                changes.add(c.wasReplaced() ? "replace@" + c.getFrom()
+                        : c.wasAdded() ? "add@" + c.getFrom() : "remove@" + c.getFrom());
+            }
+        });
+    }
+
+    private List<String> names() {
+        return list.stream().map(Row::name).toList();
+    }
+
+    @Test
+    void put_insertsAndReplacesInOrderWithSingleChange() {
+        sync.setAll(List.of(new Row(1, "c"), new Row(2, "a"), new Row(3, "e")));
+        recordChanges();
+
+        sync.put(new Row(4, "d"));
+        sync.put(new Row(2, "b"));
+        Row moved = new Row(3, "a");
+        sync.put(moved);
+
+        assertEquals(List.of("a", "b", "c", "d"), names());
+        assertSame(moved, sync.get(3));
+        assertEquals(List.of("add@2", "replace@0", "remove@3", "add@0"), changes);
+    }
+
+    @Test
+    void remove_andPatch() {
+        sync.setAll(List.of(new Row(1, "a"), new Row(2, "b"), new Row(3, "c")));
+        recordChanges();
+
+        assertFalse(sync.remove(9));
+        sync.patch(List.of(new Row(4, "d")), List.of(2));
+
+        assertEquals(List.of("a", "c", "d"), names());
+        assertEquals(List.of("remove@1", "add@2"), changes);
+    }
+
+    @Test
+    void sync_appliesOnlyDifferences() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Row(i, String.format("n%03d", i)));
+        }
+        sync.setAll(rows);
+        recordChanges();
+
+        List<Row> fresh = new ArrayList<>(rows);
+        fresh.remove(10);
+        fresh.set(20, new Row(21, "n021x"));
+        fresh.add(new Row(100, "n100"));
+        sync.sync(fresh, Objects::equals);
+
+        assertEquals(100, list.size());
+        assertEquals("n021x", sync.get(21).name());
+        assertEquals(3, changes.size());
+    }
+
+    @Test
+    void put_findsRowChangedInPlace() {
+        Row[] rows = {new Row(1, "a"), new Row(2, "b"), new Row(3, "c")};
+        sync.setAll(List.of(rows));
+        // Simuliert eine direkt geänderte Zeile: gleiche Instanz, aber falsch einsortiert
+        list.set(0, rows[2]);
+        list.set(2, rows[0]);
+
+        sync.put(new Row(3, "d"));
+
+        assertEquals(3, list.size());
+        assertEquals("d", list.get(list.size() - 1).name());
+    }
+}
@@ -0,0 +1,97 @@
+package ch.hftm.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+class SearchIndexTest {
+
+    record Row(int id, String ort, String typ) {
+    }
+
+    private static String[] fields(Row r) {
+        return new String[] {r.ort(), r.typ(), String.valueOf(r.id())};
+    }
+
+    private static List<Integer> ids(List<Row> rows, Predicate<Row> p) {
+        return rows.stream().filter(p).map(Row::id).toList();
+    }
+
+    @Test
+    void matcher_foldsCaseAndDiacritics() {
+        ObservableList<Row> rows = FXCollections.observableArrayList(
+                new Row(1, "Zürich", "Anmeldung"), new Row(2, "Bern", "Abmeldung"), new Row(3, "Genève", null));
+        SearchIndex<Row> index = new SearchIndex<>(SearchIndexTest::fields);
+        index.bind(rows);
+
+        assertEquals(List.of(1), ids(rows, index.matcher("ZURI")));
+        assertEquals(List.of(3), ids(rows, index.matcher("genev")));
+        assertEquals(List.of(1, 2), ids(rows, index.matcher("meldung")));
+        assertEquals(List.of(2), ids(rows, index.matcher("er")));
+        assertEquals(List.of(1, 2, 3), ids(rows, index.matcher("  ")));
+        assertEquals(List.of(), ids(rows, index.matcher("xyz")));
+    }
+
+    @Test
+    void matcher_doesNotMatchAcrossFields() {
+        ObservableList<Row> rows = FXCollections.observableArrayList(new Row(7, "Bern", "Abmeldung"));
+        SearchIndex<Row> index = new SearchIndex<>(SearchIndexTest::fields);
+        index.bind(rows);
+
+        assertFalse(index.matcher("bernabm").test(rows.get(0)));
+        assertTrue(index.matcher("abmeldung").test(rows.get(0)));
+    }
+
+    @Test
+    void bind_followsListChanges() {
+        ObservableList<Row> rows = FXCollections.observableArrayList(new Row(1, "Bern", null));
+        SearchIndex<Row> index = new SearchIndex<>(SearchIndexTest::fields);
+        index.bind(rows);
+
+        rows.add(new Row(2, "Basel", null));
+        rows.set(0, new Row(1, "Olten", null));
+        assertEquals(List.of(), ids(rows, index.matcher("bern")));
+        assertEquals(List.of(1), ids(rows, index.matcher("olten")));
+        assertEquals(List.of(2), ids(rows, index.matcher("basel")));
+
+        rows.setAll(new Row(3, "Bern", null));
+        assertEquals(1, index.size());
+        assertEquals(List.of(3), ids(rows, index.matcher("bern")));
+    }
+
+    @Test
+    void matcher_checksRowsAddedAfterMatching() {
+        ObservableList<Row> rows = FXCollections.observableArrayList(new Row(1, "Bern", null));
+        SearchIndex<Row> index = new SearchIndex<>(SearchIndexTest::fields);
+        index.bind(rows);
+        Predicate<Row> matcher = index.matcher("bern");
+
+        Row later = new Row(2, "Bern-Bümpliz", null);
+        rows.add(later);
+        assertTrue(matcher.test(later));
+        assertFalse(matcher.test(new Row(3, "Thun", null)));
+    }
+
+    @Test
+    void remove_compactsAfterManyDeletes() {
+        List<Row> all = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            all.add(new Row(i, "Ort " + i, null));
+        }
+        ObservableList<Row> rows = FXCollections.observableArrayList(all);
+        SearchIndex<Row> index = new SearchIndex<>(SearchIndexTest::fields);
+        index.bind(rows);
+
+        rows.remove(0, 2500);
+        assertEquals(500, index.size());
+        assertEquals(List.of(2999), ids(rows, index.matcher("ort 2999")));
+    }
+}
@@ -0,0 +1,15 @@
+-- ============================================
+-- 000_admin_extensions.sql
+-- Erweiterungen, die Administratorrechte brauchen
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- CREATE EXTENSION erfordert Superuser-Rechte oder (ab PostgreSQL 13 für
+-- vertrauenswürdige Erweiterungen wie pg_trgm) das CREATE-Recht auf der
+-- Datenbank. Daher einmalig durch den Datenbank-Administrator bzw. -Owner
+-- ausführen, z. B.:
+--   psql -U postgres -d transferdemo -f 000_admin_extensions.sql
+-- Die übrigen Migrationen laufen mit dem normalen Anwendungsbenutzer.
+
+-- Trigramm-Indizes für Teilstring-Suchen (ILIKE '%text%'), siehe 001
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,24 @@
+-- ============================================
+-- 001_termin_filter_indexes.sql
+-- Indizes für die Termin-Filter (TerminQuery) und die Keyset-Pagination
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- Datumsbereich, "nur kommende" und Keyset-Cursor (datum, uhrzeit, termin_id);
+-- wird für die absteigende Sortierung rückwärts gelesen
+CREATE INDEX IF NOT EXISTS idx_termin_datum_uhrzeit_id
+    ON termin (datum, uhrzeit, termin_id);
+
+-- Teilstring-Suche auf dem Ort (ort ILIKE '%text%'); braucht die Erweiterung
+-- pg_trgm aus 000_admin_extensions.sql. Fehlt sie, wird der Index
+-- übersprungen und die Suche liest die Tabelle sequenziell.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_termin_ort_trgm
+            ON termin USING gin (ort gin_trgm_ops);
+    ELSE
+        RAISE NOTICE 'pg_trgm fehlt, idx_termin_ort_trgm nicht angelegt (siehe 000_admin_extensions.sql)';
+    END IF;
+END
+$$;
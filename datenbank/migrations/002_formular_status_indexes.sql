@@ -0,0 +1,18 @@
+-- ============================================
+-- 002_formular_status_indexes.sql
+-- Indizes für die Status-Abfragen der Formulare
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- findByStatus: Status-Filter mit Sortierung nach Ausgabedatum
+CREATE INDEX IF NOT EXISTS idx_formular_status_ausgabe
+    ON formular (status, ausgabedatum DESC, formular_id DESC);
+
+-- Status + Fälligkeit (z. B. eingereichte Formulare nach Rückgabedatum)
+CREATE INDEX IF NOT EXISTS idx_formular_status_rueckgabe
+    ON formular (status, rueckgabedatum);
+
+-- findOverdue: nur ausstehende Formulare, klein gegenüber der Gesamttabelle
+CREATE INDEX IF NOT EXISTS idx_formular_ueberfaellig
+    ON formular (rueckgabedatum, formular_id)
+    WHERE status = 'AUSSTEHEND';
@@ -0,0 +1,12 @@
+-- ============================================
+-- 003_teilnahme_fk_indexes.sql
+-- Indizes auf den Fremdschlüsseln der Teilnahme
+-- (Suche nach Mitglied/Termin in der Teilnahme-Detailabfrage)
+-- PostgreSQL, idempotent
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_teilnahme_mitglied
+    ON teilnahme (mitglied_id, teilnahme_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_teilnahme_termin
+    ON teilnahme (termin_id, teilnahme_id DESC);
@@ -0,0 +1,89 @@
+-- ============================================
+-- 004_change_tracking.sql
+-- Änderungsverfolgung für inkrementelle Exporte (DeltaExporter)
+-- PostgreSQL 13+ (xid8, pg_snapshot), idempotent
+-- ============================================
+
+-- Jede Zeile merkt sich Zeitpunkt und Transaktion der letzten Änderung.
+-- change_xid ist die Transaktions-ID (64 Bit, läuft nicht über); ein Export
+-- liefert alle Zeilen, deren Transaktion im Snapshot des letzten Exports
+-- noch nicht sichtbar war. Anders als ein reiner updated_at-Vergleich
+-- verpasst das keine Transaktionen, die später committen als sie begonnen haben.
+ALTER TABLE mitglied  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE mitglied  ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+ALTER TABLE termin    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE termin    ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+ALTER TABLE formular  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE formular  ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+ALTER TABLE teilnahme ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE teilnahme ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_mitglied_change  ON mitglied (change_xid);
+CREATE INDEX IF NOT EXISTS idx_termin_change    ON termin (change_xid);
+CREATE INDEX IF NOT EXISTS idx_formular_change  ON formular (change_xid);
+CREATE INDEX IF NOT EXISTS idx_teilnahme_change ON teilnahme (change_xid);
+
+-- Gelöschte Zeilen (Tombstones) bis alle Exportziele sie abgeholt haben
+CREATE TABLE IF NOT EXISTS export_tombstone (
+    tabelle      TEXT        NOT NULL,
+    id           INT         NOT NULL,
+    geloescht_am TIMESTAMPTZ NOT NULL DEFAULT now(),
+    change_xid   XID8        NOT NULL DEFAULT pg_current_xact_id()
+);
+
+CREATE INDEX IF NOT EXISTS idx_export_tombstone_change
+    ON export_tombstone (tabelle, change_xid);
+
+-- Snapshot des letzten erfolgreichen Exports je Ziel und Tabelle
+CREATE TABLE IF NOT EXISTS export_watermark (
+    ziel          TEXT        NOT NULL,
+    tabelle       TEXT        NOT NULL,
+    snapshot      TEXT        NOT NULL,
+    exportiert_am TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (ziel, tabelle)
+);
+
+CREATE OR REPLACE FUNCTION export_touch() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := now();
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TG_ARGV[0]: Name der ID-Spalte
+CREATE OR REPLACE FUNCTION export_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO export_tombstone (tabelle, id)
+    VALUES (TG_TABLE_NAME, (to_jsonb(OLD) ->> TG_ARGV[0])::int);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_mitglied_touch ON mitglied;
+CREATE TRIGGER trg_mitglied_touch BEFORE INSERT OR UPDATE ON mitglied
+    FOR EACH ROW EXECUTE FUNCTION export_touch();
+DROP TRIGGER IF EXISTS trg_mitglied_tombstone ON mitglied;
+CREATE TRIGGER trg_mitglied_tombstone AFTER DELETE ON mitglied
+    FOR EACH ROW EXECUTE FUNCTION export_tombstone('mitglied_id');
+
+DROP TRIGGER IF EXISTS trg_termin_touch ON termin;
+CREATE TRIGGER trg_termin_touch BEFORE INSERT OR UPDATE ON termin
+    FOR EACH ROW EXECUTE FUNCTION export_touch();
+DROP TRIGGER IF EXISTS trg_termin_tombstone ON termin;
+CREATE TRIGGER trg_termin_tombstone AFTER DELETE ON termin
+    FOR EACH ROW EXECUTE FUNCTION export_tombstone('termin_id');
+
+DROP TRIGGER IF EXISTS trg_formular_touch ON formular;
+CREATE TRIGGER trg_formular_touch BEFORE INSERT OR UPDATE ON formular
+    FOR EACH ROW EXECUTE FUNCTION export_touch();
+DROP TRIGGER IF EXISTS trg_formular_tombstone ON formular;
+CREATE TRIGGER trg_formular_tombstone AFTER DELETE ON formular
+    FOR EACH ROW EXECUTE FUNCTION export_tombstone('formular_id');
+
+DROP TRIGGER IF EXISTS trg_teilnahme_touch ON teilnahme;
+CREATE TRIGGER trg_teilnahme_touch BEFORE INSERT OR UPDATE ON teilnahme
+    FOR EACH ROW EXECUTE FUNCTION export_touch();
+DROP TRIGGER IF EXISTS trg_teilnahme_tombstone ON teilnahme;
+CREATE TRIGGER trg_teilnahme_tombstone AFTER DELETE ON teilnahme
+    FOR EACH ROW EXECUTE FUNCTION export_tombstone('teilnahme_id');
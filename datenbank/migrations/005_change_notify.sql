@@ -0,0 +1,39 @@
+-- ============================================
+-- 005_change_notify.sql
+-- Benachrichtigung aller laufenden Instanzen über Änderungen (ChangeNotifier)
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- Kanal kud_changes, Nutzlast "<tabelle>:<INSERT|UPDATE|DELETE>:<id>".
+-- NOTIFY wird erst beim Commit zugestellt; gleiche Nutzlasten innerhalb
+-- einer Transaktion fasst PostgreSQL zusammen.
+-- TG_ARGV[0]: Name der ID-Spalte
+CREATE OR REPLACE FUNCTION notify_change() RETURNS trigger AS $$
+DECLARE
+    zeile JSONB;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        zeile := to_jsonb(OLD);
+    ELSE
+        zeile := to_jsonb(NEW);
+    END IF;
+    PERFORM pg_notify('kud_changes', TG_TABLE_NAME || ':' || TG_OP || ':' || (zeile ->> TG_ARGV[0]));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_mitglied_notify ON mitglied;
+CREATE TRIGGER trg_mitglied_notify AFTER INSERT OR UPDATE OR DELETE ON mitglied
+    FOR EACH ROW EXECUTE FUNCTION notify_change('mitglied_id');
+
+DROP TRIGGER IF EXISTS trg_termin_notify ON termin;
+CREATE TRIGGER trg_termin_notify AFTER INSERT OR UPDATE OR DELETE ON termin
+    FOR EACH ROW EXECUTE FUNCTION notify_change('termin_id');
+
+DROP TRIGGER IF EXISTS trg_formular_notify ON formular;
+CREATE TRIGGER trg_formular_notify AFTER INSERT OR UPDATE OR DELETE ON formular
+    FOR EACH ROW EXECUTE FUNCTION notify_change('formular_id');
+
+DROP TRIGGER IF EXISTS trg_teilnahme_notify ON teilnahme;
+CREATE TRIGGER trg_teilnahme_notify AFTER INSERT OR UPDATE OR DELETE ON teilnahme
+    FOR EACH ROW EXECUTE FUNCTION notify_change('teilnahme_id');
@@ -0,0 +1,11 @@
+-- ============================================
+-- 006_termin_page_order_index.sql
+-- Index für die Seitenreihenfolge der Termine
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- TerminRepository.findPage ohne "nur kommende": neueste Tage zuerst,
+-- innerhalb eines Tages nach Uhrzeit aufsteigend. Gemischte Richtungen kann
+-- idx_termin_datum_uhrzeit_id (001) nicht in einem Durchgang liefern.
+CREATE INDEX IF NOT EXISTS idx_termin_datum_desc_uhrzeit_id
+    ON termin (datum DESC, uhrzeit, termin_id);
@@ -0,0 +1,33 @@
+-- ============================================
+-- 007_formular_status_normalisieren.sql
+-- Formular-Status auf die Enum-Namen der Anwendung vereinheitlichen
+-- PostgreSQL, idempotent
+-- ============================================
+
+-- FormularRepository.findByStatus filtert mit status = ANY(...) exakt auf die
+-- Enum-Namen (AUSSTEHEND, EINGEREICHT, GEPRUEFT), damit der Index
+-- idx_formular_status_ausgabe greift. Das Grundschema und ältere Importe
+-- speichern teils Kleinschreibung; diese Zeilen fand der Filter nicht,
+-- obwohl die Tabelle sie als "Ausstehend" usw. anzeigte.
+UPDATE formular
+   SET status = upper(btrim(status))
+ WHERE status <> upper(btrim(status))
+   AND upper(btrim(status)) IN ('AUSSTEHEND', 'EINGEREICHT', 'GEPRUEFT');
+
+-- Fehlende oder unbekannte Werte zeigt die Anwendung als AUSSTEHEND an;
+-- gespeichert wird jetzt dasselbe, damit Filter und Anzeige übereinstimmen
+UPDATE formular
+   SET status = 'AUSSTEHEND'
+ WHERE status IS NULL
+    OR status NOT IN ('AUSSTEHEND', 'EINGEREICHT', 'GEPRUEFT');
+
+-- Neue Abweichungen verhindern
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'formular_status_enum') THEN
+        ALTER TABLE formular
+            ADD CONSTRAINT formular_status_enum
+            CHECK (status IN ('AUSSTEHEND', 'EINGEREICHT', 'GEPRUEFT'));
+    END IF;
+END
+$$;